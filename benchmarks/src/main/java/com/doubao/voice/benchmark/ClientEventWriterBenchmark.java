@@ -0,0 +1,92 @@
+package com.doubao.voice.benchmark;
+
+import com.doubao.voice.api.websocket.ClientEventWriter;
+import com.doubao.voice.session.VoiceSessionEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 下行JSON事件序列化基准测试
+ *
+ * 对比预编排的ClientEventWriter与原先HashMap + writeValueAsString + UTF-8编码的写法，
+ * 事件为最频繁的ASR中间结果和CHAT_RESPONSE
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClientEventWriterBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ClientEventWriter writer;
+    private VoiceSessionEvent asrResult;
+    private VoiceSessionEvent chatResponse;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        objectMapper = new ObjectMapper();
+        writer = new ClientEventWriter(objectMapper);
+        asrResult = VoiceSessionEvent.builder()
+                .type(VoiceSessionEvent.EventType.ASR_RESULT)
+                .sessionId(Fixtures.SESSION_ID)
+                .text("今天天气怎么样")
+                .isInterim(true)
+                .build();
+        chatResponse = VoiceSessionEvent.builder()
+                .type(VoiceSessionEvent.EventType.CHAT_RESPONSE)
+                .sessionId(Fixtures.SESSION_ID)
+                .text("晴")
+                .questionId("8a1f2c3d-4e5f-4a6b-9c7d-0e1f2a3b4c5d")
+                .replyId("1b2c3d4e-5f6a-4b7c-8d9e-0f1a2b3c4d5e")
+                .build();
+    }
+
+    @Benchmark
+    public byte[] asrResult() throws IOException {
+        return writer.write(asrResult);
+    }
+
+    @Benchmark
+    public byte[] asrResultHashMap() throws IOException {
+        Map<String, Object> message = new HashMap<>();
+        message.put("type", "asr");
+        message.put("event", "result");
+        message.put("text", asrResult.getText());
+        message.put("isInterim", asrResult.getIsInterim());
+        return objectMapper.writeValueAsString(message).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] chatResponse() throws IOException {
+        return writer.write(chatResponse);
+    }
+
+    @Benchmark
+    public byte[] chatResponseHashMap() throws IOException {
+        Map<String, Object> message = new HashMap<>();
+        message.put("type", "chat");
+        message.put("event", "response");
+        message.put("text", chatResponse.getText());
+        message.put("questionId", chatResponse.getQuestionId());
+        message.put("replyId", chatResponse.getReplyId());
+        return objectMapper.writeValueAsString(message).getBytes(StandardCharsets.UTF_8);
+    }
+}
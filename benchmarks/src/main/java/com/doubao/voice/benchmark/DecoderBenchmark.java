@@ -0,0 +1,134 @@
+package com.doubao.voice.benchmark;
+
+import com.doubao.voice.protocol.codec.DoubaoProtocolDecoder;
+import com.doubao.voice.protocol.message.AudioFrameView;
+import com.doubao.voice.protocol.message.DoubaoMessage;
+import com.doubao.voice.protocol.message.EventPayloads;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DoubaoProtocolDecoder基准测试
+ *
+ * - 音频：decode（通用路径）与decodeAudio（客户端实际使用的快速路径）
+ * - ASR/CHAT：decode只保留原始负载，*AndRead 额外包含类型化读取，反映事件处理的完整开销
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DecoderBenchmark {
+
+    /**
+     * 解码器（每线程一个，与每个连接一个解码器的用法一致）
+     */
+    @State(Scope.Thread)
+    public static class Decoder {
+
+        DoubaoProtocolDecoder decoder;
+        AudioFrameView audioFrame;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            decoder = new DoubaoProtocolDecoder();
+            audioFrame = new AudioFrameView();
+        }
+    }
+
+    /**
+     * SERVER_ACK音频帧
+     */
+    @State(Scope.Thread)
+    public static class AudioFrame {
+
+        /**
+         * 音频字节数：Float32 24kHz下分别约为20ms、100ms、400ms
+         */
+        @Param({"1920", "9600", "38400"})
+        public int audioBytes;
+
+        ByteBuffer frame;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            // 与OkHttp ByteString.asByteBuffer()一致的只读视图
+            frame = ByteBuffer.wrap(Fixtures.serverAudioFrame(audioBytes)).asReadOnlyBuffer();
+        }
+    }
+
+    /**
+     * JSON事件帧
+     */
+    @State(Scope.Thread)
+    public static class JsonFrames {
+
+        @Param({"false", "true"})
+        public boolean gzip;
+
+        ByteBuffer asrResponse;
+        ByteBuffer chatResponse;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            asrResponse = ByteBuffer.wrap(Fixtures.asrResponseFrame(gzip)).asReadOnlyBuffer();
+            chatResponse = ByteBuffer.wrap(Fixtures.chatResponseFrame(gzip)).asReadOnlyBuffer();
+        }
+    }
+
+    @Benchmark
+    public DoubaoMessage decodeAudio(Decoder decoder, AudioFrame audio) throws IOException {
+        return decoder.decoder.decode(audio.frame);
+    }
+
+    @Benchmark
+    public void decodeAudioFastPath(Decoder decoder, AudioFrame audio, Blackhole blackhole) throws IOException {
+        // decodeAudio会移动position/limit，每次使用新的视图
+        ByteBuffer frame = audio.frame.duplicate();
+        blackhole.consume(decoder.decoder.decodeAudio(frame, decoder.audioFrame));
+        blackhole.consume(decoder.audioFrame.getPayload());
+    }
+
+    @Benchmark
+    public DoubaoMessage decodeAsrResponse(Decoder decoder, JsonFrames frames) throws IOException {
+        return decoder.decoder.decode(frames.asrResponse);
+    }
+
+    @Benchmark
+    public EventPayloads.AsrResponse decodeAsrResponseAndRead(Decoder decoder, JsonFrames frames) throws IOException {
+        DoubaoMessage message = decoder.decoder.decode(frames.asrResponse);
+        return decoder.decoder.getPayloadReader().readAsrResponse(message);
+    }
+
+    @Benchmark
+    public DoubaoMessage decodeChatResponse(Decoder decoder, JsonFrames frames) throws IOException {
+        return decoder.decoder.decode(frames.chatResponse);
+    }
+
+    @Benchmark
+    public EventPayloads.ChatResponse decodeChatResponseAndRead(Decoder decoder, JsonFrames frames) throws IOException {
+        DoubaoMessage message = decoder.decoder.decode(frames.chatResponse);
+        return decoder.decoder.getPayloadReader().readChatResponse(message);
+    }
+
+    @Benchmark
+    public Object decodeChatResponseAsMap(Decoder decoder, JsonFrames frames) throws IOException {
+        // 旧的Map解析方式，用于对比
+        return decoder.decoder.decode(frames.chatResponse).getPayload();
+    }
+}
@@ -0,0 +1,125 @@
+package com.doubao.voice.benchmark;
+
+import com.doubao.voice.protocol.codec.CompressionPolicy;
+import com.doubao.voice.protocol.codec.DoubaoProtocolEncoder;
+import com.doubao.voice.protocol.codec.GzipUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DoubaoProtocolEncoder基准测试
+ *
+ * - encodeAudio*：上行音频帧，按20ms/40ms/100ms的PCM16分片
+ * - encodeStartSession：带长系统提示词的START_SESSION，分别使用原有策略（始终Gzip）和自适应策略
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EncoderBenchmark {
+
+    /**
+     * 编码器（与应用中的两种配置一致）
+     */
+    @State(Scope.Benchmark)
+    public static class Encoders {
+
+        DoubaoProtocolEncoder legacy;
+        DoubaoProtocolEncoder adaptive;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            ObjectMapper objectMapper = new ObjectMapper();
+            legacy = new DoubaoProtocolEncoder(objectMapper);
+            adaptive = new DoubaoProtocolEncoder(objectMapper,
+                    new CompressionPolicy(true, 256, List.of(100), List.of(1, 2, 102), GzipUtils.codec()));
+        }
+    }
+
+    /**
+     * 上行音频分片
+     */
+    @State(Scope.Thread)
+    public static class Audio {
+
+        /**
+         * 分片时长（毫秒）
+         */
+        @Param({"20", "40", "100"})
+        public int audioMillis;
+
+        byte[] data;
+        ByteBuffer target;
+
+        @Setup(Level.Trial)
+        public void setup(Encoders encoders) {
+            data = Fixtures.uplinkPcm(audioMillis);
+            target = ByteBuffer.allocate(encoders.legacy.audioFrameSize(Fixtures.SESSION_ID, data.length));
+        }
+    }
+
+    /**
+     * START_SESSION会话配置
+     */
+    @State(Scope.Thread)
+    public static class StartSession {
+
+        /**
+         * 系统提示词字符数
+         */
+        @Param({"500", "2000"})
+        public int promptChars;
+
+        Map<String, Object> config;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            config = Fixtures.startSessionConfig(promptChars);
+        }
+    }
+
+    @Benchmark
+    public byte[] encodeAudio(Encoders encoders, Audio audio) throws IOException {
+        return encoders.legacy.encodeAudio(Fixtures.SESSION_ID, audio.data);
+    }
+
+    @Benchmark
+    public int encodeAudioToBuffer(Encoders encoders, Audio audio) throws IOException {
+        audio.target.clear();
+        return encoders.legacy.encodeAudio(Fixtures.SESSION_ID, audio.data, 0, audio.data.length, audio.target);
+    }
+
+    @Benchmark
+    public byte[] encodeStartSessionLegacy(Encoders encoders, StartSession session) throws IOException {
+        return encoders.legacy.encodeStartSession(Fixtures.SESSION_ID, session.config);
+    }
+
+    @Benchmark
+    public byte[] encodeStartSessionAdaptive(Encoders encoders, StartSession session) throws IOException {
+        return encoders.adaptive.encodeStartSession(Fixtures.SESSION_ID, session.config);
+    }
+
+    @Benchmark
+    public byte[] encodeTextQuery(Encoders encoders) throws IOException {
+        return encoders.adaptive.encodeTextQuery(Fixtures.SESSION_ID, "今天北京的天气怎么样，适合出去玩吗？",
+                "a4f8c2d1-3b7e-4f0a-8c5d-6e9b1f2a3c4d");
+    }
+}
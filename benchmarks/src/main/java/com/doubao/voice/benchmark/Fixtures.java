@@ -0,0 +1,196 @@
+package com.doubao.voice.benchmark;
+
+import com.doubao.voice.protocol.codec.GzipUtils;
+import com.doubao.voice.protocol.constants.EventType;
+import com.doubao.voice.protocol.constants.MessageType;
+import com.doubao.voice.protocol.constants.SerializationType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 基准测试夹具
+ *
+ * 帧结构与线上抓包一致：服务端帧为 [Header][Event ID][Session ID长度][Session ID][Payload长度][Payload]，
+ * Session ID为36字符UUID，JSON字段与豆包实际下发的字段相同。
+ * 所有随机数据使用固定种子，保证多次运行结果可比较
+ */
+public final class Fixtures {
+
+    /**
+     * 线上会话ID形态（UUID）
+     */
+    public static final String SESSION_ID = "3f2c9a1e-7b4d-4e8a-9c61-2d5f0b8e1a47";
+
+    private static final long SEED = 20240601L;
+
+    private Fixtures() {
+    }
+
+    // ==================== 上行 ====================
+
+    /**
+     * 上行PCM16音频（16kHz单声道），毫秒数对应的字节数为 ms * 32
+     *
+     * @param millis 音频时长（毫秒）
+     */
+    public static byte[] uplinkPcm(int millis) {
+        return randomBytes(millis * 32);
+    }
+
+    /**
+     * START_SESSION会话配置，与VoiceSession构建的结构一致，附带长系统提示词
+     *
+     * @param promptChars 系统提示词字符数
+     */
+    public static Map<String, Object> startSessionConfig(int promptChars) {
+        Map<String, Object> asrExtra = new LinkedHashMap<>();
+        asrExtra.put("end_smooth_window_ms", 1500);
+        Map<String, Object> asr = new LinkedHashMap<>();
+        asr.put("extra", asrExtra);
+
+        Map<String, Object> audioConfig = new LinkedHashMap<>();
+        audioConfig.put("channel", 1);
+        audioConfig.put("format", "pcm");
+        audioConfig.put("sample_rate", 24000);
+        Map<String, Object> tts = new LinkedHashMap<>();
+        tts.put("speaker", "zh_female_vv_jupiter_bigtts");
+        tts.put("audio_config", audioConfig);
+
+        Map<String, Object> dialogExtra = new LinkedHashMap<>();
+        dialogExtra.put("strict_audit", false);
+        dialogExtra.put("recv_timeout", 10);
+        dialogExtra.put("input_mod", "audio");
+        dialogExtra.put("model", "O");
+        Map<String, Object> dialog = new LinkedHashMap<>();
+        dialog.put("bot_name", "豆包");
+        dialog.put("system_role", longPrompt(promptChars));
+        dialog.put("speaking_style", "语速适中，语气亲切自然，回答简洁。");
+        dialog.put("extra", dialogExtra);
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("asr", asr);
+        config.put("tts", tts);
+        config.put("dialog", dialog);
+        return config;
+    }
+
+    /**
+     * 中文系统提示词，由典型的人设描述句子重复拼接而成
+     *
+     * @param chars 字符数
+     */
+    public static String longPrompt(int chars) {
+        String[] sentences = {
+                "你是一个友好、耐心的智能语音助手，名字叫豆包。",
+                "回答问题时先给出结论，再用一两句话解释原因。",
+                "如果用户的问题不清楚，请礼貌地追问具体细节。",
+                "不要编造事实，不确定时请直接说明不知道。",
+                "涉及医疗、法律、金融的问题，请提醒用户咨询专业人士。",
+                "使用口语化的表达，避免使用列表、表格和代码块。"
+        };
+        StringBuilder sb = new StringBuilder(chars + 32);
+        for (int i = 0; sb.length() < chars; i++) {
+            sb.append(sentences[i % sentences.length]);
+        }
+        sb.setLength(chars);
+        return sb.toString();
+    }
+
+    // ==================== 下行 ====================
+
+    /**
+     * SERVER_ACK音频帧（TTS_RESPONSE，Float32 PCM 24kHz单声道，未压缩）
+     *
+     * @param audioBytes 音频字节数
+     */
+    public static byte[] serverAudioFrame(int audioBytes) {
+        return serverFrame(MessageType.SERVER_ACK, EventType.TTS_RESPONSE,
+                SerializationType.RAW, SerializationType.COMPRESSION_NONE, randomBytes(audioBytes));
+    }
+
+    /**
+     * ASR_RESPONSE帧（临时识别结果）
+     *
+     * @param gzip 负载是否Gzip压缩
+     */
+    public static byte[] asrResponseFrame(boolean gzip) {
+        String json = "{\"results\":[{\"text\":\"今天北京的天气怎么样，适合出去\","
+                + "\"is_interim\":true,\"start_time\":1.52,\"end_time\":3.84,\"index\":0,"
+                + "\"alternatives\":[{\"text\":\"今天北京的天气怎么样，适合出去\",\"start_time\":1.52,\"end_time\":3.84}]}],"
+                + "\"extra\":{\"origin_text\":\"今天北京的天气怎么样适合出去\",\"req_payload\":{},\"source\":\"asr\"}}";
+        return jsonFrame(EventType.ASR_RESPONSE, json, gzip);
+    }
+
+    /**
+     * CHAT_RESPONSE帧（流式文本片段）
+     *
+     * @param gzip 负载是否Gzip压缩
+     */
+    public static byte[] chatResponseFrame(boolean gzip) {
+        String json = "{\"content\":\"今天北京晴转多云，气温十五到二十四度，\","
+                + "\"question_id\":\"a4f8c2d1-3b7e-4f0a-8c5d-6e9b1f2a3c4d\","
+                + "\"reply_id\":\"b7e1d3c5-9a2f-4e6b-8d0c-1f3a5b7c9e2d\"}";
+        return jsonFrame(EventType.CHAT_RESPONSE, json, gzip);
+    }
+
+    /**
+     * 典型JSON负载（用于压缩测试），通过重复ASR/CHAT字段达到指定长度
+     *
+     * @param size 字节数（近似，不小于该值）
+     */
+    public static byte[] jsonPayload(int size) {
+        StringBuilder sb = new StringBuilder(size + 256);
+        sb.append("{\"results\":[");
+        for (int i = 0; sb.length() < size; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"text\":\"今天北京的天气怎么样，适合出去\",\"is_interim\":false,\"start_time\":")
+                    .append(i * 0.37).append(",\"end_time\":").append(i * 0.37 + 2.1)
+                    .append(",\"index\":").append(i).append('}');
+        }
+        sb.append("]}");
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] jsonFrame(int eventId, String json, boolean gzip) {
+        byte[] payload = json.getBytes(StandardCharsets.UTF_8);
+        if (gzip) {
+            try {
+                payload = GzipUtils.compress(payload);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return serverFrame(MessageType.SERVER_FULL_RESPONSE, eventId, SerializationType.JSON,
+                gzip ? SerializationType.COMPRESSION_GZIP : SerializationType.COMPRESSION_NONE, payload);
+    }
+
+    private static byte[] serverFrame(int messageType, int eventId, int serialization, int compression,
+                                      byte[] payload) {
+        byte[] sessionId = SESSION_ID.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(4 + 4 + 4 + sessionId.length + 4 + payload.length);
+        buffer.put((byte) ((SerializationType.PROTOCOL_VERSION << 4) | SerializationType.DEFAULT_HEADER_SIZE));
+        buffer.put((byte) ((messageType << 4) | MessageType.FLAG_MSG_WITH_EVENT));
+        buffer.put((byte) ((serialization << 4) | compression));
+        buffer.put((byte) 0x00);
+        buffer.putInt(eventId);
+        buffer.putInt(sessionId.length);
+        buffer.put(sessionId);
+        buffer.putInt(payload.length);
+        buffer.put(payload);
+        return buffer.array();
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(SEED).nextBytes(bytes);
+        return bytes;
+    }
+}
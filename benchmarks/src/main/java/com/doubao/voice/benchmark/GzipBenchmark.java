@@ -0,0 +1,77 @@
+package com.doubao.voice.benchmark;
+
+import com.doubao.voice.protocol.codec.GzipUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * GzipUtils基准测试
+ *
+ * 覆盖从短事件到长START_SESSION的负载长度，并以JDK流实现作为对照
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GzipBenchmark {
+
+    /**
+     * JSON负载字节数
+     */
+    @Param({"128", "512", "2048", "8192", "32768"})
+    public int size;
+
+    private byte[] json;
+    private byte[] compressed;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        json = Fixtures.jsonPayload(size);
+        compressed = GzipUtils.compress(json);
+    }
+
+    @Benchmark
+    public byte[] compress() throws IOException {
+        return GzipUtils.compress(json);
+    }
+
+    @Benchmark
+    public byte[] decompress() throws IOException {
+        return GzipUtils.decompress(compressed);
+    }
+
+    @Benchmark
+    public byte[] compressJdkStream() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(baos)) {
+            gzipOut.write(json);
+        }
+        return baos.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] decompressJdkStream() throws IOException {
+        try (GZIPInputStream gzipIn = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return gzipIn.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.doubao.voice.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 延迟直方图（毫秒）
+ *
+ * 1ms精度的线性桶，超过上限的样本计入最后一个桶；线程安全，记录时不加锁不分配
+ */
+public class LatencyHistogram {
+
+    private final AtomicLongArray buckets;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final LongAccumulator max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+    /**
+     * @param maxMillis 精确记录的最大延迟（毫秒）
+     */
+    public LatencyHistogram(int maxMillis) {
+        this.buckets = new AtomicLongArray(maxMillis + 1);
+    }
+
+    /**
+     * 记录一个样本
+     */
+    public void record(long millis) {
+        long value = Math.max(0, millis);
+        buckets.incrementAndGet((int) Math.min(value, buckets.length() - 1));
+        count.increment();
+        sum.add(value);
+        min.accumulate(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * 分位数（毫秒）
+     *
+     * @param quantile 0~1
+     * @return 分位数，无样本时返回0
+     */
+    public long percentile(double quantile) {
+        long total = count.sum();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return i;
+            }
+        }
+        return buckets.length() - 1;
+    }
+
+    /**
+     * 汇总为报告中的结构
+     */
+    public Summary summary() {
+        long total = count.sum();
+        if (total == 0) {
+            return new Summary(0, 0, 0, 0, 0, 0, 0, 0, 0, Map.of());
+        }
+        return new Summary(total, min.get(), max.get(), (double) sum.sum() / total,
+                percentile(0.5), percentile(0.9), percentile(0.95), percentile(0.99), percentile(0.999),
+                distribution());
+    }
+
+    /**
+     * 按2的幂分组的样本分布：上界（毫秒） -> 样本数
+     */
+    private Map<String, Long> distribution() {
+        Map<String, Long> distribution = new LinkedHashMap<>();
+        long bucketCount = 0;
+        int upper = 1;
+        for (int i = 0; i < buckets.length(); i++) {
+            if (i >= upper) {
+                if (bucketCount > 0) {
+                    distribution.put("<" + upper, bucketCount);
+                }
+                bucketCount = 0;
+                upper <<= 1;
+            }
+            bucketCount += buckets.get(i);
+        }
+        if (bucketCount > 0) {
+            distribution.put(">=" + (upper >> 1), bucketCount);
+        }
+        return distribution;
+    }
+
+    /**
+     * 直方图汇总
+     *
+     * @param count        样本数
+     * @param min          最小值（毫秒）
+     * @param max          最大值（毫秒）
+     * @param mean         平均值（毫秒）
+     * @param p50          中位数（毫秒）
+     * @param p90          p90（毫秒）
+     * @param p95          p95（毫秒）
+     * @param p99          p99（毫秒）
+     * @param p999         p99.9（毫秒）
+     * @param distribution 按2的幂分组的样本分布
+     */
+    public record Summary(long count, long min, long max, double mean,
+                          long p50, long p90, long p95, long p99, long p999,
+                          Map<String, Long> distribution) {
+    }
+}
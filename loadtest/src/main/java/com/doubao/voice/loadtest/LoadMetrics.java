@@ -0,0 +1,44 @@
+package com.doubao.voice.loadtest;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 所有模拟客户端共享的计数器和延迟直方图
+ */
+public class LoadMetrics {
+
+    /**
+     * 直方图精确记录的最大延迟（毫秒）
+     */
+    private static final int MAX_LATENCY_MS = 60_000;
+
+    /**
+     * 建立WebSocket到收到session_started的耗时
+     */
+    final LatencyHistogram sessionSetup = new LatencyHistogram(MAX_LATENCY_MS);
+
+    /**
+     * 最后一帧语音发出到收到首帧TTS音频的耗时
+     */
+    final LatencyHistogram firstAudio = new LatencyHistogram(MAX_LATENCY_MS);
+
+    final AtomicInteger activeClients = new AtomicInteger();
+    final LongAdder connected = new LongAdder();
+    final LongAdder connectFailures = new LongAdder();
+    final LongAdder sessionFailures = new LongAdder();
+    final LongAdder disconnects = new LongAdder();
+    final LongAdder reconnects = new LongAdder();
+
+    final LongAdder turnsStarted = new LongAdder();
+    final LongAdder turnsCompleted = new LongAdder();
+    final LongAdder turnTimeouts = new LongAdder();
+    final LongAdder turnErrors = new LongAdder();
+
+    final LongAdder uplinkFramesSent = new LongAdder();
+    final LongAdder uplinkFramesDropped = new LongAdder();
+    final LongAdder uplinkFramesLate = new LongAdder();
+    final LongAdder downlinkAudioFrames = new LongAdder();
+    final LongAdder downlinkAudioBytes = new LongAdder();
+    final LongAdder downlinkEvents = new LongAdder();
+}
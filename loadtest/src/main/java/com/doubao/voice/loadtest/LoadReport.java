@@ -0,0 +1,84 @@
+package com.doubao.voice.loadtest;
+
+import com.doubao.voice.mock.MockDoubaoServer;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 压测报告（序列化为JSON）
+ *
+ * @param scenario         场景参数（含命令行覆盖的参数）
+ * @param seed             随机种子
+ * @param startedAt        开始时间（ISO-8601）
+ * @param elapsedMs        实际运行时长（毫秒）
+ * @param target           网关地址
+ * @param gatewayInProcess 网关是否与压测客户端在同一进程内运行（此时不采样资源）
+ * @param clients          客户端统计
+ * @param sessionSetupMs   建立连接到session_started的耗时分布
+ * @param firstAudioMs     说话结束到首帧TTS音频的耗时分布
+ * @param turns            对话轮次统计
+ * @param frames           音频帧统计
+ * @param resources        网关资源随时间的采样，仅压测外部网关时记录，网关在进程内运行时为null
+ * @param upstream         模拟上游统计，使用外部上游时为null
+ */
+public record LoadReport(Map<String, String> scenario, long seed, String startedAt, long elapsedMs, String target,
+                         boolean gatewayInProcess,
+                         Clients clients,
+                         LatencyHistogram.Summary sessionSetupMs,
+                         LatencyHistogram.Summary firstAudioMs,
+                         Turns turns,
+                         Frames frames,
+                         List<ResourceSampler.Sample> resources,
+                         MockDoubaoServer.Stats upstream) {
+
+    /**
+     * @param requested       计划启动的客户端数
+     * @param connected       成功启动会话的客户端数
+     * @param connectFailures 连接失败数
+     * @param sessionFailures 会话启动失败数
+     * @param disconnects     对话过程中被断开的连接数
+     * @param reconnects      网关报告的上游重连成功次数
+     */
+    public record Clients(int requested, long connected, long connectFailures, long sessionFailures,
+                          long disconnects, long reconnects) {
+    }
+
+    /**
+     * @param started   开始说话的轮次
+     * @param completed 收到tts:ended的轮次
+     * @param timeouts  等待回复超时的轮次
+     * @param errors    收到错误或没有音频的轮次
+     */
+    public record Turns(long started, long completed, long timeouts, long errors) {
+    }
+
+    /**
+     * @param uplinkSent          发送的上行音频帧
+     * @param uplinkDropped       发送队列拒绝的上行音频帧
+     * @param uplinkLate          未能按实时节奏发送的上行音频帧（压测机过载）
+     * @param downlinkAudioFrames 收到的TTS音频帧
+     * @param downlinkAudioBytes  收到的TTS音频字节数
+     * @param downlinkEvents      收到的文本事件数
+     */
+    public record Frames(long uplinkSent, long uplinkDropped, long uplinkLate,
+                         long downlinkAudioFrames, long downlinkAudioBytes, long downlinkEvents) {
+    }
+
+    static LoadReport of(LoadScenario scenario, String startedAt, long elapsedMs, String target,
+                         boolean gatewayInProcess, LoadMetrics metrics, List<ResourceSampler.Sample> resources,
+                         MockDoubaoServer.Stats upstream) {
+        return new LoadReport(scenario.getProperties(), scenario.getSeed(), startedAt, elapsedMs, target,
+                gatewayInProcess,
+                new Clients(scenario.getClients(), metrics.connected.sum(), metrics.connectFailures.sum(),
+                        metrics.sessionFailures.sum(), metrics.disconnects.sum(), metrics.reconnects.sum()),
+                metrics.sessionSetup.summary(),
+                metrics.firstAudio.summary(),
+                new Turns(metrics.turnsStarted.sum(), metrics.turnsCompleted.sum(),
+                        metrics.turnTimeouts.sum(), metrics.turnErrors.sum()),
+                new Frames(metrics.uplinkFramesSent.sum(), metrics.uplinkFramesDropped.sum(),
+                        metrics.uplinkFramesLate.sum(), metrics.downlinkAudioFrames.sum(),
+                        metrics.downlinkAudioBytes.sum(), metrics.downlinkEvents.sum()),
+                resources, upstream);
+    }
+}
@@ -0,0 +1,160 @@
+package com.doubao.voice.loadtest;
+
+import com.doubao.voice.mock.MockScenario;
+import lombok.Data;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * 压测场景
+ *
+ * 从properties文件加载，{@code mock.} 前缀的参数传给模拟上游（见 {@link MockScenario#set(String, String)}），
+ * 其余参数描述客户端行为。相同的场景文件和种子产生相同的客户端行为序列（说话时长、停顿、启动时刻），
+ * 进程内的模拟上游也使用同一种子采样延迟和注入错误
+ */
+@Data
+public class LoadScenario {
+
+    private static final String MOCK_PREFIX = "mock.";
+
+    /**
+     * 随机种子，未单独指定mock.seed时同时作为模拟上游的种子
+     */
+    private long seed = 1;
+
+    /**
+     * 并发客户端数
+     */
+    private int clients = 100;
+
+    /**
+     * 客户端在该时长内均匀启动（秒）
+     */
+    private int rampUpSeconds = 10;
+
+    /**
+     * 压测总时长（秒，从第一个客户端启动开始计算）
+     */
+    private int durationSeconds = 60;
+
+    /**
+     * 上行音频帧时长（毫秒），index.html每次发送48kHz下4096个采样（约85ms）
+     */
+    private int frameMs = 85;
+
+    /**
+     * 每轮说话时长范围（毫秒）
+     */
+    private int speechMinMs = 1000;
+    private int speechMaxMs = 3000;
+
+    /**
+     * TTS播放结束到下一轮说话的停顿范围（毫秒）
+     */
+    private int thinkMinMs = 500;
+    private int thinkMaxMs = 2000;
+
+    /**
+     * 说话结束后等待首帧TTS音频的超时（毫秒），超时记为失败的一轮
+     */
+    private int replyTimeoutMs = 15000;
+
+    /**
+     * 上行音频发送方式：json（base64 JSON）、binary（JSON协议下的原始PCM二进制消息）
+     * 或v1（二进制客户端协议，上下行均为带类型的二进制帧）
+     */
+    private String audioEncoding = "json";
+
+    /**
+     * 资源采样间隔（毫秒）
+     */
+    private int sampleIntervalMs = 1000;
+
+    /**
+     * 网关地址（如 ws://host:8888/ws/voice），为空时在进程内启动网关
+     */
+    private String target;
+
+    /**
+     * 上游地址，为空时在进程内启动模拟上游；仅在进程内启动网关时生效
+     */
+    private String upstream;
+
+    /**
+     * 模拟上游参数
+     */
+    private MockScenario mock = new MockScenario();
+
+    /**
+     * 原始参数（写入报告，便于复现）
+     */
+    private Map<String, String> properties = new LinkedHashMap<>();
+
+    /**
+     * 从场景文件加载
+     *
+     * @param file 场景文件，为null时使用默认值
+     * @throws IOException 读取失败
+     */
+    public static LoadScenario load(Path file) throws IOException {
+        Properties properties = new Properties();
+        if (file != null) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+        }
+        LoadScenario scenario = new LoadScenario();
+        properties.stringPropertyNames().stream().sorted()
+                .forEach(key -> scenario.set(key, properties.getProperty(key).trim()));
+        return scenario;
+    }
+
+    /**
+     * 按名称设置参数（场景文件和命令行使用）
+     *
+     * @throws IllegalArgumentException 未知参数
+     */
+    public void set(String key, String value) {
+        properties.put(key, value);
+        if (key.startsWith(MOCK_PREFIX)) {
+            mock.set(key.substring(MOCK_PREFIX.length()), value);
+            return;
+        }
+        switch (key) {
+            case "seed" -> {
+                seed = Long.parseLong(value);
+                if (!properties.containsKey(MOCK_PREFIX + "seed")) {
+                    mock.setSeed(seed);
+                }
+            }
+            case "clients" -> clients = Integer.parseInt(value);
+            case "ramp-up-seconds" -> rampUpSeconds = Integer.parseInt(value);
+            case "duration-seconds" -> durationSeconds = Integer.parseInt(value);
+            case "frame-ms" -> frameMs = Integer.parseInt(value);
+            case "speech-min-ms" -> speechMinMs = Integer.parseInt(value);
+            case "speech-max-ms" -> speechMaxMs = Integer.parseInt(value);
+            case "think-min-ms" -> thinkMinMs = Integer.parseInt(value);
+            case "think-max-ms" -> thinkMaxMs = Integer.parseInt(value);
+            case "reply-timeout-ms" -> replyTimeoutMs = Integer.parseInt(value);
+            case "audio-encoding" -> audioEncoding = value;
+            case "sample-interval-ms" -> sampleIntervalMs = Integer.parseInt(value);
+            case "target" -> target = value.isEmpty() ? null : value;
+            case "upstream" -> upstream = value.isEmpty() ? null : value;
+            default -> throw new IllegalArgumentException("未知参数: " + key);
+        }
+    }
+
+    /**
+     * 是否使用二进制客户端协议
+     */
+    public boolean isFramedProtocol() {
+        return "v1".equals(audioEncoding);
+    }
+}
@@ -0,0 +1,187 @@
+package com.doubao.voice.loadtest;
+
+import com.doubao.voice.DoubaoVoiceApplication;
+import com.doubao.voice.mock.MockDoubaoServer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * /ws/voice闭环压测
+ *
+ * 按场景文件启动一批 {@link SimulatedClient}，每个客户端以实时节奏上送16kHz PCM并消费TTS音频，
+ * 统计会话建立耗时、说话结束到首帧音频的延迟分布、丢帧数，并按间隔采样网关的CPU和堆内存，
+ * 结束后输出JSON报告。
+ *
+ * 未指定target时在本进程内启动网关，未指定upstream时在本进程内启动 {@link MockDoubaoServer} 作为上游。
+ * 进程内网关与压测客户端、模拟上游共用一个JVM，进程级的CPU、堆内存和线程数无法归到网关，
+ * 因此只在压测外部网关时采样资源，报告中以gatewayInProcess标明。
+ *
+ * <pre>
+ * java -jar target/loadtest.jar [场景文件] [--out=report.json] [--参数=值 ...]
+ * </pre>
+ * 命令行参数覆盖场景文件中的同名参数，参数名见 {@link LoadScenario#set(String, String)}
+ */
+@Slf4j
+public class LoadTest {
+
+    private static final String METRICS_PATH = "/api/v1/voice/metrics";
+
+    public static void main(String[] args) throws Exception {
+        Path scenarioFile = null;
+        Path out = Path.of("loadtest-report.json");
+        Map<String, String> overrides = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                scenarioFile = Path.of(arg);
+                continue;
+            }
+            String[] pair = arg.substring(2).split("=", 2);
+            String value = pair.length > 1 ? pair[1] : "true";
+            if ("out".equals(pair[0])) {
+                out = Path.of(value);
+            } else {
+                overrides.put(pair[0], value);
+            }
+        }
+
+        LoadScenario scenario = LoadScenario.load(scenarioFile);
+        overrides.forEach(scenario::set);
+
+        LoadReport report = new LoadTest().run(scenario);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(out.toFile(), report);
+        log.info("压测完成: 客户端{}/{}，会话建立p99={}ms，首帧音频p50={}ms p99={}ms，完成轮次{}，报告: {}",
+                report.clients().connected(), report.clients().requested(),
+                report.sessionSetupMs().p99(), report.firstAudioMs().p50(), report.firstAudioMs().p99(),
+                report.turns().completed(), out.toAbsolutePath());
+        System.exit(0);
+    }
+
+    /**
+     * 执行一次压测
+     */
+    public LoadReport run(LoadScenario scenario) throws Exception {
+        MockDoubaoServer upstream = null;
+        ConfigurableApplicationContext gateway = null;
+        String target = scenario.getTarget();
+        if (target == null) {
+            String upstreamUrl = scenario.getUpstream();
+            if (upstreamUrl == null) {
+                upstream = new MockDoubaoServer(scenario.getMock(), 0).start();
+                upstreamUrl = upstream.getUrl();
+            }
+            gateway = startGateway(scenario, upstreamUrl);
+            target = "ws://127.0.0.1:" + gateway.getEnvironment().getProperty("local.server.port") + "/ws/voice";
+        }
+        log.info("开始压测: target={}, clients={}, duration={}s, seed={}",
+                target, scenario.getClients(), scenario.getDurationSeconds(), scenario.getSeed());
+
+        // 与网关的上游传输层相同：每个WebSocket占用一个调度线程，需按客户端数放开Dispatcher上限
+        ExecutorService dispatcherExecutor = Executors.newCachedThreadPool(daemonThreads("loadtest-ws"));
+        Dispatcher dispatcher = new Dispatcher(dispatcherExecutor);
+        dispatcher.setMaxRequests(scenario.getClients() + 16);
+        dispatcher.setMaxRequestsPerHost(scenario.getClients() + 16);
+        OkHttpClient httpClient = new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .readTimeout(0, TimeUnit.MILLISECONDS)
+                .build();
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(
+                Runtime.getRuntime().availableProcessors(), daemonThreads("loadtest-audio"));
+
+        LoadMetrics metrics = new LoadMetrics();
+        long startNanos = System.nanoTime();
+        String startedAt = Instant.now().toString();
+        ResourceSampler sampler = null;
+        ScheduledExecutorService samplerScheduler = null;
+        if (gateway == null) {
+            sampler = new ResourceSampler(httpClient,
+                    target.replaceFirst("^ws", "http").replaceFirst("/ws/voice.*$", METRICS_PATH), metrics, startNanos);
+            // 采样是阻塞的HTTP请求，使用独立线程，避免拖慢音频发送
+            samplerScheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("loadtest-sampler"));
+            samplerScheduler.scheduleAtFixedRate(sampler::sample, 0, scenario.getSampleIntervalMs(),
+                    TimeUnit.MILLISECONDS);
+        } else {
+            log.info("网关在本进程内运行，资源采样会混入压测客户端和模拟上游，本次不采样");
+        }
+
+        // 客户端按序号在ramp-up时长内均匀启动，种子由场景种子和序号派生
+        SimulatedClient.Frames frames = new SimulatedClient.Frames(scenario.getFrameMs());
+        List<SimulatedClient> clients = new ArrayList<>(scenario.getClients());
+        long rampUpNanos = TimeUnit.SECONDS.toNanos(scenario.getRampUpSeconds());
+        for (int i = 0; i < scenario.getClients(); i++) {
+            SimulatedClient client = new SimulatedClient(scenario, metrics,
+                    scenario.getSeed() * 1_000_003L + i, frames, scheduler);
+            clients.add(client);
+            long delay = scenario.getClients() > 1 ? rampUpNanos * i / scenario.getClients() : 0;
+            String url = target;
+            scheduler.schedule(() -> client.start(httpClient, url), delay, TimeUnit.NANOSECONDS);
+        }
+
+        TimeUnit.SECONDS.sleep(scenario.getDurationSeconds());
+        clients.forEach(SimulatedClient::stop);
+        long elapsedMs = (System.nanoTime() - startNanos) / 1_000_000;
+        if (sampler != null) {
+            samplerScheduler.shutdownNow();
+            samplerScheduler.awaitTermination(5, TimeUnit.SECONDS);
+            sampler.sample();
+        }
+
+        scheduler.shutdownNow();
+        LoadReport report = LoadReport.of(scenario, startedAt, elapsedMs, target, gateway != null, metrics,
+                sampler != null ? sampler.getSamples() : null, upstream != null ? upstream.getStats() : null);
+
+        dispatcherExecutor.shutdownNow();
+        httpClient.connectionPool().evictAll();
+        if (gateway != null) {
+            gateway.close();
+        }
+        if (upstream != null) {
+            upstream.close();
+        }
+        return report;
+    }
+
+    /**
+     * 在本进程内启动网关，上游指向upstreamUrl
+     */
+    private static ConfigurableApplicationContext startGateway(LoadScenario scenario, String upstreamUrl) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", 0);
+        properties.put("doubao.api.url", upstreamUrl);
+        properties.put("doubao.session.max-sessions", scenario.getClients() + 16);
+        properties.put("logging.level.com.doubao.voice", "WARN");
+        properties.put("logging.level.com.doubao.voice.loadtest", "INFO");
+        // 以命令行参数传入：properties()设置的是默认属性，会被application.yml中的同名配置覆盖
+        String[] args = properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(DoubaoVoiceApplication.class)
+                .run(args);
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger index = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, prefix + "-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
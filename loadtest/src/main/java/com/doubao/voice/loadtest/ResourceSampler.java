@@ -0,0 +1,95 @@
+package com.doubao.voice.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 按固定间隔轮询网关的 /api/v1/voice/metrics，记录服务端CPU、堆内存和会话数随时间的变化
+ */
+@Slf4j
+class ResourceSampler {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final OkHttpClient httpClient;
+    private final String metricsUrl;
+    private final LoadMetrics metrics;
+    private final long startNanos;
+    private final List<Sample> samples = new ArrayList<>();
+
+    /**
+     * @param metricsUrl 网关指标地址
+     * @param startNanos 压测开始时刻（System.nanoTime）
+     */
+    ResourceSampler(OkHttpClient httpClient, String metricsUrl, LoadMetrics metrics, long startNanos) {
+        this.httpClient = httpClient;
+        this.metricsUrl = metricsUrl;
+        this.metrics = metrics;
+        this.startNanos = startNanos;
+    }
+
+    /**
+     * 采样一次（由定时任务调用）
+     */
+    void sample() {
+        long elapsedMs = (System.nanoTime() - startNanos) / 1_000_000;
+        JsonNode server;
+        try (Response response = httpClient.newCall(new Request.Builder().url(metricsUrl).build()).execute()) {
+            if (!response.isSuccessful() || response.body() == null) {
+                log.warn("获取网关指标失败: HTTP {}", response.code());
+                return;
+            }
+            server = OBJECT_MAPPER.readTree(response.body().byteStream());
+        } catch (IOException e) {
+            log.warn("获取网关指标失败: {}", e.getMessage());
+            return;
+        }
+        JsonNode jvm = server.path("jvm");
+        Sample sample = new Sample(elapsedMs,
+                metrics.activeClients.get(),
+                server.path("sessionCount").asInt(),
+                jvm.path("processCpuLoad").asDouble(-1),
+                jvm.path("heapUsed").asLong(),
+                jvm.path("heapCommitted").asLong(),
+                jvm.path("threadCount").asInt(),
+                metrics.turnsCompleted.sum(),
+                metrics.uplinkFramesSent.sum(),
+                metrics.downlinkAudioFrames.sum());
+        synchronized (samples) {
+            samples.add(sample);
+        }
+    }
+
+    List<Sample> getSamples() {
+        synchronized (samples) {
+            return List.copyOf(samples);
+        }
+    }
+
+    /**
+     * 一次资源采样
+     *
+     * @param elapsedMs           距压测开始的时间（毫秒）
+     * @param activeClients       进入对话循环的客户端数
+     * @param serverSessions      网关会话数
+     * @param processCpuLoad      网关进程CPU占用（0~1，不可用时为-1）
+     * @param heapUsed            网关已用堆内存（字节）
+     * @param heapCommitted       网关已提交堆内存（字节）
+     * @param threadCount         网关线程数
+     * @param turnsCompleted      累计完成的对话轮次
+     * @param uplinkFramesSent    累计发送的上行音频帧
+     * @param downlinkAudioFrames 累计收到的下行音频帧
+     */
+    record Sample(long elapsedMs, int activeClients, int serverSessions, double processCpuLoad,
+                  long heapUsed, long heapCommitted, int threadCount,
+                  long turnsCompleted, long uplinkFramesSent, long downlinkAudioFrames) {
+    }
+}
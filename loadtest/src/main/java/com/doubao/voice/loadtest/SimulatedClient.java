@@ -0,0 +1,385 @@
+package com.doubao.voice.loadtest;
+
+import com.doubao.voice.api.websocket.ClientFrameCodec;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okio.ByteString;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一个模拟的浏览器客户端
+ *
+ * 闭环行为：连接 -> control:start -> 等待session_started，之后按帧时长实时发送麦克风音频：
+ * 停顿（静音） -> 说话（有声） -> 静音等待首帧TTS音频 -> 静音收听直到tts:ended -> 停顿，循环往复。
+ * 说话和停顿时长由客户端自己的随机数序列决定，相同种子下每个客户端的行为序列相同
+ */
+@Slf4j
+class SimulatedClient extends WebSocketListener {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final String START_MESSAGE = "{\"type\":\"control\",\"action\":\"start\"}";
+    private static final String END_MESSAGE = "{\"type\":\"control\",\"action\":\"end\"}";
+    private static final ByteString START_FRAME = ByteString.of(ClientFrameCodec.FRAME_CONTROL, ClientFrameCodec.ACTION_START);
+    private static final ByteString END_FRAME = ByteString.of(ClientFrameCodec.FRAME_CONTROL, ClientFrameCodec.ACTION_END);
+
+    private enum State {
+        CONNECTING, STARTING, THINKING, SPEAKING, WAITING, LISTENING, CLOSED
+    }
+
+    private final LoadScenario scenario;
+    private final LoadMetrics metrics;
+    private final Frames frames;
+    private final Random random;
+    private final ScheduledExecutorService scheduler;
+    private final long frameNanos;
+    private final long replyTimeoutNanos;
+
+    private WebSocket ws;
+    private ScheduledFuture<?> tick;
+    private State state = State.CONNECTING;
+    private long connectAt;
+    private long tickStart;
+    private long tickCount;
+    private long thinkUntil;
+    private int speechFramesLeft;
+    private long speechEndAt;
+    private long lastDownlinkAt;
+
+    /**
+     * @param seed      客户端随机种子（由场景种子和客户端序号派生）
+     * @param frames    预生成的上行音频帧
+     * @param scheduler 发送音频的定时线程池
+     */
+    SimulatedClient(LoadScenario scenario, LoadMetrics metrics, long seed, Frames frames,
+                    ScheduledExecutorService scheduler) {
+        this.scenario = scenario;
+        this.metrics = metrics;
+        this.frames = frames;
+        this.random = new Random(seed);
+        this.scheduler = scheduler;
+        this.frameNanos = TimeUnit.MILLISECONDS.toNanos(scenario.getFrameMs());
+        this.replyTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(scenario.getReplyTimeoutMs());
+    }
+
+    /**
+     * 建立WebSocket连接
+     */
+    synchronized void start(OkHttpClient httpClient, String url) {
+        connectAt = System.nanoTime();
+        Request.Builder request = new Request.Builder().url(url);
+        if (scenario.isFramedProtocol()) {
+            request.header("Sec-WebSocket-Protocol", ClientFrameCodec.SUBPROTOCOL);
+        }
+        ws = httpClient.newWebSocket(request.build(), this);
+    }
+
+    /**
+     * 结束会话并关闭连接
+     */
+    synchronized void stop() {
+        if (state == State.CLOSED) {
+            return;
+        }
+        boolean active = state != State.CONNECTING && state != State.STARTING;
+        close();
+        if (ws == null) {
+            // ramp-up未结束，尚未启动
+            return;
+        }
+        if (active) {
+            if (scenario.isFramedProtocol()) {
+                ws.send(END_FRAME);
+            } else {
+                ws.send(END_MESSAGE);
+            }
+        }
+        ws.close(1000, "load test finished");
+    }
+
+    @Override
+    public synchronized void onMessage(WebSocket webSocket, String text) {
+        if (state == State.CLOSED) {
+            return;
+        }
+        metrics.downlinkEvents.increment();
+        lastDownlinkAt = System.nanoTime();
+        JsonNode message;
+        try {
+            message = OBJECT_MAPPER.readTree(text);
+        } catch (IOException e) {
+            log.warn("无法解析服务端消息: {}", text);
+            return;
+        }
+        String type = message.path("type").asText();
+        String event = message.path("event").asText();
+        switch (type) {
+            case "status" -> onStatus(message.path("status").asText());
+            case "error" -> onError(message.path("error").asText());
+            case "tts" -> {
+                if ("ended".equals(event)) {
+                    onTtsEnded();
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    @Override
+    public synchronized void onMessage(WebSocket webSocket, ByteString bytes) {
+        if (state == State.CLOSED) {
+            return;
+        }
+        if (scenario.isFramedProtocol()) {
+            if (bytes.size() < 2 || bytes.getByte(0) != ClientFrameCodec.FRAME_EVENT) {
+                onAudio(bytes.size() - 1);
+                return;
+            }
+            metrics.downlinkEvents.increment();
+            lastDownlinkAt = System.nanoTime();
+            switch (bytes.getByte(1)) {
+                case ClientFrameCodec.EVENT_CONNECTED -> onStatus("connected");
+                case ClientFrameCodec.EVENT_SESSION_STARTED -> onStatus("session_started");
+                case ClientFrameCodec.EVENT_RECONNECTED -> onStatus("reconnected");
+                case ClientFrameCodec.EVENT_ERROR, ClientFrameCodec.EVENT_SESSION_FAILED,
+                        ClientFrameCodec.EVENT_DIALOG_ERROR -> onError("event " + bytes.getByte(1));
+                case ClientFrameCodec.EVENT_TTS_ENDED -> onTtsEnded();
+                default -> {
+                }
+            }
+            return;
+        }
+        onAudio(bytes.size());
+    }
+
+    private void onAudio(int size) {
+        long now = System.nanoTime();
+        lastDownlinkAt = now;
+        metrics.downlinkAudioFrames.increment();
+        metrics.downlinkAudioBytes.add(size);
+        if (state == State.WAITING) {
+            metrics.firstAudio.record(TimeUnit.NANOSECONDS.toMillis(now - speechEndAt));
+            state = State.LISTENING;
+        }
+    }
+
+    @Override
+    public synchronized void onFailure(WebSocket webSocket, Throwable t, Response response) {
+        if (state == State.CLOSED) {
+            return;
+        }
+        if (state == State.CONNECTING || state == State.STARTING) {
+            metrics.connectFailures.increment();
+        } else {
+            metrics.disconnects.increment();
+        }
+        log.debug("模拟客户端连接失败: {}", t.getMessage());
+        close();
+    }
+
+    @Override
+    public synchronized void onClosed(WebSocket webSocket, int code, String reason) {
+        if (state != State.CLOSED && state != State.CONNECTING && state != State.STARTING) {
+            metrics.disconnects.increment();
+        }
+        close();
+    }
+
+    private void onStatus(String status) {
+        switch (status) {
+            case "connected" -> {
+                if (state == State.CONNECTING) {
+                    state = State.STARTING;
+                    if (scenario.isFramedProtocol()) {
+                        ws.send(START_FRAME);
+                    } else {
+                        ws.send(START_MESSAGE);
+                    }
+                }
+            }
+            case "session_started" -> {
+                if (state == State.STARTING) {
+                    metrics.sessionSetup.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - connectAt));
+                    metrics.connected.increment();
+                    metrics.activeClients.incrementAndGet();
+                    think();
+                    tickStart = System.nanoTime();
+                    tick = scheduler.scheduleAtFixedRate(this::tick, 0, frameNanos, TimeUnit.NANOSECONDS);
+                }
+            }
+            case "reconnected" -> metrics.reconnects.increment();
+            default -> {
+            }
+        }
+    }
+
+    private void onTtsEnded() {
+        if (state == State.WAITING || state == State.LISTENING) {
+            if (state == State.LISTENING) {
+                metrics.turnsCompleted.increment();
+            } else {
+                metrics.turnErrors.increment();
+            }
+            think();
+        }
+    }
+
+    private void onError(String error) {
+        switch (state) {
+            case CONNECTING, STARTING -> {
+                metrics.sessionFailures.increment();
+                log.debug("模拟客户端启动会话失败: {}", error);
+                close();
+                ws.close(1000, "session failed");
+            }
+            case SPEAKING, WAITING, LISTENING -> {
+                metrics.turnErrors.increment();
+                think();
+            }
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * 每帧时长执行一次：按状态发送有声或静音帧，并检查回复超时
+     */
+    private synchronized void tick() {
+        if (state == State.CLOSED) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (now - (tickStart + tickCount * frameNanos) > frameNanos) {
+            // 定时线程跟不上实时节奏，说明压测机本身已成为瓶颈
+            metrics.uplinkFramesLate.increment();
+        }
+        tickCount++;
+
+        switch (state) {
+            case THINKING -> {
+                if (now - thinkUntil >= 0) {
+                    state = State.SPEAKING;
+                    speechFramesLeft = Math.max(1,
+                            nextInt(scenario.getSpeechMinMs(), scenario.getSpeechMaxMs()) / scenario.getFrameMs());
+                    metrics.turnsStarted.increment();
+                }
+            }
+            case WAITING -> {
+                if (now - speechEndAt > replyTimeoutNanos) {
+                    metrics.turnTimeouts.increment();
+                    think();
+                }
+            }
+            case LISTENING -> {
+                if (now - lastDownlinkAt > replyTimeoutNanos) {
+                    metrics.turnTimeouts.increment();
+                    think();
+                }
+            }
+            default -> {
+            }
+        }
+
+        if (state == State.SPEAKING) {
+            send(true);
+            if (--speechFramesLeft == 0) {
+                speechEndAt = System.nanoTime();
+                state = State.WAITING;
+            }
+        } else {
+            send(false);
+        }
+    }
+
+    private void think() {
+        state = State.THINKING;
+        thinkUntil = System.nanoTime()
+                + TimeUnit.MILLISECONDS.toNanos(nextInt(scenario.getThinkMinMs(), scenario.getThinkMaxMs()));
+    }
+
+    private int nextInt(int min, int max) {
+        return max > min ? min + random.nextInt(max - min + 1) : min;
+    }
+
+    private void send(boolean voiced) {
+        boolean accepted = switch (scenario.getAudioEncoding()) {
+            case "binary" -> ws.send(voiced ? frames.voicedBinary : frames.silenceBinary);
+            case "v1" -> ws.send(voiced ? frames.voicedFramed : frames.silenceFramed);
+            default -> ws.send(voiced ? frames.voicedJson : frames.silenceJson);
+        };
+        if (accepted) {
+            metrics.uplinkFramesSent.increment();
+        } else {
+            metrics.uplinkFramesDropped.increment();
+        }
+    }
+
+    private void close() {
+        if (state == State.CLOSED) {
+            return;
+        }
+        if (tick != null) {
+            tick.cancel(false);
+            metrics.activeClients.decrementAndGet();
+        }
+        state = State.CLOSED;
+    }
+
+    /**
+     * 预生成的上行音频帧（PCM16 16kHz单声道小端序），所有客户端共享
+     */
+    static final class Frames {
+
+        private static final int SAMPLE_RATE = 16000;
+        private static final double TONE_HZ = 220;
+        private static final double AMPLITUDE = 3000;
+
+        final ByteString voicedBinary;
+        final ByteString silenceBinary;
+        final ByteString voicedFramed;
+        final ByteString silenceFramed;
+        final String voicedJson;
+        final String silenceJson;
+
+        Frames(int frameMs) {
+            int samples = SAMPLE_RATE * frameMs / 1000;
+            ByteBuffer voiced = ByteBuffer.allocate(samples * 2).order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < samples; i++) {
+                voiced.putShort((short) (AMPLITUDE * Math.sin(2 * Math.PI * TONE_HZ * i / SAMPLE_RATE)));
+            }
+            byte[] silence = new byte[samples * 2];
+            this.voicedBinary = ByteString.of(voiced.array());
+            this.silenceBinary = ByteString.of(silence);
+            this.voicedFramed = framed(voiced.array());
+            this.silenceFramed = framed(silence);
+            this.voicedJson = audioJson(voiced.array());
+            this.silenceJson = audioJson(silence);
+        }
+
+        private static ByteString framed(byte[] pcm) {
+            byte[] frame = new byte[1 + pcm.length];
+            frame[0] = ClientFrameCodec.FRAME_AUDIO;
+            System.arraycopy(pcm, 0, frame, 1, pcm.length);
+            return ByteString.of(frame);
+        }
+
+        private static String audioJson(byte[] pcm) {
+            return "{\"type\":\"audio\",\"data\":\"" + Base64.getEncoder().encodeToString(pcm) + "\"}";
+        }
+    }
+}
@@ -13,11 +13,15 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 语音服务REST控制器
  *
  * 提供会话管理和文本对话的HTTP接口
+ *
+ * 连接、启动、结束、断开接口为异步接口：请求线程立即释放，
+ * 收到对应的上游事件（或超时）后再返回响应，客户端无需轮询会话状态
  */
 @Slf4j
 @RestController
@@ -50,20 +54,47 @@ public class VoiceController {
     }
 
     /**
-     * 启动语音会话
+     * 创建并启动语音会话，会话启动（SESSION_STARTED）后返回
+     *
+     * POST /api/v1/voice/sessions/start
+     */
+    @PostMapping("/sessions/start")
+    public CompletableFuture<ResponseEntity<SessionResponse>> createAndStartSession(
+            @RequestBody(required = false) SessionRequest request) {
+        log.info("创建并启动语音会话请求");
+
+        return voiceService.createAndStartSession(request != null ? request.toSessionConfig() : null)
+                .thenApply(session -> ResponseEntity.ok(buildSessionResponse(session)));
+    }
+
+    /**
+     * 等待会话连接启动（CONNECTION_STARTED）
+     *
+     * POST /api/v1/voice/sessions/{sessionId}/connect
+     */
+    @PostMapping("/sessions/{sessionId}/connect")
+    public CompletableFuture<ResponseEntity<SessionResponse>> connectSession(@PathVariable String sessionId) {
+        log.info("连接语音会话: {}", sessionId);
+
+        return voiceService.connectSessionAsync(sessionId)
+                .thenApply(session -> ResponseEntity.ok(buildSessionResponse(session)));
+    }
+
+    /**
+     * 启动语音会话，会话启动（SESSION_STARTED）后返回
+     *
+     * 连接尚未启动时先等待连接启动
      *
      * POST /api/v1/voice/sessions/{sessionId}/start
      */
     @PostMapping("/sessions/{sessionId}/start")
-    public ResponseEntity<SessionResponse> startSession(
+    public CompletableFuture<ResponseEntity<SessionResponse>> startSession(
             @PathVariable String sessionId,
             @RequestBody(required = false) SessionRequest request) {
         log.info("启动语音会话: {}", sessionId);
 
-        voiceService.startSession(sessionId, request != null ? request.toSessionConfig() : null);
-
-        VoiceSession session = voiceService.getSession(sessionId);
-        return ResponseEntity.ok(buildSessionResponse(session));
+        return voiceService.startSessionAsync(sessionId, request != null ? request.toSessionConfig() : null)
+                .thenApply(session -> ResponseEntity.ok(buildSessionResponse(session)));
     }
 
     /**
@@ -80,35 +111,34 @@ public class VoiceController {
     }
 
     /**
-     * 结束语音会话
+     * 结束语音会话，会话结束（SESSION_FINISHED）后返回
      *
      * POST /api/v1/voice/sessions/{sessionId}/end
      */
     @PostMapping("/sessions/{sessionId}/end")
-    public ResponseEntity<SessionResponse> endSession(@PathVariable String sessionId) {
+    public CompletableFuture<ResponseEntity<SessionResponse>> endSession(@PathVariable String sessionId) {
         log.info("结束语音会话: {}", sessionId);
 
-        voiceService.endSession(sessionId);
-
-        VoiceSession session = voiceService.getSession(sessionId);
-        return ResponseEntity.ok(buildSessionResponse(session));
+        return voiceService.endSessionAsync(sessionId)
+                .thenApply(session -> ResponseEntity.ok(buildSessionResponse(session)));
     }
 
     /**
-     * 断开会话连接
+     * 断开会话连接，会话离开上游连接（FINISH_SESSION已交给连接发送）后返回
      *
      * POST /api/v1/voice/sessions/{sessionId}/disconnect
      */
     @PostMapping("/sessions/{sessionId}/disconnect")
-    public ResponseEntity<Map<String, Object>> disconnectSession(@PathVariable String sessionId) {
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> disconnectSession(@PathVariable String sessionId) {
         log.info("断开会话连接: {}", sessionId);
 
-        voiceService.disconnectSession(sessionId);
-
-        Map<String, Object> response = new HashMap<>();
-        response.put("sessionId", sessionId);
-        response.put("message", "会话已断开");
-        return ResponseEntity.ok(response);
+        return voiceService.disconnectSessionAsync(sessionId)
+                .thenApply(session -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("sessionId", sessionId);
+                    response.put("message", "会话已断开");
+                    return ResponseEntity.ok(response);
+                });
     }
 
     /**
@@ -162,6 +192,16 @@ public class VoiceController {
         return ResponseEntity.ok(status);
     }
 
+    /**
+     * 获取运行指标
+     *
+     * GET /api/v1/voice/metrics
+     */
+    @GetMapping("/metrics")
+    public ResponseEntity<Map<String, Object>> getMetrics() {
+        return ResponseEntity.ok(voiceService.getMetrics());
+    }
+
     /**
      * 构建会话响应
      */
@@ -0,0 +1,313 @@
+package com.doubao.voice.api.websocket;
+
+import com.doubao.voice.session.VoiceSessionEvent;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * JSON协议下行事件的流式序列化器
+ *
+ * 每种事件类型对应一个预编排的序列化函数，字段名和常量值预先编码，
+ * 通过线程复用的JsonGenerator直接写入线程复用的字节缓冲区，得到UTF-8字节后用于构造TextMessage，
+ * 不再为每个事件创建HashMap和中间String。
+ *
+ * 输出与原先 {@code objectMapper.writeValueAsString(HashMap)} 逐字节一致：
+ * 字段顺序为对应键集合在HashMap中的迭代顺序（后来新增的事件也按同一规则排列），空值照常输出为null，
+ * 含代理对的文本（如emoji）原样输出而不转义
+ */
+@Component
+public class ClientEventWriter {
+
+    /**
+     * 缓冲区超过该大小后不再复用，避免个别超长文本长期占用内存
+     */
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+    // ==================== 预编码的字段名 ====================
+
+    private static final SerializableString TYPE = new SerializedString("type");
+    private static final SerializableString STATUS = new SerializedString("status");
+    private static final SerializableString EVENT = new SerializedString("event");
+    private static final SerializableString SESSION_ID = new SerializedString("sessionId");
+    private static final SerializableString DIALOG_ID = new SerializedString("dialogId");
+    private static final SerializableString QUESTION_ID = new SerializedString("questionId");
+    private static final SerializableString REPLY_ID = new SerializedString("replyId");
+    private static final SerializableString TEXT = new SerializedString("text");
+    private static final SerializableString TTS_TYPE = new SerializedString("ttsType");
+    private static final SerializableString IS_INTERIM = new SerializedString("isInterim");
+    private static final SerializableString ERROR = new SerializedString("error");
+    private static final SerializableString STATUS_CODE = new SerializedString("statusCode");
+    private static final SerializableString ATTEMPT = new SerializedString("attempt");
+    private static final SerializableString DELAY_MS = new SerializedString("delayMs");
+    private static final SerializableString DROPPED_MS = new SerializedString("droppedMs");
+
+    // ==================== 预编码的常量值 ====================
+
+    private static final SerializableString TYPE_STATUS = new SerializedString("status");
+    private static final SerializableString TYPE_ERROR = new SerializedString("error");
+    private static final SerializableString TYPE_ASR = new SerializedString("asr");
+    private static final SerializableString TYPE_TTS = new SerializedString("tts");
+    private static final SerializableString TYPE_CHAT = new SerializedString("chat");
+
+    /**
+     * 事件类型 -> 序列化函数（AUDIO_DATA以二进制发送，不在其中）
+     */
+    private static final Map<VoiceSessionEvent.EventType, EventSerializer> SERIALIZERS =
+            new EnumMap<>(VoiceSessionEvent.EventType.class);
+
+    static {
+        // 字段顺序与原HashMap的迭代顺序一致
+        SERIALIZERS.put(VoiceSessionEvent.EventType.CONNECTION_STARTED, status("connection_started"));
+        SERIALIZERS.put(VoiceSessionEvent.EventType.SESSION_STARTED, statusWithDialog("session_started"));
+        SERIALIZERS.put(VoiceSessionEvent.EventType.SESSION_FINISHED, status("session_finished"));
+        SERIALIZERS.put(VoiceSessionEvent.EventType.SESSION_FAILED, ClientEventWriter::error);
+        SERIALIZERS.put(VoiceSessionEvent.EventType.DISCONNECTED, status("disconnected"));
+        SERIALIZERS.put(VoiceSessionEvent.EventType.ERROR, ClientEventWriter::error);
+        SerializableString reconnecting = new SerializedString("reconnecting");
+        SERIALIZERS.put(VoiceSessionEvent.EventType.RECONNECTING, (g, e) -> {
+            writeNumber(g, DELAY_MS, e.getDelayMillis());
+            g.writeFieldName(TYPE);
+            g.writeString(TYPE_STATUS);
+            writeNumber(g, ATTEMPT, e.getAttempt() != null ? e.getAttempt().longValue() : null);
+            g.writeFieldName(STATUS);
+            g.writeString(reconnecting);
+        });
+        SERIALIZERS.put(VoiceSessionEvent.EventType.RECONNECTED, statusWithDialog("reconnected"));
+        SerializableString speechStarted = new SerializedString("speech_started");
+        SERIALIZERS.put(VoiceSessionEvent.EventType.USER_SPEECH_STARTED, (g, e) -> {
+            writeString(g, QUESTION_ID, e.getQuestionId());
+            writeTypeAndEvent(g, TYPE_ASR, speechStarted);
+        });
+        SerializableString result = new SerializedString("result");
+        SERIALIZERS.put(VoiceSessionEvent.EventType.ASR_RESULT, (g, e) -> {
+            g.writeFieldName(IS_INTERIM);
+            if (e.getIsInterim() != null) {
+                g.writeBoolean(e.getIsInterim());
+            } else {
+                g.writeNull();
+            }
+            writeString(g, TEXT, e.getText());
+            writeTypeAndEvent(g, TYPE_ASR, result);
+        });
+        SerializableString speechEnded = new SerializedString("speech_ended");
+        SERIALIZERS.put(VoiceSessionEvent.EventType.USER_SPEECH_ENDED,
+                (g, e) -> writeTypeAndEvent(g, TYPE_ASR, speechEnded));
+        SerializableString sentenceStart = new SerializedString("sentence_start");
+        SERIALIZERS.put(VoiceSessionEvent.EventType.TTS_SENTENCE_START, (g, e) -> {
+            writeReplyRef(g, e);
+            writeString(g, TEXT, e.getText());
+            writeTypeAndEvent(g, TYPE_TTS, sentenceStart);
+            writeString(g, TTS_TYPE, e.getTtsType());
+        });
+        SERIALIZERS.put(VoiceSessionEvent.EventType.TTS_SENTENCE_END, replyEnded(TYPE_TTS, "sentence_end"));
+        SERIALIZERS.put(VoiceSessionEvent.EventType.TTS_ENDED, replyEnded(TYPE_TTS, "ended"));
+        SerializableString truncated = new SerializedString("truncated");
+        SERIALIZERS.put(VoiceSessionEvent.EventType.TTS_TRUNCATED, (g, e) -> {
+            writeReplyRef(g, e);
+            writeNumber(g, DROPPED_MS, e.getDroppedMillis());
+            writeTypeAndEvent(g, TYPE_TTS, truncated);
+        });
+        SerializableString response = new SerializedString("response");
+        SERIALIZERS.put(VoiceSessionEvent.EventType.CHAT_RESPONSE, (g, e) -> {
+            writeReplyRef(g, e);
+            writeString(g, TEXT, e.getText());
+            writeTypeAndEvent(g, TYPE_CHAT, response);
+        });
+        SERIALIZERS.put(VoiceSessionEvent.EventType.CHAT_ENDED, replyEnded(TYPE_CHAT, "ended"));
+        SERIALIZERS.put(VoiceSessionEvent.EventType.DIALOG_ERROR, (g, e) -> {
+            g.writeFieldName(TYPE);
+            g.writeString(TYPE_ERROR);
+            writeString(g, ERROR, e.getError());
+            writeString(g, STATUS_CODE, e.getStatusCode());
+        });
+    }
+
+    private final JsonFactory jsonFactory;
+
+    /**
+     * 每个线程复用的缓冲区和生成器（事件由各会话的投递线程串行写出）
+     */
+    private final ThreadLocal<Output> outputs = new ThreadLocal<>();
+
+    public ClientEventWriter(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * 序列化会话事件
+     *
+     * @return UTF-8 JSON，AUDIO_DATA返回null
+     * @throws IOException 序列化失败
+     */
+    public byte[] write(VoiceSessionEvent event) throws IOException {
+        EventSerializer serializer = SERIALIZERS.get(event.getType());
+        if (serializer == null) {
+            return null;
+        }
+        return write(serializer, event);
+    }
+
+    /**
+     * 序列化状态消息：{"sessionId":..,"type":"status","status":..}
+     */
+    public byte[] writeStatus(String status, String sessionId) throws IOException {
+        return write((g, e) -> {
+            writeString(g, SESSION_ID, sessionId);
+            g.writeFieldName(TYPE);
+            g.writeString(TYPE_STATUS);
+            writeString(g, STATUS, status);
+        }, null);
+    }
+
+    /**
+     * 序列化错误消息：{"type":"error","error":..}
+     */
+    public byte[] writeError(String error) throws IOException {
+        return write((g, e) -> {
+            g.writeFieldName(TYPE);
+            g.writeString(TYPE_ERROR);
+            writeString(g, ERROR, error);
+        }, null);
+    }
+
+    private byte[] write(EventSerializer serializer, VoiceSessionEvent event) throws IOException {
+        Output output = outputs.get();
+        if (output == null) {
+            output = new Output(jsonFactory);
+            outputs.set(output);
+        }
+        try {
+            JsonGenerator generator = output.generator;
+            generator.writeStartObject();
+            serializer.write(generator, event);
+            generator.writeEndObject();
+            generator.flush();
+            byte[] json = output.buffer.toByteArray();
+            if (json.length > MAX_RETAINED_BUFFER) {
+                outputs.remove();
+            } else {
+                output.buffer.reset();
+            }
+            return json;
+        } catch (IOException | RuntimeException e) {
+            // 生成器可能停在对象中间，丢弃后下次重建
+            outputs.remove();
+            throw e;
+        }
+    }
+
+    // ==================== 序列化函数 ====================
+
+    private static EventSerializer status(String status) {
+        SerializableString value = new SerializedString(status);
+        return (g, e) -> {
+            g.writeFieldName(TYPE);
+            g.writeString(TYPE_STATUS);
+            g.writeFieldName(STATUS);
+            g.writeString(value);
+        };
+    }
+
+    private static EventSerializer statusWithDialog(String status) {
+        SerializableString value = new SerializedString(status);
+        return (g, e) -> {
+            g.writeFieldName(TYPE);
+            g.writeString(TYPE_STATUS);
+            writeString(g, DIALOG_ID, e.getDialogId());
+            g.writeFieldName(STATUS);
+            g.writeString(value);
+        };
+    }
+
+    private static EventSerializer replyEnded(SerializableString type, String event) {
+        SerializableString value = new SerializedString(event);
+        return (g, e) -> {
+            writeReplyRef(g, e);
+            writeTypeAndEvent(g, type, value);
+        };
+    }
+
+    private static void error(JsonGenerator g, VoiceSessionEvent e) throws IOException {
+        g.writeFieldName(TYPE);
+        g.writeString(TYPE_ERROR);
+        writeString(g, ERROR, e.getError());
+    }
+
+    private static void writeReplyRef(JsonGenerator g, VoiceSessionEvent e) throws IOException {
+        writeString(g, QUESTION_ID, e.getQuestionId());
+        writeString(g, REPLY_ID, e.getReplyId());
+    }
+
+    private static void writeTypeAndEvent(JsonGenerator g, SerializableString type,
+                                          SerializableString event) throws IOException {
+        g.writeFieldName(TYPE);
+        g.writeString(type);
+        g.writeFieldName(EVENT);
+        g.writeString(event);
+    }
+
+    private static void writeString(JsonGenerator g, SerializableString name, String value) throws IOException {
+        g.writeFieldName(name);
+        if (value == null) {
+            g.writeNull();
+        } else if (hasSurrogate(value)) {
+            // 字节生成器会把代理对转义为两个Unicode转义序列，而原先的字符生成器原样输出（如emoji）；
+            // 预先编码为UTF-8后写入，多字节序列原样输出，引号和控制字符仍照常转义
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            g.writeUTF8String(utf8, 0, utf8.length);
+        } else {
+            g.writeString(value);
+        }
+    }
+
+    private static boolean hasSurrogate(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (Character.isSurrogate(value.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void writeNumber(JsonGenerator g, SerializableString name, Long value) throws IOException {
+        g.writeFieldName(name);
+        if (value != null) {
+            g.writeNumber(value);
+        } else {
+            g.writeNull();
+        }
+    }
+
+    /**
+     * 单个事件类型的序列化函数，只写对象内的字段
+     */
+    @FunctionalInterface
+    private interface EventSerializer {
+        void write(JsonGenerator generator, VoiceSessionEvent event) throws IOException;
+    }
+
+    /**
+     * 线程复用的输出：生成器直接写入可重置的字节缓冲区
+     */
+    private static final class Output {
+
+        final ByteArrayBuilder buffer = new ByteArrayBuilder(512);
+        final JsonGenerator generator;
+
+        Output(JsonFactory jsonFactory) throws IOException {
+            this.generator = jsonFactory.createGenerator(buffer);
+            // 连续写多个根对象时不插入分隔符
+            this.generator.setRootValueSeparator(null);
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package com.doubao.voice.api.websocket;
+
+import com.doubao.voice.session.VoiceSessionEvent;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * /ws/voice二进制客户端协议编解码
+ *
+ * 客户端握手时声明子协议 {@value #SUBPROTOCOL} 即启用，未声明时沿用JSON协议（音频为base64）。
+ * 所有消息均为二进制帧，首字节为帧类型：
+ * <pre>
+ * 上行 AUDIO   [0x01][PCM16 16kHz单声道小端序]
+ * 上行 CONTROL [0x02][action 1字节][会话配置JSON(可选，仅start)]
+ * 上行 TEXT    [0x03][questionId长度 2字节][questionId][文本UTF-8]
+ * 下行 AUDIO   [0x01][Float32 PCM 24kHz单声道]
+ * 下行 EVENT   [0x04][事件码 1字节]{[字段ID 1字节][值长度 2字节][值]}*
+ * </pre>
+ * 多字节整数均为大端序。事件字段的值按字段ID解释：字符串为UTF-8，
+ * {@link #FIELD_IS_INTERIM} 为1字节布尔，{@link #FIELD_ATTEMPT}/{@link #FIELD_CLOSE_CODE} 为4字节整数，
+ * {@link #FIELD_DELAY_MS}/{@link #FIELD_DROPPED_MS} 为8字节整数。字段带长度，客户端可跳过不认识的字段，协议可向后兼容地扩展
+ */
+public final class ClientFrameCodec {
+
+    private ClientFrameCodec() {
+    }
+
+    /**
+     * 子协议名称（含版本号）
+     */
+    public static final String SUBPROTOCOL = "doubao-voice.v1";
+
+    // ==================== 帧类型 ====================
+
+    public static final byte FRAME_AUDIO = 0x01;
+    public static final byte FRAME_CONTROL = 0x02;
+    public static final byte FRAME_TEXT = 0x03;
+    public static final byte FRAME_EVENT = 0x04;
+
+    // ==================== 控制命令 ====================
+
+    public static final byte ACTION_START = 0x01;
+    public static final byte ACTION_END = 0x02;
+    public static final byte ACTION_DISCONNECT = 0x03;
+
+    // ==================== 事件码 ====================
+
+    /**
+     * WebSocket已建立（携带sessionId）
+     */
+    public static final byte EVENT_CONNECTED = 1;
+    public static final byte EVENT_CONNECTION_STARTED = 2;
+    public static final byte EVENT_SESSION_STARTED = 3;
+    public static final byte EVENT_SESSION_FINISHED = 4;
+    public static final byte EVENT_SESSION_FAILED = 5;
+    public static final byte EVENT_DISCONNECTED = 6;
+    public static final byte EVENT_ERROR = 7;
+    public static final byte EVENT_RECONNECTING = 8;
+    public static final byte EVENT_RECONNECTED = 9;
+    public static final byte EVENT_SPEECH_STARTED = 10;
+    public static final byte EVENT_ASR_RESULT = 11;
+    public static final byte EVENT_SPEECH_ENDED = 12;
+    public static final byte EVENT_TTS_SENTENCE_START = 13;
+    public static final byte EVENT_TTS_SENTENCE_END = 14;
+    public static final byte EVENT_TTS_ENDED = 15;
+    public static final byte EVENT_CHAT_RESPONSE = 16;
+    public static final byte EVENT_CHAT_ENDED = 17;
+    public static final byte EVENT_DIALOG_ERROR = 18;
+    /**
+     * 回复被打断，客户端应停止播放已缓冲的音频
+     */
+    public static final byte EVENT_TTS_TRUNCATED = 19;
+
+    // ==================== 事件字段 ====================
+
+    public static final byte FIELD_SESSION_ID = 1;
+    public static final byte FIELD_DIALOG_ID = 2;
+    public static final byte FIELD_QUESTION_ID = 3;
+    public static final byte FIELD_REPLY_ID = 4;
+    public static final byte FIELD_TEXT = 5;
+    public static final byte FIELD_TTS_TYPE = 6;
+    public static final byte FIELD_ERROR = 7;
+    public static final byte FIELD_STATUS_CODE = 8;
+    public static final byte FIELD_IS_INTERIM = 9;
+    public static final byte FIELD_ATTEMPT = 10;
+    public static final byte FIELD_DELAY_MS = 11;
+    public static final byte FIELD_CLOSE_CODE = 12;
+    public static final byte FIELD_DROPPED_MS = 13;
+
+    // ==================== 下行编码 ====================
+
+    /**
+     * 编码下行音频帧
+     *
+     * @param audio 音频数据（读取position到limit，不修改position）
+     */
+    public static ByteBuffer encodeAudio(ByteBuffer audio) {
+        ByteBuffer frame = ByteBuffer.allocate(1 + audio.remaining());
+        frame.put(FRAME_AUDIO).put(audio.duplicate()).flip();
+        return frame;
+    }
+
+    /**
+     * 编码下行音频帧
+     */
+    public static ByteBuffer encodeAudio(byte[] audio) {
+        return encodeAudio(ByteBuffer.wrap(audio));
+    }
+
+    /**
+     * 编码连接成功事件
+     */
+    public static ByteBuffer encodeConnected(String sessionId) {
+        return new EventWriter(EVENT_CONNECTED).string(FIELD_SESSION_ID, sessionId).build();
+    }
+
+    /**
+     * 编码错误事件
+     */
+    public static ByteBuffer encodeError(String error) {
+        return new EventWriter(EVENT_ERROR).string(FIELD_ERROR, error).build();
+    }
+
+    /**
+     * 编码会话事件（AUDIO_DATA使用 {@link #encodeAudio(ByteBuffer)}）
+     *
+     * @return 事件帧，不支持的事件返回null
+     */
+    public static ByteBuffer encodeEvent(VoiceSessionEvent event) {
+        return switch (event.getType()) {
+            case CONNECTION_STARTED -> new EventWriter(EVENT_CONNECTION_STARTED).build();
+            case SESSION_STARTED -> new EventWriter(EVENT_SESSION_STARTED)
+                    .string(FIELD_DIALOG_ID, event.getDialogId()).build();
+            case SESSION_FINISHED -> new EventWriter(EVENT_SESSION_FINISHED).build();
+            case SESSION_FAILED -> new EventWriter(EVENT_SESSION_FAILED)
+                    .string(FIELD_ERROR, event.getError()).build();
+            case DISCONNECTED -> new EventWriter(EVENT_DISCONNECTED)
+                    .int32(FIELD_CLOSE_CODE, event.getCloseCode()).build();
+            case ERROR -> new EventWriter(EVENT_ERROR).string(FIELD_ERROR, event.getError()).build();
+            case RECONNECTING -> new EventWriter(EVENT_RECONNECTING)
+                    .int32(FIELD_ATTEMPT, event.getAttempt())
+                    .int64(FIELD_DELAY_MS, event.getDelayMillis()).build();
+            case RECONNECTED -> new EventWriter(EVENT_RECONNECTED)
+                    .string(FIELD_DIALOG_ID, event.getDialogId()).build();
+            case USER_SPEECH_STARTED -> new EventWriter(EVENT_SPEECH_STARTED)
+                    .string(FIELD_QUESTION_ID, event.getQuestionId()).build();
+            case ASR_RESULT -> new EventWriter(EVENT_ASR_RESULT)
+                    .string(FIELD_TEXT, event.getText())
+                    .bool(FIELD_IS_INTERIM, event.getIsInterim()).build();
+            case USER_SPEECH_ENDED -> new EventWriter(EVENT_SPEECH_ENDED).build();
+            case TTS_SENTENCE_START -> new EventWriter(EVENT_TTS_SENTENCE_START)
+                    .string(FIELD_TEXT, event.getText())
+                    .string(FIELD_TTS_TYPE, event.getTtsType())
+                    .string(FIELD_QUESTION_ID, event.getQuestionId())
+                    .string(FIELD_REPLY_ID, event.getReplyId()).build();
+            case TTS_SENTENCE_END -> replyEvent(EVENT_TTS_SENTENCE_END, event);
+            case TTS_ENDED -> replyEvent(EVENT_TTS_ENDED, event);
+            case TTS_TRUNCATED -> new EventWriter(EVENT_TTS_TRUNCATED)
+                    .string(FIELD_QUESTION_ID, event.getQuestionId())
+                    .string(FIELD_REPLY_ID, event.getReplyId())
+                    .int64(FIELD_DROPPED_MS, event.getDroppedMillis()).build();
+            case CHAT_RESPONSE -> new EventWriter(EVENT_CHAT_RESPONSE)
+                    .string(FIELD_TEXT, event.getText())
+                    .string(FIELD_QUESTION_ID, event.getQuestionId())
+                    .string(FIELD_REPLY_ID, event.getReplyId()).build();
+            case CHAT_ENDED -> replyEvent(EVENT_CHAT_ENDED, event);
+            case DIALOG_ERROR -> new EventWriter(EVENT_DIALOG_ERROR)
+                    .string(FIELD_STATUS_CODE, event.getStatusCode())
+                    .string(FIELD_ERROR, event.getError()).build();
+            case AUDIO_DATA -> null;
+        };
+    }
+
+    private static ByteBuffer replyEvent(byte code, VoiceSessionEvent event) {
+        return new EventWriter(code)
+                .string(FIELD_QUESTION_ID, event.getQuestionId())
+                .string(FIELD_REPLY_ID, event.getReplyId()).build();
+    }
+
+    // ==================== 上行解码 ====================
+
+    /**
+     * 解码上行帧
+     *
+     * 返回的音频视图引用原始缓冲区，不做拷贝
+     *
+     * @param frame 二进制帧
+     * @return 解码结果
+     * @throws IOException 帧格式错误
+     */
+    public static UplinkFrame decode(ByteBuffer frame) throws IOException {
+        ByteBuffer buffer = frame.duplicate();
+        if (!buffer.hasRemaining()) {
+            throw new IOException("空帧");
+        }
+        byte type = buffer.get();
+        switch (type) {
+            case FRAME_AUDIO -> {
+                return new UplinkFrame(type, (byte) 0, buffer.slice(), null, null);
+            }
+            case FRAME_CONTROL -> {
+                if (!buffer.hasRemaining()) {
+                    throw new IOException("控制帧缺少action");
+                }
+                byte action = buffer.get();
+                String config = buffer.hasRemaining() ? utf8(buffer, buffer.remaining()) : null;
+                return new UplinkFrame(type, action, null, config, null);
+            }
+            case FRAME_TEXT -> {
+                if (buffer.remaining() < 2) {
+                    throw new IOException("文本帧缺少questionId长度");
+                }
+                int questionIdLength = Short.toUnsignedInt(buffer.getShort());
+                if (buffer.remaining() < questionIdLength) {
+                    throw new IOException("文本帧questionId长度错误");
+                }
+                String questionId = questionIdLength > 0 ? utf8(buffer, questionIdLength) : null;
+                return new UplinkFrame(type, (byte) 0, null, utf8(buffer, buffer.remaining()), questionId);
+            }
+            default -> throw new IOException("未知帧类型: " + type);
+        }
+    }
+
+    private static String utf8(ByteBuffer buffer, int length) {
+        String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+
+    /**
+     * 解码后的上行帧
+     *
+     * @param type       帧类型
+     * @param action     控制命令（仅CONTROL）
+     * @param audio      音频视图（仅AUDIO）
+     * @param text       CONTROL为会话配置JSON，TEXT为文本内容
+     * @param questionId 问题ID（仅TEXT，可为null）
+     */
+    public record UplinkFrame(byte type, byte action, ByteBuffer audio, String text, String questionId) {
+    }
+
+    /**
+     * 事件帧构建器：先收集字段，再按精确长度一次性写入
+     */
+    private static final class EventWriter {
+
+        private final byte code;
+        private final List<Object> fields = new ArrayList<>(8);
+        private int size = 2;
+
+        EventWriter(byte code) {
+            this.code = code;
+        }
+
+        EventWriter string(byte id, String value) {
+            return value != null ? field(id, value.getBytes(StandardCharsets.UTF_8)) : this;
+        }
+
+        EventWriter bool(byte id, Boolean value) {
+            return value != null ? field(id, new byte[]{(byte) (value ? 1 : 0)}) : this;
+        }
+
+        EventWriter int32(byte id, Integer value) {
+            return value != null ? field(id, ByteBuffer.allocate(4).putInt(value).array()) : this;
+        }
+
+        EventWriter int64(byte id, Long value) {
+            return value != null ? field(id, ByteBuffer.allocate(8).putLong(value).array()) : this;
+        }
+
+        private EventWriter field(byte id, byte[] value) {
+            if (value.length > 0xFFFF) {
+                throw new IllegalArgumentException("事件字段过长: " + value.length);
+            }
+            fields.add(id);
+            fields.add(value);
+            size += 3 + value.length;
+            return this;
+        }
+
+        ByteBuffer build() {
+            ByteBuffer frame = ByteBuffer.allocate(size);
+            frame.put(FRAME_EVENT).put(code);
+            for (int i = 0; i < fields.size(); i += 2) {
+                byte[] value = (byte[]) fields.get(i + 1);
+                frame.put((Byte) fields.get(i)).putShort((short) value.length).put(value);
+            }
+            return frame.flip();
+        }
+    }
+}
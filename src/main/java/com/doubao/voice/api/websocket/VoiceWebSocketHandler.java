@@ -1,6 +1,8 @@
 package com.doubao.voice.api.websocket;
 
 import com.doubao.voice.service.VoiceService;
+import com.doubao.voice.session.ClientSendPool;
+import com.doubao.voice.session.ClientSender;
 import com.doubao.voice.session.SessionConfig;
 import com.doubao.voice.session.SessionState;
 import com.doubao.voice.session.VoiceSession;
@@ -16,8 +18,9 @@ import java.io.IOException;
 import java.net.URI;
 import java.nio.ByteBuffer;
 import java.util.Base64;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 
@@ -45,14 +48,22 @@ import java.util.function.Consumer;
  *   "status": "connected|session_started|...",
  *   "error": "错误信息"
  * }
+ *
+ * 握手时声明子协议 {@value ClientFrameCodec#SUBPROTOCOL} 的客户端改用二进制协议（见 {@link ClientFrameCodec}），
+ * 上下行的音频、控制命令和事件都以带类型的二进制帧传输
+ *
+ * 所有下行消息经每个客户端的 {@link ClientSender} 发送：事件投递线程和Tomcat请求线程只负责入队，
+ * 客户端消费慢时依次丢弃中间结果、音频，仍跟不上时关闭连接
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
-public class VoiceWebSocketHandler extends AbstractWebSocketHandler {
+public class VoiceWebSocketHandler extends AbstractWebSocketHandler implements SubProtocolCapable {
 
     private final VoiceService voiceService;
     private final ObjectMapper objectMapper;
+    private final ClientEventWriter eventWriter;
+    private final ClientSendPool clientSendPool;
 
     /**
      * 客户端会话 -> 语音会话ID映射
@@ -64,8 +75,21 @@ public class VoiceWebSocketHandler extends AbstractWebSocketHandler {
      */
     private final Map<String, Consumer<VoiceSessionEvent>> listenerMapping = new ConcurrentHashMap<>();
 
+    /**
+     * 客户端会话 -> 下行发送缓冲映射
+     */
+    private final Map<String, ClientSender> senderMapping = new ConcurrentHashMap<>();
+
+    @Override
+    public List<String> getSubProtocols() {
+        return List.of(ClientFrameCodec.SUBPROTOCOL);
+    }
+
     @Override
     public void afterConnectionEstablished(WebSocketSession wsSession) throws Exception {
+        ClientSender sender = clientSendPool.open(wsSession);
+        senderMapping.put(wsSession.getId(), sender);
+
         String sessionId = extractSessionId(wsSession);
 
         if (sessionId == null || sessionId.isEmpty()) {
@@ -92,6 +116,7 @@ public class VoiceWebSocketHandler extends AbstractWebSocketHandler {
         // 设置WebSocket会话到VoiceSession
         VoiceSession voiceSession = voiceService.getSession(sessionId);
         voiceSession.setClientSession(wsSession);
+        voiceSession.setClientSender(sender);
     }
 
     @Override
@@ -109,7 +134,8 @@ public class VoiceWebSocketHandler extends AbstractWebSocketHandler {
 
             switch (type) {
                 case "audio" -> handleAudioMessage(wsSession, sessionId, payload);
-                case "text" -> handleTextMessage(wsSession, sessionId, payload);
+                case "text" -> handleTextQuery(wsSession, sessionId,
+                        (String) payload.get("text"), (String) payload.get("questionId"));
                 case "control" -> handleControlMessage(wsSession, sessionId, payload);
                 default -> sendErrorMessage(wsSession, "未知消息类型: " + type);
             }
@@ -127,18 +153,39 @@ public class VoiceWebSocketHandler extends AbstractWebSocketHandler {
             return;
         }
 
-        // 直接发送二进制音频数据
-        ByteBuffer buffer = message.getPayload();
-        byte[] audioData = new byte[buffer.remaining()];
-        buffer.get(audioData);
+        if (!isBinaryProtocol(wsSession)) {
+            // 直接发送二进制音频数据
+            voiceService.sendAudio(sessionId, toArray(message.getPayload()));
+            return;
+        }
 
-        voiceService.sendAudio(sessionId, audioData);
+        try {
+            ClientFrameCodec.UplinkFrame frame = ClientFrameCodec.decode(message.getPayload());
+            switch (frame.type()) {
+                case ClientFrameCodec.FRAME_AUDIO -> voiceService.sendAudio(sessionId, toArray(frame.audio()));
+                case ClientFrameCodec.FRAME_TEXT -> handleTextQuery(wsSession, sessionId, frame.text(), frame.questionId());
+                case ClientFrameCodec.FRAME_CONTROL -> {
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> configMap = frame.text() != null
+                            ? objectMapper.readValue(frame.text(), Map.class) : null;
+                    handleControl(wsSession, sessionId, controlAction(frame.action()), configMap);
+                }
+                default -> sendErrorMessage(wsSession, "未知帧类型: " + frame.type());
+            }
+        } catch (Exception e) {
+            log.error("处理二进制消息失败", e);
+            sendErrorMessage(wsSession, "处理消息失败: " + e.getMessage());
+        }
     }
 
     @Override
     public void afterConnectionClosed(WebSocketSession wsSession, CloseStatus status) throws Exception {
         String sessionId = sessionMapping.remove(wsSession.getId());
         Consumer<VoiceSessionEvent> listener = listenerMapping.remove(wsSession.getId());
+        ClientSender sender = senderMapping.remove(wsSession.getId());
+        if (sender != null) {
+            sender.close();
+        }
 
         if (sessionId != null && listener != null) {
             voiceService.removeSessionListener(sessionId, listener);
@@ -175,12 +222,9 @@ public class VoiceWebSocketHandler extends AbstractWebSocketHandler {
     }
 
     /**
-     * 处理文本消息
+     * 处理文本查询
      */
-    private void handleTextMessage(WebSocketSession wsSession, String sessionId, Map<String, Object> payload) {
-        String text = (String) payload.get("text");
-        String questionId = (String) payload.get("questionId");
-
+    private void handleTextQuery(WebSocketSession wsSession, String sessionId, String text, String questionId) {
         if (text == null || text.isEmpty()) {
             sendErrorMessage(wsSession, "文本内容为空");
             return;
@@ -199,19 +243,26 @@ public class VoiceWebSocketHandler extends AbstractWebSocketHandler {
      */
     @SuppressWarnings("unchecked")
     private void handleControlMessage(WebSocketSession wsSession, String sessionId, Map<String, Object> payload) {
-        String action = (String) payload.get("action");
+        handleControl(wsSession, sessionId, (String) payload.get("action"), (Map<String, Object>) payload.get("config"));
+    }
 
+    /**
+     * 执行控制命令
+     */
+    private void handleControl(WebSocketSession wsSession, String sessionId, String action,
+                               Map<String, Object> configMap) {
         try {
             switch (action) {
                 case "start" -> {
-                    // 启动会话
-                    Map<String, Object> configMap = (Map<String, Object>) payload.get("config");
+                    // 启动会话（连接尚未启动时等待连接启动后再发送）
                     SessionConfig config = parseSessionConfig(configMap);
-                    voiceService.startSession(sessionId, config);
+                    voiceService.startSessionAsync(sessionId, config)
+                            .whenComplete((session, error) -> reportControlError(wsSession, error));
                 }
                 case "end" -> {
                     // 结束会话
-                    voiceService.endSession(sessionId);
+                    voiceService.endSessionAsync(sessionId)
+                            .whenComplete((session, error) -> reportControlError(wsSession, error));
                 }
                 case "disconnect" -> {
                     // 断开连接
@@ -225,6 +276,30 @@ public class VoiceWebSocketHandler extends AbstractWebSocketHandler {
         }
     }
 
+    /**
+     * 二进制控制帧的action映射为JSON协议的命令名
+     */
+    private static String controlAction(byte action) {
+        return switch (action) {
+            case ClientFrameCodec.ACTION_START -> "start";
+            case ClientFrameCodec.ACTION_END -> "end";
+            case ClientFrameCodec.ACTION_DISCONNECT -> "disconnect";
+            default -> "unknown(" + action + ")";
+        };
+    }
+
+    /**
+     * 异步控制命令失败时通知客户端（成功结果通过会话事件通知）
+     */
+    private void reportControlError(WebSocketSession wsSession, Throwable error) {
+        if (error == null || !wsSession.isOpen()) {
+            return;
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        log.warn("执行控制命令失败: {}", cause.getMessage());
+        sendErrorMessage(wsSession, "执行控制命令失败: " + cause.getMessage());
+    }
+
     /**
      * 处理语音会话事件
      */
@@ -233,100 +308,50 @@ public class VoiceWebSocketHandler extends AbstractWebSocketHandler {
             return;
         }
 
-        try {
-            Map<String, Object> message = new HashMap<>();
+        if (isBinaryProtocol(wsSession)) {
+            sendBinaryEvent(wsSession, event);
+            return;
+        }
 
-            switch (event.getType()) {
-                case CONNECTION_STARTED -> {
-                    message.put("type", "status");
-                    message.put("status", "connection_started");
-                }
-                case SESSION_STARTED -> {
-                    message.put("type", "status");
-                    message.put("status", "session_started");
-                    message.put("dialogId", event.getDialogId());
-                }
-                case SESSION_FINISHED -> {
-                    message.put("type", "status");
-                    message.put("status", "session_finished");
-                }
-                case SESSION_FAILED -> {
-                    message.put("type", "error");
-                    message.put("error", event.getError());
-                }
-                case DISCONNECTED -> {
-                    message.put("type", "status");
-                    message.put("status", "disconnected");
-                }
-                case ERROR -> {
-                    message.put("type", "error");
-                    message.put("error", event.getError());
-                }
-                case USER_SPEECH_STARTED -> {
-                    message.put("type", "asr");
-                    message.put("event", "speech_started");
-                    message.put("questionId", event.getQuestionId());
-                }
-                case ASR_RESULT -> {
-                    message.put("type", "asr");
-                    message.put("event", "result");
-                    message.put("text", event.getText());
-                    message.put("isInterim", event.getIsInterim());
-                }
-                case USER_SPEECH_ENDED -> {
-                    message.put("type", "asr");
-                    message.put("event", "speech_ended");
-                }
-                case TTS_SENTENCE_START -> {
-                    message.put("type", "tts");
-                    message.put("event", "sentence_start");
-                    message.put("text", event.getText());
-                    message.put("ttsType", event.getTtsType());
-                    message.put("questionId", event.getQuestionId());
-                    message.put("replyId", event.getReplyId());
-                }
-                case TTS_SENTENCE_END -> {
-                    message.put("type", "tts");
-                    message.put("event", "sentence_end");
-                    message.put("questionId", event.getQuestionId());
-                    message.put("replyId", event.getReplyId());
-                }
-                case TTS_ENDED -> {
-                    message.put("type", "tts");
-                    message.put("event", "ended");
-                    message.put("questionId", event.getQuestionId());
-                    message.put("replyId", event.getReplyId());
-                }
-                case AUDIO_DATA -> {
-                    // 发送二进制音频数据
-                    if (event.getAudioData() != null) {
-                        wsSession.sendMessage(new BinaryMessage(event.getAudioData()));
-                    }
-                    return;
-                }
-                case CHAT_RESPONSE -> {
-                    message.put("type", "chat");
-                    message.put("event", "response");
-                    message.put("text", event.getText());
-                    message.put("questionId", event.getQuestionId());
-                    message.put("replyId", event.getReplyId());
-                }
-                case CHAT_ENDED -> {
-                    message.put("type", "chat");
-                    message.put("event", "ended");
-                    message.put("questionId", event.getQuestionId());
-                    message.put("replyId", event.getReplyId());
-                }
-                case DIALOG_ERROR -> {
-                    message.put("type", "error");
-                    message.put("statusCode", event.getStatusCode());
-                    message.put("error", event.getError());
+        try {
+            if (event.getType() == VoiceSessionEvent.EventType.AUDIO_DATA) {
+                // 发送二进制音频数据（只读视图直接包装为BinaryMessage，不做拷贝）
+                if (event.getAudioBuffer() != null) {
+                    send(wsSession, new BinaryMessage(event.getAudioBuffer().duplicate()), ClientSender.Kind.AUDIO);
+                } else if (event.getAudioData() != null) {
+                    send(wsSession, new BinaryMessage(event.getAudioData()), ClientSender.Kind.AUDIO);
                 }
+                return;
             }
 
-            String json = objectMapper.writeValueAsString(message);
-            wsSession.sendMessage(new TextMessage(json));
+            // 按事件类型预编排的序列化器直接写出UTF-8字节
+            byte[] json = eventWriter.write(event);
+            if (json != null) {
+                send(wsSession, new TextMessage(json), kindOf(event));
+            }
+        } catch (Exception e) {
+            log.error("发送事件消息失败", e);
+        }
+    }
 
+    /**
+     * 以二进制协议发送会话事件
+     */
+    private void sendBinaryEvent(WebSocketSession wsSession, VoiceSessionEvent event) {
+        try {
+            ByteBuffer frame;
+            if (event.getType() == VoiceSessionEvent.EventType.AUDIO_DATA) {
+                if (event.getAudioBuffer() != null) {
+                    frame = ClientFrameCodec.encodeAudio(event.getAudioBuffer());
+                } else if (event.getAudioData() != null) {
+                    frame = ClientFrameCodec.encodeAudio(event.getAudioData());
+                } else {
+                    return;
+                }
+            } else {
+                frame = ClientFrameCodec.encodeEvent(event);
+            }
+            send(wsSession, new BinaryMessage(frame), kindOf(event));
         } catch (Exception e) {
             log.error("发送事件消息失败", e);
         }
@@ -336,13 +361,13 @@ public class VoiceWebSocketHandler extends AbstractWebSocketHandler {
      * 发送状态消息
      */
     private void sendStatusMessage(WebSocketSession wsSession, String status, String sessionId) {
+        if (isBinaryProtocol(wsSession)) {
+            // 二进制协议只在建立连接时发送状态消息
+            send(wsSession, new BinaryMessage(ClientFrameCodec.encodeConnected(sessionId)), ClientSender.Kind.EVENT);
+            return;
+        }
         try {
-            Map<String, Object> message = new HashMap<>();
-            message.put("type", "status");
-            message.put("status", status);
-            message.put("sessionId", sessionId);
-            String json = objectMapper.writeValueAsString(message);
-            wsSession.sendMessage(new TextMessage(json));
+            send(wsSession, new TextMessage(eventWriter.writeStatus(status, sessionId)), ClientSender.Kind.EVENT);
         } catch (IOException e) {
             log.error("发送状态消息失败", e);
         }
@@ -352,17 +377,53 @@ public class VoiceWebSocketHandler extends AbstractWebSocketHandler {
      * 发送错误消息
      */
     private void sendErrorMessage(WebSocketSession wsSession, String error) {
+        if (isBinaryProtocol(wsSession)) {
+            send(wsSession, new BinaryMessage(ClientFrameCodec.encodeError(error)), ClientSender.Kind.EVENT);
+            return;
+        }
         try {
-            Map<String, Object> message = new HashMap<>();
-            message.put("type", "error");
-            message.put("error", error);
-            String json = objectMapper.writeValueAsString(message);
-            wsSession.sendMessage(new TextMessage(json));
+            send(wsSession, new TextMessage(eventWriter.writeError(error)), ClientSender.Kind.EVENT);
         } catch (IOException e) {
             log.error("发送错误消息失败", e);
         }
     }
 
+    /**
+     * 消息放入客户端的发送缓冲，不阻塞调用线程；连接已关闭时丢弃
+     */
+    private void send(WebSocketSession wsSession, WebSocketMessage<?> message, ClientSender.Kind kind) {
+        ClientSender sender = senderMapping.get(wsSession.getId());
+        if (sender != null) {
+            sender.send(message, kind);
+        }
+    }
+
+    /**
+     * 事件的发送类别：音频、ASR中间结果可在客户端跟不上时丢弃，其余事件必须送达
+     */
+    private static ClientSender.Kind kindOf(VoiceSessionEvent event) {
+        if (event.getType() == VoiceSessionEvent.EventType.AUDIO_DATA) {
+            return ClientSender.Kind.AUDIO;
+        }
+        if (event.getType() == VoiceSessionEvent.EventType.ASR_RESULT && Boolean.TRUE.equals(event.getIsInterim())) {
+            return ClientSender.Kind.INTERIM;
+        }
+        return ClientSender.Kind.EVENT;
+    }
+
+    /**
+     * 是否使用二进制客户端协议（握手时协商了子协议）
+     */
+    private static boolean isBinaryProtocol(WebSocketSession wsSession) {
+        return ClientFrameCodec.SUBPROTOCOL.equals(wsSession.getAcceptedProtocol());
+    }
+
+    private static byte[] toArray(ByteBuffer buffer) {
+        byte[] data = new byte[buffer.remaining()];
+        buffer.get(data);
+        return data;
+    }
+
     /**
      * 从WebSocket会话中提取sessionId参数
      */
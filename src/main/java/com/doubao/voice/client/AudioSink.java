@@ -0,0 +1,20 @@
+package com.doubao.voice.client;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 下行音频接收器
+ *
+ * 音频帧解码后最先交给该接收器，早于任何事件监听器
+ */
+@FunctionalInterface
+public interface AudioSink {
+
+    /**
+     * 收到音频数据
+     *
+     * @param audioData 音频数据只读视图，底层为不可变的接收帧，回调返回后仍可保留使用
+     * @param sessionId 会话ID
+     */
+    void onAudio(ByteBuffer audioData, String sessionId);
+}
@@ -2,6 +2,8 @@ package com.doubao.voice.client;
 
 import com.doubao.voice.protocol.message.DoubaoMessage;
 
+import java.nio.ByteBuffer;
+
 /**
  * 豆包WebSocket客户端事件监听器
  */
@@ -38,6 +40,24 @@ public interface DoubaoClientListener {
     default void onAudioData(byte[] audioData, String sessionId) {
     }
 
+    /**
+     * 收到音频数据（零拷贝）
+     *
+     * audioData是接收帧（不可变的okio ByteString）的只读视图，每帧一个新实例，
+     * 内容不会被复用或改写，可以直接保留给异步逻辑使用；position/limit限定在负载范围内，
+     * 多处读取时应各自duplicate()，避免互相移动position。
+     * 默认实现拷贝为数组后转交 {@link #onAudioData(byte[], String)}
+     *
+     * @param audioData 音频数据只读视图
+     * @param sessionId 会话ID
+     */
+    default void onAudioData(ByteBuffer audioData, String sessionId) {
+        ByteBuffer view = audioData.duplicate();
+        byte[] bytes = new byte[view.remaining()];
+        view.get(bytes);
+        onAudioData(bytes, sessionId);
+    }
+
     /**
      * 发生错误
      *
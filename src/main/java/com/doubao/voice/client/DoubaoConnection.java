@@ -0,0 +1,397 @@
+package com.doubao.voice.client;
+
+import com.doubao.voice.config.DoubaoProperties;
+import com.doubao.voice.protocol.codec.DoubaoProtocolDecoder;
+import com.doubao.voice.protocol.constants.EventType;
+import com.doubao.voice.protocol.message.AudioFrameView;
+import com.doubao.voice.protocol.message.DoubaoMessage;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okio.ByteString;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 上游物理连接
+ *
+ * 一个WebSocket连接上可同时承载多个会话（{@link DoubaoWebSocketClient}）：
+ * - START_CONNECTION/FINISH_CONNECTION按连接发送，CONNECTION_STARTED通知所有会话
+ * - 下行帧按Session ID路由到对应会话，无Session ID的帧（如服务端错误）通知所有会话
+ * - 上行帧先进入各会话自己的发送队列（{@link OutboundQueue}），再按轮询方式交给OkHttp，
+ *   单个会话大量发送音频时不会阻塞其他会话
+ *
+ * 最后一个会话离开时关闭连接
+ */
+@Slf4j
+class DoubaoConnection {
+
+    /**
+     * OkHttp发送队列积压过多时，等待该时间后再继续发送（毫秒）
+     */
+    private static final long DRAIN_RETRY_DELAY = 5;
+
+    private final DoubaoTransport transport;
+    private final DoubaoProtocolDecoder decoder;
+
+    /**
+     * 连接ID（X-Api-Connect-Id）
+     */
+    @Getter
+    private final String connectId = UUID.randomUUID().toString();
+
+    /**
+     * Session ID -> 会话
+     */
+    private final Map<String, DoubaoWebSocketClient> channels = new ConcurrentHashMap<>();
+
+    /**
+     * 下行音频帧视图，仅在OkHttp读线程中复用
+     */
+    private final AudioFrameView audioFrame = new AudioFrameView();
+
+    private volatile WebSocket webSocket;
+    private final AtomicBoolean open = new AtomicBoolean(false);
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+    private final Object drainLock = new Object();
+
+    /**
+     * 正在关闭或已关闭，不再接纳新会话
+     */
+    private volatile boolean closing;
+
+    DoubaoConnection(DoubaoTransport transport) {
+        this.transport = transport;
+        this.decoder = transport.getDecoder();
+    }
+
+    /**
+     * 建立WebSocket连接
+     */
+    void connect() {
+        DoubaoProperties.Api api = transport.getProperties().getApi();
+
+        // 构建请求，添加认证头
+        Request request = new Request.Builder()
+                .url(api.getUrl())
+                .addHeader("X-Api-App-ID", api.getAppId())
+                .addHeader("X-Api-Access-Key", api.getAccessKey())
+                .addHeader("X-Api-Resource-Id", api.getResourceId())
+                .addHeader("X-Api-App-Key", api.getAppKey())
+                .addHeader("X-Api-Connect-Id", connectId)
+                .build();
+
+        log.info("正在连接豆包API: {}", api.getUrl());
+        log.debug("认证信息: appId={}, resourceId={}", api.getAppId(), api.getResourceId());
+        webSocket = transport.getHttpClient().newWebSocket(request, new ConnectionListener());
+    }
+
+    /**
+     * 尝试接纳会话
+     *
+     * @param channel  会话
+     * @param capacity 每个连接的会话上限
+     * @return 是否接纳
+     */
+    synchronized boolean tryAttach(DoubaoWebSocketClient channel, int capacity) {
+        if (closing || channels.size() >= capacity) {
+            return false;
+        }
+        channels.put(channel.getSessionId(), channel);
+        return true;
+    }
+
+    /**
+     * 将连接的当前状态同步给新加入的会话
+     */
+    void syncState(DoubaoWebSocketClient channel) {
+        if (open.get()) {
+            channel.transportOpened();
+        }
+        if (started.get()) {
+            channel.transportStarted(null);
+        }
+    }
+
+    /**
+     * 会话离开，最后一个会话离开时关闭连接
+     */
+    void detach(DoubaoWebSocketClient channel) {
+        boolean last;
+        synchronized (this) {
+            if (!channels.remove(channel.getSessionId(), channel)) {
+                return;
+            }
+            last = channels.isEmpty();
+            if (last) {
+                closing = true;
+            }
+        }
+        if (last) {
+            close();
+        }
+    }
+
+    /**
+     * 发送各会话队列中的帧，按会话轮询发送
+     */
+    void flush() {
+        if (!open.get()) {
+            log.warn("WebSocket未连接，无法发送数据");
+            return;
+        }
+        drain();
+    }
+
+    /**
+     * 发送连接级帧（START_CONNECTION/FINISH_CONNECTION），不经过会话队列
+     */
+    void sendDirect(byte[] data) {
+        WebSocket ws = webSocket;
+        if (ws != null && open.get()) {
+            ws.send(ByteString.of(data));
+        } else {
+            log.warn("WebSocket未连接，无法发送数据");
+        }
+    }
+
+    /**
+     * 会话离开前直接发出其队列中剩余的帧，最后发出结束帧
+     *
+     * 不受OkHttp发送队列上限限制：背压暂停期间会话离开时，排队的FINISH_SESSION
+     * 不会随会话队列一起被清空，上游会话不会在共享连接上一直保持；
+     * 与轮询发送互斥，保证帧的先后顺序
+     *
+     * @param channel 即将离开的会话
+     * @param last    最后发出的帧，可为null
+     */
+    void sendRemaining(DoubaoWebSocketClient channel, byte[] last) {
+        WebSocket ws = webSocket;
+        if (ws == null || !open.get()) {
+            return;
+        }
+        synchronized (drainLock) {
+            ByteString frame;
+            while ((frame = channel.pollOutbound()) != null) {
+                ws.send(frame);
+            }
+            if (last != null) {
+                ws.send(ByteString.of(last));
+            }
+        }
+    }
+
+    boolean isOpen() {
+        return open.get();
+    }
+
+    boolean isStarted() {
+        return started.get();
+    }
+
+    int getSessionCount() {
+        return channels.size();
+    }
+
+    /**
+     * 关闭连接
+     */
+    private void close() {
+        transport.connectionReleased(this);
+        WebSocket ws = webSocket;
+        if (ws != null && open.get()) {
+            // 发送结束连接消息；OkHttp按入队顺序发送，关闭帧一定在其之后，无需等待
+            sendDirect(transport.getFrameCache().finishConnection());
+            log.debug("发送FINISH_CONNECTION消息");
+        }
+        if (ws != null) {
+            ws.close(1000, "Normal closure");
+            webSocket = null;
+        }
+        if (open.getAndSet(false)) {
+            transport.connectionClosed();
+        }
+        started.set(false);
+    }
+
+    /**
+     * 轮询各会话的发送队列，每轮每个会话最多发送一帧，
+     * OkHttp发送队列超过上限时暂停，稍后继续
+     */
+    private void drain() {
+        WebSocket ws = webSocket;
+        if (ws == null) {
+            return;
+        }
+        long maxQueuedBytes = transport.getProperties().getTransport().getMaxQueuedBytes();
+        synchronized (drainLock) {
+            while (ws.queueSize() < maxQueuedBytes) {
+                boolean sent = false;
+                for (DoubaoWebSocketClient channel : channels.values()) {
+                    ByteString frame = channel.pollOutbound();
+                    if (frame != null) {
+                        ws.send(frame);
+                        sent = true;
+                    }
+                }
+                if (!sent) {
+                    return;
+                }
+            }
+        }
+        if (drainScheduled.compareAndSet(false, true)) {
+            transport.getScheduler().schedule(() -> {
+                drainScheduled.set(false);
+                drain();
+            }, DRAIN_RETRY_DELAY, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 按Session ID精确查找会话
+     *
+     * 未知ID不交给任何会话：多会话复用时，已离开会话的迟到帧（如SESSION_FINISHED、TTS音频）
+     * 不能落到连接上剩下的会话
+     */
+    private DoubaoWebSocketClient route(String sessionId) {
+        if (sessionId == null || sessionId.isEmpty()) {
+            return null;
+        }
+        return channels.get(sessionId);
+    }
+
+    private void markClosed() {
+        closing = true;
+        transport.connectionReleased(this);
+        if (open.getAndSet(false)) {
+            transport.connectionClosed();
+        }
+        started.set(false);
+        webSocket = null;
+    }
+
+    /**
+     * WebSocket监听器
+     */
+    private class ConnectionListener extends WebSocketListener {
+
+        @Override
+        public void onOpen(@NotNull WebSocket webSocket, @NotNull Response response) {
+            log.info("WebSocket连接已建立");
+            DoubaoConnection.this.webSocket = webSocket;
+            open.set(true);
+            transport.connectionOpened();
+
+            // 通知会话
+            for (DoubaoWebSocketClient channel : channels.values()) {
+                channel.transportOpened();
+            }
+
+            // 发送开始连接消息
+            sendDirect(transport.getFrameCache().startConnection());
+            log.debug("发送START_CONNECTION消息");
+        }
+
+        @Override
+        public void onMessage(@NotNull WebSocket webSocket, @NotNull ByteString bytes) {
+            try {
+                // ByteString的只读视图，解码时音频负载直接引用该帧，不做拷贝
+                ByteBuffer frame = bytes.asByteBuffer();
+
+                // 音频帧快速路径：复用视图对象，不创建DoubaoMessage，也不经过事件处理
+                if (decoder.decodeAudio(frame, audioFrame)) {
+                    ByteBuffer audioData = audioFrame.getPayload();
+                    DoubaoWebSocketClient channel = route(audioFrame.getSessionId());
+                    if (audioData != null && channel != null) {
+                        channel.dispatchAudio(audioFrame.getEventId(), audioData, audioFrame.getSessionId());
+                    } else if (channel == null) {
+                        log.debug("丢弃未知会话的音频帧: sessionId={}", audioFrame.getSessionId());
+                    }
+                    return;
+                }
+
+                DoubaoMessage message = decoder.decode(frame);
+                if (message == null) {
+                    return;
+                }
+
+                if (message.getEventId() != null && message.getEventId() == EventType.CONNECTION_STARTED) {
+                    started.set(true);
+                    log.info("连接已启动");
+                    for (DoubaoWebSocketClient channel : channels.values()) {
+                        channel.transportStarted(message);
+                    }
+                    return;
+                }
+
+                DoubaoWebSocketClient channel = route(message.getSessionId());
+                if (channel != null) {
+                    channel.handleMessage(message);
+                } else if (message.getSessionId() == null || message.getSessionId().isEmpty()) {
+                    // 连接级消息（如无Session ID的服务端错误）通知所有会话
+                    for (DoubaoWebSocketClient each : channels.values()) {
+                        each.handleMessage(message);
+                    }
+                } else {
+                    log.debug("丢弃未知会话的消息: sessionId={}, event={}",
+                            message.getSessionId(), message.getEventName());
+                }
+            } catch (Exception e) {
+                // 单个帧解码或处理失败只丢弃该帧，不影响连接上的其他会话
+                log.error("处理消息失败，丢弃该帧: {} 字节", bytes.size(), e);
+            }
+        }
+
+        @Override
+        public void onMessage(@NotNull WebSocket webSocket, @NotNull String text) {
+            log.debug("收到文本消息: {}", text);
+        }
+
+        @Override
+        public void onClosing(@NotNull WebSocket webSocket, int code, @NotNull String reason) {
+            log.info("WebSocket正在关闭: code={}, reason={}", code, reason);
+            // 上游主动关闭时OkHttp不会自动回复关闭帧，不回复则收不到onClosed，会话无从感知断开
+            webSocket.close(1000, null);
+        }
+
+        @Override
+        public void onClosed(@NotNull WebSocket webSocket, int code, @NotNull String reason) {
+            log.info("WebSocket已关闭: code={}, reason={}", code, reason);
+            markClosed();
+            for (DoubaoWebSocketClient channel : channels.values()) {
+                channel.transportClosed(code, reason);
+            }
+        }
+
+        @Override
+        public void onFailure(@NotNull WebSocket webSocket, @NotNull Throwable t, @Nullable Response response) {
+            log.error("WebSocket连接失败: {}", t.getMessage());
+            if (response != null) {
+                log.error("响应状态: {} {}", response.code(), response.message());
+                try {
+                    if (response.body() != null) {
+                        log.error("响应内容: {}", response.body().string());
+                    }
+                } catch (Exception e) {
+                    log.trace("读取响应内容失败", e);
+                }
+            }
+            markClosed();
+            transport.connectionFailed();
+            for (DoubaoWebSocketClient channel : channels.values()) {
+                channel.transportFailed(t);
+            }
+        }
+    }
+}
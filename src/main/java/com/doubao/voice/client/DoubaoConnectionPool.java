@@ -0,0 +1,256 @@
+package com.doubao.voice.client;
+
+import com.doubao.voice.config.DoubaoProperties;
+import com.doubao.voice.protocol.constants.EventType;
+import com.doubao.voice.protocol.message.DoubaoMessage;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 预热连接池
+ *
+ * 预先建立到豆包API的WebSocket连接并完成START_CONNECTION握手（收到CONNECTION_STARTED），
+ * 创建会话时直接取用，省去TCP、TLS和协议握手的时间。
+ *
+ * - 空闲连接数低于minIdle时在后台补充，总数（空闲+建立中）不超过maxIdle
+ * - 每个预热客户端新建一条物理连接，不加入已有连接，minIdle/maxIdle即预热的物理连接数
+ * - 超过maxAge或已断开的空闲连接在维护任务中淘汰
+ * - 连接失败不立即重试，等下一次维护任务再补充，避免凭证错误时反复建连
+ *
+ * 线程安全
+ */
+@Slf4j
+public class DoubaoConnectionPool {
+
+    private final DoubaoTransport transport;
+    private final DoubaoProperties.Pool config;
+
+    private final Deque<PooledConnection> idle = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    /**
+     * 维护任务线程（未启用时为null）
+     */
+    private final ScheduledExecutorService scheduler;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder warmUpNanos = new LongAdder();
+    private final LongAdder warmedUp = new LongAdder();
+
+    public DoubaoConnectionPool(DoubaoTransport transport) {
+        this.transport = transport;
+        this.config = transport.getProperties().getPool();
+
+        if (config.isEnabled()) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "doubao-pool");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::maintain, 0,
+                    config.getHealthCheckInterval(), TimeUnit.MILLISECONDS);
+            log.info("预热连接池已启用: minIdle={}, maxIdle={}, maxAge={}ms",
+                    config.getMinIdle(), config.getMaxIdle(), config.getMaxAge());
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    /**
+     * 判断连接池是否启用
+     */
+    public boolean isEnabled() {
+        return scheduler != null;
+    }
+
+    /**
+     * 取出一个已完成握手的连接
+     *
+     * @return 可直接发送START_SESSION的客户端；池为空或未启用时返回null
+     */
+    public DoubaoWebSocketClient acquire() {
+        if (!isEnabled() || closed.get()) {
+            return null;
+        }
+        PooledConnection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            if (connection.isHealthy(config.getMaxAge())) {
+                connection.client.removeListener(connection);
+                hits.increment();
+                scheduler.execute(this::replenish);
+                return connection.client;
+            }
+            evict(connection, "不可用或已过期");
+        }
+        misses.increment();
+        scheduler.execute(this::replenish);
+        return null;
+    }
+
+    /**
+     * 获取连接池统计信息
+     */
+    public Stats getStats() {
+        long warmed = warmedUp.sum();
+        return new Stats(isEnabled(), idle.size(), pending.get(),
+                hits.sum(), misses.sum(), created.sum(), failed.sum(), evicted.sum(),
+                warmed > 0 ? warmUpNanos.sum() / warmed / 1_000_000 : 0);
+    }
+
+    /**
+     * 关闭连接池，断开所有空闲连接
+     */
+    public void shutdown() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        PooledConnection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            connection.client.disconnect();
+        }
+    }
+
+    /**
+     * 维护任务：淘汰过期和断开的连接，并补充到minIdle
+     */
+    private void maintain() {
+        try {
+            Iterator<PooledConnection> iterator = idle.iterator();
+            while (iterator.hasNext()) {
+                PooledConnection connection = iterator.next();
+                if (!connection.isHealthy(config.getMaxAge()) && idle.remove(connection)) {
+                    evict(connection, connection.isExpired(config.getMaxAge()) ? "超过最大存活时间" : "连接已断开");
+                }
+            }
+            replenish();
+        } catch (Exception e) {
+            log.warn("连接池维护失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 补充空闲连接（只在维护线程中调用）
+     */
+    private void replenish() {
+        int target = Math.min(config.getMinIdle(), config.getMaxIdle());
+        while (!closed.get() && idle.size() + pending.get() < target) {
+            PooledConnection connection = new PooledConnection(transport.newClient());
+            pending.incrementAndGet();
+            created.increment();
+            connection.client.addListener(connection, EventType.CONNECTION_STARTED);
+            connection.client.connectFresh();
+        }
+    }
+
+    private void evict(PooledConnection connection, String reason) {
+        connection.state.set(PooledConnection.DEAD);
+        evicted.increment();
+        log.debug("淘汰预热连接: {}", reason);
+        connection.client.removeListener(connection);
+        connection.client.disconnect();
+    }
+
+    /**
+     * 池中的连接，同时作为握手阶段的监听器
+     */
+    private final class PooledConnection implements DoubaoClientListener {
+
+        static final int PENDING = 0;
+        static final int READY = 1;
+        static final int DEAD = 2;
+
+        final DoubaoWebSocketClient client;
+        final long createdAt = System.nanoTime();
+        final AtomicInteger state = new AtomicInteger(PENDING);
+
+        PooledConnection(DoubaoWebSocketClient client) {
+            this.client = client;
+        }
+
+        boolean isExpired(long maxAge) {
+            return System.nanoTime() - createdAt > TimeUnit.MILLISECONDS.toNanos(maxAge);
+        }
+
+        boolean isHealthy(long maxAge) {
+            return state.get() == READY && client.isConnected() && client.isConnectionStarted() && !isExpired(maxAge);
+        }
+
+        @Override
+        public void onMessage(DoubaoMessage message) {
+        }
+
+        @Override
+        public void onConnectionStarted() {
+            if (!state.compareAndSet(PENDING, READY)) {
+                return;
+            }
+            pending.decrementAndGet();
+            warmUpNanos.add(System.nanoTime() - createdAt);
+            warmedUp.increment();
+            if (closed.get() || idle.size() >= config.getMaxIdle()) {
+                state.set(DEAD);
+                client.removeListener(this);
+                client.disconnect();
+                return;
+            }
+            idle.addLast(this);
+        }
+
+        @Override
+        public void onDisconnected(int code, String reason) {
+            markDead();
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            markDead();
+        }
+
+        private void markDead() {
+            int previous = state.getAndSet(DEAD);
+            if (previous == PENDING) {
+                pending.decrementAndGet();
+                failed.increment();
+                log.warn("预热连接建立失败");
+            } else if (previous == READY && idle.remove(this)) {
+                evicted.increment();
+                log.debug("预热连接已断开，移出连接池");
+            }
+        }
+    }
+
+    /**
+     * 连接池统计信息
+     *
+     * @param enabled         是否启用
+     * @param idle            空闲连接数
+     * @param pending         建立中的连接数
+     * @param hits            命中次数（取到预热连接）
+     * @param misses          未命中次数（回退为新建连接）
+     * @param created         累计创建的连接数
+     * @param failed          累计建立失败的连接数
+     * @param evicted         累计淘汰的连接数
+     * @param avgWarmUpMillis 平均握手耗时（毫秒），即命中时节省的时间
+     */
+    public record Stats(boolean enabled, int idle, int pending,
+                        long hits, long misses, long created, long failed, long evicted,
+                        long avgWarmUpMillis) {
+    }
+}
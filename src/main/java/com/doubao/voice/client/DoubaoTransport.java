@@ -0,0 +1,267 @@
+package com.doubao.voice.client;
+
+import com.doubao.voice.config.DoubaoProperties;
+import com.doubao.voice.protocol.codec.ControlFrameCache;
+import com.doubao.voice.protocol.codec.DoubaoProtocolDecoder;
+import com.doubao.voice.protocol.codec.DoubaoProtocolEncoder;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 豆包上游传输层
+ *
+ * 所有会话共享同一个OkHttpClient（调度线程池、连接池）和线程安全的编解码器，
+ * 每个会话只创建轻量的 {@link DoubaoWebSocketClient}。
+ *
+ * OkHttp中每个WebSocket在整个生命周期内占用一个调度线程（读循环），
+ * 并计入Dispatcher的maxRequests和maxRequestsPerHost（默认64和5），
+ * 因此共享客户端时必须按最大会话数放开这两个上限，否则超出的连接会一直排队。
+ *
+ * 物理连接（{@link DoubaoConnection}）按需创建，每个连接最多承载
+ * {@code max-sessions-per-connection} 个会话，最后一个会话离开时关闭
+ */
+@Slf4j
+public class DoubaoTransport {
+
+    /**
+     * 自动推算连接上限时，在最大会话数之外预留的余量
+     */
+    private static final int CONNECTION_HEADROOM = 16;
+
+    @Getter
+    private final DoubaoProperties properties;
+
+    @Getter
+    private final OkHttpClient httpClient;
+
+    /**
+     * 预编码控制帧缓存（其编码器同时用于其他消息）
+     */
+    @Getter
+    private final ControlFrameCache frameCache;
+
+    @Getter
+    private final DoubaoProtocolDecoder decoder;
+
+    private final ThreadPoolExecutor dispatcherExecutor;
+
+    /**
+     * 执行各会话事件邮箱的共享线程池，线程按需创建，空闲60秒回收
+     */
+    @Getter(AccessLevel.PACKAGE)
+    private final ThreadPoolExecutor eventExecutor;
+
+    /**
+     * 发送积压时延迟重试等后台任务
+     */
+    @Getter(AccessLevel.PACKAGE)
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * 当前的物理连接
+     */
+    private final List<DoubaoConnection> connections = new ArrayList<>();
+
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final LongAdder totalConnections = new LongAdder();
+    private final LongAdder failedConnections = new LongAdder();
+
+    /**
+     * 独立使用时的构造方法，编解码器使用默认配置
+     */
+    public DoubaoTransport(DoubaoProperties properties) {
+        this(properties, new ControlFrameCache(new DoubaoProtocolEncoder()), new DoubaoProtocolDecoder());
+    }
+
+    /**
+     * @param properties 配置
+     * @param frameCache 预编码控制帧缓存
+     * @param decoder    共享解码器
+     */
+    public DoubaoTransport(DoubaoProperties properties, ControlFrameCache frameCache, DoubaoProtocolDecoder decoder) {
+        this.properties = properties;
+        this.frameCache = frameCache;
+        this.decoder = decoder;
+
+        int maxConnections = resolveMaxConnections(properties);
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.dispatcherExecutor = new ThreadPoolExecutor(0, Integer.MAX_VALUE,
+                60, TimeUnit.SECONDS, new SynchronousQueue<>(), r -> {
+                    Thread thread = new Thread(r, "doubao-ws-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        AtomicInteger eventThreadIndex = new AtomicInteger();
+        this.eventExecutor = new ThreadPoolExecutor(0, Integer.MAX_VALUE,
+                60, TimeUnit.SECONDS, new SynchronousQueue<>(), r -> {
+                    Thread thread = new Thread(r, "doubao-event-" + eventThreadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "doubao-io");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Dispatcher dispatcher = new Dispatcher(dispatcherExecutor);
+        dispatcher.setMaxRequests(maxConnections);
+        dispatcher.setMaxRequestsPerHost(maxConnections);
+
+        DoubaoProperties.Transport transport = properties.getTransport();
+        this.httpClient = new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool(transport.getMaxIdleConnections(),
+                        transport.getKeepAlive(), TimeUnit.MILLISECONDS))
+                .connectTimeout(properties.getApi().getConnectTimeout(), TimeUnit.MILLISECONDS)
+                .readTimeout(properties.getApi().getReadTimeout(), TimeUnit.MILLISECONDS)
+                .writeTimeout(properties.getApi().getWriteTimeout(), TimeUnit.MILLISECONDS)
+                .pingInterval(transport.getPingInterval(), TimeUnit.MILLISECONDS)
+                .build();
+
+        log.info("豆包传输层已初始化: maxConnections={}, maxSessionsPerConnection={}, pingInterval={}ms",
+                maxConnections, transport.getMaxSessionsPerConnection(), transport.getPingInterval());
+    }
+
+    /**
+     * 创建会话客户端
+     */
+    public DoubaoWebSocketClient newClient() {
+        return new DoubaoWebSocketClient(this);
+    }
+
+    /**
+     * 为会话分配物理连接：优先加入有空位的连接，没有时新建连接
+     *
+     * @param channel 会话
+     * @param exclude 不使用的连接，可为null
+     * @param fresh   是否总是新建连接
+     * @return 会话所在的连接
+     */
+    synchronized DoubaoConnection attach(DoubaoWebSocketClient channel, DoubaoConnection exclude, boolean fresh) {
+        int capacity = Math.max(1, properties.getTransport().getMaxSessionsPerConnection());
+        if (!fresh) {
+            for (DoubaoConnection connection : connections) {
+                if (connection != exclude && connection.tryAttach(channel, capacity)) {
+                    log.debug("会话加入已有连接: sessionId={}, connectId={}",
+                            channel.getSessionId(), connection.getConnectId());
+                    return connection;
+                }
+            }
+        }
+        DoubaoConnection connection = new DoubaoConnection(this);
+        connection.tryAttach(channel, capacity);
+        connections.add(connection);
+        connection.connect();
+        return connection;
+    }
+
+    /**
+     * 物理连接关闭，不再分配给新会话
+     */
+    synchronized void connectionReleased(DoubaoConnection connection) {
+        connections.remove(connection);
+    }
+
+    /**
+     * 获取传输层统计信息
+     */
+    public Stats getStats() {
+        Dispatcher dispatcher = httpClient.dispatcher();
+        ConnectionPool pool = httpClient.connectionPool();
+        int physicalConnections;
+        int attachedSessions = 0;
+        synchronized (this) {
+            physicalConnections = connections.size();
+            for (DoubaoConnection connection : connections) {
+                attachedSessions += connection.getSessionCount();
+            }
+        }
+        return new Stats(
+                openConnections.get(),
+                totalConnections.sum(),
+                failedConnections.sum(),
+                dispatcher.getMaxRequests(),
+                dispatcher.runningCallsCount(),
+                dispatcher.queuedCallsCount(),
+                dispatcherExecutor.getPoolSize(),
+                dispatcherExecutor.getActiveCount(),
+                dispatcherExecutor.getLargestPoolSize(),
+                pool.connectionCount(),
+                pool.idleConnectionCount(),
+                physicalConnections,
+                attachedSessions,
+                properties.getTransport().getMaxSessionsPerConnection());
+    }
+
+    /**
+     * 关闭传输层，释放线程和连接
+     */
+    public void shutdown() {
+        httpClient.dispatcher().cancelAll();
+        scheduler.shutdownNow();
+        eventExecutor.shutdown();
+        dispatcherExecutor.shutdown();
+        httpClient.connectionPool().evictAll();
+        log.info("豆包传输层已关闭");
+    }
+
+    void connectionOpened() {
+        openConnections.incrementAndGet();
+        totalConnections.increment();
+    }
+
+    void connectionClosed() {
+        openConnections.decrementAndGet();
+    }
+
+    void connectionFailed() {
+        failedConnections.increment();
+    }
+
+    private static int resolveMaxConnections(DoubaoProperties properties) {
+        int configured = properties.getTransport().getMaxConnections();
+        if (configured > 0) {
+            return configured;
+        }
+        return properties.getSession().getMaxSessions() + CONNECTION_HEADROOM;
+    }
+
+    /**
+     * 传输层统计信息
+     *
+     * @param openConnections          当前打开的上游WebSocket连接数
+     * @param totalConnections         累计建立的连接数
+     * @param failedConnections        累计失败的连接数
+     * @param maxConnections           调度器并发上限
+     * @param runningCalls             调度器中运行的调用数（每个打开的WebSocket占一个）
+     * @param queuedCalls              调度器中排队的调用数（大于0说明连接上限不足）
+     * @param dispatcherThreads        调度线程数
+     * @param activeDispatcherThreads  活跃调度线程数
+     * @param largestDispatcherThreads 调度线程数峰值
+     * @param pooledConnections        连接池中的连接数
+     * @param idlePooledConnections    连接池中的空闲连接数
+     * @param physicalConnections      当前的物理连接数（含正在建立的）
+     * @param attachedSessions         物理连接上承载的会话数
+     * @param maxSessionsPerConnection 每个连接的会话上限
+     */
+    public record Stats(int openConnections, long totalConnections, long failedConnections,
+                        int maxConnections, int runningCalls, int queuedCalls,
+                        int dispatcherThreads, int activeDispatcherThreads, int largestDispatcherThreads,
+                        int pooledConnections, int idlePooledConnections,
+                        int physicalConnections, int attachedSessions, int maxSessionsPerConnection) {
+    }
+}
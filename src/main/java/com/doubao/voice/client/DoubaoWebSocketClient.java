@@ -1,142 +1,261 @@
 package com.doubao.voice.client;
 
 import com.doubao.voice.config.DoubaoProperties;
+import com.doubao.voice.protocol.codec.ControlFrameCache;
 import com.doubao.voice.protocol.codec.DoubaoProtocolDecoder;
 import com.doubao.voice.protocol.codec.DoubaoProtocolEncoder;
 import com.doubao.voice.protocol.constants.EventType;
 import com.doubao.voice.protocol.constants.MessageType;
 import com.doubao.voice.protocol.message.DoubaoMessage;
+import com.doubao.voice.protocol.message.EventPayloads;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
-import okhttp3.*;
 import okio.ByteString;
-import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
-import java.util.List;
-import java.util.Map;
+import java.nio.ByteBuffer;
 import java.util.UUID;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 /**
  * 豆包WebSocket客户端
  *
- * 负责与豆包API建立WebSocket连接，发送和接收消息
+ * 代表一个上游会话，负责发送和接收该会话的消息。
+ * 物理WebSocket连接由 {@link DoubaoConnection} 持有，按
+ * {@code doubao.transport.max-sessions-per-connection} 可由多个会话共享。
+ *
+ * 下行分发：
+ * - 上游读线程只把事件投递到本会话的 {@link EventMailbox}，监听器回调在邮箱中按顺序执行
+ * - 音频帧最先交给 {@link AudioSink}，再交给订阅了该事件的监听器，不经过任何JSON处理
+ * - 其余事件按事件ID查表找到处理方法和订阅者，无订阅者的事件不解析负载
+ *
+ * 连接状态（isConnected/isConnectionStarted）在读线程中立即更新，不经过邮箱
  */
 @Slf4j
 public class DoubaoWebSocketClient {
 
+    /**
+     * 事件ID -> 处理方法（所有客户端共享）
+     */
+    private static final EventHandler[] EVENT_HANDLERS = buildEventHandlers();
+
+    @Getter
+    private final DoubaoTransport transport;
+    @Getter
     private final DoubaoProperties properties;
     private final DoubaoProtocolEncoder encoder;
+    private final ControlFrameCache frameCache;
     private final DoubaoProtocolDecoder decoder;
-    private final OkHttpClient httpClient;
-    private final List<DoubaoClientListener> listeners;
+    private final EventDispatcher dispatcher = new EventDispatcher();
+
+    /**
+     * 监听器回调邮箱，保证事件顺序且不阻塞上游读线程
+     */
+    private final EventMailbox mailbox;
+
+    /**
+     * 下行音频接收器
+     */
+    private volatile AudioSink audioSink;
+
+    /**
+     * 所在的物理连接
+     */
+    private volatile DoubaoConnection connection;
+
+    /**
+     * 待发送的帧，由所在连接按会话轮询取出
+     */
+    private final OutboundQueue outbound;
 
-    private WebSocket webSocket;
     private final AtomicBoolean connected = new AtomicBoolean(false);
     private final AtomicBoolean connectionStarted = new AtomicBoolean(false);
 
+    /**
+     * 是否已发送START_SESSION且未结束，断开时据此补发FINISH_SESSION
+     */
+    private final AtomicBoolean sessionActive = new AtomicBoolean(false);
+
     @Getter
     private String sessionId;
 
     @Getter
     private String dialogId;
 
+    /**
+     * 音频帧前缀（Header + TASK_REQUEST + Session ID），会话ID确定后计算一次
+     */
+    private volatile byte[] audioFramePrefix;
+
+    /**
+     * 独立使用时的构造方法，会单独创建传输层
+     */
     public DoubaoWebSocketClient(DoubaoProperties properties) {
-        this.properties = properties;
-        this.encoder = new DoubaoProtocolEncoder();
-        this.decoder = new DoubaoProtocolDecoder();
-        this.listeners = new CopyOnWriteArrayList<>();
+        this(new DoubaoTransport(properties));
+    }
 
-        this.httpClient = new OkHttpClient.Builder()
-                .connectTimeout(properties.getApi().getConnectTimeout(), TimeUnit.MILLISECONDS)
-                .readTimeout(properties.getApi().getReadTimeout(), TimeUnit.MILLISECONDS)
-                .writeTimeout(properties.getApi().getWriteTimeout(), TimeUnit.MILLISECONDS)
-                .pingInterval(30, TimeUnit.SECONDS)
-                .build();
+    /**
+     * @param transport 共享传输层（OkHttpClient和编解码器）
+     */
+    public DoubaoWebSocketClient(DoubaoTransport transport) {
+        this.transport = transport;
+        this.properties = transport.getProperties();
+        this.frameCache = transport.getFrameCache();
+        this.encoder = frameCache.getEncoder();
+        this.decoder = transport.getDecoder();
+        DoubaoProperties.Outbound config = properties.getOutbound();
+        this.outbound = new OutboundQueue(config.getMaxAudioBytes(), config.getDropPolicy(),
+                config.getCoalesceMaxBytes());
+        DoubaoProperties.Mailbox mailboxConfig = properties.getMailbox();
+        this.mailbox = new EventMailbox(transport.getEventExecutor(), mailboxConfig.getCapacity(),
+                mailboxConfig.getOverflowPolicy());
     }
 
     /**
-     * 添加事件监听器
+     * 添加事件监听器（订阅全部事件）
      */
     public void addListener(DoubaoClientListener listener) {
-        listeners.add(listener);
+        dispatcher.add(listener, null);
+    }
+
+    /**
+     * 添加事件监听器，只订阅指定事件
+     *
+     * 连接级回调（onConnected/onDisconnected/onError）始终通知；
+     * 事件回调及onMessage/onAudioData只在事件ID匹配时通知
+     *
+     * @param listener 监听器
+     * @param eventIds 订阅的事件ID，见 {@link EventType}
+     */
+    public void addListener(DoubaoClientListener listener, int... eventIds) {
+        dispatcher.add(listener, eventIds);
     }
 
     /**
      * 移除事件监听器
      */
     public void removeListener(DoubaoClientListener listener) {
-        listeners.remove(listener);
+        dispatcher.remove(listener);
+    }
+
+    /**
+     * 设置下行音频接收器，音频帧优先交给它处理
+     *
+     * @param audioSink 音频接收器，为null表示不使用
+     */
+    public void setAudioSink(AudioSink audioSink) {
+        this.audioSink = audioSink;
     }
 
     /**
      * 连接到豆包API
+     *
+     * 加入一个有空位的物理连接，没有时新建连接；所在连接已启动时立即回调
      */
     public void connect() {
-        if (connected.get()) {
+        connect(null, false);
+    }
+
+    /**
+     * 连接到豆包API，总是新建物理连接
+     *
+     * 供预热连接池使用：每个预热客户端对应一条单独完成握手的连接，
+     * 池的空闲数即预热的物理连接数；取用后连接上的其余空位仍可由其他会话加入
+     */
+    public void connectFresh() {
+        connect(null, true);
+    }
+
+    /**
+     * 连接到豆包API，不与指定客户端共用物理连接（如对冲启动时避开响应慢的连接）
+     *
+     * @param other 要避开的客户端
+     */
+    public void connectApartFrom(DoubaoWebSocketClient other) {
+        connect(other.connection, false);
+    }
+
+    private void connect(DoubaoConnection exclude, boolean fresh) {
+        if (connection != null) {
             log.warn("已经连接，无需重复连接");
             return;
         }
 
         // 生成会话ID
         this.sessionId = UUID.randomUUID().toString();
+        this.audioFramePrefix = encoder.encodeAudioPrefix(sessionId);
 
-        // 构建请求，添加认证头
-        Request request = new Request.Builder()
-                .url(properties.getApi().getUrl())
-                .addHeader("X-Api-App-ID", properties.getApi().getAppId())
-                .addHeader("X-Api-Access-Key", properties.getApi().getAccessKey())
-                .addHeader("X-Api-Resource-Id", properties.getApi().getResourceId())
-                .addHeader("X-Api-App-Key", properties.getApi().getAppKey())
-                .addHeader("X-Api-Connect-Id", sessionId)
-                .build();
-
-        log.info("正在连接豆包API: {}", properties.getApi().getUrl());
-        log.debug("认证信息: appId={}, resourceId={}",
-                properties.getApi().getAppId(),
-                properties.getApi().getResourceId());
-        webSocket = httpClient.newWebSocket(request, new DoubaoWebSocketListener());
+        DoubaoConnection attached = transport.attach(this, exclude, fresh);
+        this.connection = attached;
+        attached.syncState(this);
     }
 
     /**
      * 断开连接
+     *
+     * 会话仍在进行时先发送FINISH_SESSION，然后离开物理连接；
+     * 物理连接上没有其他会话时随之关闭
      */
     public void disconnect() {
-        if (webSocket != null) {
+        DoubaoConnection attached = connection;
+        if (attached == null) {
+            return;
+        }
+        if (attached.isOpen()) {
+            // 离开前直接发出队列中剩余的控制帧和FINISH_SESSION，之后的音频已无意义
+            outbound.dropAudio();
             try {
-                // 发送结束连接消息
-                sendFinishConnection();
-                Thread.sleep(100);
+                byte[] finish = null;
+                if (sessionActive.getAndSet(false)) {
+                    finish = encoder.encodeFinishSession(sessionId);
+                    log.debug("发送FINISH_SESSION消息, sessionId={}", sessionId);
+                }
+                attached.sendRemaining(this, finish);
             } catch (Exception e) {
-                log.warn("发送结束连接消息失败: {}", e.getMessage());
+                log.warn("发送结束会话消息失败: {}", e.getMessage());
             }
-            webSocket.close(1000, "Normal closure");
-            webSocket = null;
         }
-        connected.set(false);
+        connection = null;
+        attached.detach(this);
+        outbound.clear();
+        sessionActive.set(false);
         connectionStarted.set(false);
+        if (connected.getAndSet(false)) {
+            mailbox.execute(() -> {
+                for (DoubaoClientListener listener : dispatcher.all()) {
+                    listener.onDisconnected(1000, "Normal closure");
+                }
+            });
+        }
     }
 
     /**
      * 发送开始连接消息
+     *
+     * 物理连接建立后会自动发送，通常无需调用
      */
     public void sendStartConnection() throws IOException {
-        byte[] data = encoder.encodeStartConnection();
-        send(data);
-        log.debug("发送START_CONNECTION消息");
+        DoubaoConnection attached = requireConnection();
+        if (attached != null) {
+            attached.sendDirect(frameCache.startConnection());
+            log.debug("发送START_CONNECTION消息");
+        }
     }
 
     /**
      * 发送结束连接消息
+     *
+     * 会结束整个物理连接（包括共享该连接的其他会话），通常应使用 {@link #disconnect()}
      */
     public void sendFinishConnection() throws IOException {
-        byte[] data = encoder.encodeFinishConnection();
-        send(data);
-        log.debug("发送FINISH_CONNECTION消息");
+        DoubaoConnection attached = requireConnection();
+        if (attached != null) {
+            attached.sendDirect(frameCache.finishConnection());
+            log.debug("发送FINISH_CONNECTION消息");
+        }
     }
 
     /**
@@ -144,6 +263,21 @@ public class DoubaoWebSocketClient {
      */
     public void sendStartSession(Object sessionConfig) throws IOException {
         byte[] data = encoder.encodeStartSession(sessionId, sessionConfig);
+        sessionActive.set(true);
+        send(data);
+        log.debug("发送START_SESSION消息, sessionId={}", sessionId);
+    }
+
+    /**
+     * 发送开始会话消息，会话配置负载经缓存复用
+     *
+     * @param cacheKey       缓存键
+     * @param configSupplier 未命中缓存时构建会话配置
+     */
+    public void sendStartSession(ControlFrameCache.StartSessionKey cacheKey,
+                                 Supplier<Object> configSupplier) throws IOException {
+        byte[] data = frameCache.startSession(sessionId, cacheKey, configSupplier);
+        sessionActive.set(true);
         send(data);
         log.debug("发送START_SESSION消息, sessionId={}", sessionId);
     }
@@ -153,6 +287,12 @@ public class DoubaoWebSocketClient {
      */
     public void sendFinishSession() throws IOException {
         byte[] data = encoder.encodeFinishSession(sessionId);
+        sessionActive.set(false);
+        // FINISH_SESSION优先于音频发出，之后的音频已无意义
+        int dropped = outbound.dropAudio();
+        if (dropped > 0) {
+            log.debug("结束会话，丢弃未发送的音频帧: {}", dropped);
+        }
         send(data);
         log.debug("发送FINISH_SESSION消息, sessionId={}", sessionId);
     }
@@ -161,9 +301,39 @@ public class DoubaoWebSocketClient {
      * 发送音频数据
      */
     public void sendAudio(byte[] audioData) throws IOException {
-        byte[] data = encoder.encodeAudio(sessionId, audioData);
-        send(data);
-        log.trace("发送音频数据, size={}", audioData.length);
+        sendAudio(audioData, 0, audioData.length);
+    }
+
+    /**
+     * 发送音频数据
+     *
+     * 帧内容为 预计算前缀 + Payload长度 + PCM数据，直接写入按整帧长度分配的数组，不再经过DoubaoMessage和编码器。
+     * okio没有不拷贝的包装方式，ByteString.of会再拷贝一次，整帧共拷贝两次
+     */
+    public void sendAudio(byte[] audioData, int offset, int length) throws IOException {
+        byte[] prefix = audioFramePrefix;
+        if (prefix == null) {
+            log.warn("会话ID未分配，无法发送音频");
+            return;
+        }
+        byte[] frame = new byte[prefix.length + 4 + length];
+        System.arraycopy(prefix, 0, frame, 0, prefix.length);
+        int position = prefix.length;
+        frame[position++] = (byte) (length >>> 24);
+        frame[position++] = (byte) (length >>> 16);
+        frame[position++] = (byte) (length >>> 8);
+        frame[position++] = (byte) length;
+        System.arraycopy(audioData, offset, frame, position, length);
+
+        DoubaoConnection attached = requireConnection();
+        if (attached == null) {
+            return;
+        }
+        if (!outbound.offerAudio(ByteString.of(frame))) {
+            log.trace("发送队列已满，丢弃音频数据, size={}", length);
+        }
+        attached.flush();
+        log.trace("发送音频数据, size={}", length);
     }
 
     /**
@@ -187,237 +357,374 @@ public class DoubaoWebSocketClient {
      * 发送二进制数据
      */
     private void send(byte[] data) {
-        if (webSocket != null && connected.get()) {
-            webSocket.send(ByteString.of(data));
-        } else {
+        send(ByteString.of(data));
+    }
+
+    /**
+     * 发送控制帧，优先于排队的音频，由所在连接与其他会话轮流发出
+     */
+    private void send(ByteString frame) {
+        DoubaoConnection attached = requireConnection();
+        if (attached != null) {
+            outbound.offerControl(frame);
+            attached.flush();
+        }
+    }
+
+    private DoubaoConnection requireConnection() {
+        DoubaoConnection attached = connection;
+        if (attached == null || !connected.get()) {
             log.warn("WebSocket未连接，无法发送数据");
+            return null;
         }
+        return attached;
     }
 
     /**
      * 判断是否已连接
      */
     public boolean isConnected() {
-        return connected.get();
+        return connection != null && connected.get();
     }
 
     /**
      * 判断连接是否已启动（收到CONNECTION_STARTED事件）
      */
     public boolean isConnectionStarted() {
-        return connectionStarted.get();
+        return connection != null && connectionStarted.get();
     }
 
     /**
-     * WebSocket监听器
+     * 获取上行发送队列统计信息
      */
-    private class DoubaoWebSocketListener extends WebSocketListener {
+    public OutboundQueue.Stats getOutboundStats() {
+        return outbound.getStats();
+    }
 
-        @Override
-        public void onOpen(@NotNull WebSocket webSocket, @NotNull Response response) {
-            log.info("WebSocket连接已建立");
-            connected.set(true);
+    /**
+     * 获取事件邮箱统计信息
+     */
+    public EventMailbox.Stats getMailboxStats() {
+        return mailbox.getStats();
+    }
 
-            // 通知监听器
-            listeners.forEach(DoubaoClientListener::onConnected);
+    /**
+     * 在传输层的后台线程上延迟执行任务（如断线重连）
+     *
+     * @param task        任务
+     * @param delayMillis 延迟（毫秒）
+     */
+    public ScheduledFuture<?> schedule(Runnable task, long delayMillis) {
+        return transport.getScheduler().schedule(task, delayMillis, TimeUnit.MILLISECONDS);
+    }
 
-            // 发送开始连接消息
-            try {
-                sendStartConnection();
-            } catch (IOException e) {
-                log.error("发送开始连接消息失败", e);
-                listeners.forEach(l -> l.onError(e));
-            }
+    ByteString pollOutbound() {
+        return outbound.poll(audioFramePrefix);
+    }
+
+    /**
+     * 物理连接已建立
+     */
+    void transportOpened() {
+        if (!connected.compareAndSet(false, true)) {
+            return;
         }
+        mailbox.execute(() -> {
+            for (DoubaoClientListener listener : dispatcher.all()) {
+                listener.onConnected();
+            }
+        });
+    }
 
-        @Override
-        public void onMessage(@NotNull WebSocket webSocket, @NotNull ByteString bytes) {
-            try {
-                byte[] data = bytes.toByteArray();
-                DoubaoMessage message = decoder.decode(data);
-
-                if (message != null) {
-                    // 处理特定事件
-                    handleEvent(message);
-
-                    // 通知监听器
-                    listeners.forEach(l -> l.onMessage(message));
-
-                    // 如果是音频数据，单独通知
-                    if (message.getMessageType() == MessageType.SERVER_ACK &&
-                        message.getBinaryPayload() != null) {
-                        byte[] audioData = message.getBinaryPayload();
-                        String sid = message.getSessionId();
-                        listeners.forEach(l -> l.onAudioData(audioData, sid));
-                    }
+    /**
+     * 物理连接已启动
+     *
+     * @param message CONNECTION_STARTED消息，加入已启动的连接时为null
+     */
+    void transportStarted(DoubaoMessage message) {
+        if (!connectionStarted.compareAndSet(false, true)) {
+            return;
+        }
+        mailbox.execute(() -> {
+            DoubaoClientListener[] targets = dispatcher.forEvent(EventType.CONNECTION_STARTED);
+            for (DoubaoClientListener listener : targets) {
+                listener.onConnectionStarted();
+            }
+            if (message != null) {
+                for (DoubaoClientListener listener : targets) {
+                    listener.onMessage(message);
                 }
-            } catch (Exception e) {
-                log.error("处理消息失败", e);
-                listeners.forEach(l -> l.onError(e));
             }
-        }
+        });
+    }
 
-        @Override
-        public void onMessage(@NotNull WebSocket webSocket, @NotNull String text) {
-            log.debug("收到文本消息: {}", text);
-        }
+    /**
+     * 物理连接已关闭
+     */
+    void transportClosed(int code, String reason) {
+        connection = null;
+        outbound.clear();
+        sessionActive.set(false);
+        connectionStarted.set(false);
+        connected.set(false);
+        mailbox.execute(() -> {
+            for (DoubaoClientListener listener : dispatcher.all()) {
+                listener.onDisconnected(code, reason);
+            }
+        });
+    }
+
+    /**
+     * 物理连接失败
+     */
+    void transportFailed(Throwable error) {
+        connection = null;
+        outbound.clear();
+        sessionActive.set(false);
+        connectionStarted.set(false);
+        connected.set(false);
+        mailbox.execute(() -> notifyError(error));
+    }
+
+    /**
+     * 处理下行消息时出错
+     */
+    void transportError(Throwable error) {
+        mailbox.execute(() -> notifyError(error));
+    }
 
-        @Override
-        public void onClosing(@NotNull WebSocket webSocket, int code, @NotNull String reason) {
-            log.info("WebSocket正在关闭: code={}, reason={}", code, reason);
+    /**
+     * 处理路由到本会话的下行消息（音频快速路径之外），负载解析和回调都在邮箱中执行
+     */
+    void handleMessage(DoubaoMessage message) {
+        mailbox.execute(() -> dispatchMessage(message));
+    }
+
+    private void dispatchMessage(DoubaoMessage message) {
+        int eventId = message.getEventId() != null ? message.getEventId() : -1;
+        DoubaoClientListener[] targets = dispatcher.forEvent(eventId);
+
+        // 处理特定事件
+        EventHandler handler = eventId >= 0 && eventId < EVENT_HANDLERS.length ? EVENT_HANDLERS[eventId] : null;
+        if (handler != null) {
+            handler.handle(this, message, targets);
+        } else if (eventId >= 0) {
+            log.trace("未处理的事件: {}", EventType.getName(eventId));
         }
 
-        @Override
-        public void onClosed(@NotNull WebSocket webSocket, int code, @NotNull String reason) {
-            log.info("WebSocket已关闭: code={}, reason={}", code, reason);
-            connected.set(false);
-            connectionStarted.set(false);
-            listeners.forEach(l -> l.onDisconnected(code, reason));
+        // 通知监听器
+        for (DoubaoClientListener listener : targets) {
+            listener.onMessage(message);
         }
 
-        @Override
-        public void onFailure(@NotNull WebSocket webSocket, @NotNull Throwable t, @Nullable Response response) {
-            log.error("WebSocket连接失败: {}", t.getMessage());
-            if (response != null) {
-                log.error("响应状态: {} {}", response.code(), response.message());
-                try {
-                    if (response.body() != null) {
-                        log.error("响应内容: {}", response.body().string());
-                    }
-                } catch (Exception e) {
-                    log.trace("读取响应内容失败", e);
-                }
-            }
-            connected.set(false);
-            connectionStarted.set(false);
-            listeners.forEach(l -> l.onError(t));
+        // 压缩的音频帧走不到快速路径，解码后单独通知
+        if (message.getMessageType() == MessageType.SERVER_ACK &&
+            message.getPayloadBuffer() != null) {
+            deliverAudio(eventId, message.getPayloadBuffer(), message.getSessionId());
         }
     }
 
     /**
-     * 处理服务端事件
+     * 投递下行音频，邮箱满时按溢出策略丢弃
+     *
+     * audioData是该帧独占的只读视图，可以跨线程使用
      */
-    @SuppressWarnings("unchecked")
-    private void handleEvent(DoubaoMessage message) {
-        if (message.getEventId() == null) {
-            return;
+    void dispatchAudio(int eventId, ByteBuffer audioData, String sid) {
+        mailbox.executeDroppable(() -> deliverAudio(eventId, audioData, sid));
+    }
+
+    /**
+     * 分发下行音频：先交给音频接收器，再交给订阅了该事件的监听器
+     */
+    private void deliverAudio(int eventId, ByteBuffer audioData, String sid) {
+        AudioSink sink = audioSink;
+        if (sink != null) {
+            sink.onAudio(audioData, sid);
         }
+        for (DoubaoClientListener listener : dispatcher.forEvent(eventId)) {
+            listener.onAudioData(audioData, sid);
+        }
+    }
 
-        int eventId = message.getEventId();
-        Object payload = message.getPayload();
-        Map<String, Object> payloadMap = null;
-        if (payload instanceof Map) {
-            payloadMap = (Map<String, Object>) payload;
+    private void notifyError(Throwable error) {
+        for (DoubaoClientListener listener : dispatcher.all()) {
+            listener.onError(error);
         }
+    }
 
-        switch (eventId) {
-            case EventType.CONNECTION_STARTED -> {
-                connectionStarted.set(true);
-                log.info("连接已启动");
-                listeners.forEach(DoubaoClientListener::onConnectionStarted);
-            }
+    /**
+     * 事件处理方法
+     */
+    @FunctionalInterface
+    private interface EventHandler {
+
+        /**
+         * @param client  收到消息的客户端
+         * @param message 消息
+         * @param targets 订阅了该事件的监听器，为空时只执行客户端自身的状态更新
+         */
+        void handle(DoubaoWebSocketClient client, DoubaoMessage message, DoubaoClientListener[] targets);
+    }
 
-            case EventType.SESSION_STARTED -> {
-                if (payloadMap != null) {
-                    dialogId = (String) payloadMap.get("dialog_id");
-                }
-                log.info("会话已启动, dialogId={}", dialogId);
-                listeners.forEach(l -> l.onSessionStarted(dialogId));
-            }
+    /**
+     * 构建事件分发表
+     *
+     * 负载按事件类型流式绑定为类型化记录；未注册的事件不做任何JSON解析
+     */
+    private static EventHandler[] buildEventHandlers() {
+        EventHandler[] eventHandlers = new EventHandler[EventDispatcher.TABLE_SIZE];
+        eventHandlers[EventType.SESSION_STARTED] = DoubaoWebSocketClient::onSessionStarted;
+        eventHandlers[EventType.SESSION_FINISHED] = DoubaoWebSocketClient::onSessionFinished;
+        eventHandlers[EventType.SESSION_FAILED] = DoubaoWebSocketClient::onSessionFailed;
+        eventHandlers[EventType.ASR_INFO] = DoubaoWebSocketClient::onAsrInfo;
+        eventHandlers[EventType.ASR_RESPONSE] = DoubaoWebSocketClient::onAsrResponse;
+        eventHandlers[EventType.ASR_ENDED] = DoubaoWebSocketClient::onAsrEnded;
+        eventHandlers[EventType.TTS_SENTENCE_START] = DoubaoWebSocketClient::onTtsSentenceStart;
+        eventHandlers[EventType.TTS_SENTENCE_END] = DoubaoWebSocketClient::onTtsSentenceEnd;
+        eventHandlers[EventType.TTS_ENDED] = DoubaoWebSocketClient::onTtsEnded;
+        eventHandlers[EventType.CHAT_RESPONSE] = DoubaoWebSocketClient::onChatResponse;
+        eventHandlers[EventType.CHAT_ENDED] = DoubaoWebSocketClient::onChatEnded;
+        eventHandlers[EventType.DIALOG_COMMON_ERROR] = DoubaoWebSocketClient::onDialogError;
+        return eventHandlers;
+    }
 
-            case EventType.SESSION_FINISHED -> {
-                log.info("会话已结束");
-                listeners.forEach(DoubaoClientListener::onSessionFinished);
-            }
+    private void onSessionStarted(DoubaoMessage message, DoubaoClientListener[] targets) {
+        // dialogId用于续接对话，无论是否有订阅者都要解析
+        EventPayloads.SessionStarted payload = decoder.getPayloadReader().readSessionStarted(message);
+        if (payload != null) {
+            dialogId = payload.dialogId();
+        }
+        sessionActive.set(true);
+        log.info("会话已启动, dialogId={}", dialogId);
+        for (DoubaoClientListener listener : targets) {
+            listener.onSessionStarted(dialogId);
+        }
+    }
 
-            case EventType.SESSION_FAILED -> {
-                String error = payloadMap != null ? (String) payloadMap.get("error") : "Unknown error";
-                log.error("会话失败: {}", error);
-                listeners.forEach(l -> l.onSessionFailed(error));
-            }
+    private void onSessionFinished(DoubaoMessage message, DoubaoClientListener[] targets) {
+        sessionActive.set(false);
+        log.info("会话已结束");
+        for (DoubaoClientListener listener : targets) {
+            listener.onSessionFinished();
+        }
+    }
 
-            case EventType.ASR_INFO -> {
-                String questionId = payloadMap != null ? (String) payloadMap.get("question_id") : null;
-                log.debug("用户开始说话, questionId={}", questionId);
-                listeners.forEach(l -> l.onUserSpeechStarted(questionId));
-            }
+    private void onSessionFailed(DoubaoMessage message, DoubaoClientListener[] targets) {
+        EventPayloads.SessionFailed payload = decoder.getPayloadReader().readSessionFailed(message);
+        String error = payload != null ? payload.error() : "Unknown error";
+        sessionActive.set(false);
+        log.error("会话失败: {}", error);
+        for (DoubaoClientListener listener : targets) {
+            listener.onSessionFailed(error);
+        }
+    }
 
-            case EventType.ASR_RESPONSE -> {
-                if (payloadMap != null) {
-                    List<Map<String, Object>> results = (List<Map<String, Object>>) payloadMap.get("results");
-                    if (results != null && !results.isEmpty()) {
-                        Map<String, Object> result = results.get(0);
-                        String text = (String) result.get("text");
-                        Boolean isInterim = (Boolean) result.get("is_interim");
-                        log.debug("ASR识别结果: text={}, isInterim={}", text, isInterim);
-                        listeners.forEach(l -> l.onAsrResult(text, Boolean.TRUE.equals(isInterim)));
-                    }
-                }
-            }
+    private void onAsrInfo(DoubaoMessage message, DoubaoClientListener[] targets) {
+        if (targets.length == 0) {
+            return;
+        }
+        EventPayloads.ReplyRef payload = decoder.getPayloadReader().readReplyRef(message);
+        String questionId = payload != null ? payload.questionId() : null;
+        log.debug("用户开始说话, questionId={}", questionId);
+        for (DoubaoClientListener listener : targets) {
+            listener.onUserSpeechStarted(questionId);
+        }
+    }
 
-            case EventType.ASR_ENDED -> {
-                log.debug("用户停止说话");
-                listeners.forEach(DoubaoClientListener::onUserSpeechEnded);
+    private void onAsrResponse(DoubaoMessage message, DoubaoClientListener[] targets) {
+        if (targets.length == 0) {
+            return;
+        }
+        EventPayloads.AsrResponse payload = decoder.getPayloadReader().readAsrResponse(message);
+        if (payload != null) {
+            log.debug("ASR识别结果: text={}, isInterim={}", payload.text(), payload.interim());
+            for (DoubaoClientListener listener : targets) {
+                listener.onAsrResult(payload.text(), payload.interim());
             }
+        }
+    }
 
-            case EventType.TTS_SENTENCE_START -> {
-                if (payloadMap != null) {
-                    String text = (String) payloadMap.get("text");
-                    String ttsType = (String) payloadMap.get("tts_type");
-                    String questionId = (String) payloadMap.get("question_id");
-                    String replyId = (String) payloadMap.get("reply_id");
-                    log.debug("TTS句子开始: text={}, type={}", text, ttsType);
-                    listeners.forEach(l -> l.onTtsSentenceStart(text, ttsType, questionId, replyId));
-                }
-            }
+    private void onAsrEnded(DoubaoMessage message, DoubaoClientListener[] targets) {
+        log.debug("用户停止说话");
+        for (DoubaoClientListener listener : targets) {
+            listener.onUserSpeechEnded();
+        }
+    }
 
-            case EventType.TTS_SENTENCE_END -> {
-                if (payloadMap != null) {
-                    String questionId = (String) payloadMap.get("question_id");
-                    String replyId = (String) payloadMap.get("reply_id");
-                    log.debug("TTS句子结束");
-                    listeners.forEach(l -> l.onTtsSentenceEnd(questionId, replyId));
-                }
+    private void onTtsSentenceStart(DoubaoMessage message, DoubaoClientListener[] targets) {
+        if (targets.length == 0) {
+            return;
+        }
+        EventPayloads.TtsSentenceStart payload = decoder.getPayloadReader().readTtsSentenceStart(message);
+        if (payload != null) {
+            log.debug("TTS句子开始: text={}, type={}", payload.text(), payload.ttsType());
+            for (DoubaoClientListener listener : targets) {
+                listener.onTtsSentenceStart(payload.text(), payload.ttsType(),
+                        payload.questionId(), payload.replyId());
             }
+        }
+    }
 
-            case EventType.TTS_ENDED -> {
-                if (payloadMap != null) {
-                    String questionId = (String) payloadMap.get("question_id");
-                    String replyId = (String) payloadMap.get("reply_id");
-                    log.debug("TTS播放结束");
-                    listeners.forEach(l -> l.onTtsEnded(questionId, replyId));
-                }
+    private void onTtsSentenceEnd(DoubaoMessage message, DoubaoClientListener[] targets) {
+        if (targets.length == 0) {
+            return;
+        }
+        EventPayloads.ReplyRef payload = decoder.getPayloadReader().readReplyRef(message);
+        if (payload != null) {
+            log.debug("TTS句子结束");
+            for (DoubaoClientListener listener : targets) {
+                listener.onTtsSentenceEnd(payload.questionId(), payload.replyId());
             }
+        }
+    }
 
-            case EventType.CHAT_RESPONSE -> {
-                if (payloadMap != null) {
-                    String content = (String) payloadMap.get("content");
-                    String questionId = (String) payloadMap.get("question_id");
-                    String replyId = (String) payloadMap.get("reply_id");
-                    log.debug("AI回复: {}", content);
-                    listeners.forEach(l -> l.onChatResponse(content, questionId, replyId));
-                }
+    private void onTtsEnded(DoubaoMessage message, DoubaoClientListener[] targets) {
+        if (targets.length == 0) {
+            return;
+        }
+        EventPayloads.ReplyRef payload = decoder.getPayloadReader().readReplyRef(message);
+        if (payload != null) {
+            log.debug("TTS播放结束");
+            for (DoubaoClientListener listener : targets) {
+                listener.onTtsEnded(payload.questionId(), payload.replyId());
             }
+        }
+    }
 
-            case EventType.CHAT_ENDED -> {
-                if (payloadMap != null) {
-                    String questionId = (String) payloadMap.get("question_id");
-                    String replyId = (String) payloadMap.get("reply_id");
-                    log.debug("AI回复结束");
-                    listeners.forEach(l -> l.onChatEnded(questionId, replyId));
-                }
+    private void onChatResponse(DoubaoMessage message, DoubaoClientListener[] targets) {
+        if (targets.length == 0) {
+            return;
+        }
+        EventPayloads.ChatResponse payload = decoder.getPayloadReader().readChatResponse(message);
+        if (payload != null) {
+            log.debug("AI回复: {}", payload.content());
+            for (DoubaoClientListener listener : targets) {
+                listener.onChatResponse(payload.content(), payload.questionId(), payload.replyId());
             }
+        }
+    }
 
-            case EventType.DIALOG_COMMON_ERROR -> {
-                if (payloadMap != null) {
-                    String statusCode = String.valueOf(payloadMap.get("status_code"));
-                    String errorMessage = (String) payloadMap.get("message");
-                    log.error("对话错误: code={}, message={}", statusCode, errorMessage);
-                    listeners.forEach(l -> l.onDialogError(statusCode, errorMessage));
-                }
+    private void onChatEnded(DoubaoMessage message, DoubaoClientListener[] targets) {
+        if (targets.length == 0) {
+            return;
+        }
+        EventPayloads.ReplyRef payload = decoder.getPayloadReader().readReplyRef(message);
+        if (payload != null) {
+            log.debug("AI回复结束");
+            for (DoubaoClientListener listener : targets) {
+                listener.onChatEnded(payload.questionId(), payload.replyId());
             }
+        }
+    }
 
-            default -> log.trace("未处理的事件: {}", EventType.getName(eventId));
+    private void onDialogError(DoubaoMessage message, DoubaoClientListener[] targets) {
+        // 错误始终记录日志
+        EventPayloads.DialogError payload = decoder.getPayloadReader().readDialogError(message);
+        if (payload != null) {
+            log.error("对话错误: code={}, message={}", payload.statusCode(), payload.message());
+            for (DoubaoClientListener listener : targets) {
+                listener.onDialogError(payload.statusCode(), payload.message());
+            }
         }
     }
 }
@@ -0,0 +1,138 @@
+package com.doubao.voice.client;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 按事件ID索引的监听器分发表
+ *
+ * 监听器可订阅全部事件，也可只订阅指定的事件ID。每次增删监听器时重建分发表，
+ * 读路径只做一次数组下标访问，不加锁也不分配对象
+ */
+class EventDispatcher {
+
+    /**
+     * 分发表大小，服务端事件ID均小于此值
+     */
+    static final int TABLE_SIZE = 1024;
+
+    private static final DoubaoClientListener[] EMPTY = new DoubaoClientListener[0];
+
+    private final List<Subscription> subscriptions = new ArrayList<>();
+
+    /**
+     * 全部监听器（用于连接级回调）
+     */
+    private volatile DoubaoClientListener[] all = EMPTY;
+
+    /**
+     * 只订阅全部事件的监听器（用于无事件ID或超出分发表范围的帧）
+     */
+    private volatile DoubaoClientListener[] wildcards = EMPTY;
+
+    /**
+     * 事件ID -> 监听器（没有按事件订阅的监听器时为null，不占用分发表内存）
+     */
+    private volatile DoubaoClientListener[][] byEvent;
+
+    /**
+     * 添加监听器
+     *
+     * @param listener 监听器
+     * @param eventIds 订阅的事件ID，为null表示订阅全部事件
+     */
+    synchronized void add(DoubaoClientListener listener, int[] eventIds) {
+        subscriptions.add(new Subscription(listener, eventIds != null ? eventIds.clone() : null));
+        rebuild();
+    }
+
+    /**
+     * 移除监听器
+     */
+    synchronized void remove(DoubaoClientListener listener) {
+        if (subscriptions.removeIf(s -> s.listener == listener)) {
+            rebuild();
+        }
+    }
+
+    /**
+     * 全部监听器
+     */
+    DoubaoClientListener[] all() {
+        return all;
+    }
+
+    /**
+     * 某个事件的监听器
+     *
+     * @param eventId 事件ID，小于0表示无事件ID
+     */
+    DoubaoClientListener[] forEvent(int eventId) {
+        if (eventId < 0 || eventId >= TABLE_SIZE) {
+            return wildcards;
+        }
+        DoubaoClientListener[][] table = byEvent;
+        DoubaoClientListener[] listeners = table != null ? table[eventId] : null;
+        return listeners != null ? listeners : wildcards;
+    }
+
+    private void rebuild() {
+        List<DoubaoClientListener> allList = new ArrayList<>();
+        List<DoubaoClientListener> wildcardList = new ArrayList<>();
+        for (Subscription subscription : subscriptions) {
+            allList.add(subscription.listener);
+            if (subscription.eventIds == null) {
+                wildcardList.add(subscription.listener);
+            }
+        }
+        DoubaoClientListener[] wildcardArray = wildcardList.toArray(EMPTY);
+
+        // 只为有专门订阅的事件建表，其余事件回落到wildcards
+        DoubaoClientListener[][] table = null;
+        for (Subscription subscription : subscriptions) {
+            if (subscription.eventIds == null) {
+                continue;
+            }
+            if (table == null) {
+                table = new DoubaoClientListener[TABLE_SIZE][];
+            }
+            for (int eventId : subscription.eventIds) {
+                if (eventId >= 0 && eventId < TABLE_SIZE && table[eventId] == null) {
+                    table[eventId] = collect(eventId);
+                }
+            }
+        }
+
+        this.all = allList.toArray(EMPTY);
+        this.wildcards = wildcardArray;
+        this.byEvent = table;
+    }
+
+    /**
+     * 按注册顺序收集订阅了某事件（或全部事件）的监听器
+     */
+    private DoubaoClientListener[] collect(int eventId) {
+        List<DoubaoClientListener> result = new ArrayList<>();
+        for (Subscription subscription : subscriptions) {
+            if (subscription.matches(eventId)) {
+                result.add(subscription.listener);
+            }
+        }
+        return result.toArray(EMPTY);
+    }
+
+    private record Subscription(DoubaoClientListener listener, int[] eventIds) {
+
+        boolean matches(int eventId) {
+            if (eventIds == null) {
+                return true;
+            }
+            for (int id : eventIds) {
+                if (id == eventId) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
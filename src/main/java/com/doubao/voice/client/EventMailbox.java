@@ -0,0 +1,190 @@
+package com.doubao.voice.client;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 会话事件邮箱
+ *
+ * 上游读线程只负责解码并把事件投递到邮箱，监听器回调在共享线程池中按投递顺序串行执行，
+ * 下游消费慢（如浏览器WebSocket发送阻塞）时不会拖慢上游读取，也不影响同一连接上的其他会话。
+ *
+ * - 同一邮箱的事件严格按投递顺序执行，任意时刻最多一个线程在执行
+ * - 每批最多执行 {@link #BATCH_SIZE} 个事件后让出线程，避免单个会话长期占用
+ * - 容量只约束可丢弃的事件（下行音频）：超出后按溢出策略丢弃音频，控制类事件始终投递
+ *
+ * 线程安全
+ */
+@Slf4j
+public class EventMailbox {
+
+    /**
+     * 邮箱满时的溢出策略（仅作用于可丢弃的事件）
+     */
+    public enum OverflowPolicy {
+        /**
+         * 丢弃队列中最早的可丢弃事件
+         */
+        DROP_OLDEST,
+        /**
+         * 丢弃新投递的可丢弃事件
+         */
+        DROP_NEWEST
+    }
+
+    /**
+     * 每批执行的最大事件数
+     */
+    private static final int BATCH_SIZE = 64;
+
+    private final Executor executor;
+    private final int capacity;
+    private final OverflowPolicy overflowPolicy;
+
+    private final Deque<Entry> queue = new ArrayDeque<>();
+    private boolean scheduled;
+
+    private long processed;
+    private long dropped;
+    private int peakDepth;
+    private long lastLagNanos;
+    private long maxLagNanos;
+    private long totalLagNanos;
+
+    /**
+     * @param executor       执行事件的共享线程池
+     * @param capacity       容量
+     * @param overflowPolicy 溢出策略
+     */
+    public EventMailbox(Executor executor, int capacity, OverflowPolicy overflowPolicy) {
+        this.executor = executor;
+        this.capacity = Math.max(1, capacity);
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * 投递控制类事件，不受容量限制
+     */
+    public void execute(Runnable task) {
+        submit(task, false);
+    }
+
+    /**
+     * 投递可丢弃的事件（下行音频），邮箱满时按溢出策略处理
+     */
+    public void executeDroppable(Runnable task) {
+        submit(task, true);
+    }
+
+    /**
+     * 获取邮箱统计信息
+     */
+    public synchronized Stats getStats() {
+        return new Stats(queue.size(), peakDepth, capacity, processed, dropped,
+                TimeUnit.NANOSECONDS.toMicros(lastLagNanos),
+                TimeUnit.NANOSECONDS.toMicros(maxLagNanos),
+                processed > 0 ? TimeUnit.NANOSECONDS.toMicros(totalLagNanos / processed) : 0);
+    }
+
+    private void submit(Runnable task, boolean droppable) {
+        synchronized (this) {
+            if (droppable && queue.size() >= capacity) {
+                if (overflowPolicy == OverflowPolicy.DROP_NEWEST || !dropOldestDroppable()) {
+                    dropped++;
+                    return;
+                }
+            }
+            queue.addLast(new Entry(task, droppable, System.nanoTime()));
+            if (queue.size() > peakDepth) {
+                peakDepth = queue.size();
+            }
+            if (scheduled) {
+                return;
+            }
+            scheduled = true;
+        }
+        schedule();
+    }
+
+    private void schedule() {
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            // 线程池已关闭（应用停止中），丢弃剩余事件
+            synchronized (this) {
+                dropped += queue.size();
+                queue.clear();
+                scheduled = false;
+            }
+        }
+    }
+
+    private void drain() {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            Entry entry;
+            synchronized (this) {
+                entry = queue.pollFirst();
+                if (entry == null) {
+                    scheduled = false;
+                    return;
+                }
+                long lag = System.nanoTime() - entry.enqueuedAt;
+                lastLagNanos = lag;
+                totalLagNanos += lag;
+                if (lag > maxLagNanos) {
+                    maxLagNanos = lag;
+                }
+                processed++;
+            }
+            try {
+                entry.task.run();
+            } catch (Throwable t) {
+                log.error("事件处理失败: {}", t.getMessage(), t);
+            }
+        }
+        // 本批已满，重新排队让出线程
+        schedule();
+    }
+
+    /**
+     * 移除队列中最早的可丢弃事件
+     *
+     * @return 是否移除
+     */
+    private boolean dropOldestDroppable() {
+        Iterator<Entry> iterator = queue.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().droppable) {
+                iterator.remove();
+                dropped++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Entry(Runnable task, boolean droppable, long enqueuedAt) {
+    }
+
+    /**
+     * 邮箱统计信息
+     *
+     * @param depth         当前排队事件数
+     * @param peakDepth     排队事件数峰值
+     * @param capacity      容量
+     * @param processed     累计执行的事件数
+     * @param dropped       累计丢弃的事件数
+     * @param lastLagMicros 最近一个事件的排队时间（微秒）
+     * @param maxLagMicros  最大排队时间（微秒）
+     * @param avgLagMicros  平均排队时间（微秒）
+     */
+    public record Stats(int depth, int peakDepth, int capacity, long processed, long dropped,
+                        long lastLagMicros, long maxLagMicros, long avgLagMicros) {
+    }
+}
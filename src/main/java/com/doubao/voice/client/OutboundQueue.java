@@ -0,0 +1,224 @@
+package com.doubao.voice.client;
+
+import okio.Buffer;
+import okio.ByteString;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * 会话上行发送队列
+ *
+ * 控制帧（START_SESSION、FINISH_SESSION、文本查询等）与音频帧分开排队，
+ * 取出时控制帧始终优先；音频帧受字节预算限制，超出时按丢弃策略处理，
+ * 避免上游变慢时积压数秒的过期音频。
+ *
+ * 积压的多个音频帧可在取出时合并为一帧，减少追赶时的帧数
+ *
+ * 线程安全
+ */
+public class OutboundQueue {
+
+    /**
+     * 音频超出预算时的丢弃策略
+     */
+    public enum DropPolicy {
+        /**
+         * 丢弃最早排队的音频，保留最新的音频
+         */
+        DROP_OLDEST,
+        /**
+         * 丢弃新到达的音频
+         */
+        DROP_NEWEST
+    }
+
+    /**
+     * 音频帧中Payload长度字段的字节数
+     */
+    private static final int PAYLOAD_LENGTH_SIZE = 4;
+
+    private final long maxAudioBytes;
+    private final DropPolicy dropPolicy;
+    private final int coalesceMaxBytes;
+
+    private final Deque<ByteString> control = new ArrayDeque<>();
+    private final Deque<ByteString> audio = new ArrayDeque<>();
+
+    private long controlBytes;
+    private long audioBytes;
+    private long peakBytes;
+    private long sentFrames;
+    private long sentBytes;
+    private long droppedFrames;
+    private long droppedBytes;
+    private long coalescedFrames;
+
+    /**
+     * @param maxAudioBytes    排队音频的字节预算
+     * @param dropPolicy       超出预算时的丢弃策略
+     * @param coalesceMaxBytes 合并后单帧音频数据的最大字节数，0表示不合并
+     */
+    public OutboundQueue(long maxAudioBytes, DropPolicy dropPolicy, int coalesceMaxBytes) {
+        this.maxAudioBytes = maxAudioBytes;
+        this.dropPolicy = dropPolicy;
+        this.coalesceMaxBytes = coalesceMaxBytes;
+    }
+
+    /**
+     * 控制帧入队，不受预算限制
+     */
+    public synchronized void offerControl(ByteString frame) {
+        control.addLast(frame);
+        controlBytes += frame.size();
+        updatePeak();
+    }
+
+    /**
+     * 音频帧入队
+     *
+     * @param frame 完整的音频帧
+     * @return 是否入队（DROP_NEWEST策略下超出预算时返回false）
+     */
+    public synchronized boolean offerAudio(ByteString frame) {
+        int size = frame.size();
+        if (audioBytes + size > maxAudioBytes && !audio.isEmpty()) {
+            if (dropPolicy == DropPolicy.DROP_NEWEST) {
+                droppedFrames++;
+                droppedBytes += size;
+                return false;
+            }
+            while (!audio.isEmpty() && audioBytes + size > maxAudioBytes) {
+                ByteString dropped = audio.pollFirst();
+                audioBytes -= dropped.size();
+                droppedFrames++;
+                droppedBytes += dropped.size();
+            }
+        }
+        audio.addLast(frame);
+        audioBytes += size;
+        updatePeak();
+        return true;
+    }
+
+    /**
+     * 取出下一帧，控制帧优先
+     *
+     * @param audioPrefix 音频帧前缀（Header + 事件ID + Session ID），为null时不合并音频
+     * @return 下一帧，队列为空时返回null
+     */
+    public synchronized ByteString poll(byte[] audioPrefix) {
+        ByteString frame = control.pollFirst();
+        if (frame != null) {
+            controlBytes -= frame.size();
+            return sent(frame);
+        }
+        frame = audio.pollFirst();
+        if (frame == null) {
+            return null;
+        }
+        audioBytes -= frame.size();
+        if (coalesceMaxBytes <= 0 || audioPrefix == null || audio.isEmpty()) {
+            return sent(frame);
+        }
+        return sent(coalesce(frame, audioPrefix));
+    }
+
+    /**
+     * 丢弃所有排队的音频
+     *
+     * @return 丢弃的帧数
+     */
+    public synchronized int dropAudio() {
+        int count = audio.size();
+        droppedFrames += count;
+        droppedBytes += audioBytes;
+        audio.clear();
+        audioBytes = 0;
+        return count;
+    }
+
+    /**
+     * 清空队列（连接关闭时），不计入丢弃统计
+     */
+    public synchronized void clear() {
+        control.clear();
+        audio.clear();
+        controlBytes = 0;
+        audioBytes = 0;
+    }
+
+    /**
+     * 获取队列统计信息
+     */
+    public synchronized Stats getStats() {
+        return new Stats(control.size() + audio.size(), controlBytes + audioBytes,
+                audio.size(), audioBytes, peakBytes, maxAudioBytes,
+                sentFrames, sentBytes, droppedFrames, droppedBytes, coalescedFrames);
+    }
+
+    /**
+     * 将队首的连续音频帧合并为一帧，合并后的音频数据不超过coalesceMaxBytes
+     */
+    private ByteString coalesce(ByteString first, byte[] audioPrefix) {
+        int headerLength = audioPrefix.length + PAYLOAD_LENGTH_SIZE;
+        int total = first.size() - headerLength;
+        int count = 1;
+        for (ByteString next : audio) {
+            int length = next.size() - headerLength;
+            if (total + length > coalesceMaxBytes) {
+                break;
+            }
+            total += length;
+            count++;
+        }
+        if (count == 1) {
+            return first;
+        }
+
+        Buffer merged = new Buffer();
+        merged.write(audioPrefix);
+        merged.writeInt(total);
+        merged.write(first, headerLength, first.size() - headerLength);
+        for (int i = 1; i < count; i++) {
+            ByteString next = audio.pollFirst();
+            audioBytes -= next.size();
+            merged.write(next, headerLength, next.size() - headerLength);
+        }
+        coalescedFrames += count - 1;
+        return merged.readByteString();
+    }
+
+    private ByteString sent(ByteString frame) {
+        sentFrames++;
+        sentBytes += frame.size();
+        return frame;
+    }
+
+    private void updatePeak() {
+        long queued = controlBytes + audioBytes;
+        if (queued > peakBytes) {
+            peakBytes = queued;
+        }
+    }
+
+    /**
+     * 队列统计信息
+     *
+     * @param queuedFrames    当前排队帧数
+     * @param queuedBytes     当前排队字节数
+     * @param audioFrames     当前排队的音频帧数
+     * @param audioBytes      当前排队的音频字节数
+     * @param peakBytes       排队字节数峰值
+     * @param maxAudioBytes   音频字节预算
+     * @param sentFrames      累计发出帧数（合并后）
+     * @param sentBytes       累计发出字节数
+     * @param droppedFrames   累计丢弃的音频帧数
+     * @param droppedBytes    累计丢弃的音频字节数
+     * @param coalescedFrames 累计被合并进其他帧的音频帧数
+     */
+    public record Stats(int queuedFrames, long queuedBytes, int audioFrames, long audioBytes,
+                        long peakBytes, long maxAudioBytes, long sentFrames, long sentBytes,
+                        long droppedFrames, long droppedBytes, long coalescedFrames) {
+    }
+}
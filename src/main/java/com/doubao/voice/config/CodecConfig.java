@@ -0,0 +1,62 @@
+package com.doubao.voice.config;
+
+import com.doubao.voice.protocol.codec.CompressionPolicy;
+import com.doubao.voice.protocol.codec.ControlFrameCache;
+import com.doubao.voice.protocol.codec.DoubaoProtocolDecoder;
+import com.doubao.voice.protocol.codec.DoubaoProtocolEncoder;
+import com.doubao.voice.protocol.codec.GzipUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 协议编解码配置类
+ */
+@Configuration
+public class CodecConfig {
+
+    /**
+     * 协议编解码共用的ObjectMapper
+     *
+     * 不注册为Bean，避免替换Spring Boot自动配置的ObjectMapper
+     */
+    private final ObjectMapper protocolObjectMapper = new ObjectMapper();
+
+    /**
+     * 出站JSON帧压缩策略
+     */
+    @Bean
+    public CompressionPolicy compressionPolicy(DoubaoProperties properties) {
+        DoubaoProperties.Compression compression = properties.getCompression();
+        return new CompressionPolicy(
+                compression.isAdaptive(),
+                compression.getMinSize(),
+                compression.getAlwaysCompressEvents(),
+                compression.getNeverCompressEvents(),
+                GzipUtils.codec());
+    }
+
+    /**
+     * 共享编码器（无状态，线程安全）
+     */
+    @Bean
+    public DoubaoProtocolEncoder doubaoProtocolEncoder(CompressionPolicy compressionPolicy) {
+        return new DoubaoProtocolEncoder(protocolObjectMapper, compressionPolicy);
+    }
+
+    /**
+     * 共享解码器（无状态，线程安全）
+     */
+    @Bean
+    public DoubaoProtocolDecoder doubaoProtocolDecoder() {
+        return new DoubaoProtocolDecoder(protocolObjectMapper);
+    }
+
+    /**
+     * 预编码控制帧缓存
+     */
+    @Bean
+    public ControlFrameCache controlFrameCache(DoubaoProtocolEncoder doubaoProtocolEncoder, DoubaoProperties properties) {
+        return new ControlFrameCache(doubaoProtocolEncoder, properties.getSession().getStartSessionCacheSize());
+    }
+}
@@ -1,11 +1,16 @@
 package com.doubao.voice.config;
 
+import com.doubao.voice.client.EventMailbox;
+import com.doubao.voice.client.OutboundQueue;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.annotation.Validated;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * 豆包API配置属性
  */
@@ -40,6 +45,51 @@ public class DoubaoProperties {
      */
     private Dialog dialog = new Dialog();
 
+    /**
+     * 出站压缩配置
+     */
+    private Compression compression = new Compression();
+
+    /**
+     * 上游传输配置
+     */
+    private Transport transport = new Transport();
+
+    /**
+     * 预热连接池配置
+     */
+    private Pool pool = new Pool();
+
+    /**
+     * 会话上行发送队列配置
+     */
+    private Outbound outbound = new Outbound();
+
+    /**
+     * 会话事件邮箱配置
+     */
+    private Mailbox mailbox = new Mailbox();
+
+    /**
+     * 客户端下行发送缓冲配置
+     */
+    private ClientSend clientSend = new ClientSend();
+
+    /**
+     * 下行音频播放缓冲配置
+     */
+    private Playback playback = new Playback();
+
+    /**
+     * 上游断线重连配置
+     */
+    private Reconnect reconnect = new Reconnect();
+
+    /**
+     * 会话启动对冲配置
+     */
+    private Hedge hedge = new Hedge();
+
     @Data
     public static class Api {
         /**
@@ -101,6 +151,16 @@ public class DoubaoProperties {
          * 会话清理间隔（毫秒）
          */
         private long cleanupInterval = 60000;
+
+        /**
+         * START_SESSION负载缓存条目数（按会话配置+dialogId缓存）
+         */
+        private int startSessionCacheSize = 256;
+
+        /**
+         * 异步生命周期操作（连接、启动、结束、断开）的超时时间（毫秒）
+         */
+        private long lifecycleTimeout = 10000;
     }
 
     @Data
@@ -147,6 +207,26 @@ public class DoubaoProperties {
          * 是否启用ASR二次校验
          */
         private boolean enableAsrTwopass = false;
+
+        /**
+         * 上行音频帧时长（毫秒），客户端音频重新切分为该时长的帧（0表示不分帧，原样转发）
+         */
+        private int frameMs = 40;
+
+        /**
+         * 是否根据上游往返时间自适应调整帧时长
+         */
+        private boolean adaptiveFrame = false;
+
+        /**
+         * 自适应时的最小帧时长（毫秒）
+         */
+        private int minFrameMs = 20;
+
+        /**
+         * 自适应时的最大帧时长（毫秒）
+         */
+        private int maxFrameMs = 100;
     }
 
     @Data
@@ -190,4 +270,212 @@ public class DoubaoProperties {
          */
         private boolean strictAudit = false;
     }
+
+    @Data
+    public static class Compression {
+        /**
+         * 是否启用自适应压缩策略
+         * 关闭时所有JSON帧均使用Gzip压缩（与协议示例一致）
+         */
+        private boolean adaptive = true;
+
+        /**
+         * 最小压缩长度（字节），小于此长度的JSON负载不压缩
+         */
+        private int minSize = 256;
+
+        /**
+         * 始终压缩的事件ID（默认START_SESSION）
+         */
+        private List<Integer> alwaysCompressEvents = new ArrayList<>(List.of(100));
+
+        /**
+         * 从不压缩的事件ID（默认START_CONNECTION、FINISH_CONNECTION、FINISH_SESSION）
+         */
+        private List<Integer> neverCompressEvents = new ArrayList<>(List.of(1, 2, 102));
+    }
+
+    @Data
+    public static class Transport {
+        /**
+         * 上游WebSocket连接数上限（0表示按最大会话数自动推算）
+         */
+        private int maxConnections = 0;
+
+        /**
+         * WebSocket心跳间隔（毫秒）
+         */
+        private long pingInterval = 30000;
+
+        /**
+         * HTTP连接池最大空闲连接数
+         */
+        private int maxIdleConnections = 5;
+
+        /**
+         * HTTP连接池空闲连接保活时间（毫秒）
+         */
+        private long keepAlive = 300000;
+
+        /**
+         * 每个上游WebSocket连接承载的会话数上限（1表示每个会话独占连接）
+         */
+        private int maxSessionsPerConnection = 1;
+
+        /**
+         * 单个连接OkHttp发送队列的积压上限（字节），超过后暂停发送，稍后按会话轮询继续
+         */
+        private long maxQueuedBytes = 65536;
+    }
+
+    @Data
+    public static class Pool {
+        /**
+         * 是否启用预热连接池
+         */
+        private boolean enabled = false;
+
+        /**
+         * 最小空闲连接数（后台补充到此数量）
+         */
+        private int minIdle = 2;
+
+        /**
+         * 最大空闲连接数（含建立中的连接）
+         */
+        private int maxIdle = 8;
+
+        /**
+         * 空闲连接最大存活时间（毫秒），超过后淘汰
+         */
+        private long maxAge = 240000;
+
+        /**
+         * 健康检查及补充间隔（毫秒）
+         */
+        private long healthCheckInterval = 10000;
+    }
+
+    @Data
+    public static class Outbound {
+        /**
+         * 每个会话排队音频的字节预算，超出后按丢弃策略处理
+         */
+        private long maxAudioBytes = 32000;
+
+        /**
+         * 音频超出预算时的丢弃策略
+         */
+        private OutboundQueue.DropPolicy dropPolicy = OutboundQueue.DropPolicy.DROP_OLDEST;
+
+        /**
+         * 积压音频合并后单帧音频数据的最大字节数（0表示不合并）
+         */
+        private int coalesceMaxBytes = 6400;
+    }
+
+    @Data
+    public static class Mailbox {
+        /**
+         * 每个会话排队的下行音频事件上限（控制类事件不受限制）
+         */
+        private int capacity = 512;
+
+        /**
+         * 超出上限时的溢出策略
+         */
+        private EventMailbox.OverflowPolicy overflowPolicy = EventMailbox.OverflowPolicy.DROP_OLDEST;
+    }
+
+    @Data
+    public static class ClientSend {
+        /**
+         * 单条消息的发送时间上限（毫秒），超出后关闭客户端连接
+         */
+        private long sendTimeLimit = 5000;
+
+        /**
+         * 每个客户端排队的字节数上限，超出后依次丢弃中间结果、音频，仍超出时关闭连接
+         */
+        private long bufferSizeLimit = 262144;
+    }
+
+    @Data
+    public static class Playback {
+        /**
+         * 是否按实时节奏发出下行音频（关闭后收到即转发，打断时无法丢弃已转发的音频）
+         */
+        private boolean enabled = true;
+
+        /**
+         * 允许客户端领先播放进度缓冲的音频时长（毫秒）
+         */
+        private long leadMs = 300;
+    }
+
+    @Data
+    public static class Reconnect {
+        /**
+         * 是否在上游连接意外断开时自动重连
+         */
+        private boolean enabled = true;
+
+        /**
+         * 最大连续重试次数
+         */
+        private int maxAttempts = 5;
+
+        /**
+         * 首次重试的退避上限（毫秒）
+         */
+        private long initialDelay = 200;
+
+        /**
+         * 退避上限的最大值（毫秒）
+         */
+        private long maxDelay = 5000;
+
+        /**
+         * 重连期间暂存的上行音频时长上限（毫秒）
+         */
+        private int bufferMs = 2000;
+    }
+
+    @Data
+    public static class Hedge {
+        /**
+         * 是否启用会话启动对冲
+         */
+        private boolean enabled = false;
+
+        /**
+         * 对冲延迟取最近启动耗时的分位数
+         */
+        private double percentile = 95;
+
+        /**
+         * 计算分位数所需的最少样本数，不足时使用initialDelay
+         */
+        private int minSamples = 20;
+
+        /**
+         * 样本不足时的对冲延迟（毫秒）
+         */
+        private long initialDelay = 1000;
+
+        /**
+         * 对冲延迟下限（毫秒）
+         */
+        private long minDelay = 100;
+
+        /**
+         * 对冲延迟上限（毫秒）
+         */
+        private long maxDelay = 3000;
+
+        /**
+         * 对冲次数占启动次数的比例上限
+         */
+        private double maxHedgeRatio = 0.05;
+    }
 }
@@ -0,0 +1,42 @@
+package com.doubao.voice.config;
+
+import com.doubao.voice.client.DoubaoConnectionPool;
+import com.doubao.voice.client.DoubaoTransport;
+import com.doubao.voice.protocol.codec.ControlFrameCache;
+import com.doubao.voice.protocol.codec.DoubaoProtocolDecoder;
+import com.doubao.voice.session.StartHedger;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 上游传输配置类
+ */
+@Configuration
+public class TransportConfig {
+
+    /**
+     * 所有会话共享的传输层
+     */
+    @Bean(destroyMethod = "shutdown")
+    public DoubaoTransport doubaoTransport(DoubaoProperties properties,
+                                           ControlFrameCache controlFrameCache,
+                                           DoubaoProtocolDecoder doubaoProtocolDecoder) {
+        return new DoubaoTransport(properties, controlFrameCache, doubaoProtocolDecoder);
+    }
+
+    /**
+     * 预热连接池（未启用时不建立任何连接）
+     */
+    @Bean(destroyMethod = "shutdown")
+    public DoubaoConnectionPool doubaoConnectionPool(DoubaoTransport doubaoTransport) {
+        return new DoubaoConnectionPool(doubaoTransport);
+    }
+
+    /**
+     * 会话启动对冲策略（所有会话共享启动耗时样本和对冲预算）
+     */
+    @Bean
+    public StartHedger startHedger(DoubaoProperties properties) {
+        return new StartHedger(properties.getHedge());
+    }
+}
@@ -1,7 +1,9 @@
 package com.doubao.voice.config;
 
 import com.doubao.voice.api.websocket.VoiceWebSocketHandler;
+import com.doubao.voice.session.ClientSendPool;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.socket.config.annotation.EnableWebSocket;
 import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
@@ -17,6 +19,14 @@ public class WebSocketConfig implements WebSocketConfigurer {
 
     private final VoiceWebSocketHandler voiceWebSocketHandler;
 
+    /**
+     * 客户端下行发送线程池（静态方法：处理器依赖该Bean，避免与本配置类循环依赖）
+     */
+    @Bean(destroyMethod = "shutdown")
+    public static ClientSendPool clientSendPool(DoubaoProperties properties) {
+        return new ClientSendPool(properties.getClientSend());
+    }
+
     @Override
     public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
         registry.addHandler(voiceWebSocketHandler, "/ws/voice")
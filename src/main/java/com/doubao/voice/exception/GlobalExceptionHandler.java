@@ -21,6 +21,8 @@ public class GlobalExceptionHandler {
 
     /**
      * 处理业务异常
+     *
+     * 异步生命周期操作超时（errorCode=TIMEOUT）返回504
      */
     @ExceptionHandler(DoubaoException.class)
     public ResponseEntity<Map<String, Object>> handleDoubaoException(DoubaoException e) {
@@ -32,7 +34,8 @@ public class GlobalExceptionHandler {
             response.put("errorCode", e.getErrorCode());
         }
 
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        HttpStatus status = "TIMEOUT".equals(e.getErrorCode()) ? HttpStatus.GATEWAY_TIMEOUT : HttpStatus.BAD_REQUEST;
+        return ResponseEntity.status(status).body(response);
     }
 
     /**
@@ -0,0 +1,161 @@
+package com.doubao.voice.protocol.codec;
+
+import com.doubao.voice.protocol.constants.EventType;
+import com.doubao.voice.protocol.constants.SerializationType;
+import com.doubao.voice.protocol.message.DoubaoMessage;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 出站JSON帧压缩策略
+ *
+ * 按负载长度和事件类型逐帧决定使用Gzip还是不压缩：
+ * - neverCompressEvents中的事件始终不压缩
+ * - alwaysCompressEvents中的事件始终压缩
+ * - 其余事件负载长度达到minSize才压缩
+ *
+ * 同时按事件类型统计压缩节省的字节数和压缩耗时。压缩耗时优先取当前线程的CPU时间，
+ * 不受线程被调度走的影响；JVM不支持线程CPU计时时退回墙钟时间
+ */
+public class CompressionPolicy {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    /**
+     * 是否可以读取当前线程的CPU时间
+     */
+    private static final boolean CPU_TIME = THREADS.isCurrentThreadCpuTimeSupported()
+            && THREADS.isThreadCpuTimeEnabled();
+
+    private final boolean adaptive;
+    private final int minSize;
+    private final Set<Integer> alwaysCompressEvents;
+    private final Set<Integer> neverCompressEvents;
+    private final GzipCodec codec;
+
+    private final Map<Integer, EventCounters> counters = new ConcurrentHashMap<>();
+
+    /**
+     * @param adaptive             是否启用自适应策略，关闭时沿用消息自身的压缩标志
+     * @param minSize              最小压缩长度（字节）
+     * @param alwaysCompressEvents 始终压缩的事件ID
+     * @param neverCompressEvents  从不压缩的事件ID
+     * @param codec                Gzip编解码器
+     */
+    public CompressionPolicy(boolean adaptive, int minSize,
+                             Collection<Integer> alwaysCompressEvents,
+                             Collection<Integer> neverCompressEvents,
+                             GzipCodec codec) {
+        this.adaptive = adaptive;
+        this.minSize = minSize;
+        this.alwaysCompressEvents = Set.copyOf(alwaysCompressEvents);
+        this.neverCompressEvents = Set.copyOf(neverCompressEvents);
+        this.codec = codec;
+    }
+
+    /**
+     * 与原实现一致的策略：JSON帧按消息自身标志压缩
+     */
+    public static CompressionPolicy legacy() {
+        return new CompressionPolicy(false, 0, Set.of(), Set.of(), GzipUtils.codec());
+    }
+
+    /**
+     * 对JSON负载应用压缩策略
+     *
+     * 会将最终选用的压缩方式写回message，编码器随后据此写Header
+     *
+     * @param message 消息对象
+     * @param json    序列化后的JSON字节
+     * @return 实际发送的负载字节
+     */
+    public byte[] apply(DoubaoMessage message, byte[] json) {
+        int eventId = message.getEventId() != null ? message.getEventId() : 0;
+        boolean compress = adaptive ? shouldCompress(eventId, json.length) : message.isGzipCompressed();
+        EventCounters eventCounters = counters.computeIfAbsent(eventId, k -> new EventCounters());
+        eventCounters.frames.increment();
+        eventCounters.rawBytes.add(json.length);
+
+        if (!compress || json.length == 0) {
+            message.setCompression(SerializationType.COMPRESSION_NONE);
+            eventCounters.wireBytes.add(json.length);
+            return json;
+        }
+
+        long start = threadTime();
+        byte[] compressed = codec.compress(json);
+        eventCounters.encodeNanos.add(threadTime() - start);
+        eventCounters.compressedFrames.increment();
+        eventCounters.wireBytes.add(compressed.length);
+        message.setCompression(SerializationType.COMPRESSION_GZIP);
+        return compressed;
+    }
+
+    /**
+     * 判断是否压缩
+     *
+     * @param eventId       事件ID
+     * @param payloadLength 负载长度
+     * @return 是否使用Gzip
+     */
+    public boolean shouldCompress(int eventId, int payloadLength) {
+        if (neverCompressEvents.contains(eventId)) {
+            return false;
+        }
+        if (alwaysCompressEvents.contains(eventId)) {
+            return true;
+        }
+        return payloadLength >= minSize;
+    }
+
+    /**
+     * 当前线程的CPU时间（纳秒），不支持时退回墙钟时间
+     */
+    private static long threadTime() {
+        return CPU_TIME ? THREADS.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    /**
+     * 获取按事件名称统计的压缩信息
+     */
+    public Map<String, EventStats> getStats() {
+        Map<String, EventStats> result = new LinkedHashMap<>();
+        counters.forEach((eventId, c) -> result.put(EventType.getName(eventId), c.snapshot()));
+        return result;
+    }
+
+    /**
+     * 单个事件类型的压缩统计
+     *
+     * @param frames           帧数
+     * @param compressedFrames 压缩的帧数
+     * @param rawBytes         压缩前总字节数
+     * @param wireBytes        实际发送总字节数
+     * @param bytesSaved       压缩节省的字节数（可能为负）
+     * @param encodeNanos      压缩耗时（纳秒，线程CPU时间；JVM不支持线程CPU计时时为墙钟时间）
+     */
+    public record EventStats(long frames, long compressedFrames, long rawBytes,
+                             long wireBytes, long bytesSaved, long encodeNanos) {
+    }
+
+    private static final class EventCounters {
+        final LongAdder frames = new LongAdder();
+        final LongAdder compressedFrames = new LongAdder();
+        final LongAdder rawBytes = new LongAdder();
+        final LongAdder wireBytes = new LongAdder();
+        final LongAdder encodeNanos = new LongAdder();
+
+        EventStats snapshot() {
+            long raw = rawBytes.sum();
+            long wire = wireBytes.sum();
+            return new EventStats(frames.sum(), compressedFrames.sum(), raw, wire, raw - wire, encodeNanos.sum());
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.doubao.voice.protocol.codec;
+
+import com.doubao.voice.protocol.message.DoubaoMessage;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 预编码控制帧缓存
+ *
+ * - START_CONNECTION、FINISH_CONNECTION对所有连接逐字节相同，构造时编码一次
+ * - START_SESSION负载按（规范化后的会话配置, dialogId）缓存序列化及压缩结果，
+ *   发送时只需拼接Header和各自的Session ID
+ *
+ * 缓存的字节数组会被多个连接共享，调用方不得修改
+ */
+@Slf4j
+public class ControlFrameCache {
+
+    /**
+     * 默认START_SESSION负载缓存条目数
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 256;
+
+    @Getter
+    private final DoubaoProtocolEncoder encoder;
+
+    private final byte[] startConnection;
+    private final byte[] finishConnection;
+
+    private final Map<StartSessionKey, DoubaoProtocolEncoder.EncodedPayload> startSessionPayloads;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ControlFrameCache(DoubaoProtocolEncoder encoder) {
+        this(encoder, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * @param encoder    编码器
+     * @param maxEntries START_SESSION负载最大缓存条目数
+     */
+    public ControlFrameCache(DoubaoProtocolEncoder encoder, int maxEntries) {
+        this.encoder = encoder;
+        try {
+            this.startConnection = encoder.encodeStartConnection();
+            this.finishConnection = encoder.encodeFinishConnection();
+        } catch (IOException e) {
+            throw new UncheckedIOException("预编码控制帧失败", e);
+        }
+        this.startSessionPayloads = Collections.synchronizedMap(
+                new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<StartSessionKey, DoubaoProtocolEncoder.EncodedPayload> eldest) {
+                        return size() > maxEntries;
+                    }
+                });
+    }
+
+    /**
+     * START_CONNECTION帧
+     */
+    public byte[] startConnection() {
+        return startConnection;
+    }
+
+    /**
+     * FINISH_CONNECTION帧
+     */
+    public byte[] finishConnection() {
+        return finishConnection;
+    }
+
+    /**
+     * 编码START_SESSION帧，负载命中缓存时不再序列化和压缩
+     *
+     * @param sessionId      会话ID
+     * @param key            缓存键
+     * @param configSupplier 未命中时用于构建会话配置负载
+     * @return 二进制数据
+     * @throws IOException 编码失败
+     */
+    public byte[] startSession(String sessionId, StartSessionKey key, Supplier<Object> configSupplier) throws IOException {
+        DoubaoProtocolEncoder.EncodedPayload payload = startSessionPayloads.get(key);
+        if (payload != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            payload = encoder.encodePayloadOnly(DoubaoMessage.createStartSessionMessage(sessionId, configSupplier.get()));
+            startSessionPayloads.put(key, payload);
+            log.debug("缓存START_SESSION负载: size={}, entries={}", payload.bytes().length, startSessionPayloads.size());
+        }
+        return encoder.encode(DoubaoMessage.createStartSessionMessage(sessionId, null), payload);
+    }
+
+    /**
+     * 获取缓存统计信息
+     */
+    public Stats getStats() {
+        return new Stats(hits.sum(), misses.sum(), startSessionPayloads.size());
+    }
+
+    /**
+     * START_SESSION负载缓存键
+     *
+     * @param config   规范化后的会话配置（需实现值语义的equals/hashCode）
+     * @param dialogId 对话ID
+     */
+    public record StartSessionKey(Object config, String dialogId) {
+    }
+
+    /**
+     * 缓存统计信息
+     *
+     * @param hits    命中次数
+     * @param misses  未命中次数
+     * @param entries 当前条目数
+     */
+    public record Stats(long hits, long misses, int entries) {
+    }
+}
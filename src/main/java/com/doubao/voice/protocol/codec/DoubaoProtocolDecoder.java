@@ -2,9 +2,10 @@ package com.doubao.voice.protocol.codec;
 
 import com.doubao.voice.protocol.constants.MessageType;
 import com.doubao.voice.protocol.constants.SerializationType;
+import com.doubao.voice.protocol.message.AudioFrameView;
 import com.doubao.voice.protocol.message.DoubaoMessage;
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
@@ -23,14 +24,18 @@ import java.util.Map;
 @Slf4j
 public class DoubaoProtocolDecoder {
 
-    private final ObjectMapper objectMapper;
+    /**
+     * JSON负载读取器
+     */
+    @Getter
+    private final PayloadReader payloadReader;
 
     public DoubaoProtocolDecoder() {
-        this.objectMapper = new ObjectMapper();
+        this(new ObjectMapper());
     }
 
     public DoubaoProtocolDecoder(ObjectMapper objectMapper) {
-        this.objectMapper = objectMapper;
+        this.payloadReader = new PayloadReader(objectMapper);
     }
 
     /**
@@ -41,33 +46,55 @@ public class DoubaoProtocolDecoder {
      * @throws IOException 解码失败
      */
     public DoubaoMessage decode(byte[] data) throws IOException {
-        if (data == null || data.length < 4) {
+        if (data == null) {
+            throw new IOException("数据长度不足，至少需要4字节Header");
+        }
+        return decode(ByteBuffer.wrap(data));
+    }
+
+    /**
+     * 解码消息
+     *
+     * SERVER_ACK音频负载不拷贝，以只读切片的形式引用原始帧（见 {@link DoubaoMessage#getPayloadBuffer()}），
+     * 因此调用方在消息使用完毕前不得修改data的内容
+     *
+     * @param data 二进制数据，从position读取到limit
+     * @return 消息对象
+     * @throws IOException 解码失败
+     */
+    public DoubaoMessage decode(ByteBuffer data) throws IOException {
+        if (data == null || data.remaining() < 4) {
             throw new IOException("数据长度不足，至少需要4字节Header");
         }
 
+        ByteBuffer buffer = data.duplicate();
+        int start = buffer.position();
+
         // 打印原始数据用于调试
         if (log.isDebugEnabled()) {
             StringBuilder hex = new StringBuilder();
-            for (int i = 0; i < Math.min(data.length, 64); i++) {
-                hex.append(String.format("%02X ", data[i]));
+            for (int i = 0; i < Math.min(buffer.remaining(), 64); i++) {
+                hex.append(String.format("%02X ", buffer.get(start + i)));
             }
-            log.debug("收到原始数据[{}字节]: {}", data.length, hex);
+            log.debug("收到原始数据[{}字节]: {}", buffer.remaining(), hex);
         }
 
-        ByteBuffer buffer = ByteBuffer.wrap(data);
         DoubaoMessage.DoubaoMessageBuilder builder = DoubaoMessage.builder();
 
+        // 获取Header中的值用于后续判断
+        byte byte0 = buffer.get(start);
+        byte byte1 = buffer.get(start + 1);
+        byte byte2 = buffer.get(start + 2);
+        int messageType = (byte1 >> 4) & 0x0F;
+        int flags = byte1 & 0x0F;
+        int serialization = (byte2 >> 4) & 0x0F;
+        int compression = byte2 & 0x0F;
+
         // 1. 解析Header（4字节）
         parseHeader(buffer, builder);
 
-        // 获取已解析的值用于后续判断
-        int messageType = (data[1] >> 4) & 0x0F;
-        int flags = data[1] & 0x0F;
-        int serialization = (data[2] >> 4) & 0x0F;
-        int compression = data[2] & 0x0F;
-
         // 跳过扩展头（如果Header Size > 1）
-        int headerSize = data[0] & 0x0F;
+        int headerSize = byte0 & 0x0F;
         if (headerSize > 1) {
             int extendedHeaderBytes = (headerSize - 1) * 4;
             if (buffer.remaining() < extendedHeaderBytes) {
@@ -114,16 +141,23 @@ public class DoubaoProtocolDecoder {
         if (buffer.remaining() >= 4) {
             int payloadLength = buffer.getInt();
             log.debug("读取Payload: position={}, payloadLength={}, remaining={}",
-                    buffer.position(), payloadLength, buffer.remaining());
+                    buffer.position() - start, payloadLength, buffer.remaining());
             if (payloadLength > 0) {
                 if (buffer.remaining() < payloadLength) {
                     throw new IOException("Payload数据不足，期望" + payloadLength + "字节，实际" + buffer.remaining() + "字节");
                 }
-                byte[] payloadBytes = new byte[payloadLength];
-                buffer.get(payloadBytes);
 
-                // 解压和解析Payload
-                parsePayload(payloadBytes, serialization, compression, messageType, builder);
+                if (messageType == MessageType.SERVER_ACK &&
+                    compression != SerializationType.COMPRESSION_GZIP) {
+                    // 音频数据：直接引用原始帧的只读切片，不做拷贝
+                    builder.payloadBuffer(buffer.slice(buffer.position(), payloadLength).asReadOnlyBuffer());
+                } else {
+                    byte[] payloadBytes = new byte[payloadLength];
+                    buffer.get(payloadBytes);
+
+                    // 解压和解析Payload
+                    parsePayload(payloadBytes, serialization, compression, messageType, builder);
+                }
             }
         }
 
@@ -136,6 +170,85 @@ public class DoubaoProtocolDecoder {
         return message;
     }
 
+    /**
+     * 音频帧快速解码
+     *
+     * 仅处理未压缩的SERVER_ACK帧：将字段填入调用方复用的view，不创建DoubaoMessage。
+     * 成功时data的position/limit会被调整到音频负载范围，view.payload即为data本身。
+     * 其他类型的帧返回false且不修改data，调用方应回退到 {@link #decode(ByteBuffer)}
+     *
+     * @param data 二进制数据，从position读取到limit
+     * @param view 复用的音频帧视图
+     * @return 是否为音频帧并已解码
+     * @throws IOException 帧数据不完整
+     */
+    public boolean decodeAudio(ByteBuffer data, AudioFrameView view) throws IOException {
+        int start = data.position();
+        int end = data.limit();
+        if (end - start < 4) {
+            return false;
+        }
+
+        byte byte1 = data.get(start + 1);
+        int messageType = (byte1 >> 4) & 0x0F;
+        int compression = data.get(start + 2) & 0x0F;
+        if (messageType != MessageType.SERVER_ACK || compression == SerializationType.COMPRESSION_GZIP) {
+            return false;
+        }
+
+        view.reset();
+        int flags = byte1 & 0x0F;
+        view.setHeader(messageType, flags);
+
+        // 跳过Header（含扩展头）
+        int position = start + (data.get(start) & 0x0F) * 4;
+
+        if ((flags & 0x03) != 0) {
+            checkRemaining(position, 4, end, "Sequence数据不足");
+            view.setSequence(data.getInt(position));
+            position += 4;
+        }
+
+        if ((flags & MessageType.FLAG_MSG_WITH_EVENT) != 0) {
+            checkRemaining(position, 4, end, "Event ID数据不足");
+            view.setEventId(data.getInt(position));
+            position += 4;
+        }
+
+        checkRemaining(position, 4, end, "Session ID长度数据不足");
+        int sessionIdLength = data.getInt(position);
+        position += 4;
+        if (sessionIdLength > 0) {
+            checkRemaining(position, sessionIdLength, end, "Session ID数据不足");
+            view.resolveSessionId(data, position, sessionIdLength);
+            position += sessionIdLength;
+        } else {
+            view.resolveSessionId(data, position, 0);
+        }
+
+        if (end - position >= 4) {
+            int payloadLength = data.getInt(position);
+            position += 4;
+            if (payloadLength > 0) {
+                if (end - position < payloadLength) {
+                    throw new IOException("Payload数据不足，期望" + payloadLength + "字节，实际" + (end - position) + "字节");
+                }
+                data.limit(position + payloadLength);
+                data.position(position);
+                view.setPayload(data);
+            }
+        }
+
+        log.trace("解码音频帧完成: {}", view);
+        return true;
+    }
+
+    private static void checkRemaining(int position, int required, int end, String message) throws IOException {
+        if (end - position < required) {
+            throw new IOException(message);
+        }
+    }
+
     /**
      * 解析Header（4字节）
      */
@@ -186,9 +299,17 @@ public class DoubaoProtocolDecoder {
 
     /**
      * 解析Payload
+     *
+     * JSON负载不在此处解压和解析，只保留原始字节，由 {@link PayloadReader} 按需处理
      */
     private void parsePayload(byte[] payloadBytes, int serialization, int compression,
-                              int messageType, DoubaoMessage.DoubaoMessageBuilder builder) throws IOException {
+                              int messageType, DoubaoMessage.DoubaoMessageBuilder builder) {
+        if (messageType != MessageType.SERVER_ACK && serialization == SerializationType.JSON) {
+            builder.rawPayload(payloadBytes)
+                   .payloadParser(payloadReader);
+            return;
+        }
+
         byte[] decodedBytes = payloadBytes;
 
         // 如果是Gzip压缩，先解压
@@ -201,22 +322,9 @@ public class DoubaoProtocolDecoder {
             }
         }
 
-        // 根据消息类型处理Payload
         if (messageType == MessageType.SERVER_ACK) {
             // SERVER_ACK通常是音频数据（二进制）
-            builder.binaryPayload(decodedBytes);
-        } else if (serialization == SerializationType.JSON) {
-            // JSON数据
-            try {
-                Map<String, Object> payload = objectMapper.readValue(decodedBytes,
-                        new TypeReference<Map<String, Object>>() {});
-                builder.payload(payload);
-            } catch (IOException e) {
-                // 解析失败，存储为原始字符串
-                String payloadStr = new String(decodedBytes, StandardCharsets.UTF_8);
-                builder.payload(payloadStr);
-                log.warn("JSON解析失败，存储为原始字符串: {}", e.getMessage());
-            }
+            builder.payloadBuffer(ByteBuffer.wrap(decodedBytes).asReadOnlyBuffer());
         } else {
             // RAW二进制数据
             builder.binaryPayload(decodedBytes);
@@ -1,14 +1,15 @@
 package com.doubao.voice.protocol.codec;
 
+import com.doubao.voice.protocol.constants.EventType;
 import com.doubao.voice.protocol.constants.MessageType;
 import com.doubao.voice.protocol.constants.SerializationType;
 import com.doubao.voice.protocol.message.DoubaoMessage;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
 
 /**
@@ -18,18 +19,41 @@ import java.nio.charset.StandardCharsets;
  *
  * 消息格式：
  * [Header 4字节] [Event ID 4字节] [Session ID长度 4字节] [Session ID] [Payload长度 4字节] [Payload]
+ *
+ * 编码采用"先计算帧长度，再单遍写入"的方式：所有字段直接写入调用方提供的ByteBuffer，
+ * 不经过中间流和临时数组。byte[]形式的方法只是按精确长度分配一次数组后的薄封装。
  */
 @Slf4j
 public class DoubaoProtocolEncoder {
 
+    /**
+     * Header长度（字节）
+     */
+    public static final int HEADER_LENGTH = 4;
+
+    /**
+     * 空JSON负载
+     */
+    private static final byte[] EMPTY_JSON = "{}".getBytes(StandardCharsets.UTF_8);
+
     private final ObjectMapper objectMapper;
 
+    /**
+     * JSON帧压缩策略
+     */
+    private final CompressionPolicy compressionPolicy;
+
     public DoubaoProtocolEncoder() {
-        this.objectMapper = new ObjectMapper();
+        this(new ObjectMapper());
     }
 
     public DoubaoProtocolEncoder(ObjectMapper objectMapper) {
+        this(objectMapper, CompressionPolicy.legacy());
+    }
+
+    public DoubaoProtocolEncoder(ObjectMapper objectMapper, CompressionPolicy compressionPolicy) {
         this.objectMapper = objectMapper;
+        this.compressionPolicy = compressionPolicy;
     }
 
     /**
@@ -40,92 +64,235 @@ public class DoubaoProtocolEncoder {
      * @throws IOException 编码失败
      */
     public byte[] encode(DoubaoMessage message) throws IOException {
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-            // 1. 写入Header（4字节）
-            byte[] header = encodeHeader(message);
-            baos.write(header);
-
-            // 2. 如果有事件ID，写入Event ID（4字节，大端序）
-            if (message.hasEvent() && message.getEventId() != null) {
-                byte[] eventBytes = encodeInt32BigEndian(message.getEventId());
-                baos.write(eventBytes);
-            }
+        byte[] payloadBytes = encodePayload(message);
+        byte[] result = new byte[frameSize(message, payloadBytes.length)];
+        writeFrame(message, payloadBytes, ByteBuffer.wrap(result));
+        return result;
+    }
 
-            // 3. 写入Session ID（仅当sessionId存在时）
-            if (message.getSessionId() != null && !message.getSessionId().isEmpty()) {
-                byte[] sessionIdBytes = encodeSessionId(message.getSessionId());
-                baos.write(sessionIdBytes);
-            }
+    /**
+     * 编码消息到指定缓冲区
+     *
+     * 从target当前position开始写入，写入完成后position位于帧末尾。
+     * 协议中的多字节字段均为大端序，写入时临时切换为BIG_ENDIAN，完成后恢复target原有的字节序
+     *
+     * @param message 消息对象
+     * @param target  目标缓冲区
+     * @return 写入的字节数
+     * @throws IOException 编码失败或缓冲区空间不足
+     */
+    public int encode(DoubaoMessage message, ByteBuffer target) throws IOException {
+        byte[] payloadBytes = encodePayload(message);
+        int size = frameSize(message, payloadBytes.length);
+        ensureRemaining(target, size);
+        ByteOrder order = target.order();
+        try {
+            writeFrame(message, payloadBytes, target.order(ByteOrder.BIG_ENDIAN));
+        } finally {
+            target.order(order);
+        }
+        return size;
+    }
+
+    /**
+     * 仅编码消息的Payload（序列化并按策略压缩），结果可缓存后通过 {@link #encode(DoubaoMessage, EncodedPayload)} 复用
+     *
+     * @param message 消息对象
+     * @return 编码后的Payload
+     * @throws IOException 编码失败
+     */
+    public EncodedPayload encodePayloadOnly(DoubaoMessage message) throws IOException {
+        byte[] payloadBytes = encodePayload(message);
+        return new EncodedPayload(payloadBytes, message.getCompression());
+    }
+
+    /**
+     * 使用已编码的Payload编码消息，仅写入Header、事件ID和Session ID
+     *
+     * @param message 消息对象（其payload字段被忽略）
+     * @param payload 已编码的Payload
+     * @return 二进制数据
+     */
+    public byte[] encode(DoubaoMessage message, EncodedPayload payload) {
+        message.setCompression(payload.compression());
+        byte[] result = new byte[frameSize(message, payload.bytes().length)];
+        writeFrame(message, payload.bytes(), ByteBuffer.wrap(result));
+        return result;
+    }
+
+    /**
+     * 计算消息编码后的帧长度
+     *
+     * @param message       消息对象
+     * @param payloadLength 编码（及压缩）后的Payload长度
+     * @return 帧长度（字节）
+     */
+    public int frameSize(DoubaoMessage message, int payloadLength) {
+        int size = HEADER_LENGTH;
+        if (message.hasEvent() && message.getEventId() != null) {
+            size += 4;
+        }
+        String sessionId = message.getSessionId();
+        if (sessionId != null && !sessionId.isEmpty()) {
+            size += 4 + utf8Length(sessionId);
+        }
+        return size + 4 + payloadLength;
+    }
+
+    /**
+     * 计算音频帧长度
+     *
+     * @param sessionId   会话ID
+     * @param audioLength 音频数据长度
+     * @return 帧长度（字节）
+     */
+    public int audioFrameSize(String sessionId, int audioLength) {
+        int size = HEADER_LENGTH + 4;
+        if (sessionId != null && !sessionId.isEmpty()) {
+            size += 4 + utf8Length(sessionId);
+        }
+        return size + 4 + audioLength;
+    }
+
+    /**
+     * 编码音频消息到指定缓冲区
+     *
+     * 音频是上行热点路径，这里不创建DoubaoMessage，直接按固定的音频帧头写入；
+     * 与 {@link #encode(DoubaoMessage, ByteBuffer)} 相同，按大端序写入，不改变target原有的字节序
+     *
+     * @param sessionId 会话ID
+     * @param audioData 音频数据
+     * @param offset    音频数据起始位置
+     * @param length    音频数据长度
+     * @param target    目标缓冲区
+     * @return 写入的字节数
+     * @throws IOException 缓冲区空间不足
+     */
+    public int encodeAudio(String sessionId, byte[] audioData, int offset, int length,
+                           ByteBuffer target) throws IOException {
+        int size = audioFrameSize(sessionId, length);
+        ensureRemaining(target, size);
+
+        ByteOrder order = target.order();
+        try {
+            target.order(ByteOrder.BIG_ENDIAN);
+
+            // Header + Event ID + Session ID
+            writeAudioPrefix(sessionId, target);
+
+            // Payload
+            target.putInt(length);
+            target.put(audioData, offset, length);
+        } finally {
+            target.order(order);
+        }
 
-            // 4. 编码并写入Payload
-            byte[] payloadBytes = encodePayload(message);
-            // 写入Payload长度（4字节，大端序）
-            byte[] payloadLengthBytes = encodeInt32BigEndian(payloadBytes.length);
-            baos.write(payloadLengthBytes);
-            // 写入Payload数据
-            baos.write(payloadBytes);
+        log.trace("编码音频帧完成: sessionId={}, totalSize={}", sessionId, size);
+        return size;
+    }
 
-            byte[] result = baos.toByteArray();
+    /**
+     * 编码音频帧前缀
+     *
+     * 同一会话的音频帧中Header、Event ID和Session ID完全相同，
+     * 可在会话ID确定后预先计算一次，之后每帧只需追加[Payload长度][PCM数据]
+     *
+     * @param sessionId 会话ID
+     * @return 音频帧前缀（不含Payload长度）
+     */
+    public byte[] encodeAudioPrefix(String sessionId) {
+        byte[] prefix = new byte[audioFrameSize(sessionId, 0) - 4];
+        ByteBuffer buffer = ByteBuffer.wrap(prefix);
+        writeAudioPrefix(sessionId, buffer);
+        return prefix;
+    }
 
+    /**
+     * 单遍写入完整帧
+     */
+    private void writeFrame(DoubaoMessage message, byte[] payloadBytes, ByteBuffer target) {
+        int start = target.position();
+
+        // 1. 写入Header（4字节）
+        writeHeader(message, target);
+
+        // 2. 如果有事件ID，写入Event ID（4字节，大端序）
+        if (message.hasEvent() && message.getEventId() != null) {
+            target.putInt(message.getEventId());
+        }
+
+        // 3. 写入Session ID（仅当sessionId存在时）
+        if (message.getSessionId() != null && !message.getSessionId().isEmpty()) {
+            writeSessionId(message.getSessionId(), target);
+        }
+
+        // 4. 写入Payload长度（4字节，大端序）和Payload数据
+        target.putInt(payloadBytes.length);
+        target.put(payloadBytes);
+
+        if (log.isDebugEnabled()) {
+            int length = target.position() - start;
             // 打印编码后的数据用于调试
-            if (log.isDebugEnabled()) {
-                StringBuilder hex = new StringBuilder();
-                for (int i = 0; i < Math.min(result.length, 64); i++) {
-                    hex.append(String.format("%02X ", result[i]));
-                }
-                log.debug("编码后数据[{}字节]: {}", result.length, hex);
+            StringBuilder hex = new StringBuilder();
+            for (int i = 0; i < Math.min(length, 64); i++) {
+                hex.append(String.format("%02X ", target.get(start + i)));
             }
+            log.debug("编码后数据[{}字节]: {}", length, hex);
 
             log.debug("编码消息完成: type={}, event={}, sessionId={}, totalSize={}",
                     message.getMessageTypeName(),
                     message.getEventName(),
                     message.getSessionId(),
-                    result.length);
+                    length);
+        }
+    }
 
-            return result;
+    /**
+     * 写入音频帧前缀：[Header][Event ID][Session ID长度][Session ID]
+     */
+    private void writeAudioPrefix(String sessionId, ByteBuffer target) {
+        target.put((byte) ((SerializationType.PROTOCOL_VERSION << 4) | SerializationType.DEFAULT_HEADER_SIZE));
+        target.put((byte) ((MessageType.CLIENT_AUDIO_ONLY_REQUEST << 4) | MessageType.FLAG_MSG_WITH_EVENT));
+        target.put((byte) ((SerializationType.RAW << 4) | SerializationType.COMPRESSION_NONE));
+        target.put((byte) 0x00);
+
+        target.putInt(EventType.TASK_REQUEST);
+
+        if (sessionId != null && !sessionId.isEmpty()) {
+            writeSessionId(sessionId, target);
         }
     }
 
     /**
-     * 编码Header（4字节）
+     * 写入Header（4字节）
      *
      * Byte 0: [protocol_version(4bit)][header_size(4bit)]
      * Byte 1: [message_type(4bit)][flags(4bit)]
      * Byte 2: [serialization(4bit)][compression(4bit)]
      * Byte 3: [reserved(8bit)]
      */
-    private byte[] encodeHeader(DoubaoMessage message) {
-        byte[] header = new byte[4];
-
+    private void writeHeader(DoubaoMessage message, ByteBuffer target) {
         // Byte 0: protocol_version | header_size
-        header[0] = (byte) ((message.getProtocolVersion() << 4) | (message.getHeaderSize() & 0x0F));
+        target.put((byte) ((message.getProtocolVersion() << 4) | (message.getHeaderSize() & 0x0F)));
 
         // Byte 1: message_type | flags
-        header[1] = (byte) ((message.getMessageType() << 4) | (message.getFlags() & 0x0F));
+        target.put((byte) ((message.getMessageType() << 4) | (message.getFlags() & 0x0F)));
 
         // Byte 2: serialization | compression
-        header[2] = (byte) ((message.getSerialization() << 4) | (message.getCompression() & 0x0F));
+        target.put((byte) ((message.getSerialization() << 4) | (message.getCompression() & 0x0F)));
 
         // Byte 3: reserved
-        header[3] = 0x00;
-
-        return header;
+        target.put((byte) 0x00);
     }
 
     /**
-     * 编码Session ID
+     * 写入Session ID
      *
      * 格式: [长度4字节][UTF-8字节数组]
      */
-    private byte[] encodeSessionId(String sessionId) throws IOException {
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-            byte[] sessionIdBytes = sessionId.getBytes(StandardCharsets.UTF_8);
-            // 写入长度
-            baos.write(encodeInt32BigEndian(sessionIdBytes.length));
-            // 写入内容
-            baos.write(sessionIdBytes);
-            return baos.toByteArray();
-        }
+    private void writeSessionId(String sessionId, ByteBuffer target) {
+        target.putInt(utf8Length(sessionId));
+        putUtf8(sessionId, target);
     }
 
     /**
@@ -143,25 +310,64 @@ public class DoubaoProtocolEncoder {
             payloadBytes = objectMapper.writeValueAsBytes(message.getPayload());
         } else {
             // 空Payload
-            payloadBytes = "{}".getBytes(StandardCharsets.UTF_8);
+            payloadBytes = EMPTY_JSON;
         }
 
-        // 如果需要Gzip压缩
-        if (message.isGzipCompressed() && payloadBytes.length > 0 &&
-            message.getSerialization() == SerializationType.JSON) {
-            payloadBytes = GzipUtils.compress(payloadBytes);
+        // JSON负载由压缩策略决定是否Gzip压缩（并回写Header中的压缩标志）
+        if (message.getSerialization() == SerializationType.JSON) {
+            payloadBytes = compressionPolicy.apply(message, payloadBytes);
         }
 
         return payloadBytes;
     }
 
     /**
-     * 将int编码为4字节大端序
+     * 检查缓冲区剩余空间
+     */
+    private static void ensureRemaining(ByteBuffer target, int size) throws IOException {
+        if (target.remaining() < size) {
+            throw new IOException("目标缓冲区空间不足，需要" + size + "字节，剩余" + target.remaining() + "字节");
+        }
+    }
+
+    /**
+     * 计算字符串的UTF-8编码长度（不分配数组）
+     */
+    static int utf8Length(String s) {
+        int length = s.length();
+        int bytes = length;
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c >= 0x80) {
+                if (c < 0x800) {
+                    bytes += 1;
+                } else if (Character.isHighSurrogate(c) && i + 1 < length
+                        && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    bytes += 2;
+                    i++;
+                } else if (!Character.isSurrogate(c)) {
+                    bytes += 2;
+                }
+                // 孤立的代理字符会被JDK编码为'?'，占1字节
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * 将字符串按UTF-8写入缓冲区（ASCII字符直接写入，不分配数组）
      */
-    private byte[] encodeInt32BigEndian(int value) {
-        ByteBuffer buffer = ByteBuffer.allocate(4);
-        buffer.putInt(value);
-        return buffer.array();
+    static void putUtf8(String s, ByteBuffer target) {
+        int length = s.length();
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c >= 0x80) {
+                // 含非ASCII字符时回退到JDK编码器处理剩余部分
+                target.put(s.substring(i).getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            target.put((byte) c);
+        }
     }
 
     /**
@@ -196,7 +402,9 @@ public class DoubaoProtocolEncoder {
      * 创建音频数据消息的二进制数据
      */
     public byte[] encodeAudio(String sessionId, byte[] audioData) throws IOException {
-        return encode(DoubaoMessage.createAudioMessage(sessionId, audioData));
+        byte[] result = new byte[audioFrameSize(sessionId, audioData.length)];
+        encodeAudio(sessionId, audioData, 0, audioData.length, ByteBuffer.wrap(result));
+        return result;
     }
 
     /**
@@ -205,4 +413,13 @@ public class DoubaoProtocolEncoder {
     public byte[] encodeTextQuery(String sessionId, String text, String questionId) throws IOException {
         return encode(DoubaoMessage.createTextQueryMessage(sessionId, text, questionId));
     }
+
+    /**
+     * 已编码（序列化及压缩）的Payload
+     *
+     * @param bytes       Payload字节，不可修改
+     * @param compression 压缩方式
+     */
+    public record EncodedPayload(byte[] bytes, int compression) {
+    }
 }
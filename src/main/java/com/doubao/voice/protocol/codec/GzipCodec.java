@@ -0,0 +1,358 @@
+package com.doubao.voice.protocol.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+
+/**
+ * 池化的Gzip编解码器
+ *
+ * 复用原生Deflater/Inflater（nowrap模式），自行读写Gzip头和尾，
+ * 避免每帧创建GZIPOutputStream/GZIPInputStream带来的原生zlib分配和回收。
+ *
+ * - 压缩：写入池化的暂存缓冲区，最后按精确长度拷贝一次
+ * - 解压：根据Gzip尾部的ISIZE按精确长度分配输出数组
+ * - 池有上限，超出部分直接释放原生资源
+ *
+ * 线程安全
+ */
+public class GzipCodec {
+
+    /**
+     * 默认池大小
+     */
+    public static final int DEFAULT_POOL_SIZE = Runtime.getRuntime().availableProcessors() * 2;
+
+    private static final int GZIP_MAGIC = 0x8b1f;
+    private static final int HEADER_LENGTH = 10;
+    private static final int TRAILER_LENGTH = 8;
+
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+
+    /**
+     * 固定Gzip头：魔数、CM=8(deflate)、无标志、MTIME=0、XFL=0、OS=255(unknown)
+     */
+    private static final byte[] HEADER = {
+            (byte) 0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff
+    };
+
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+
+    /**
+     * 池化暂存缓冲区的最大保留长度，超过后归还时收缩，避免偶发大帧长期占用内存
+     */
+    private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * deflate理论最大压缩比
+     */
+    private static final int MAX_DEFLATE_RATIO = 1032;
+
+    private final int level;
+    private final BlockingQueue<DeflaterHolder> deflaters;
+    private final BlockingQueue<InflaterHolder> inflaters;
+
+    private final LongAdder deflaterHits = new LongAdder();
+    private final LongAdder deflaterMisses = new LongAdder();
+    private final LongAdder inflaterHits = new LongAdder();
+    private final LongAdder inflaterMisses = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+
+    public GzipCodec() {
+        this(DEFAULT_POOL_SIZE, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * @param poolSize 池中最多保留的Deflater/Inflater数量（各自）
+     * @param level    压缩级别
+     */
+    public GzipCodec(int poolSize, int level) {
+        this.level = level;
+        this.deflaters = new ArrayBlockingQueue<>(Math.max(1, poolSize));
+        this.inflaters = new ArrayBlockingQueue<>(Math.max(1, poolSize));
+    }
+
+    /**
+     * Gzip压缩
+     *
+     * @param data 原始数据
+     * @return 压缩后数据
+     */
+    public byte[] compress(byte[] data) {
+        if (data == null || data.length == 0) {
+            return data;
+        }
+        return compress(data, 0, data.length);
+    }
+
+    /**
+     * Gzip压缩
+     *
+     * @param data   原始数据
+     * @param offset 起始位置
+     * @param length 长度
+     * @return 压缩后数据
+     */
+    public byte[] compress(byte[] data, int offset, int length) {
+        DeflaterHolder holder = deflaters.poll();
+        if (holder != null) {
+            deflaterHits.increment();
+        } else {
+            deflaterMisses.increment();
+            holder = new DeflaterHolder(level);
+        }
+
+        try {
+            Deflater deflater = holder.deflater;
+            CRC32 crc = holder.crc;
+            crc.update(data, offset, length);
+            deflater.setInput(data, offset, length);
+            deflater.finish();
+
+            byte[] buffer = holder.buffer;
+            System.arraycopy(HEADER, 0, buffer, 0, HEADER_LENGTH);
+            int position = HEADER_LENGTH;
+            while (!deflater.finished()) {
+                if (position == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                    holder.buffer = buffer;
+                }
+                position += deflater.deflate(buffer, position, buffer.length - position);
+            }
+
+            byte[] result = Arrays.copyOf(buffer, position + TRAILER_LENGTH);
+            writeIntLE(result, position, (int) crc.getValue());
+            writeIntLE(result, position + 4, length);
+            return result;
+        } finally {
+            holder.reset();
+            if (!deflaters.offer(holder)) {
+                holder.deflater.end();
+                discarded.increment();
+            }
+        }
+    }
+
+    /**
+     * Gzip解压
+     *
+     * @param compressedData 压缩数据
+     * @return 解压后数据
+     * @throws IOException 数据格式错误
+     */
+    public byte[] decompress(byte[] compressedData) throws IOException {
+        if (compressedData == null || compressedData.length == 0) {
+            return compressedData;
+        }
+        if (compressedData.length < HEADER_LENGTH + TRAILER_LENGTH
+                || readShortLE(compressedData, 0) != GZIP_MAGIC) {
+            throw new IOException("Not in GZIP format");
+        }
+        if (compressedData[2] != 8) {
+            throw new IOException("Unsupported compression method");
+        }
+
+        int dataStart = skipHeader(compressedData);
+        int expectedSize = readIntLE(compressedData, compressedData.length - 4);
+
+        InflaterHolder holder = inflaters.poll();
+        if (holder != null) {
+            inflaterHits.increment();
+        } else {
+            inflaterMisses.increment();
+            holder = new InflaterHolder();
+        }
+
+        try {
+            Inflater inflater = holder.inflater;
+            inflater.setInput(compressedData, dataStart, compressedData.length - dataStart);
+
+            // ISIZE是原始长度对2^32取模，正常帧可直接作为精确长度；超出deflate最大压缩比的值视为不可信
+            boolean trusted = expectedSize > 0 && expectedSize <= (long) compressedData.length * MAX_DEFLATE_RATIO;
+            byte[] output = new byte[trusted ? expectedSize : INITIAL_BUFFER_SIZE];
+            int position = 0;
+            while (!inflater.finished()) {
+                int n;
+                if (position == output.length) {
+                    // 输出已满：用1字节探测是否还有数据，避免仅为读取结束标记而扩容
+                    n = inflater.inflate(holder.probe, 0, 1);
+                    if (n > 0) {
+                        output = Arrays.copyOf(output, Math.max(output.length * 2, INITIAL_BUFFER_SIZE));
+                        output[position] = holder.probe[0];
+                    }
+                } else {
+                    n = inflater.inflate(output, position, output.length - position);
+                }
+                if (n == 0 && !inflater.finished() && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Unexpected end of ZLIB input stream");
+                }
+                position += n;
+            }
+
+            int trailerStart = compressedData.length - inflater.getRemaining();
+            if (trailerStart + TRAILER_LENGTH != compressedData.length) {
+                // 多成员Gzip等非常规格式，回退到JDK流实现
+                return decompressWithStream(compressedData);
+            }
+
+            CRC32 crc = holder.crc;
+            crc.update(output, 0, position);
+            if (readIntLE(compressedData, trailerStart) != (int) crc.getValue()
+                    || readIntLE(compressedData, trailerStart + 4) != position) {
+                throw new IOException("Corrupt GZIP trailer");
+            }
+            return position == output.length ? output : Arrays.copyOf(output, position);
+        } catch (DataFormatException e) {
+            throw new IOException(e.getMessage(), e);
+        } finally {
+            holder.reset();
+            if (!inflaters.offer(holder)) {
+                holder.inflater.end();
+                discarded.increment();
+            }
+        }
+    }
+
+    /**
+     * 获取池统计信息
+     */
+    public Stats getStats() {
+        return new Stats(deflaterHits.sum(), deflaterMisses.sum(),
+                inflaterHits.sum(), inflaterMisses.sum(),
+                discarded.sum(), deflaters.size(), inflaters.size());
+    }
+
+    /**
+     * 释放池中所有原生资源
+     */
+    public void close() {
+        DeflaterHolder deflater;
+        while ((deflater = deflaters.poll()) != null) {
+            deflater.deflater.end();
+        }
+        InflaterHolder inflater;
+        while ((inflater = inflaters.poll()) != null) {
+            inflater.inflater.end();
+        }
+    }
+
+    /**
+     * 跳过Gzip头（包括可选字段），返回压缩数据起始位置
+     */
+    private static int skipHeader(byte[] data) throws IOException {
+        int flags = data[3] & 0xFF;
+        int position = HEADER_LENGTH;
+        if ((flags & FEXTRA) != 0) {
+            position += 2 + readShortLE(data, position);
+        }
+        if ((flags & FNAME) != 0) {
+            position = skipZeroTerminated(data, position);
+        }
+        if ((flags & FCOMMENT) != 0) {
+            position = skipZeroTerminated(data, position);
+        }
+        if ((flags & FHCRC) != 0) {
+            position += 2;
+        }
+        if (position > data.length - TRAILER_LENGTH) {
+            throw new IOException("Corrupt GZIP header");
+        }
+        return position;
+    }
+
+    private static int skipZeroTerminated(byte[] data, int position) throws IOException {
+        while (position < data.length && data[position] != 0) {
+            position++;
+        }
+        if (position >= data.length) {
+            throw new IOException("Corrupt GZIP header");
+        }
+        return position + 1;
+    }
+
+    private static byte[] decompressWithStream(byte[] compressedData) throws IOException {
+        try (GZIPInputStream gzipIn = new GZIPInputStream(new ByteArrayInputStream(compressedData));
+             ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+            gzipIn.transferTo(baos);
+            return baos.toByteArray();
+        }
+    }
+
+    private static int readShortLE(byte[] data, int offset) {
+        return (data[offset] & 0xFF) | ((data[offset + 1] & 0xFF) << 8);
+    }
+
+    private static int readIntLE(byte[] data, int offset) {
+        return readShortLE(data, offset) | (readShortLE(data, offset + 2) << 16);
+    }
+
+    private static void writeIntLE(byte[] data, int offset, int value) {
+        data[offset] = (byte) value;
+        data[offset + 1] = (byte) (value >>> 8);
+        data[offset + 2] = (byte) (value >>> 16);
+        data[offset + 3] = (byte) (value >>> 24);
+    }
+
+    /**
+     * 池化的Deflater及其暂存缓冲区
+     */
+    private static final class DeflaterHolder {
+        final Deflater deflater;
+        final CRC32 crc = new CRC32();
+        byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+
+        DeflaterHolder(int level) {
+            this.deflater = new Deflater(level, true);
+        }
+
+        void reset() {
+            deflater.reset();
+            crc.reset();
+            if (buffer.length > MAX_RETAINED_BUFFER_SIZE) {
+                buffer = new byte[INITIAL_BUFFER_SIZE];
+            }
+        }
+    }
+
+    /**
+     * 池化的Inflater
+     */
+    private static final class InflaterHolder {
+        final Inflater inflater = new Inflater(true);
+        final CRC32 crc = new CRC32();
+        final byte[] probe = new byte[1];
+
+        void reset() {
+            inflater.reset();
+            crc.reset();
+        }
+    }
+
+    /**
+     * 池统计信息
+     *
+     * @param deflaterHits   复用Deflater次数
+     * @param deflaterMisses 新建Deflater次数
+     * @param inflaterHits   复用Inflater次数
+     * @param inflaterMisses 新建Inflater次数
+     * @param discarded      因池满而释放的实例数
+     * @param idleDeflaters  池中空闲Deflater数
+     * @param idleInflaters  池中空闲Inflater数
+     */
+    public record Stats(long deflaterHits, long deflaterMisses,
+                        long inflaterHits, long inflaterMisses,
+                        long discarded, int idleDeflaters, int idleInflaters) {
+    }
+}
@@ -1,21 +1,26 @@
 package com.doubao.voice.protocol.codec;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
 
 /**
  * Gzip压缩/解压工具类
+ *
+ * 委托给共享的池化 {@link GzipCodec}，复用原生Deflater/Inflater
  */
 public final class GzipUtils {
 
-    private static final int BUFFER_SIZE = 4096;
+    private static final GzipCodec CODEC = new GzipCodec();
 
     private GzipUtils() {
     }
 
+    /**
+     * 获取共享的Gzip编解码器
+     */
+    public static GzipCodec codec() {
+        return CODEC;
+    }
+
     /**
      * Gzip压缩
      *
@@ -24,16 +29,7 @@ public final class GzipUtils {
      * @throws IOException 压缩失败
      */
     public static byte[] compress(byte[] data) throws IOException {
-        if (data == null || data.length == 0) {
-            return data;
-        }
-
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
-             GZIPOutputStream gzipOut = new GZIPOutputStream(baos)) {
-            gzipOut.write(data);
-            gzipOut.finish();
-            return baos.toByteArray();
-        }
+        return CODEC.compress(data);
     }
 
     /**
@@ -44,21 +40,7 @@ public final class GzipUtils {
      * @throws IOException 解压失败
      */
     public static byte[] decompress(byte[] compressedData) throws IOException {
-        if (compressedData == null || compressedData.length == 0) {
-            return compressedData;
-        }
-
-        try (ByteArrayInputStream bais = new ByteArrayInputStream(compressedData);
-             GZIPInputStream gzipIn = new GZIPInputStream(bais);
-             ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-
-            byte[] buffer = new byte[BUFFER_SIZE];
-            int len;
-            while ((len = gzipIn.read(buffer)) != -1) {
-                baos.write(buffer, 0, len);
-            }
-            return baos.toByteArray();
-        }
+        return CODEC.decompress(compressedData);
     }
 
     /**
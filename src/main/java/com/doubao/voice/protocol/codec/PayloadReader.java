@@ -0,0 +1,220 @@
+package com.doubao.voice.protocol.codec;
+
+import com.doubao.voice.protocol.constants.SerializationType;
+import com.doubao.voice.protocol.message.DoubaoMessage;
+import com.doubao.voice.protocol.message.EventPayloads;
+import com.doubao.voice.protocol.message.PayloadParser;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * JSON负载按需读取器
+ *
+ * 解码器只保留原始（可能仍为Gzip压缩的）负载，由本类在使用方真正需要时才解压和解析。
+ * 常用事件通过流式解析直接绑定为 {@link EventPayloads} 中的记录，其余情况可回退到Map。
+ */
+@Slf4j
+public class PayloadReader implements PayloadParser {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    private final ObjectMapper objectMapper;
+
+    public PayloadReader(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 获取解压后的JSON字节
+     *
+     * @param message 消息对象
+     * @return JSON字节，无负载时返回null
+     */
+    public byte[] readBytes(DoubaoMessage message) {
+        byte[] raw = message.getRawPayload();
+        if (raw == null || raw.length == 0) {
+            return null;
+        }
+        if (message.getCompression() == SerializationType.COMPRESSION_GZIP) {
+            try {
+                return GzipUtils.decompress(raw);
+            } catch (IOException e) {
+                log.warn("Gzip解压失败，尝试作为原始数据处理: {}", e.getMessage());
+            }
+        }
+        return raw;
+    }
+
+    /**
+     * 将负载解析为Map，解析失败时返回原始字符串
+     *
+     * @param message 消息对象
+     * @return Map或String，无负载时返回null
+     */
+    @Override
+    public Object readObject(DoubaoMessage message) {
+        byte[] json = readBytes(message);
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, MAP_TYPE);
+        } catch (IOException e) {
+            // 解析失败，存储为原始字符串
+            log.warn("JSON解析失败，存储为原始字符串: {}", e.getMessage());
+            return new String(json, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * 读取SESSION_STARTED负载
+     */
+    public EventPayloads.SessionStarted readSessionStarted(DoubaoMessage message) {
+        String[] values = readFields(message, "dialog_id");
+        return values != null ? new EventPayloads.SessionStarted(values[0]) : null;
+    }
+
+    /**
+     * 读取SESSION_FAILED负载
+     */
+    public EventPayloads.SessionFailed readSessionFailed(DoubaoMessage message) {
+        String[] values = readFields(message, "error");
+        return values != null ? new EventPayloads.SessionFailed(values[0]) : null;
+    }
+
+    /**
+     * 读取ASR_RESPONSE负载，results为空时返回null
+     */
+    public EventPayloads.AsrResponse readAsrResponse(DoubaoMessage message) {
+        byte[] json = readBytes(message);
+        if (json == null) {
+            return null;
+        }
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken token = parser.nextToken();
+                if ("results".equals(name) && token == JsonToken.START_ARRAY) {
+                    if (parser.nextToken() != JsonToken.START_OBJECT) {
+                        return null;
+                    }
+                    return readAsrResult(parser);
+                }
+                parser.skipChildren();
+            }
+            return null;
+        } catch (IOException e) {
+            log.warn("ASR_RESPONSE解析失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 读取TTS_SENTENCE_START负载
+     */
+    public EventPayloads.TtsSentenceStart readTtsSentenceStart(DoubaoMessage message) {
+        String[] values = readFields(message, "text", "tts_type", "question_id", "reply_id");
+        return values != null ? new EventPayloads.TtsSentenceStart(values[0], values[1], values[2], values[3]) : null;
+    }
+
+    /**
+     * 读取CHAT_RESPONSE负载
+     */
+    public EventPayloads.ChatResponse readChatResponse(DoubaoMessage message) {
+        String[] values = readFields(message, "content", "question_id", "reply_id");
+        return values != null ? new EventPayloads.ChatResponse(values[0], values[1], values[2]) : null;
+    }
+
+    /**
+     * 读取DIALOG_COMMON_ERROR负载
+     */
+    public EventPayloads.DialogError readDialogError(DoubaoMessage message) {
+        String[] values = readFields(message, "status_code", "message");
+        return values != null ? new EventPayloads.DialogError(String.valueOf(values[0]), values[1]) : null;
+    }
+
+    /**
+     * 读取只包含问题ID/回复ID的负载
+     */
+    public EventPayloads.ReplyRef readReplyRef(DoubaoMessage message) {
+        String[] values = readFields(message, "question_id", "reply_id");
+        return values != null ? new EventPayloads.ReplyRef(values[0], values[1]) : null;
+    }
+
+    /**
+     * 读取results数组第一个元素中的text和is_interim
+     */
+    private EventPayloads.AsrResponse readAsrResult(JsonParser parser) throws IOException {
+        String text = null;
+        boolean interim = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if ("text".equals(name)) {
+                if (token.isScalarValue() && token != JsonToken.VALUE_NULL) {
+                    text = parser.getValueAsString();
+                } else {
+                    // 非标量的text视为缺失，跳过整个对象/数组，避免后续字段错位
+                    text = null;
+                    parser.skipChildren();
+                }
+            } else if ("is_interim".equals(name)) {
+                interim = token == JsonToken.VALUE_TRUE;
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return new EventPayloads.AsrResponse(text, interim);
+    }
+
+    /**
+     * 流式读取顶层标量字段，其余字段直接跳过
+     *
+     * @return 与names一一对应的字段值（缺失为null）；无负载或不是JSON对象时返回null
+     */
+    private String[] readFields(DoubaoMessage message, String... names) {
+        byte[] json = readBytes(message);
+        if (json == null) {
+            return null;
+        }
+        String[] values = new String[names.length];
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken token = parser.nextToken();
+                int index = indexOf(names, name);
+                if (index >= 0 && token.isScalarValue() && token != JsonToken.VALUE_NULL) {
+                    values[index] = parser.getValueAsString();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return values;
+        } catch (IOException e) {
+            log.warn("JSON解析失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static int indexOf(String[] names, String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,141 @@
+package com.doubao.voice.protocol.message;
+
+import com.doubao.voice.protocol.constants.EventType;
+import com.doubao.voice.protocol.constants.MessageType;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 可复用的音频帧视图
+ *
+ * 音频路径上的享元对象：每个连接持有一个实例，每帧由解码器重置并填充，
+ * 不创建DoubaoMessage也不经过Builder。控制类消息仍使用 {@link DoubaoMessage}。
+ *
+ * 非线程安全，只能在所属连接的读线程中使用，且仅在当前帧的回调期间有效
+ *
+ * @see com.doubao.voice.protocol.codec.DoubaoProtocolDecoder#decodeAudio(ByteBuffer, AudioFrameView)
+ */
+@Getter
+public class AudioFrameView {
+
+    /**
+     * 消息类型
+     */
+    private int messageType;
+
+    /**
+     * 消息类型特定标志
+     */
+    private int flags;
+
+    /**
+     * 事件ID（无事件时为-1）
+     */
+    private int eventId;
+
+    /**
+     * 序列号（无序列号时为0）
+     */
+    private int sequence;
+
+    /**
+     * 会话ID（与上一帧相同时复用同一个String实例）
+     */
+    private String sessionId;
+
+    /**
+     * 音频负载（position/limit已限定在负载范围内，无负载时为null）
+     */
+    private ByteBuffer payload;
+
+    /**
+     * 上一次解析出的会话ID的UTF-8字节，用于判断是否可复用sessionId
+     */
+    @Getter(AccessLevel.NONE)
+    private byte[] sessionIdBytes = new byte[0];
+
+    /**
+     * 重置视图
+     */
+    public void reset() {
+        messageType = 0;
+        flags = 0;
+        eventId = -1;
+        sequence = 0;
+        payload = null;
+        // sessionId及其字节保留，供下一帧比较复用
+    }
+
+    /**
+     * 填充Header字段
+     */
+    public void setHeader(int messageType, int flags) {
+        this.messageType = messageType;
+        this.flags = flags;
+    }
+
+    public void setEventId(int eventId) {
+        this.eventId = eventId;
+    }
+
+    public void setSequence(int sequence) {
+        this.sequence = sequence;
+    }
+
+    public void setPayload(ByteBuffer payload) {
+        this.payload = payload;
+    }
+
+    /**
+     * 从帧中解析会话ID，字节与上一帧相同时不分配新String
+     *
+     * @param frame  帧数据
+     * @param offset 会话ID起始位置（绝对位置）
+     * @param length 会话ID长度
+     */
+    public void resolveSessionId(ByteBuffer frame, int offset, int length) {
+        if (length <= 0) {
+            sessionId = null;
+            return;
+        }
+        if (length == sessionIdBytes.length && sessionId != null) {
+            boolean same = true;
+            for (int i = 0; i < length; i++) {
+                if (frame.get(offset + i) != sessionIdBytes[i]) {
+                    same = false;
+                    break;
+                }
+            }
+            if (same) {
+                return;
+            }
+        }
+        byte[] bytes = new byte[length];
+        frame.get(offset, bytes);
+        sessionIdBytes = bytes;
+        sessionId = new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 判断是否有事件ID
+     */
+    public boolean hasEvent() {
+        return (flags & MessageType.FLAG_MSG_WITH_EVENT) != 0;
+    }
+
+    /**
+     * 获取事件名称
+     */
+    public String getEventName() {
+        return eventId >= 0 ? EventType.getName(eventId) : "NO_EVENT";
+    }
+
+    @Override
+    public String toString() {
+        return String.format("AudioFrameView{event=%s, sessionId=%s, payloadSize=%d}",
+                getEventName(), sessionId, payload != null ? payload.remaining() : 0);
+    }
+}
@@ -5,6 +5,9 @@ import com.doubao.voice.protocol.constants.MessageType;
 import com.doubao.voice.protocol.constants.SerializationType;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.nio.ByteBuffer;
 
 /**
  * 豆包协议消息
@@ -80,16 +83,89 @@ public class DoubaoMessage {
 
     /**
      * JSON负载（用于文本消息）
+     *
+     * 解码得到的消息在首次读取时才解析并缓存，可能在邮箱线程和OkHttp读线程上读取，
+     * 使用volatile保证解析结果的安全发布；不参与equals/hashCode，避免比较时触发解析
+     */
+    @EqualsAndHashCode.Exclude
+    private volatile Object payload;
+
+    /**
+     * 原始JSON负载（按接收时的压缩状态保存，由payloadParser按需解压解析）
      */
-    private Object payload;
+    @EqualsAndHashCode.Exclude
+    private byte[] rawPayload;
 
     /**
-     * 二进制负载（用于音频数据）
+     * 负载解析器（解码时注入）
      */
-    private byte[] binaryPayload;
+    @EqualsAndHashCode.Exclude
+    private PayloadParser payloadParser;
+
+    /**
+     * 二进制负载（用于音频数据），只有视图时首次读取才拷贝并缓存
+     */
+    private volatile byte[] binaryPayload;
+
+    /**
+     * 二进制负载的只读视图
+     *
+     * 解码SERVER_ACK音频时直接引用接收帧的切片，避免拷贝；
+     * 使用方如需消费position，应先调用duplicate()
+     */
+    private ByteBuffer payloadBuffer;
 
     // ==================== 辅助方法 ====================
 
+    /**
+     * 获取JSON负载
+     *
+     * 解码得到的消息只保存原始字节，首次调用时才解压并解析为Map；
+     * 常用事件应优先通过解码器的负载读取器读取为类型化记录
+     */
+    public Object getPayload() {
+        Object parsed = payload;
+        if (parsed == null && rawPayload != null && payloadParser != null) {
+            // 并发首次读取时可能重复解析，结果相同，无需加锁
+            parsed = payloadParser.readObject(this);
+            payload = parsed;
+        }
+        return parsed;
+    }
+
+    /**
+     * 获取二进制负载
+     *
+     * 若负载仅以只读视图形式存在，首次调用时拷贝为数组
+     */
+    public byte[] getBinaryPayload() {
+        byte[] bytes = binaryPayload;
+        if (bytes == null && payloadBuffer != null) {
+            ByteBuffer view = payloadBuffer.duplicate();
+            bytes = new byte[view.remaining()];
+            view.get(bytes);
+            binaryPayload = bytes;
+        }
+        return bytes;
+    }
+
+    /**
+     * 获取二进制负载长度（不触发拷贝）
+     */
+    public int getBinaryPayloadLength() {
+        if (binaryPayload != null) {
+            return binaryPayload.length;
+        }
+        return payloadBuffer != null ? payloadBuffer.remaining() : 0;
+    }
+
+    /**
+     * 判断是否有二进制负载
+     */
+    public boolean hasBinaryPayload() {
+        return binaryPayload != null || payloadBuffer != null;
+    }
+
     /**
      * 判断是否有事件ID
      */
@@ -153,8 +229,9 @@ public class DoubaoMessage {
                 getMessageTypeName(),
                 getEventName(),
                 sessionId,
-                binaryPayload != null ? binaryPayload.length :
-                        (payload != null ? payload.toString().length() : 0));
+                hasBinaryPayload() ? getBinaryPayloadLength() :
+                        (payload != null ? payload.toString().length() :
+                                (rawPayload != null ? rawPayload.length : 0)));
     }
 
     // ==================== 工厂方法 ====================
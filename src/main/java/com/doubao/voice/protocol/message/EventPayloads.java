@@ -0,0 +1,76 @@
+package com.doubao.voice.protocol.message;
+
+/**
+ * 服务端事件负载类型
+ *
+ * 常用事件的负载由编解码层直接通过流式解析绑定到这些记录，不再经过Map<String, Object>
+ */
+public final class EventPayloads {
+
+    private EventPayloads() {
+    }
+
+    /**
+     * SESSION_STARTED负载
+     *
+     * @param dialogId 对话ID
+     */
+    public record SessionStarted(String dialogId) {
+    }
+
+    /**
+     * SESSION_FAILED负载
+     *
+     * @param error 错误信息
+     */
+    public record SessionFailed(String error) {
+    }
+
+    /**
+     * ASR_RESPONSE负载（仅取results中的第一条）
+     *
+     * @param text    识别文本
+     * @param interim 是否为临时结果
+     */
+    public record AsrResponse(String text, boolean interim) {
+    }
+
+    /**
+     * TTS_SENTENCE_START负载
+     *
+     * @param text       文本内容
+     * @param ttsType    TTS类型
+     * @param questionId 问题ID
+     * @param replyId    回复ID
+     */
+    public record TtsSentenceStart(String text, String ttsType, String questionId, String replyId) {
+    }
+
+    /**
+     * CHAT_RESPONSE负载
+     *
+     * @param content    回复内容
+     * @param questionId 问题ID
+     * @param replyId    回复ID
+     */
+    public record ChatResponse(String content, String questionId, String replyId) {
+    }
+
+    /**
+     * DIALOG_COMMON_ERROR负载
+     *
+     * @param statusCode 状态码
+     * @param message    错误信息
+     */
+    public record DialogError(String statusCode, String message) {
+    }
+
+    /**
+     * 仅携带问题ID/回复ID的负载（ASR_INFO、TTS_SENTENCE_END、TTS_ENDED、CHAT_ENDED）
+     *
+     * @param questionId 问题ID
+     * @param replyId    回复ID
+     */
+    public record ReplyRef(String questionId, String replyId) {
+    }
+}
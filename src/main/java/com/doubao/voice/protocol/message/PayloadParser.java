@@ -0,0 +1,19 @@
+package com.doubao.voice.protocol.message;
+
+/**
+ * JSON负载解析器
+ *
+ * 解码时注入到 {@link DoubaoMessage}，在首次读取负载时才解压和解析原始字节；
+ * 由编解码层实现，消息层不依赖具体的解码实现
+ */
+@FunctionalInterface
+public interface PayloadParser {
+
+    /**
+     * 将消息的原始负载解析为Map，解析失败时返回原始字符串
+     *
+     * @param message 消息对象
+     * @return Map或String，无负载时返回null
+     */
+    Object readObject(DoubaoMessage message);
+}
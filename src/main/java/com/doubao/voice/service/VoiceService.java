@@ -5,6 +5,8 @@ import com.doubao.voice.session.SessionState;
 import com.doubao.voice.session.VoiceSession;
 import com.doubao.voice.session.VoiceSessionEvent;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 /**
@@ -48,6 +50,47 @@ public interface VoiceService {
      */
     void disconnectSession(String sessionId);
 
+    /**
+     * 连接会话到豆包API
+     *
+     * @param sessionId 会话ID
+     * @return 收到CONNECTION_STARTED时完成
+     */
+    CompletableFuture<VoiceSession> connectSessionAsync(String sessionId);
+
+    /**
+     * 启动语音会话，连接尚未启动时先等待连接启动
+     *
+     * @param sessionId 会话ID
+     * @param config    会话配置，为null时使用默认配置
+     * @return 收到SESSION_STARTED时完成
+     */
+    CompletableFuture<VoiceSession> startSessionAsync(String sessionId, SessionConfig config);
+
+    /**
+     * 结束语音会话
+     *
+     * @param sessionId 会话ID
+     * @return 收到SESSION_FINISHED时完成
+     */
+    CompletableFuture<VoiceSession> endSessionAsync(String sessionId);
+
+    /**
+     * 断开会话连接
+     *
+     * @param sessionId 会话ID
+     * @return 会话离开上游连接时完成（不等待共享的物理连接关闭）
+     */
+    CompletableFuture<VoiceSession> disconnectSessionAsync(String sessionId);
+
+    /**
+     * 创建、连接并启动会话，失败时删除会话
+     *
+     * @param config 会话配置，为null时使用默认配置
+     * @return 收到SESSION_STARTED时完成
+     */
+    CompletableFuture<VoiceSession> createAndStartSession(SessionConfig config);
+
     /**
      * 删除会话
      *
@@ -110,4 +153,11 @@ public interface VoiceService {
      * @return 会话数量
      */
     int getSessionCount();
+
+    /**
+     * 获取运行指标（JVM资源、上游传输、帧缓存、压缩统计、各会话发送队列、播放缓冲和客户端发送缓冲）
+     *
+     * @return 指标名称 -> 指标值
+     */
+    Map<String, Object> getMetrics();
 }
@@ -1,13 +1,27 @@
 package com.doubao.voice.service;
 
+import com.doubao.voice.client.DoubaoConnectionPool;
+import com.doubao.voice.client.DoubaoTransport;
+import com.doubao.voice.client.EventMailbox;
+import com.doubao.voice.client.OutboundQueue;
 import com.doubao.voice.config.DoubaoProperties;
 import com.doubao.voice.exception.DoubaoException;
+import com.doubao.voice.protocol.codec.CompressionPolicy;
+import com.doubao.voice.protocol.codec.GzipUtils;
 import com.doubao.voice.session.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
 
 /**
@@ -20,6 +34,10 @@ public class VoiceServiceImpl implements VoiceService {
 
     private final VoiceSessionManager sessionManager;
     private final DoubaoProperties properties;
+    private final DoubaoTransport transport;
+    private final DoubaoConnectionPool connectionPool;
+    private final CompressionPolicy compressionPolicy;
+    private final StartHedger startHedger;
 
     @Override
     public String createSession() {
@@ -69,6 +87,53 @@ public class VoiceServiceImpl implements VoiceService {
         log.info("会话[{}]已断开", sessionId);
     }
 
+    @Override
+    public CompletableFuture<VoiceSession> connectSessionAsync(String sessionId) {
+        VoiceSession session = sessionManager.getSessionOrThrow(sessionId);
+        log.info("会话[{}]开始连接", sessionId);
+        return withTimeout(session.connectAsync(), "连接会话", sessionId);
+    }
+
+    @Override
+    public CompletableFuture<VoiceSession> startSessionAsync(String sessionId, SessionConfig config) {
+        VoiceSession session = sessionManager.getSessionOrThrow(sessionId);
+        SessionConfig sessionConfig = config != null ? config : buildDefaultConfig();
+        log.info("会话[{}]启动中", sessionId);
+        return withTimeout(session.startSessionAsync(sessionConfig), "启动会话", sessionId);
+    }
+
+    @Override
+    public CompletableFuture<VoiceSession> endSessionAsync(String sessionId) {
+        VoiceSession session = sessionManager.getSessionOrThrow(sessionId);
+        log.info("会话[{}]结束中", sessionId);
+        return withTimeout(session.endSessionAsync(), "结束会话", sessionId);
+    }
+
+    @Override
+    public CompletableFuture<VoiceSession> disconnectSessionAsync(String sessionId) {
+        VoiceSession session = sessionManager.getSessionOrThrow(sessionId);
+        log.info("会话[{}]断开中", sessionId);
+        return withTimeout(session.disconnectAsync(), "断开会话", sessionId);
+    }
+
+    @Override
+    public CompletableFuture<VoiceSession> createAndStartSession(SessionConfig config) {
+        VoiceSession session = sessionManager.createSession();
+        String sessionId = session.getSessionId();
+        SessionConfig sessionConfig = config != null ? config : buildDefaultConfig();
+        log.info("会话[{}]创建并启动中", sessionId);
+
+        CompletableFuture<VoiceSession> started = session.connectAsync()
+                .thenCompose(s -> s.startSessionAsync(sessionConfig));
+        return withTimeout(started, "创建并启动会话", sessionId)
+                .whenComplete((s, error) -> {
+                    if (error != null) {
+                        log.warn("会话[{}]创建并启动失败，删除会话: {}", sessionId, error.getMessage());
+                        sessionManager.removeSession(sessionId);
+                    }
+                });
+    }
+
     @Override
     public void deleteSession(String sessionId) {
         sessionManager.removeSession(sessionId);
@@ -124,6 +189,96 @@ public class VoiceServiceImpl implements VoiceService {
         return sessionManager.getSessionCount();
     }
 
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("sessionCount", sessionManager.getSessionCount());
+        metrics.put("jvm", jvmStats());
+        metrics.put("transport", transport.getStats());
+        metrics.put("connectionPool", connectionPool.getStats());
+        metrics.put("controlFrameCache", transport.getFrameCache().getStats());
+        metrics.put("compression", compressionPolicy.getStats());
+        metrics.put("gzipPool", GzipUtils.codec().getStats());
+        metrics.put("startHedge", startHedger.getStats());
+
+        // 各会话的上行分帧、发送队列、事件邮箱、播放缓冲、客户端发送缓冲和断线重连
+        Map<String, AudioFramer.Stats> framing = new LinkedHashMap<>();
+        Map<String, OutboundQueue.Stats> outbound = new LinkedHashMap<>();
+        Map<String, EventMailbox.Stats> mailbox = new LinkedHashMap<>();
+        Map<String, PlaybackBuffer.Stats> playback = new LinkedHashMap<>();
+        Map<String, ClientSender.Stats> clientSend = new LinkedHashMap<>();
+        Map<String, SessionReconnector.Stats> reconnect = new LinkedHashMap<>();
+        for (VoiceSession session : sessionManager.getAllSessions()) {
+            SessionReconnector.Stats reconnectStats = session.getReconnectStats();
+            if (reconnectStats != null) {
+                reconnect.put(session.getSessionId(), reconnectStats);
+            }
+            mailbox.put(session.getSessionId(), session.getMailboxStats());
+            PlaybackBuffer.Stats playbackStats = session.getPlaybackStats();
+            if (playbackStats != null) {
+                playback.put(session.getSessionId(), playbackStats);
+            }
+            ClientSender.Stats clientSendStats = session.getClientSendStats();
+            if (clientSendStats != null) {
+                clientSend.put(session.getSessionId(), clientSendStats);
+            }
+            AudioFramer.Stats framerStats = session.getAudioFramerStats();
+            if (framerStats != null) {
+                framing.put(session.getSessionId(), framerStats);
+            }
+            outbound.put(session.getSessionId(), session.getOutboundStats());
+        }
+        metrics.put("uplinkFraming", framing);
+        metrics.put("outbound", outbound);
+        metrics.put("mailbox", mailbox);
+        metrics.put("playback", playback);
+        metrics.put("clientSend", clientSend);
+        metrics.put("reconnect", reconnect);
+        return metrics;
+    }
+
+    /**
+     * 进程CPU、堆内存和线程数（供压测按时间采样）
+     */
+    private static Map<String, Object> jvmStats() {
+        Map<String, Object> jvm = new LinkedHashMap<>();
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os) {
+            jvm.put("processCpuLoad", os.getProcessCpuLoad());
+        }
+        jvm.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        jvm.put("heapUsed", heap.getUsed());
+        jvm.put("heapCommitted", heap.getCommitted());
+        jvm.put("heapMax", heap.getMax());
+        jvm.put("threadCount", ManagementFactory.getThreadMXBean().getThreadCount());
+        return jvm;
+    }
+
+    /**
+     * 为生命周期Future加上超时
+     *
+     * 超时只作用于返回给调用方的副本，不影响会话内部的Future
+     */
+    private CompletableFuture<VoiceSession> withTimeout(CompletableFuture<VoiceSession> future,
+                                                       String operation, String sessionId) {
+        long timeout = properties.getSession().getLifecycleTimeout();
+        return future.copy()
+                .orTimeout(timeout, TimeUnit.MILLISECONDS)
+                .exceptionallyCompose(error -> {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    if (cause instanceof TimeoutException) {
+                        log.warn("会话[{}]{}超时: {}ms", sessionId, operation, timeout);
+                        return CompletableFuture.failedFuture(
+                                new DoubaoException("TIMEOUT", operation + "超时: " + timeout + "ms"));
+                    }
+                    if (cause instanceof IOException) {
+                        return CompletableFuture.failedFuture(new DoubaoException(operation + "失败", cause));
+                    }
+                    return CompletableFuture.failedFuture(cause);
+                });
+    }
+
     /**
      * 构建默认会话配置
      */
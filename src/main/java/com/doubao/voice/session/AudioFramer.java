@@ -0,0 +1,213 @@
+package com.doubao.voice.session;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+
+/**
+ * 上行音频分帧器
+ *
+ * 客户端发送的PCM16音频块大小不一（几毫秒到几百毫秒），
+ * 分帧器将其重新切分为固定时长的帧再发往上游：
+ * - 小块先在缓冲区中累积，凑满一帧再发送，减少上游帧数
+ * - 大块直接按帧切片发送，不经过缓冲区
+ * - 用户停止说话或结束会话时发送缓冲区中不足一帧的剩余音频，末尾不足一个采样的字节留到下次，保持帧按采样对齐
+ *
+ * 启用自适应时，根据测得的上游往返时间调整帧时长：帧时长约为RTT的一半，
+ * 使分帧带来的等待不超过网络本身的延迟
+ *
+ * 线程安全
+ */
+@Slf4j
+public class AudioFramer {
+
+    /**
+     * 自适应时帧时长的调整粒度（毫秒）
+     */
+    private static final int FRAME_STEP_MS = 20;
+
+    /**
+     * PCM16单声道每个采样的字节数
+     */
+    private static final int BYTES_PER_SAMPLE = 2;
+
+    /**
+     * 帧发送目标
+     */
+    @FunctionalInterface
+    public interface FrameSink {
+
+        /**
+         * 发送一帧音频，方法返回后data可被复用
+         */
+        void send(byte[] data, int offset, int length) throws IOException;
+    }
+
+    private final int sampleRate;
+    private final int minFrameMs;
+    private final int maxFrameMs;
+    private final FrameSink sink;
+
+    /**
+     * 缓冲区按最大帧长分配，帧时长调整时无需重新分配
+     */
+    private final byte[] buffer;
+    private int buffered;
+
+    private int frameMs;
+    private int frameBytes;
+    private long rttMillis = -1;
+
+    private long chunksIn;
+    private long bytesIn;
+    private long framesOut;
+    private long flushes;
+
+    /**
+     * @param sampleRate 采样率（Hz）
+     * @param frameMs    初始帧时长（毫秒）
+     * @param minFrameMs 自适应时的最小帧时长（毫秒）
+     * @param maxFrameMs 自适应时的最大帧时长（毫秒）
+     * @param sink       帧发送目标
+     */
+    public AudioFramer(int sampleRate, int frameMs, int minFrameMs, int maxFrameMs, FrameSink sink) {
+        this.sampleRate = sampleRate;
+        this.minFrameMs = Math.min(minFrameMs, frameMs);
+        this.maxFrameMs = Math.max(maxFrameMs, frameMs);
+        this.sink = sink;
+        this.buffer = new byte[bytesFor(this.maxFrameMs)];
+        setFrameMs(frameMs);
+    }
+
+    /**
+     * 写入客户端音频块，凑满的帧立即发送
+     */
+    public synchronized void write(byte[] data, int offset, int length) throws IOException {
+        chunksIn++;
+        bytesIn += length;
+        int position = offset;
+        int end = offset + length;
+
+        // 先补满缓冲区中的半帧
+        if (buffered > 0) {
+            int n = Math.min(frameBytes - buffered, end - position);
+            System.arraycopy(data, position, buffer, buffered, n);
+            buffered += n;
+            position += n;
+            if (buffered < frameBytes) {
+                return;
+            }
+            emit(buffer, 0, frameBytes);
+            buffered = 0;
+        }
+
+        // 整帧直接从输入切片发送
+        while (end - position >= frameBytes) {
+            emit(data, position, frameBytes);
+            position += frameBytes;
+        }
+
+        // 剩余不足一帧的部分留待下次
+        if (position < end) {
+            System.arraycopy(data, position, buffer, 0, end - position);
+            buffered = end - position;
+        }
+    }
+
+    /**
+     * 发送缓冲区中不足一帧的剩余音频
+     *
+     * 只发送完整的采样，半个采样留在缓冲区中与后续音频拼接，避免之后的帧错位
+     */
+    public synchronized void flush() throws IOException {
+        int length = buffered - buffered % BYTES_PER_SAMPLE;
+        if (length == 0) {
+            return;
+        }
+        flushes++;
+        emit(buffer, 0, length);
+        compact(length);
+    }
+
+    /**
+     * 丢弃缓冲区中的音频（会话重置时）
+     */
+    public synchronized void reset() {
+        buffered = 0;
+    }
+
+    /**
+     * 根据上游往返时间调整帧时长
+     *
+     * @param rttMillis 往返时间（毫秒）
+     * @throws IOException 缩短帧时长后发送缓冲区中已凑满的帧失败
+     */
+    public synchronized void onRttMeasured(long rttMillis) throws IOException {
+        this.rttMillis = rttMillis;
+        long target = (rttMillis / 2 + FRAME_STEP_MS - 1) / FRAME_STEP_MS * FRAME_STEP_MS;
+        int adapted = (int) Math.max(minFrameMs, Math.min(maxFrameMs, target));
+        if (adapted == frameMs) {
+            return;
+        }
+        log.debug("上游RTT={}ms，帧时长调整为{}ms", rttMillis, adapted);
+        setFrameMs(adapted);
+
+        // 缩短帧时长后缓冲区中可能已超过一帧，按新帧长发出整帧，剩余部分留待下次
+        int position = 0;
+        try {
+            while (buffered - position >= frameBytes) {
+                emit(buffer, position, frameBytes);
+                position += frameBytes;
+            }
+        } finally {
+            compact(position);
+        }
+    }
+
+    /**
+     * 获取分帧统计信息
+     */
+    public synchronized Stats getStats() {
+        return new Stats(frameMs, rttMillis, chunksIn, bytesIn, framesOut, flushes, buffered);
+    }
+
+    private void setFrameMs(int frameMs) {
+        this.frameMs = frameMs;
+        this.frameBytes = bytesFor(frameMs);
+    }
+
+    /**
+     * 移除缓冲区开头已发送的字节
+     */
+    private void compact(int sent) {
+        if (sent == 0) {
+            return;
+        }
+        buffered -= sent;
+        System.arraycopy(buffer, sent, buffer, 0, buffered);
+    }
+
+    private void emit(byte[] data, int offset, int length) throws IOException {
+        sink.send(data, offset, length);
+        framesOut++;
+    }
+
+    private int bytesFor(int ms) {
+        return Math.max(BYTES_PER_SAMPLE, sampleRate * ms / 1000 * BYTES_PER_SAMPLE);
+    }
+
+    /**
+     * 分帧统计信息
+     *
+     * @param frameMs       当前帧时长（毫秒）
+     * @param rttMillis     最近测得的上游往返时间（毫秒），未测得时为-1
+     * @param chunksIn      累计收到的客户端音频块数
+     * @param bytesIn       累计收到的音频字节数
+     * @param framesOut     累计发往上游的帧数
+     * @param flushes       累计提前发送不足一帧音频的次数
+     * @param bufferedBytes 缓冲区中待发送的字节数
+     */
+    public record Stats(int frameMs, long rttMillis, long chunksIn, long bytesIn,
+                        long framesOut, long flushes, int bufferedBytes) {
+    }
+}
@@ -0,0 +1,73 @@
+package com.doubao.voice.session;
+
+import com.doubao.voice.config.DoubaoProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.adapter.NativeWebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 客户端下行发送线程池（所有客户端共享）
+ *
+ * 为每个客户端WebSocket会话创建 {@link ClientSender}，发送任务在共享线程池中执行，
+ * 线程按需创建，空闲60秒回收；线程数只取决于正在发送的客户端数
+ */
+@Slf4j
+public class ClientSendPool {
+
+    /**
+     * Tomcat阻塞发送超时的会话属性（毫秒，Long），默认20秒
+     */
+    private static final String BLOCKING_SEND_TIMEOUT = "org.apache.tomcat.websocket.BLOCKING_SEND_TIMEOUT";
+
+    private final DoubaoProperties.ClientSend config;
+    private final ThreadPoolExecutor executor;
+
+    public ClientSendPool(DoubaoProperties.ClientSend config) {
+        this.config = config;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(0, Integer.MAX_VALUE,
+                60, TimeUnit.SECONDS, new SynchronousQueue<>(), r -> {
+                    Thread thread = new Thread(r, "client-send-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * 为客户端会话创建发送缓冲
+     */
+    public ClientSender open(WebSocketSession session) {
+        // 单条消息阻塞超过时间上限时由容器中断写入，不依赖后续入队时的检查
+        applyBlockingSendTimeout(session);
+        return new ClientSender(session, executor, config.getSendTimeLimit(), config.getBufferSizeLimit());
+    }
+
+    /**
+     * 为容器会话设置阻塞发送超时（被装饰的会话先解开装饰）
+     */
+    private void applyBlockingSendTimeout(WebSocketSession session) {
+        WebSocketSession delegate = WebSocketSessionDecorator.unwrap(session);
+        jakarta.websocket.Session container = delegate instanceof NativeWebSocketSession nativeSession
+                ? nativeSession.getNativeSession(jakarta.websocket.Session.class) : null;
+        if (container == null) {
+            log.warn("客户端[{}]不是标准WebSocket会话({})，未设置阻塞发送超时，仅在入队时检查发送时间上限",
+                    session.getId(), delegate.getClass().getName());
+            return;
+        }
+        container.getUserProperties().put(BLOCKING_SEND_TIMEOUT, config.getSendTimeLimit());
+    }
+
+    /**
+     * 关闭线程池
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+        log.info("客户端发送线程池已关闭");
+    }
+}
@@ -0,0 +1,271 @@
+package com.doubao.voice.session;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 客户端WebSocket下行发送缓冲
+ *
+ * 事件投递线程和Tomcat请求线程只把消息放入缓冲区即返回，由共享线程池中的单个任务按入队顺序
+ * 调用 {@link WebSocketSession#sendMessage}，同一会话任意时刻最多一个线程在发送，
+ * 浏览器消费慢时阻塞的只是该会话的发送任务。
+ *
+ * 排队字节数超出上限时依次：
+ * - 丢弃最早排队的中间结果（ASR中间识别结果，后续结果会覆盖）
+ * - 丢弃最早排队的音频
+ * - 仍超出（只剩必须送达的事件）时关闭连接
+ *
+ * 单条消息发送超过时间上限时同样关闭连接
+ *
+ * 线程安全
+ */
+@Slf4j
+public class ClientSender {
+
+    /**
+     * 消息类别，决定超出上限时的丢弃顺序
+     */
+    public enum Kind {
+        /**
+         * 必须送达的事件（状态、最终识别结果、对话文本、错误等）
+         */
+        EVENT,
+        /**
+         * 可被后续消息覆盖的中间结果，最先丢弃
+         */
+        INTERIM,
+        /**
+         * 下行音频，中间结果之后丢弃
+         */
+        AUDIO
+    }
+
+    private final WebSocketSession session;
+    private final Executor executor;
+    private final long sendTimeLimitNanos;
+    private final long bufferSizeLimit;
+
+    private final Deque<Entry> queue = new ArrayDeque<>();
+    private long queuedBytes;
+    private boolean draining;
+    private boolean closed;
+
+    /**
+     * 正在发送的消息的开始时间，未在发送时为0
+     */
+    private long sendStartedAt;
+
+    private long peakBytes;
+    private long sentMessages;
+    private long sentBytes;
+    private long droppedInterim;
+    private long droppedAudio;
+    private long droppedBytes;
+    private long maxSendNanos;
+    private String closeReason;
+
+    /**
+     * @param session         客户端WebSocket会话
+     * @param executor        执行发送的共享线程池
+     * @param sendTimeLimit   单条消息的发送时间上限（毫秒）
+     * @param bufferSizeLimit 排队字节数上限
+     */
+    public ClientSender(WebSocketSession session, Executor executor, long sendTimeLimit, long bufferSizeLimit) {
+        this.session = session;
+        this.executor = executor;
+        this.sendTimeLimitNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeLimit);
+        this.bufferSizeLimit = bufferSizeLimit;
+    }
+
+    /**
+     * 消息入队，不阻塞
+     *
+     * @return 是否入队（缓冲已关闭时返回false，入队后仍可能因超出上限被丢弃）
+     */
+    public boolean send(WebSocketMessage<?> message, Kind kind) {
+        synchronized (this) {
+            if (closed) {
+                return false;
+            }
+            if (sendStartedAt != 0 && System.nanoTime() - sendStartedAt > sendTimeLimitNanos) {
+                closeSlowConsumer("发送超时: " + TimeUnit.NANOSECONDS.toMillis(sendTimeLimitNanos) + "ms");
+                return false;
+            }
+            queue.addLast(new Entry(message, kind, message.getPayloadLength()));
+            queuedBytes += message.getPayloadLength();
+            if (queuedBytes > bufferSizeLimit && !shed()) {
+                return false;
+            }
+            if (queuedBytes > peakBytes) {
+                peakBytes = queuedBytes;
+            }
+            if (draining) {
+                return true;
+            }
+            draining = true;
+        }
+        schedule();
+        return true;
+    }
+
+    /**
+     * 关闭缓冲（连接已关闭时），丢弃排队的消息，不计入丢弃统计
+     */
+    public synchronized void close() {
+        closed = true;
+        queue.clear();
+        queuedBytes = 0;
+    }
+
+    /**
+     * 获取发送缓冲统计信息
+     */
+    public synchronized Stats getStats() {
+        long sendingMillis = sendStartedAt != 0
+                ? TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sendStartedAt) : 0;
+        return new Stats(queue.size(), queuedBytes, bufferSizeLimit, peakBytes, sentMessages, sentBytes,
+                droppedInterim, droppedAudio, droppedBytes, sendingMillis,
+                TimeUnit.NANOSECONDS.toMillis(maxSendNanos), closed, closeReason);
+    }
+
+    private void schedule() {
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            // 线程池已关闭（应用停止中），丢弃剩余消息
+            close();
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            Entry entry;
+            long startedAt;
+            synchronized (this) {
+                entry = closed ? null : queue.pollFirst();
+                if (entry == null) {
+                    draining = false;
+                    return;
+                }
+                queuedBytes -= entry.size;
+                startedAt = System.nanoTime();
+                sendStartedAt = startedAt;
+            }
+            try {
+                session.sendMessage(entry.message);
+            } catch (Exception e) {
+                log.debug("客户端[{}]发送失败: {}", session.getId(), e.getMessage());
+                synchronized (this) {
+                    sendStartedAt = 0;
+                    draining = false;
+                    if (!closed) {
+                        closeSlowConsumer("发送失败: " + e.getMessage());
+                    }
+                }
+                return;
+            }
+            synchronized (this) {
+                long elapsed = System.nanoTime() - startedAt;
+                if (elapsed > maxSendNanos) {
+                    maxSendNanos = elapsed;
+                }
+                sendStartedAt = 0;
+                sentMessages++;
+                sentBytes += entry.size;
+            }
+        }
+    }
+
+    /**
+     * 超出上限时依次丢弃中间结果和音频，仍超出时关闭连接
+     *
+     * @return 是否已回到上限以内
+     */
+    private boolean shed() {
+        dropOldest(Kind.INTERIM);
+        if (queuedBytes > bufferSizeLimit) {
+            dropOldest(Kind.AUDIO);
+        }
+        if (queuedBytes <= bufferSizeLimit) {
+            return true;
+        }
+        closeSlowConsumer("发送缓冲超出上限: " + queuedBytes + "/" + bufferSizeLimit + "字节");
+        return false;
+    }
+
+    /**
+     * 从最早的消息开始丢弃指定类别，直到回到上限以内
+     */
+    private void dropOldest(Kind kind) {
+        Iterator<Entry> iterator = queue.iterator();
+        while (queuedBytes > bufferSizeLimit && iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.kind != kind) {
+                continue;
+            }
+            iterator.remove();
+            queuedBytes -= entry.size;
+            droppedBytes += entry.size;
+            if (kind == Kind.INTERIM) {
+                droppedInterim++;
+            } else {
+                droppedAudio++;
+            }
+        }
+    }
+
+    /**
+     * 客户端跟不上时关闭连接，关闭在线程池中执行，不阻塞调用方
+     */
+    private void closeSlowConsumer(String reason) {
+        log.warn("客户端[{}]消费过慢，关闭连接: {}", session.getId(), reason);
+        closeReason = reason;
+        close();
+        try {
+            executor.execute(() -> {
+                try {
+                    session.close(CloseStatus.SESSION_NOT_RELIABLE);
+                } catch (Exception e) {
+                    log.debug("关闭客户端[{}]失败: {}", session.getId(), e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 应用停止中，连接随容器关闭
+        }
+    }
+
+    private record Entry(WebSocketMessage<?> message, Kind kind, int size) {
+    }
+
+    /**
+     * 发送缓冲统计信息
+     *
+     * @param queuedMessages  当前排队消息数
+     * @param queuedBytes     当前排队字节数
+     * @param bufferSizeLimit 排队字节数上限
+     * @param peakBytes       排队字节数峰值
+     * @param sentMessages    累计发出消息数
+     * @param sentBytes       累计发出字节数
+     * @param droppedInterim  累计丢弃的中间结果数
+     * @param droppedAudio    累计丢弃的音频消息数
+     * @param droppedBytes    累计丢弃的字节数
+     * @param sendingMillis   当前消息已发送的时长（毫秒），未在发送时为0
+     * @param maxSendMillis   单条消息的最长发送时长（毫秒）
+     * @param closed          缓冲是否已关闭
+     * @param closeReason     因消费过慢关闭的原因，未因此关闭时为null
+     */
+    public record Stats(int queuedMessages, long queuedBytes, long bufferSizeLimit, long peakBytes,
+                        long sentMessages, long sentBytes, long droppedInterim, long droppedAudio,
+                        long droppedBytes, long sendingMillis, long maxSendMillis,
+                        boolean closed, String closeReason) {
+    }
+}
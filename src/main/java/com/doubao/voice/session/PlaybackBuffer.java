@@ -0,0 +1,298 @@
+package com.doubao.voice.session;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 会话下行音频播放缓冲
+ *
+ * 上游合成TTS音频的速度远快于实时播放，收到的音频先按回复（replyId）排队，
+ * 再按接近实时的节奏放给客户端：客户端已收到但尚未播放完的音频不超过lead，
+ * 打断时尚未发出的音频可以直接丢弃，而不是已经堆在客户端或网络中。
+ *
+ * - 用户开始说话（ASR_INFO）或出现新的questionId时，丢弃被取代回复尚未发出的音频，
+ *   并生成TTS_TRUNCATED事件通知客户端停止播放已缓冲的部分
+ * - 被打断的回复后续到达的音频直接丢弃
+ * - TTS句子事件与音频同队列排队，保持与音频的先后顺序
+ * - 非PCM格式无法按字节数换算时长，音频不做节奏控制，仍保持顺序
+ *
+ * 线程安全；{@link #release(long)} 返回的事件须由调用方串行发布
+ */
+public class PlaybackBuffer {
+
+    private final String sessionId;
+    private final long leadNanos;
+
+    /**
+     * 每秒音频字节数，0表示不做节奏控制
+     */
+    private long bytesPerSecond;
+
+    private final Deque<Entry> queue = new ArrayDeque<>();
+    private final List<VoiceSessionEvent> truncations = new ArrayList<>();
+    private long bufferedNanos;
+
+    /**
+     * 正在接收的回复
+     */
+    private String questionId;
+    private String replyId;
+
+    /**
+     * 被打断的回复，其后续音频直接丢弃
+     */
+    private String supersededReplyId;
+
+    /**
+     * 客户端播放完已发出音频的时间（纳秒），仅在playing为true时有效
+     */
+    private long playbackEnd;
+
+    /**
+     * 是否有已发出的音频（可能仍在客户端播放）
+     */
+    private boolean playing;
+
+    /**
+     * 已安排的下一次发布时间，Long.MAX_VALUE表示未安排
+     */
+    private long pumpAt = Long.MAX_VALUE;
+
+    private long releasedFrames;
+    private long releasedNanos;
+    private long truncationCount;
+    private long droppedFrames;
+    private long droppedNanos;
+    private long discardedFrames;
+
+    /**
+     * @param sessionId 会话ID
+     * @param leadMs    客户端可领先播放进度缓冲的音频时长（毫秒）
+     */
+    public PlaybackBuffer(String sessionId, long leadMs) {
+        this.sessionId = sessionId;
+        this.leadNanos = TimeUnit.MILLISECONDS.toNanos(leadMs);
+    }
+
+    /**
+     * 按TTS输出格式计算音频时长
+     *
+     * @param sampleRate 采样率（Hz）
+     * @param channel    声道数
+     * @param format     音频格式：pcm为Float32，pcm_s16le为16bit，其他格式不做节奏控制
+     */
+    public synchronized void configure(int sampleRate, int channel, String format) {
+        int bytesPerSample = switch (format == null ? "" : format) {
+            case "pcm" -> 4;
+            case "pcm_s16le" -> 2;
+            default -> 0;
+        };
+        this.bytesPerSecond = (long) sampleRate * Math.max(1, channel) * bytesPerSample;
+    }
+
+    /**
+     * 下行音频入队
+     *
+     * @return 需要立即安排发布的延迟（纳秒），已有更早的安排时返回-1
+     */
+    public synchronized long offerAudio(ByteBuffer audio, long now) {
+        if (replyId != null && replyId.equals(supersededReplyId)) {
+            discardedFrames++;
+            return -1;
+        }
+        long nanos = bytesPerSecond > 0 ? audio.remaining() * 1_000_000_000L / bytesPerSecond : 0;
+        queue.addLast(new Entry(VoiceSessionEvent.audioData(sessionId, audio), nanos));
+        bufferedNanos += nanos;
+        return requestPump(now, now);
+    }
+
+    /**
+     * TTS句子事件入队，与音频保持顺序
+     *
+     * @return 需要立即安排发布的延迟（纳秒），已有更早的安排时返回-1
+     */
+    public synchronized long offerEvent(VoiceSessionEvent event, long now) {
+        queue.addLast(new Entry(event, 0));
+        return requestPump(now, now);
+    }
+
+    /**
+     * 收到回复（对话文本或TTS句子）：questionId变化时之前的回复被取代
+     *
+     * @return 需要立即安排发布的延迟（纳秒），无需安排时返回-1
+     */
+    public synchronized long onReply(String questionId, String replyId, long now) {
+        long delay = -1;
+        if (questionId != null && this.questionId != null && !questionId.equals(this.questionId)) {
+            delay = truncate(now);
+        }
+        if (questionId != null) {
+            this.questionId = questionId;
+        }
+        if (replyId != null && !replyId.equals(this.replyId)) {
+            this.replyId = replyId;
+            supersededReplyId = null;
+        }
+        return delay;
+    }
+
+    /**
+     * 用户开始说话：丢弃当前回复尚未发出的音频，之后到达的音频也不再发出
+     *
+     * @return 需要立即安排发布的延迟（纳秒），无需安排时返回-1
+     */
+    public synchronized long interrupt(long now) {
+        long delay = truncate(now);
+        supersededReplyId = replyId;
+        return delay;
+    }
+
+    /**
+     * 取出当前可以发布的事件（截断事件、已到发送时间的音频和句子事件）
+     *
+     * @param now 当前时间（纳秒）
+     * @return 待发布的事件和下一次发布的延迟
+     */
+    public synchronized Release release(long now) {
+        if (now >= pumpAt) {
+            pumpAt = Long.MAX_VALUE;
+        }
+        List<VoiceSessionEvent> events = new ArrayList<>(truncations);
+        truncations.clear();
+        while (!queue.isEmpty()) {
+            Entry entry = queue.peekFirst();
+            if (entry.nanos > 0) {
+                if (playing && playbackEnd - now > leadNanos) {
+                    break;
+                }
+                playbackEnd = (playing ? Math.max(playbackEnd, now) : now) + entry.nanos;
+                playing = true;
+                bufferedNanos -= entry.nanos;
+                releasedNanos += entry.nanos;
+            }
+            if (entry.event.getType() == VoiceSessionEvent.EventType.AUDIO_DATA) {
+                releasedFrames++;
+            }
+            events.add(queue.pollFirst().event);
+        }
+        long nextDelay = queue.isEmpty() ? -1 : requestPump(playbackEnd - leadNanos, now);
+        return new Release(events, nextDelay);
+    }
+
+    /**
+     * 清空缓冲（会话结束或断开时），不生成截断事件
+     */
+    public synchronized void clear() {
+        queue.clear();
+        truncations.clear();
+        bufferedNanos = 0;
+        playing = false;
+        questionId = null;
+        replyId = null;
+        supersededReplyId = null;
+    }
+
+    /**
+     * 获取播放缓冲统计信息
+     */
+    public Stats getStats() {
+        return getStats(System.nanoTime());
+    }
+
+    /**
+     * 获取播放缓冲统计信息
+     *
+     * @param now 当前时间（纳秒）
+     */
+    public synchronized Stats getStats(long now) {
+        long ahead = playing ? Math.max(0, playbackEnd - now) : 0;
+        return new Stats(queue.size(), toMillis(bufferedNanos), toMillis(ahead),
+                toMillis(leadNanos), releasedFrames, toMillis(releasedNanos), truncationCount,
+                droppedFrames, toMillis(droppedNanos), discardedFrames);
+    }
+
+    /**
+     * 丢弃尚未发出的音频和句子事件（保留TTS_ENDED），客户端仍有音频在播放或有音频被丢弃时生成截断事件
+     */
+    private long truncate(long now) {
+        boolean removed = false;
+        long frames = 0;
+        long nanos = 0;
+        Iterator<Entry> iterator = queue.iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            VoiceSessionEvent.EventType type = entry.event.getType();
+            if (type == VoiceSessionEvent.EventType.TTS_ENDED) {
+                continue;
+            }
+            iterator.remove();
+            removed = true;
+            if (type == VoiceSessionEvent.EventType.AUDIO_DATA) {
+                frames++;
+                nanos += entry.nanos;
+            }
+        }
+        bufferedNanos -= nanos;
+        boolean audible = playing && playbackEnd > now;
+        playing = false;
+        if (frames > 0 || audible) {
+            truncationCount++;
+            droppedFrames += frames;
+            droppedNanos += nanos;
+            truncations.add(VoiceSessionEvent.ttsTruncated(sessionId, questionId, replyId, toMillis(nanos)));
+        } else if (!removed) {
+            return -1;
+        }
+        // 截断事件和剩余的TTS_ENDED须立即发出，不等待已安排的发布
+        pumpAt = now;
+        return 0;
+    }
+
+    private long requestPump(long at, long now) {
+        if (at >= pumpAt) {
+            return -1;
+        }
+        pumpAt = at;
+        return Math.max(0, at - now);
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private record Entry(VoiceSessionEvent event, long nanos) {
+    }
+
+    /**
+     * 一次发布的结果
+     *
+     * @param events         待按顺序发布的事件
+     * @param nextDelayNanos 下一次发布的延迟（纳秒），无需安排时为-1
+     */
+    public record Release(List<VoiceSessionEvent> events, long nextDelayNanos) {
+    }
+
+    /**
+     * 播放缓冲统计信息
+     *
+     * @param queued          当前排队的音频帧和句子事件数
+     * @param bufferedMillis  排队音频时长（毫秒）
+     * @param aheadMillis     客户端已收到但尚未播放的音频时长估计（毫秒）
+     * @param leadMillis      允许客户端领先缓冲的音频时长（毫秒）
+     * @param releasedFrames  累计发出的音频帧数
+     * @param releasedMillis  累计发出的音频时长（毫秒）
+     * @param truncations     累计截断次数
+     * @param droppedFrames   截断时丢弃的未发出音频帧数
+     * @param droppedMillis   截断时丢弃的未发出音频时长（毫秒）
+     * @param discardedFrames 被打断的回复后续到达而直接丢弃的音频帧数
+     */
+    public record Stats(int queued, long bufferedMillis, long aheadMillis, long leadMillis,
+                        long releasedFrames, long releasedMillis, long truncations,
+                        long droppedFrames, long droppedMillis, long discardedFrames) {
+    }
+}
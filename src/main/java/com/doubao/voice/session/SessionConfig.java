@@ -7,7 +7,7 @@ import lombok.Data;
  * 会话配置
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 public class SessionConfig {
 
     // ==================== ASR配置 ====================
@@ -96,6 +96,20 @@ public class SessionConfig {
     @Builder.Default
     private boolean strictAudit = false;
 
+    /**
+     * 规范化副本：空字符串与null视为相同，便于作为缓存键
+     */
+    public SessionConfig normalized() {
+        return toBuilder()
+                .systemRole(emptyToNull(systemRole))
+                .speakingStyle(emptyToNull(speakingStyle))
+                .build();
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
     /**
      * 创建默认配置
      */
@@ -0,0 +1,152 @@
+package com.doubao.voice.session;
+
+import com.doubao.voice.config.DoubaoProperties;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 会话重连状态
+ *
+ * 上游连接意外断开后，会话按指数退避重新连接：
+ * - 第n次重试的退避上限为 initialDelay * 2^(n-1)，不超过maxDelay
+ * - 实际等待时间在上限的一半到上限之间随机取值，同一连接上的多个会话不会同时重连
+ * - 超过最大重试次数后放弃，会话按原逻辑进入断开或错误状态
+ *
+ * 重连期间客户端发来的音频暂存在有界缓冲区中（超出时丢弃最早的音频），会话恢复后按顺序补发
+ *
+ * 线程安全
+ */
+public class SessionReconnector {
+
+    /**
+     * PCM16单声道每个采样的字节数
+     */
+    private static final int BYTES_PER_SAMPLE = 2;
+
+    private final int maxAttempts;
+    private final long initialDelay;
+    private final long maxDelay;
+    private final long maxBufferedBytes;
+
+    private final Deque<byte[]> audio = new ArrayDeque<>();
+    private long bufferedBytes;
+
+    private int attempt;
+    private long disconnectedAt;
+
+    private long attempts;
+    private long reconnects;
+    private long giveUps;
+    private long lastGapMillis = -1;
+    private long droppedBytes;
+
+    /**
+     * @param config     重连配置
+     * @param sampleRate 上行音频采样率（Hz）
+     */
+    public SessionReconnector(DoubaoProperties.Reconnect config, int sampleRate) {
+        this.maxAttempts = config.getMaxAttempts();
+        this.initialDelay = Math.max(1, config.getInitialDelay());
+        this.maxDelay = Math.max(initialDelay, config.getMaxDelay());
+        this.maxBufferedBytes = (long) sampleRate * BYTES_PER_SAMPLE * config.getBufferMs() / 1000;
+    }
+
+    /**
+     * 计算下一次重连的等待时间
+     *
+     * @return 等待时间（毫秒），超过最大重试次数时返回-1
+     */
+    public synchronized long nextDelay() {
+        if (attempt == 0) {
+            disconnectedAt = System.nanoTime();
+        }
+        if (attempt >= maxAttempts) {
+            giveUps++;
+            attempt = 0;
+            audio.clear();
+            bufferedBytes = 0;
+            return -1;
+        }
+        long ceiling = initialDelay << Math.min(attempt, 20);
+        ceiling = Math.min(maxDelay, ceiling);
+        attempt++;
+        attempts++;
+        return ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+    }
+
+    /**
+     * 当前是第几次重试，未在重连时为0
+     */
+    public synchronized int getAttempt() {
+        return attempt;
+    }
+
+    /**
+     * 重连成功，重置退避
+     */
+    public synchronized void succeeded() {
+        if (attempt == 0) {
+            return;
+        }
+        reconnects++;
+        lastGapMillis = (System.nanoTime() - disconnectedAt) / 1_000_000;
+        attempt = 0;
+    }
+
+    /**
+     * 暂存重连期间的上行音频
+     */
+    public synchronized void bufferAudio(byte[] data) {
+        if (data.length > maxBufferedBytes) {
+            droppedBytes += bufferedBytes + data.length;
+            audio.clear();
+            bufferedBytes = 0;
+            return;
+        }
+        while (bufferedBytes + data.length > maxBufferedBytes) {
+            byte[] dropped = audio.pollFirst();
+            bufferedBytes -= dropped.length;
+            droppedBytes += dropped.length;
+        }
+        audio.addLast(data);
+        bufferedBytes += data.length;
+    }
+
+    /**
+     * 取出暂存的音频
+     */
+    public synchronized List<byte[]> drainAudio() {
+        List<byte[]> result = new ArrayList<>(audio);
+        audio.clear();
+        bufferedBytes = 0;
+        return result;
+    }
+
+    /**
+     * 获取重连统计信息
+     */
+    public synchronized Stats getStats() {
+        return new Stats(attempt > 0, attempt, attempts, reconnects, giveUps, lastGapMillis,
+                bufferedBytes, droppedBytes);
+    }
+
+    /**
+     * 重连统计信息
+     *
+     * @param reconnecting  是否正在重连
+     * @param attempt       当前重试次数
+     * @param attempts      累计重试次数
+     * @param reconnects    累计重连成功次数
+     * @param giveUps       累计放弃重连次数
+     * @param lastGapMillis 最近一次从断开到恢复的时长（毫秒），未重连过时为-1
+     * @param bufferedBytes 重连期间暂存的音频字节数
+     * @param droppedBytes  累计因缓冲区溢出丢弃的音频字节数
+     */
+    public record Stats(boolean reconnecting, int attempt, long attempts, long reconnects, long giveUps,
+                        long lastGapMillis, long bufferedBytes, long droppedBytes) {
+    }
+}
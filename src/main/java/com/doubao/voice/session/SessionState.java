@@ -35,6 +35,11 @@ public enum SessionState {
      */
     SESSION_ENDING("会话结束中"),
 
+    /**
+     * 上游连接意外断开，正在重连
+     */
+    RECONNECTING("重连中"),
+
     /**
      * 已断开连接
      */
@@ -0,0 +1,140 @@
+package com.doubao.voice.session;
+
+import com.doubao.voice.config.DoubaoProperties;
+
+import java.util.Arrays;
+
+/**
+ * 会话启动对冲策略（所有会话共享）
+ *
+ * 发送START_SESSION后若在对冲延迟内未收到SESSION_STARTED，会话在另一条上游连接上
+ * 并行发起第二次启动，先成功的一方胜出，另一方正常结束。
+ *
+ * - 对冲延迟取最近启动耗时的指定分位数（默认p95），样本不足时使用初始延迟
+ * - 对冲次数不超过启动次数的maxHedgeRatio，避免上游整体变慢时成倍放大请求
+ *
+ * 线程安全
+ */
+public class StartHedger {
+
+    /**
+     * 参与分位数计算的最近样本数
+     */
+    private static final int WINDOW = 256;
+
+    private final boolean enabled;
+    private final double percentile;
+    private final int minSamples;
+    private final long initialDelay;
+    private final long minDelay;
+    private final long maxDelay;
+    private final double maxHedgeRatio;
+
+    /**
+     * 最近的启动耗时（毫秒），环形缓冲区
+     */
+    private final long[] samples = new long[WINDOW];
+    private int sampleCount;
+    private int nextSample;
+
+    private long starts;
+    private long hedges;
+    private long budgetRejected;
+    private long hedgeWins;
+    private long primaryWins;
+
+    public StartHedger(DoubaoProperties.Hedge config) {
+        this.enabled = config.isEnabled();
+        this.percentile = Math.max(1, Math.min(99.9, config.getPercentile()));
+        this.minSamples = Math.max(1, config.getMinSamples());
+        this.initialDelay = config.getInitialDelay();
+        this.minDelay = config.getMinDelay();
+        this.maxDelay = Math.max(minDelay, config.getMaxDelay());
+        this.maxHedgeRatio = config.getMaxHedgeRatio();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 记录一次会话启动，并返回本次的对冲延迟
+     *
+     * @return 对冲延迟（毫秒）
+     */
+    public synchronized long onStart() {
+        starts++;
+        return currentDelay();
+    }
+
+    /**
+     * 申请一次对冲，超出预算时拒绝
+     */
+    public synchronized boolean tryHedge() {
+        if (hedges + 1 > starts * maxHedgeRatio) {
+            budgetRejected++;
+            return false;
+        }
+        hedges++;
+        return true;
+    }
+
+    /**
+     * 记录启动结果
+     *
+     * @param latencyMillis 从原请求发送START_SESSION到任一方收到SESSION_STARTED的耗时（毫秒）；
+     *                      对冲胜出时也从原请求算起，只记对冲自身的耗时会低估尾延迟，使对冲延迟逐渐下移
+     * @param hedged        是否发起过对冲
+     * @param hedgeWon      对冲一方是否胜出
+     */
+    public synchronized void onStarted(long latencyMillis, boolean hedged, boolean hedgeWon) {
+        samples[nextSample] = latencyMillis;
+        nextSample = (nextSample + 1) % WINDOW;
+        if (sampleCount < WINDOW) {
+            sampleCount++;
+        }
+        if (hedged) {
+            if (hedgeWon) {
+                hedgeWins++;
+            } else {
+                primaryWins++;
+            }
+        }
+    }
+
+    /**
+     * 获取对冲统计信息
+     */
+    public synchronized Stats getStats() {
+        return new Stats(enabled, starts, hedges, starts > 0 ? (double) hedges / starts : 0,
+                budgetRejected, hedgeWins, primaryWins, currentDelay(), sampleCount);
+    }
+
+    private long currentDelay() {
+        if (sampleCount < minSamples) {
+            return initialDelay;
+        }
+        long[] sorted = Arrays.copyOf(samples, sampleCount);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100 * sampleCount) - 1;
+        long value = sorted[Math.max(0, Math.min(sampleCount - 1, index))];
+        return Math.max(minDelay, Math.min(maxDelay, value));
+    }
+
+    /**
+     * 对冲统计信息
+     *
+     * @param enabled        是否启用
+     * @param starts         累计启动次数
+     * @param hedges         累计对冲次数
+     * @param hedgeRate      对冲比例
+     * @param budgetRejected 因超出预算未发起的对冲次数
+     * @param hedgeWins      对冲一方胜出次数
+     * @param primaryWins    发起对冲后原请求仍胜出的次数
+     * @param delayMillis    当前对冲延迟（毫秒）
+     * @param samples        参与分位数计算的样本数
+     */
+    public record Stats(boolean enabled, long starts, long hedges, double hedgeRate, long budgetRejected,
+                        long hedgeWins, long primaryWins, long delayMillis, int samples) {
+    }
+}
@@ -1,20 +1,34 @@
 package com.doubao.voice.session;
 
 import com.doubao.voice.client.DoubaoClientListener;
+import com.doubao.voice.client.DoubaoTransport;
 import com.doubao.voice.client.DoubaoWebSocketClient;
+import com.doubao.voice.client.EventMailbox;
+import com.doubao.voice.client.OutboundQueue;
 import com.doubao.voice.config.DoubaoProperties;
+import com.doubao.voice.exception.DoubaoException;
+import com.doubao.voice.protocol.codec.ControlFrameCache;
+import com.doubao.voice.protocol.constants.EventType;
 import com.doubao.voice.protocol.message.DoubaoMessage;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.socket.WebSocketSession;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
 /**
@@ -25,11 +39,33 @@ import java.util.function.Consumer;
  * - 豆包API WebSocket客户端
  * - 会话状态管理
  * - 事件转发
+ * - 上游连接意外断开时的自动重连（见 {@link SessionReconnector}）
+ * - 会话启动对冲（见 {@link StartHedger}）
+ * - 下行音频按实时节奏发出，用户打断时丢弃未发出的音频（见 {@link PlaybackBuffer}）
  */
 @Slf4j
 @Getter
 public class VoiceSession implements DoubaoClientListener {
 
+    /**
+     * 会话订阅的豆包事件
+     */
+    private static final int[] SUBSCRIBED_EVENTS = {
+            EventType.CONNECTION_STARTED,
+            EventType.SESSION_STARTED,
+            EventType.SESSION_FINISHED,
+            EventType.SESSION_FAILED,
+            EventType.ASR_INFO,
+            EventType.ASR_RESPONSE,
+            EventType.ASR_ENDED,
+            EventType.TTS_SENTENCE_START,
+            EventType.TTS_SENTENCE_END,
+            EventType.TTS_ENDED,
+            EventType.CHAT_RESPONSE,
+            EventType.CHAT_ENDED,
+            EventType.DIALOG_COMMON_ERROR
+    };
+
     /**
      * 会话ID（本地生成）
      */
@@ -48,9 +84,9 @@ public class VoiceSession implements DoubaoClientListener {
     private volatile SessionState state;
 
     /**
-     * 豆包WebSocket客户端
+     * 豆包WebSocket客户端，启动对冲胜出时替换为对冲一方的客户端
      */
-    private final DoubaoWebSocketClient doubaoClient;
+    private volatile DoubaoWebSocketClient doubaoClient;
 
     /**
      * 客户端WebSocket会话
@@ -58,6 +94,12 @@ public class VoiceSession implements DoubaoClientListener {
     @Setter
     private WebSocketSession clientSession;
 
+    /**
+     * 客户端WebSocket会话的下行发送缓冲
+     */
+    @Setter
+    private volatile ClientSender clientSender;
+
     /**
      * 会话配置
      */
@@ -86,16 +128,169 @@ public class VoiceSession implements DoubaoClientListener {
      */
     private final CopyOnWriteArrayList<Consumer<VoiceSessionEvent>> eventListeners;
 
+    /**
+     * 是否使用了预热连接（创建时即已完成握手）
+     */
+    private final boolean warm;
+
+    /**
+     * 上行音频分帧器，未启用分帧时为null
+     */
+    private final AudioFramer audioFramer;
+
+    /**
+     * 是否根据上游往返时间调整帧时长
+     */
+    private final boolean adaptiveFrame;
+
+    /**
+     * 发送START_SESSION的时间（纳秒），用于测量上游往返时间
+     */
+    private volatile long sessionStartSentAt;
+
+    /**
+     * 下行音频播放缓冲，未启用时为null
+     */
+    @Getter(AccessLevel.NONE)
+    private final PlaybackBuffer playback;
+
+    /**
+     * 保证播放缓冲放出的事件按顺序发布
+     */
+    @Getter(AccessLevel.NONE)
+    private final Object playbackLock = new Object();
+
+    /**
+     * 上行音频的状态检查与发送、会话恢复时的补发与状态切换在同一把锁内完成，
+     * 恢复期间到达的音频要么被暂存并补发，要么排在补发的音频之后
+     */
+    @Getter(AccessLevel.NONE)
+    private final Object audioLock = new Object();
+
+    /**
+     * 断线重连状态，未启用重连时为null
+     */
+    @Getter(AccessLevel.NONE)
+    private final SessionReconnector reconnector;
+
+    /**
+     * 重连成功后是否携带dialogId重新启动会话（断开时会话已启动或正在启动）
+     */
+    @Getter(AccessLevel.NONE)
+    private volatile boolean resumeSession;
+
+    /**
+     * 等待执行的重连任务
+     */
+    @Getter(AccessLevel.NONE)
+    private volatile ScheduledFuture<?> reconnectTask;
+
+    /**
+     * 是否已主动断开，主动断开不触发重连
+     */
+    @Getter(AccessLevel.NONE)
+    private volatile boolean closing;
+
+    /**
+     * 会话启动对冲策略，为null时不对冲
+     */
+    @Getter(AccessLevel.NONE)
+    private final StartHedger startHedger;
+
+    /**
+     * 本次启动的对冲状态，未启用对冲时为null
+     */
+    @Getter(AccessLevel.NONE)
+    private volatile StartHedge hedge;
+
+    /**
+     * 本次启动发起的对冲已失败，原请求启动成功时仍记录启动耗时
+     */
+    private volatile boolean hedgeLost;
+
+    /**
+     * 收到CONNECTION_STARTED时完成
+     */
+    @Getter(AccessLevel.NONE)
+    private volatile CompletableFuture<VoiceSession> connectionFuture = new CompletableFuture<>();
+
+    /**
+     * 收到SESSION_STARTED时完成，发送START_SESSION时创建
+     */
+    @Getter(AccessLevel.NONE)
+    private volatile CompletableFuture<VoiceSession> sessionStartedFuture;
+
+    /**
+     * 收到SESSION_FINISHED时完成，发送FINISH_SESSION时创建
+     */
+    @Getter(AccessLevel.NONE)
+    private volatile CompletableFuture<VoiceSession> sessionFinishedFuture;
+
+    /**
+     * 会话离开上游连接时完成：主动断开时FINISH_SESSION已交给连接发送并已摘除会话，
+     * 或上游连接关闭且不再重连
+     */
+    @Getter(AccessLevel.NONE)
+    private volatile CompletableFuture<VoiceSession> closedFuture = new CompletableFuture<>();
+
     public VoiceSession(DoubaoProperties properties) {
+        this(new DoubaoTransport(properties));
+    }
+
+    /**
+     * @param transport 共享传输层
+     */
+    public VoiceSession(DoubaoTransport transport) {
+        this(transport.newClient());
+    }
+
+    /**
+     * @param doubaoClient 豆包客户端，可以是预热连接池中已完成握手的客户端
+     */
+    public VoiceSession(DoubaoWebSocketClient doubaoClient) {
+        this(doubaoClient, null);
+    }
+
+    /**
+     * @param doubaoClient 豆包客户端，可以是预热连接池中已完成握手的客户端
+     * @param startHedger  会话启动对冲策略，为null时不对冲
+     */
+    public VoiceSession(DoubaoWebSocketClient doubaoClient, StartHedger startHedger) {
         this.sessionId = UUID.randomUUID().toString();
         this.state = SessionState.CREATED;
         this.createdAt = Instant.now();
         this.lastActiveAt = Instant.now();
         this.eventListeners = new CopyOnWriteArrayList<>();
 
-        // 创建豆包客户端
-        this.doubaoClient = new DoubaoWebSocketClient(properties);
-        this.doubaoClient.addListener(this);
+        this.doubaoClient = doubaoClient;
+        this.startHedger = startHedger != null && startHedger.isEnabled() ? startHedger : null;
+        // 音频由AudioSink直接接收，事件监听只订阅会话关心的事件，不包含TTS_RESPONSE
+        this.doubaoClient.setAudioSink(this::onAudioData);
+        this.doubaoClient.addListener(this, SUBSCRIBED_EVENTS);
+
+        DoubaoProperties.Asr asr = doubaoClient.getProperties().getAsr();
+        this.audioFramer = asr.getFrameMs() > 0
+                ? new AudioFramer(asr.getSampleRate(), asr.getFrameMs(), asr.getMinFrameMs(),
+                        asr.getMaxFrameMs(), (data, offset, length) -> this.doubaoClient.sendAudio(data, offset, length))
+                : null;
+        this.adaptiveFrame = audioFramer != null && asr.isAdaptiveFrame();
+
+        DoubaoProperties.Reconnect reconnect = doubaoClient.getProperties().getReconnect();
+        this.reconnector = reconnect.isEnabled() ? new SessionReconnector(reconnect, asr.getSampleRate()) : null;
+
+        DoubaoProperties.Playback playbackConfig = doubaoClient.getProperties().getPlayback();
+        this.playback = playbackConfig.isEnabled() ? new PlaybackBuffer(sessionId, playbackConfig.getLeadMs()) : null;
+        if (playback != null) {
+            DoubaoProperties.Tts tts = doubaoClient.getProperties().getTts();
+            playback.configure(tts.getSampleRate(), tts.getChannel(), tts.getFormat());
+        }
+
+        // 预热连接已完成握手，可直接启动会话
+        this.warm = doubaoClient.isConnected() && doubaoClient.isConnectionStarted();
+        if (warm) {
+            state = SessionState.CONNECTED;
+            connectionFuture.complete(this);
+        }
     }
 
     /**
@@ -125,19 +320,81 @@ public class VoiceSession implements DoubaoClientListener {
         });
     }
 
+    /**
+     * 发布TTS句子事件，启用播放缓冲时与音频同队列排队，保持先后顺序
+     */
+    private void publishTtsEvent(VoiceSessionEvent event) {
+        if (playback == null) {
+            publishEvent(event);
+            return;
+        }
+        schedulePlayback(playback.offerEvent(event, System.nanoTime()));
+    }
+
+    /**
+     * 在传输层后台线程上安排一次播放缓冲发布
+     *
+     * @param delayNanos 延迟（纳秒），为负数时无需安排
+     */
+    private void schedulePlayback(long delayNanos) {
+        if (delayNanos < 0) {
+            return;
+        }
+        // 向上取整到毫秒，发布不会早于预定时间
+        doubaoClient.schedule(this::releasePlayback, TimeUnit.NANOSECONDS.toMillis(delayNanos + 999_999));
+    }
+
+    /**
+     * 发布播放缓冲中已到时间的音频和事件，并安排下一次发布
+     */
+    private void releasePlayback() {
+        synchronized (playbackLock) {
+            PlaybackBuffer.Release release = playback.release(System.nanoTime());
+            release.events().forEach(this::publishEvent);
+            schedulePlayback(release.nextDelayNanos());
+        }
+    }
+
+    private void clearPlayback() {
+        if (playback != null) {
+            playback.clear();
+        }
+    }
+
     /**
      * 连接到豆包API
      */
     public void connect() {
+        if (state == SessionState.CONNECTED && doubaoClient.isConnectionStarted()) {
+            // 预热连接已完成握手，补发连接已启动事件
+            log.debug("会话[{}] 使用预热连接，无需建立连接", sessionId);
+            publishEvent(VoiceSessionEvent.connectionStarted(sessionId));
+            return;
+        }
         if (state != SessionState.CREATED && state != SessionState.DISCONNECTED) {
             log.warn("会话状态不允许连接: {}", state);
             return;
         }
+        if (connectionFuture.isDone()) {
+            connectionFuture = new CompletableFuture<>();
+        }
+        if (closedFuture.isDone()) {
+            closedFuture = new CompletableFuture<>();
+        }
+        closing = false;
         state = SessionState.CONNECTING;
         doubaoClient.connect();
         updateLastActive();
     }
 
+    /**
+     * 连接到豆包API，收到CONNECTION_STARTED时完成
+     */
+    public CompletableFuture<VoiceSession> connectAsync() {
+        connect();
+        return connectionFuture;
+    }
+
     /**
      * 启动会话
      */
@@ -147,11 +404,47 @@ public class VoiceSession implements DoubaoClientListener {
         }
         this.config = sessionConfig;
         state = SessionState.SESSION_STARTING;
+        if (playback != null) {
+            playback.configure(sessionConfig.getTtsSampleRate(), sessionConfig.getChannel(),
+                    sessionConfig.getAudioFormat());
+        }
 
-        // 构建会话配置
-        Map<String, Object> configMap = buildSessionConfig(sessionConfig);
-        doubaoClient.sendStartSession(configMap);
+        // 构建会话配置（相同配置的序列化及压缩结果经缓存复用）
+        ControlFrameCache.StartSessionKey cacheKey =
+                new ControlFrameCache.StartSessionKey(sessionConfig.normalized(), dialogId);
+        sessionStartSentAt = System.nanoTime();
+        // 重连恢复会话时沿用调用方仍在等待的Future
+        CompletableFuture<VoiceSession> started = sessionStartedFuture;
+        if (started == null || started.isDone()) {
+            sessionStartedFuture = new CompletableFuture<>();
+        }
+        doubaoClient.sendStartSession(cacheKey, () -> buildSessionConfig(sessionConfig));
         updateLastActive();
+
+        // 重连恢复时不对冲，避免与重连退避叠加
+        hedge = null;
+        hedgeLost = false;
+        if (startHedger != null && !resumeSession) {
+            StartHedge h = new StartHedge(cacheKey, sessionConfig);
+            hedge = h;
+            h.timer = doubaoClient.schedule(h::launch, startHedger.onStart());
+        }
+    }
+
+    /**
+     * 启动会话，收到SESSION_STARTED时完成
+     *
+     * 连接尚未启动时先等待CONNECTION_STARTED，无需调用方轮询会话状态
+     */
+    public CompletableFuture<VoiceSession> startSessionAsync(SessionConfig sessionConfig) {
+        return connectionFuture.thenCompose(session -> {
+            try {
+                startSession(sessionConfig);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+            return sessionStartedFuture;
+        });
     }
 
     /**
@@ -163,30 +456,284 @@ public class VoiceSession implements DoubaoClientListener {
             return;
         }
         state = SessionState.SESSION_ENDING;
+        flushAudio();
+        sessionFinishedFuture = new CompletableFuture<>();
         doubaoClient.sendFinishSession();
         updateLastActive();
     }
 
+    /**
+     * 结束会话，收到SESSION_FINISHED时完成
+     */
+    public CompletableFuture<VoiceSession> endSessionAsync() {
+        if (state != SessionState.SESSION_ACTIVE) {
+            return CompletableFuture.failedFuture(new IllegalStateException("会话状态不允许结束: " + state));
+        }
+        try {
+            endSession();
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return sessionFinishedFuture;
+    }
+
     /**
      * 断开连接
      */
     public void disconnect() {
-        doubaoClient.disconnect();
+        DoubaoWebSocketClient client;
+        synchronized (this) {
+            // 与对冲胜出互斥：断开的一定是当前使用的客户端
+            closing = true;
+            client = doubaoClient;
+        }
+        abandonHedge();
+        ScheduledFuture<?> task = reconnectTask;
+        if (task != null) {
+            task.cancel(false);
+        }
+        // 返回时剩余控制帧和FINISH_SESSION已按序交给连接发送，会话已从连接上摘除
+        client.disconnect();
         state = SessionState.DISCONNECTED;
+        clearPlayback();
+        // 连接已不存在（如从未连接）时也视为已离开
+        closedFuture.complete(this);
+        failPending(new DoubaoException("会话已断开"));
+    }
+
+    /**
+     * 断开连接，会话离开上游连接时完成
+     *
+     * 上游连接可能由多个会话共享，这里不等待物理连接关闭：
+     * 返回的Future完成时FINISH_SESSION已排在连接的发送队列中，会话不再收发任何消息
+     */
+    public CompletableFuture<VoiceSession> disconnectAsync() {
+        disconnect();
+        return closedFuture;
+    }
+
+    /**
+     * 使尚未完成的生命周期Future失败
+     */
+    private void failPending(Throwable error) {
+        connectionFuture.completeExceptionally(error);
+        CompletableFuture<VoiceSession> started = sessionStartedFuture;
+        if (started != null) {
+            started.completeExceptionally(error);
+        }
+        CompletableFuture<VoiceSession> finished = sessionFinishedFuture;
+        if (finished != null) {
+            finished.completeExceptionally(error);
+        }
     }
 
     /**
      * 发送音频数据
      */
     public void sendAudio(byte[] audioData) throws IOException {
-        if (state != SessionState.SESSION_ACTIVE) {
-            log.warn("会话状态不允许发送音频: {}", state);
-            return;
+        synchronized (audioLock) {
+            SessionState current = state;
+            if (resumeSession && (current == SessionState.RECONNECTING || current == SessionState.SESSION_STARTING)) {
+                // 重连期间暂存，会话恢复后补发
+                reconnector.bufferAudio(audioData.clone());
+                updateLastActive();
+                return;
+            }
+            if (current != SessionState.SESSION_ACTIVE) {
+                log.warn("会话状态不允许发送音频: {}", current);
+                return;
+            }
+            writeAudio(audioData);
+        }
+    }
+
+    private void writeAudio(byte[] audioData) throws IOException {
+        if (audioFramer != null) {
+            audioFramer.write(audioData, 0, audioData.length);
+        } else {
+            doubaoClient.sendAudio(audioData);
         }
-        doubaoClient.sendAudio(audioData);
         updateLastActive();
     }
 
+    /**
+     * 发送分帧器中不足一帧的剩余音频
+     */
+    private void flushAudio() {
+        if (audioFramer == null) {
+            return;
+        }
+        try {
+            audioFramer.flush();
+        } catch (IOException e) {
+            log.warn("会话[{}] 发送剩余音频失败: {}", sessionId, e.getMessage());
+        }
+    }
+
+    /**
+     * 尝试重连上游连接
+     *
+     * @param reason 断开原因
+     * @return 是否已安排重连；未启用、主动断开、状态不需要恢复或超过重试次数时返回false
+     */
+    private synchronized boolean tryReconnect(String reason) {
+        if (reconnector == null || closing) {
+            return false;
+        }
+        SessionState current = state;
+        if (current != SessionState.RECONNECTING) {
+            if (current != SessionState.CONNECTED && current != SessionState.SESSION_STARTING
+                    && current != SessionState.SESSION_ACTIVE) {
+                return false;
+            }
+            resumeSession = current != SessionState.CONNECTED;
+        }
+        long delay = reconnector.nextDelay();
+        if (delay < 0) {
+            log.warn("会话[{}] 重连次数已达上限，放弃重连", sessionId);
+            resumeSession = false;
+            return false;
+        }
+        state = SessionState.RECONNECTING;
+        if (connectionFuture.isDone()) {
+            connectionFuture = new CompletableFuture<>();
+        }
+        int attempt = reconnector.getAttempt();
+        log.warn("会话[{}] 上游连接断开({})，{}ms后第{}次重连", sessionId, reason, delay, attempt);
+        publishEvent(VoiceSessionEvent.reconnecting(sessionId, attempt, delay, reason));
+        reconnectTask = doubaoClient.schedule(this::reconnect, delay);
+        return true;
+    }
+
+    /**
+     * 执行重连，连接启动后在 {@link #onConnectionStarted()} 中恢复会话
+     */
+    private synchronized void reconnect() {
+        reconnectTask = null;
+        if (closing || state != SessionState.RECONNECTING) {
+            return;
+        }
+        try {
+            doubaoClient.connect();
+        } catch (RuntimeException e) {
+            onError(e);
+        }
+    }
+
+    /**
+     * 重连后连接已启动：需要恢复的会话携带原dialogId重新启动，否则直接完成重连
+     */
+    private void resume() {
+        state = SessionState.CONNECTED;
+        connectionFuture.complete(this);
+        if (!resumeSession || config == null) {
+            resumeSession = false;
+            reconnector.succeeded();
+            log.info("会话[{}] 已重连", sessionId);
+            publishEvent(VoiceSessionEvent.reconnected(sessionId, dialogId));
+            return;
+        }
+        try {
+            log.info("会话[{}] 连接已恢复，重新启动会话, dialogId={}", sessionId, dialogId);
+            startSession(config);
+        } catch (IOException e) {
+            onError(e);
+        }
+    }
+
+    /**
+     * 补发重连期间暂存的音频
+     */
+    private void replayBufferedAudio() {
+        for (byte[] chunk : reconnector.drainAudio()) {
+            try {
+                writeAudio(chunk);
+            } catch (IOException e) {
+                log.warn("会话[{}] 补发暂存音频失败: {}", sessionId, e.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * 放弃尚未决出胜负的对冲启动
+     */
+    private void abandonHedge() {
+        StartHedge h = hedge;
+        if (h != null && h.settled.compareAndSet(false, true)) {
+            h.discard();
+        }
+    }
+
+    /**
+     * 对冲一方先收到SESSION_STARTED：改用对冲一方的客户端，原客户端正常结束会话后离开
+     *
+     * 在对冲客户端的邮箱线程上执行，持有会话锁，与原客户端触发的重连及会话断开互斥
+     */
+    private synchronized void promote(StartHedge h, String dialogId) {
+        DoubaoWebSocketClient winner = h.client;
+        if (closing) {
+            winner.removeListener(h);
+            winner.disconnect();
+            return;
+        }
+        DoubaoWebSocketClient loser = doubaoClient;
+        loser.removeListener(this);
+        loser.setAudioSink(null);
+        winner.removeListener(h);
+        winner.setAudioSink(this::onAudioData);
+        winner.addListener(this, SUBSCRIBED_EVENTS);
+        doubaoClient = winner;
+        loser.disconnect();
+
+        // 启动耗时从原请求发送时算起，与未对冲的样本口径一致
+        long now = System.nanoTime();
+        long latency = (now - sessionStartSentAt) / 1_000_000;
+        startHedger.onStarted(latency, true, true);
+        log.info("会话[{}] 对冲启动胜出, 启动耗时{}ms, 对冲请求耗时{}ms",
+                sessionId, latency, (now - h.sentAt) / 1_000_000);
+        hedge = null;
+        // 之后按胜出连接的往返时间调整帧时长
+        sessionStartSentAt = h.sentAt;
+        onSessionStarted(dialogId);
+    }
+
+    /**
+     * 获取断线重连统计信息，未启用重连时返回null
+     */
+    public SessionReconnector.Stats getReconnectStats() {
+        return reconnector != null ? reconnector.getStats() : null;
+    }
+
+    /**
+     * 获取事件邮箱统计信息
+     */
+    public EventMailbox.Stats getMailboxStats() {
+        return doubaoClient.getMailboxStats();
+    }
+
+    /**
+     * 获取客户端下行发送缓冲统计信息，未连接客户端时返回null
+     */
+    public ClientSender.Stats getClientSendStats() {
+        ClientSender sender = clientSender;
+        return sender != null ? sender.getStats() : null;
+    }
+
+    /**
+     * 获取下行播放缓冲统计信息，未启用时返回null
+     */
+    public PlaybackBuffer.Stats getPlaybackStats() {
+        return playback != null ? playback.getStats() : null;
+    }
+
+    /**
+     * 获取上行分帧统计信息，未启用分帧时返回null
+     */
+    public AudioFramer.Stats getAudioFramerStats() {
+        return audioFramer != null ? audioFramer.getStats() : null;
+    }
+
     /**
      * 发送文本查询
      */
@@ -198,6 +745,19 @@ public class VoiceSession implements DoubaoClientListener {
         updateLastActive();
     }
 
+    /**
+     * 获取上行发送队列统计信息
+     */
+    public OutboundQueue.Stats getOutboundStats() {
+        return doubaoClient.getOutboundStats();
+    }
+
+    private void completeIfPresent(CompletableFuture<VoiceSession> future) {
+        if (future != null) {
+            future.complete(this);
+        }
+    }
+
     /**
      * 更新最后活动时间
      */
@@ -267,47 +827,118 @@ public class VoiceSession implements DoubaoClientListener {
 
     @Override
     public void onConnectionStarted() {
+        if (state == SessionState.RECONNECTING) {
+            resume();
+            return;
+        }
         state = SessionState.CONNECTED;
-        log.info("会话[{}] 连接已启动", sessionId);
+        log.info("会话[{}] 连接已启动, 耗时{}ms", sessionId, Duration.between(createdAt, Instant.now()).toMillis());
         publishEvent(VoiceSessionEvent.connectionStarted(sessionId));
+        connectionFuture.complete(this);
     }
 
     @Override
     public void onSessionStarted(String dialogId) {
+        StartHedge h = hedge;
+        if (h != null) {
+            if (!h.settled.compareAndSet(false, true)) {
+                // 对冲一方已胜出，忽略原客户端的迟到事件
+                return;
+            }
+            h.discard();
+            hedge = null;
+            startHedger.onStarted((System.nanoTime() - sessionStartSentAt) / 1_000_000, h.client != null, false);
+        } else if (hedgeLost) {
+            hedgeLost = false;
+            startHedger.onStarted((System.nanoTime() - sessionStartSentAt) / 1_000_000, true, false);
+        }
         this.dialogId = dialogId;
+        if (audioFramer != null) {
+            audioFramer.reset();
+            if (adaptiveFrame && sessionStartSentAt > 0) {
+                try {
+                    audioFramer.onRttMeasured((System.nanoTime() - sessionStartSentAt) / 1_000_000);
+                } catch (IOException e) {
+                    log.warn("会话[{}] 调整帧时长时发送音频失败: {}", sessionId, e.getMessage());
+                }
+            }
+        }
+        if (resumeSession) {
+            synchronized (audioLock) {
+                // 先补发暂存音频再切换状态，新到达的音频排在其后
+                replayBufferedAudio();
+                state = SessionState.SESSION_ACTIVE;
+                resumeSession = false;
+            }
+            reconnector.succeeded();
+            log.info("会话[{}] 已恢复, dialogId={}", sessionId, dialogId);
+            publishEvent(VoiceSessionEvent.reconnected(sessionId, dialogId));
+            completeIfPresent(sessionStartedFuture);
+            return;
+        }
         state = SessionState.SESSION_ACTIVE;
         log.info("会话[{}] 已启动, dialogId={}", sessionId, dialogId);
         publishEvent(VoiceSessionEvent.sessionStarted(sessionId, dialogId));
+        completeIfPresent(sessionStartedFuture);
     }
 
     @Override
     public void onSessionFinished() {
         state = SessionState.CONNECTED;
+        clearPlayback();
         log.info("会话[{}] 已结束", sessionId);
         publishEvent(VoiceSessionEvent.sessionFinished(sessionId));
+        completeIfPresent(sessionFinishedFuture);
     }
 
     @Override
     public void onSessionFailed(String error) {
+        abandonHedge();
         state = SessionState.ERROR;
+        resumeSession = false;
         this.errorMessage = error;
+        clearPlayback();
         log.error("会话[{}] 失败: {}", sessionId, error);
         publishEvent(VoiceSessionEvent.sessionFailed(sessionId, error));
+        failPending(new DoubaoException("SESSION_FAILED", "会话失败: " + error));
     }
 
     @Override
     public void onDisconnected(int code, String reason) {
+        synchronized (this) {
+            if (doubaoClient.isConnected()) {
+                // 对冲胜出前已开始投递的原客户端事件，当前客户端不受影响
+                log.debug("会话[{}] 忽略已替换客户端的断开事件: code={}, reason={}", sessionId, code, reason);
+                return;
+            }
+        }
+        abandonHedge();
+        if (tryReconnect("code=" + code + ", reason=" + reason)) {
+            return;
+        }
         state = SessionState.DISCONNECTED;
+        clearPlayback();
         log.info("会话[{}] 已断开: code={}, reason={}", sessionId, code, reason);
         publishEvent(VoiceSessionEvent.disconnected(sessionId, code, reason));
+        closedFuture.complete(this);
+        failPending(new DoubaoException("DISCONNECTED", "上游连接已关闭: code=" + code + ", reason=" + reason));
     }
 
     @Override
     public void onError(Throwable error) {
+        // 连接失败（而非单条消息处理出错）时尝试重连
+        if (!doubaoClient.isConnected()) {
+            abandonHedge();
+        }
+        if (!doubaoClient.isConnected()
+                && tryReconnect(error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName())) {
+            return;
+        }
         state = SessionState.ERROR;
         this.errorMessage = error.getMessage();
         log.error("会话[{}] 发生错误", sessionId, error);
         publishEvent(VoiceSessionEvent.error(sessionId, error.getMessage()));
+        failPending(new DoubaoException("上游连接错误: " + error.getMessage(), error));
     }
 
     @Override
@@ -316,13 +947,22 @@ public class VoiceSession implements DoubaoClientListener {
     }
 
     @Override
-    public void onAudioData(byte[] audioData, String sessionId) {
-        publishEvent(VoiceSessionEvent.audioData(this.sessionId, audioData));
+    public void onAudioData(ByteBuffer audioData, String sessionId) {
+        updateLastActive();
+        if (playback == null) {
+            publishEvent(VoiceSessionEvent.audioData(this.sessionId, audioData));
+            return;
+        }
+        schedulePlayback(playback.offerAudio(audioData, System.nanoTime()));
     }
 
     @Override
     public void onUserSpeechStarted(String questionId) {
         publishEvent(VoiceSessionEvent.userSpeechStarted(sessionId, questionId));
+        // 用户打断：丢弃当前回复尚未发出的音频
+        if (playback != null) {
+            schedulePlayback(playback.interrupt(System.nanoTime()));
+        }
     }
 
     @Override
@@ -332,26 +972,35 @@ public class VoiceSession implements DoubaoClientListener {
 
     @Override
     public void onUserSpeechEnded() {
+        // 用户停止说话，不再等待凑满一帧
+        flushAudio();
         publishEvent(VoiceSessionEvent.userSpeechEnded(sessionId));
     }
 
     @Override
     public void onTtsSentenceStart(String text, String ttsType, String questionId, String replyId) {
-        publishEvent(VoiceSessionEvent.ttsSentenceStart(sessionId, text, ttsType, questionId, replyId));
+        if (playback != null) {
+            schedulePlayback(playback.onReply(questionId, replyId, System.nanoTime()));
+        }
+        publishTtsEvent(VoiceSessionEvent.ttsSentenceStart(sessionId, text, ttsType, questionId, replyId));
     }
 
     @Override
     public void onTtsSentenceEnd(String questionId, String replyId) {
-        publishEvent(VoiceSessionEvent.ttsSentenceEnd(sessionId, questionId, replyId));
+        publishTtsEvent(VoiceSessionEvent.ttsSentenceEnd(sessionId, questionId, replyId));
     }
 
     @Override
     public void onTtsEnded(String questionId, String replyId) {
-        publishEvent(VoiceSessionEvent.ttsEnded(sessionId, questionId, replyId));
+        publishTtsEvent(VoiceSessionEvent.ttsEnded(sessionId, questionId, replyId));
     }
 
     @Override
     public void onChatResponse(String content, String questionId, String replyId) {
+        // 新问题的回复文本先于其音频到达，此时即可丢弃上一回复未发出的音频
+        if (playback != null) {
+            schedulePlayback(playback.onReply(questionId, replyId, System.nanoTime()));
+        }
         publishEvent(VoiceSessionEvent.chatResponse(sessionId, content, questionId, replyId));
     }
 
@@ -363,5 +1012,131 @@ public class VoiceSession implements DoubaoClientListener {
     @Override
     public void onDialogError(String statusCode, String message) {
         publishEvent(VoiceSessionEvent.dialogError(sessionId, statusCode, message));
+        // 启动过程中的对话错误视为启动失败
+        if (state == SessionState.SESSION_STARTING) {
+            CompletableFuture<VoiceSession> started = sessionStartedFuture;
+            if (started != null) {
+                started.completeExceptionally(new DoubaoException(statusCode, "对话错误: " + message));
+            }
+        }
+    }
+
+    /**
+     * 一次对冲启动：超过对冲延迟后在另一条连接上并行启动，先收到SESSION_STARTED的一方胜出
+     */
+    private class StartHedge implements DoubaoClientListener {
+
+        private final ControlFrameCache.StartSessionKey cacheKey;
+        private final SessionConfig sessionConfig;
+
+        /**
+         * 是否已决出胜负（或已放弃）
+         */
+        private final AtomicBoolean settled = new AtomicBoolean(false);
+
+        private volatile ScheduledFuture<?> timer;
+        private volatile DoubaoWebSocketClient client;
+        private volatile long sentAt;
+
+        StartHedge(ControlFrameCache.StartSessionKey cacheKey, SessionConfig sessionConfig) {
+            this.cacheKey = cacheKey;
+            this.sessionConfig = sessionConfig;
+        }
+
+        /**
+         * 对冲延迟到期，仍未启动时在另一条连接上发起启动
+         */
+        void launch() {
+            if (settled.get() || hedge != this || closing || state != SessionState.SESSION_STARTING) {
+                return;
+            }
+            if (!startHedger.tryHedge()) {
+                log.debug("会话[{}] 对冲预算已用完，不发起对冲", sessionId);
+                return;
+            }
+            log.info("会话[{}] 启动超过对冲延迟，在另一条连接上并行启动", sessionId);
+            DoubaoWebSocketClient hedgeClient = doubaoClient.getTransport().newClient();
+            hedgeClient.addListener(this, EventType.CONNECTION_STARTED, EventType.SESSION_STARTED,
+                    EventType.SESSION_FAILED);
+            client = hedgeClient;
+            try {
+                hedgeClient.connectApartFrom(doubaoClient);
+            } catch (RuntimeException e) {
+                log.warn("会话[{}] 对冲连接失败: {}", sessionId, e.getMessage());
+                fail();
+            }
+        }
+
+        /**
+         * 对冲一方启动失败或连接出错：释放对冲连接，原请求继续等待
+         */
+        void fail() {
+            synchronized (VoiceSession.this) {
+                if (hedge == this && !settled.get()) {
+                    hedge = null;
+                    hedgeLost = true;
+                }
+            }
+            discard();
+        }
+
+        /**
+         * 结束对冲一方的客户端
+         */
+        void discard() {
+            ScheduledFuture<?> pending = timer;
+            if (pending != null) {
+                pending.cancel(false);
+            }
+            DoubaoWebSocketClient hedgeClient = client;
+            if (hedgeClient != null) {
+                hedgeClient.removeListener(this);
+                hedgeClient.disconnect();
+            }
+        }
+
+        @Override
+        public void onConnectionStarted() {
+            if (settled.get()) {
+                return;
+            }
+            try {
+                sentAt = System.nanoTime();
+                client.sendStartSession(cacheKey, () -> buildSessionConfig(sessionConfig));
+            } catch (IOException e) {
+                log.warn("会话[{}] 对冲启动失败: {}", sessionId, e.getMessage());
+                client.disconnect();
+            }
+        }
+
+        @Override
+        public void onSessionStarted(String dialogId) {
+            if (!settled.compareAndSet(false, true)) {
+                client.disconnect();
+                return;
+            }
+            promote(this, dialogId);
+        }
+
+        @Override
+        public void onSessionFailed(String error) {
+            log.warn("会话[{}] 对冲启动失败: {}", sessionId, error);
+            fail();
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            log.warn("会话[{}] 对冲连接出错: {}", sessionId, error.getMessage());
+            fail();
+        }
+
+        @Override
+        public void onDisconnected(int code, String reason) {
+            fail();
+        }
+
+        @Override
+        public void onMessage(DoubaoMessage message) {
+        }
     }
 }
@@ -3,6 +3,8 @@ package com.doubao.voice.session;
 import lombok.Builder;
 import lombok.Data;
 
+import java.nio.ByteBuffer;
+
 /**
  * 语音会话事件
  */
@@ -50,6 +52,11 @@ public class VoiceSessionEvent {
      */
     private byte[] audioData;
 
+    /**
+     * 音频数据只读视图（零拷贝转发，底层为不可变的接收帧，可在回调之外保留；多处读取时各自duplicate()）
+     */
+    private ByteBuffer audioBuffer;
+
     /**
      * 是否为临时结果
      */
@@ -75,6 +82,21 @@ public class VoiceSessionEvent {
      */
     private String closeReason;
 
+    /**
+     * 重连重试次数
+     */
+    private Integer attempt;
+
+    /**
+     * 重连等待时间（毫秒）
+     */
+    private Long delayMillis;
+
+    /**
+     * 打断时丢弃的未发出音频时长（毫秒）
+     */
+    private Long droppedMillis;
+
     /**
      * 事件类型枚举
      */
@@ -83,6 +105,8 @@ public class VoiceSessionEvent {
         CONNECTION_STARTED,
         DISCONNECTED,
         ERROR,
+        RECONNECTING,
+        RECONNECTED,
 
         // 会话相关
         SESSION_STARTED,
@@ -98,6 +122,7 @@ public class VoiceSessionEvent {
         TTS_SENTENCE_START,
         TTS_SENTENCE_END,
         TTS_ENDED,
+        TTS_TRUNCATED,
         AUDIO_DATA,
 
         // Chat相关
@@ -126,6 +151,24 @@ public class VoiceSessionEvent {
                 .build();
     }
 
+    public static VoiceSessionEvent reconnecting(String sessionId, int attempt, long delayMillis, String reason) {
+        return VoiceSessionEvent.builder()
+                .type(EventType.RECONNECTING)
+                .sessionId(sessionId)
+                .attempt(attempt)
+                .delayMillis(delayMillis)
+                .error(reason)
+                .build();
+    }
+
+    public static VoiceSessionEvent reconnected(String sessionId, String dialogId) {
+        return VoiceSessionEvent.builder()
+                .type(EventType.RECONNECTED)
+                .sessionId(sessionId)
+                .dialogId(dialogId)
+                .build();
+    }
+
     public static VoiceSessionEvent error(String sessionId, String error) {
         return VoiceSessionEvent.builder()
                 .type(EventType.ERROR)
@@ -211,6 +254,17 @@ public class VoiceSessionEvent {
                 .build();
     }
 
+    public static VoiceSessionEvent ttsTruncated(String sessionId, String questionId, String replyId,
+                                                 long droppedMillis) {
+        return VoiceSessionEvent.builder()
+                .type(EventType.TTS_TRUNCATED)
+                .sessionId(sessionId)
+                .questionId(questionId)
+                .replyId(replyId)
+                .droppedMillis(droppedMillis)
+                .build();
+    }
+
     public static VoiceSessionEvent audioData(String sessionId, byte[] audioData) {
         return VoiceSessionEvent.builder()
                 .type(EventType.AUDIO_DATA)
@@ -219,6 +273,14 @@ public class VoiceSessionEvent {
                 .build();
     }
 
+    public static VoiceSessionEvent audioData(String sessionId, ByteBuffer audioBuffer) {
+        return VoiceSessionEvent.builder()
+                .type(EventType.AUDIO_DATA)
+                .sessionId(sessionId)
+                .audioBuffer(audioBuffer)
+                .build();
+    }
+
     public static VoiceSessionEvent chatResponse(String sessionId, String content,
                                                  String questionId, String replyId) {
         return VoiceSessionEvent.builder()
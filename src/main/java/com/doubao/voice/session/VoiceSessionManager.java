@@ -1,5 +1,8 @@
 package com.doubao.voice.session;
 
+import com.doubao.voice.client.DoubaoConnectionPool;
+import com.doubao.voice.client.DoubaoTransport;
+import com.doubao.voice.client.DoubaoWebSocketClient;
 import com.doubao.voice.config.DoubaoProperties;
 import com.doubao.voice.exception.DoubaoException;
 import lombok.RequiredArgsConstructor;
@@ -25,6 +28,9 @@ import java.util.concurrent.ConcurrentHashMap;
 public class VoiceSessionManager {
 
     private final DoubaoProperties properties;
+    private final DoubaoTransport transport;
+    private final DoubaoConnectionPool connectionPool;
+    private final StartHedger startHedger;
 
     /**
      * 会话存储
@@ -43,10 +49,13 @@ public class VoiceSessionManager {
             throw new DoubaoException("超过最大会话数限制: " + properties.getSession().getMaxSessions());
         }
 
-        VoiceSession session = new VoiceSession(properties);
+        // 优先使用预热连接，池为空时新建连接
+        DoubaoWebSocketClient client = connectionPool.acquire();
+        VoiceSession session = new VoiceSession(client != null ? client : transport.newClient(), startHedger);
         sessions.put(session.getSessionId(), session);
 
-        log.info("创建会话: {}, 当前会话数: {}", session.getSessionId(), sessions.size());
+        log.info("创建会话: {}, 预热连接: {}, 当前会话数: {}",
+                session.getSessionId(), session.isWarm(), sessions.size());
         return session;
     }
 
@@ -0,0 +1,177 @@
+package com.doubao.voice.api.websocket;
+
+import com.doubao.voice.session.VoiceSessionEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClientEventWriterTest {
+
+    /**
+     * 需要转义的文本：引号、反斜杠、控制字符、非ASCII和代理对
+     */
+    private static final String TRICKY = "他说：\"你好\"\\ \n\t\u0001 </script> 😀";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ClientEventWriter writer = new ClientEventWriter(objectMapper);
+
+    @Test
+    void matchesHashMapSerializationForEveryEventType() throws IOException {
+        for (VoiceSessionEvent.EventType type : VoiceSessionEvent.EventType.values()) {
+            if (type == VoiceSessionEvent.EventType.AUDIO_DATA) {
+                continue;
+            }
+            VoiceSessionEvent full = VoiceSessionEvent.builder()
+                    .type(type)
+                    .sessionId("s-1")
+                    .dialogId("d-" + TRICKY)
+                    .questionId("q-1")
+                    .replyId("r-1")
+                    .text(TRICKY)
+                    .ttsType("default")
+                    .isInterim(true)
+                    .error("失败: " + TRICKY)
+                    .statusCode("52000042")
+                    .attempt(3)
+                    .delayMillis(1600L)
+                    .droppedMillis(240L)
+                    .build();
+            VoiceSessionEvent empty = VoiceSessionEvent.builder().type(type).build();
+
+            for (VoiceSessionEvent event : new VoiceSessionEvent[]{full, empty}) {
+                assertThat(new String(writer.write(event), StandardCharsets.UTF_8))
+                        .as("%s", type)
+                        .isEqualTo(objectMapper.writeValueAsString(legacyMessage(event)));
+            }
+        }
+    }
+
+    @Test
+    void audioDataIsNotSerialized() throws IOException {
+        VoiceSessionEvent audio = VoiceSessionEvent.builder()
+                .type(VoiceSessionEvent.EventType.AUDIO_DATA)
+                .audioData(new byte[]{1, 2})
+                .build();
+
+        assertThat(writer.write(audio)).isNull();
+    }
+
+    @Test
+    void statusAndErrorMatchHashMapSerialization() throws IOException {
+        for (String value : new String[]{"connected", TRICKY, null}) {
+            Map<String, Object> status = new HashMap<>();
+            status.put("type", "status");
+            status.put("status", value);
+            status.put("sessionId", value != null ? "s-" + value : null);
+            assertThat(new String(writer.writeStatus(value, value != null ? "s-" + value : null), StandardCharsets.UTF_8))
+                    .isEqualTo(objectMapper.writeValueAsString(status));
+
+            Map<String, Object> error = new HashMap<>();
+            error.put("type", "error");
+            error.put("error", value);
+            assertThat(new String(writer.writeError(value), StandardCharsets.UTF_8))
+                    .isEqualTo(objectMapper.writeValueAsString(error));
+        }
+    }
+
+    @Test
+    void reusedBufferDoesNotLeakPreviousOutput() throws IOException {
+        String longText = "长".repeat(40_000);
+        VoiceSessionEvent large = VoiceSessionEvent.builder()
+                .type(VoiceSessionEvent.EventType.CHAT_RESPONSE)
+                .text(longText)
+                .build();
+        VoiceSessionEvent small = VoiceSessionEvent.builder()
+                .type(VoiceSessionEvent.EventType.USER_SPEECH_ENDED)
+                .build();
+
+        writer.write(small);
+        writer.write(large);
+        assertThat(new String(writer.write(small), StandardCharsets.UTF_8))
+                .isEqualTo(objectMapper.writeValueAsString(legacyMessage(small)));
+    }
+
+    /**
+     * 流式序列化之前，VoiceWebSocketHandler为每个事件构造的HashMap
+     */
+    private static Map<String, Object> legacyMessage(VoiceSessionEvent event) {
+        Map<String, Object> message = new HashMap<>();
+        switch (event.getType()) {
+            case CONNECTION_STARTED -> status(message, "connection_started");
+            case SESSION_STARTED -> {
+                status(message, "session_started");
+                message.put("dialogId", event.getDialogId());
+            }
+            case SESSION_FINISHED -> status(message, "session_finished");
+            case SESSION_FAILED, ERROR -> {
+                message.put("type", "error");
+                message.put("error", event.getError());
+            }
+            case DISCONNECTED -> status(message, "disconnected");
+            case RECONNECTING -> {
+                status(message, "reconnecting");
+                message.put("attempt", event.getAttempt());
+                message.put("delayMs", event.getDelayMillis());
+            }
+            case RECONNECTED -> {
+                status(message, "reconnected");
+                message.put("dialogId", event.getDialogId());
+            }
+            case USER_SPEECH_STARTED -> {
+                event(message, "asr", "speech_started");
+                message.put("questionId", event.getQuestionId());
+            }
+            case ASR_RESULT -> {
+                event(message, "asr", "result");
+                message.put("text", event.getText());
+                message.put("isInterim", event.getIsInterim());
+            }
+            case USER_SPEECH_ENDED -> event(message, "asr", "speech_ended");
+            case TTS_SENTENCE_START -> {
+                reply(message, "tts", "sentence_start", event);
+                message.put("text", event.getText());
+                message.put("ttsType", event.getTtsType());
+            }
+            case TTS_SENTENCE_END -> reply(message, "tts", "sentence_end", event);
+            case TTS_ENDED -> reply(message, "tts", "ended", event);
+            case TTS_TRUNCATED -> {
+                reply(message, "tts", "truncated", event);
+                message.put("droppedMs", event.getDroppedMillis());
+            }
+            case CHAT_RESPONSE -> {
+                reply(message, "chat", "response", event);
+                message.put("text", event.getText());
+            }
+            case CHAT_ENDED -> reply(message, "chat", "ended", event);
+            case DIALOG_ERROR -> {
+                message.put("type", "error");
+                message.put("statusCode", event.getStatusCode());
+                message.put("error", event.getError());
+            }
+            default -> throw new IllegalArgumentException("未覆盖的事件类型: " + event.getType());
+        }
+        return message;
+    }
+
+    private static void status(Map<String, Object> message, String status) {
+        message.put("type", "status");
+        message.put("status", status);
+    }
+
+    private static void event(Map<String, Object> message, String type, String event) {
+        message.put("type", type);
+        message.put("event", event);
+    }
+
+    private static void reply(Map<String, Object> message, String type, String event, VoiceSessionEvent source) {
+        event(message, type, event);
+        message.put("questionId", source.getQuestionId());
+        message.put("replyId", source.getReplyId());
+    }
+}
@@ -0,0 +1,165 @@
+package com.doubao.voice.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventMailboxTest {
+
+    /**
+     * 手动执行的线程池，测试控制批次的执行时机
+     */
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+    private final List<String> log = new ArrayList<>();
+
+    @Test
+    void runsEventsInOrderWithSingleScheduledDrain() {
+        EventMailbox mailbox = new EventMailbox(tasks::add, 16, EventMailbox.OverflowPolicy.DROP_OLDEST);
+
+        mailbox.execute(() -> log.add("a"));
+        mailbox.executeDroppable(() -> log.add("b"));
+        mailbox.execute(() -> log.add("c"));
+
+        assertThat(tasks).hasSize(1);
+        runTasks();
+
+        assertThat(log).containsExactly("a", "b", "c");
+        EventMailbox.Stats stats = mailbox.getStats();
+        assertThat(stats.processed()).isEqualTo(3);
+        assertThat(stats.depth()).isZero();
+        assertThat(stats.peakDepth()).isEqualTo(3);
+    }
+
+    @Test
+    void yieldsThreadAfterEachBatch() {
+        EventMailbox mailbox = new EventMailbox(tasks::add, 1000, EventMailbox.OverflowPolicy.DROP_OLDEST);
+        for (int i = 0; i < 100; i++) {
+            int index = i;
+            mailbox.execute(() -> log.add(String.valueOf(index)));
+        }
+
+        // 第一批执行64个事件后重新排队
+        tasks.poll().run();
+        assertThat(log).hasSize(64);
+        assertThat(tasks).hasSize(1);
+
+        runTasks();
+        assertThat(log).hasSize(100);
+        assertThat(log.get(99)).isEqualTo("99");
+    }
+
+    @Test
+    void dropOldestDiscardsEarliestDroppableOnly() {
+        EventMailbox mailbox = new EventMailbox(tasks::add, 3, EventMailbox.OverflowPolicy.DROP_OLDEST);
+
+        mailbox.execute(() -> log.add("control"));
+        mailbox.executeDroppable(() -> log.add("audio1"));
+        mailbox.executeDroppable(() -> log.add("audio2"));
+        mailbox.executeDroppable(() -> log.add("audio3"));
+
+        runTasks();
+        assertThat(log).containsExactly("control", "audio2", "audio3");
+        assertThat(mailbox.getStats().dropped()).isEqualTo(1);
+    }
+
+    @Test
+    void dropNewestDiscardsIncomingDroppable() {
+        EventMailbox mailbox = new EventMailbox(tasks::add, 2, EventMailbox.OverflowPolicy.DROP_NEWEST);
+
+        mailbox.executeDroppable(() -> log.add("audio1"));
+        mailbox.executeDroppable(() -> log.add("audio2"));
+        mailbox.executeDroppable(() -> log.add("audio3"));
+
+        runTasks();
+        assertThat(log).containsExactly("audio1", "audio2");
+        assertThat(mailbox.getStats().dropped()).isEqualTo(1);
+    }
+
+    @Test
+    void controlEventsAreDeliveredWhenFull() {
+        EventMailbox mailbox = new EventMailbox(tasks::add, 1, EventMailbox.OverflowPolicy.DROP_OLDEST);
+
+        mailbox.execute(() -> log.add("started"));
+        mailbox.execute(() -> log.add("finished"));
+        // 队列中没有可丢弃的事件，新到达的音频被丢弃
+        mailbox.executeDroppable(() -> log.add("audio"));
+
+        runTasks();
+        assertThat(log).containsExactly("started", "finished");
+        assertThat(mailbox.getStats().dropped()).isEqualTo(1);
+    }
+
+    @Test
+    void failingEventDoesNotStopLaterEvents() {
+        EventMailbox mailbox = new EventMailbox(tasks::add, 16, EventMailbox.OverflowPolicy.DROP_OLDEST);
+
+        mailbox.execute(() -> {
+            throw new IllegalStateException("listener failed");
+        });
+        mailbox.execute(() -> log.add("next"));
+
+        runTasks();
+        assertThat(log).containsExactly("next");
+        assertThat(mailbox.getStats().processed()).isEqualTo(2);
+    }
+
+    @Test
+    void dropsQueuedEventsWhenExecutorRejects() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.shutdown();
+        EventMailbox mailbox = new EventMailbox(executor, 16, EventMailbox.OverflowPolicy.DROP_OLDEST);
+
+        mailbox.execute(() -> log.add("lost"));
+
+        EventMailbox.Stats stats = mailbox.getStats();
+        assertThat(log).isEmpty();
+        assertThat(stats.dropped()).isEqualTo(1);
+        assertThat(stats.depth()).isZero();
+    }
+
+    @Test
+    void neverRunsEventsConcurrentlyOnSharedPool() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            EventMailbox mailbox = new EventMailbox(executor, 10_000, EventMailbox.OverflowPolicy.DROP_OLDEST);
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger maxRunning = new AtomicInteger();
+            List<Integer> order = new ArrayList<>();
+            CountDownLatch done = new CountDownLatch(500);
+
+            for (int i = 0; i < 500; i++) {
+                int index = i;
+                mailbox.execute(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    order.add(index);
+                    running.decrementAndGet();
+                    done.countDown();
+                });
+            }
+
+            assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(maxRunning.get()).isEqualTo(1);
+            assertThat(order).isSorted().hasSize(500);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+}
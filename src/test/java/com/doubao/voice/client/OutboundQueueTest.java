@@ -0,0 +1,169 @@
+package com.doubao.voice.client;
+
+import okio.Buffer;
+import okio.ByteString;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OutboundQueueTest {
+
+    /**
+     * 测试用的音频帧前缀（真实前缀为Header + 事件ID + Session ID）
+     */
+    private static final byte[] PREFIX = {0x11, 0x22, 0x33, 0x44};
+
+    @Test
+    void controlFramesGoBeforeQueuedAudio() {
+        OutboundQueue queue = new OutboundQueue(1000, OutboundQueue.DropPolicy.DROP_OLDEST, 0);
+        ByteString first = audio(1, 10);
+        ByteString control = ByteString.encodeUtf8("finish");
+
+        queue.offerAudio(first);
+        queue.offerControl(control);
+
+        assertThat(queue.poll(PREFIX)).isEqualTo(control);
+        assertThat(queue.poll(PREFIX)).isEqualTo(first);
+        assertThat(queue.poll(PREFIX)).isNull();
+    }
+
+    @Test
+    void dropOldestKeepsLatestAudioWithinBudget() {
+        int frameSize = audio(0, 10).size();
+        OutboundQueue queue = new OutboundQueue(frameSize * 2L, OutboundQueue.DropPolicy.DROP_OLDEST, 0);
+
+        assertThat(queue.offerAudio(audio(1, 10))).isTrue();
+        assertThat(queue.offerAudio(audio(2, 10))).isTrue();
+        assertThat(queue.offerAudio(audio(3, 10))).isTrue();
+
+        OutboundQueue.Stats stats = queue.getStats();
+        assertThat(stats.audioFrames()).isEqualTo(2);
+        assertThat(stats.droppedFrames()).isEqualTo(1);
+        assertThat(stats.droppedBytes()).isEqualTo(frameSize);
+        assertThat(queue.poll(PREFIX)).isEqualTo(audio(2, 10));
+        assertThat(queue.poll(PREFIX)).isEqualTo(audio(3, 10));
+    }
+
+    @Test
+    void dropNewestRejectsAudioOverBudget() {
+        int frameSize = audio(0, 10).size();
+        OutboundQueue queue = new OutboundQueue(frameSize * 2L, OutboundQueue.DropPolicy.DROP_NEWEST, 0);
+
+        queue.offerAudio(audio(1, 10));
+        queue.offerAudio(audio(2, 10));
+        assertThat(queue.offerAudio(audio(3, 10))).isFalse();
+
+        assertThat(queue.getStats().droppedFrames()).isEqualTo(1);
+        assertThat(queue.poll(PREFIX)).isEqualTo(audio(1, 10));
+        assertThat(queue.poll(PREFIX)).isEqualTo(audio(2, 10));
+        assertThat(queue.poll(PREFIX)).isNull();
+    }
+
+    @Test
+    void acceptsSingleFrameLargerThanBudgetWhenEmpty() {
+        OutboundQueue queue = new OutboundQueue(8, OutboundQueue.DropPolicy.DROP_NEWEST, 0);
+
+        assertThat(queue.offerAudio(audio(1, 100))).isTrue();
+        assertThat(queue.getStats().droppedFrames()).isZero();
+    }
+
+    @Test
+    void controlFramesAreNotLimitedByAudioBudget() {
+        OutboundQueue queue = new OutboundQueue(8, OutboundQueue.DropPolicy.DROP_NEWEST, 0);
+
+        for (int i = 0; i < 10; i++) {
+            queue.offerControl(ByteString.of(new byte[100]));
+        }
+
+        OutboundQueue.Stats stats = queue.getStats();
+        assertThat(stats.queuedFrames()).isEqualTo(10);
+        assertThat(stats.queuedBytes()).isEqualTo(1000);
+        assertThat(stats.droppedFrames()).isZero();
+    }
+
+    @Test
+    void coalescesBackloggedAudioUpToLimit() {
+        OutboundQueue queue = new OutboundQueue(10_000, OutboundQueue.DropPolicy.DROP_OLDEST, 25);
+
+        queue.offerAudio(audio(1, 10));
+        queue.offerAudio(audio(2, 10));
+        queue.offerAudio(audio(3, 10));
+
+        // 前两帧合并（20字节），第三帧会超过25字节的上限，单独发出
+        ByteString merged = queue.poll(PREFIX);
+        assertThat(merged).isEqualTo(frame(concat(payload(1, 10), payload(2, 10))));
+        assertThat(queue.poll(PREFIX)).isEqualTo(audio(3, 10));
+
+        OutboundQueue.Stats stats = queue.getStats();
+        assertThat(stats.coalescedFrames()).isEqualTo(1);
+        assertThat(stats.sentFrames()).isEqualTo(2);
+        assertThat(stats.audioBytes()).isZero();
+    }
+
+    @Test
+    void doesNotCoalesceWithoutPrefix() {
+        OutboundQueue queue = new OutboundQueue(10_000, OutboundQueue.DropPolicy.DROP_OLDEST, 1000);
+
+        queue.offerAudio(audio(1, 10));
+        queue.offerAudio(audio(2, 10));
+
+        assertThat(queue.poll(null)).isEqualTo(audio(1, 10));
+        assertThat(queue.getStats().coalescedFrames()).isZero();
+    }
+
+    @Test
+    void dropAudioKeepsControlFramesAndCountsDrops() {
+        OutboundQueue queue = new OutboundQueue(10_000, OutboundQueue.DropPolicy.DROP_OLDEST, 0);
+        ByteString control = ByteString.encodeUtf8("finish");
+        queue.offerAudio(audio(1, 10));
+        queue.offerAudio(audio(2, 10));
+        queue.offerControl(control);
+
+        assertThat(queue.dropAudio()).isEqualTo(2);
+
+        assertThat(queue.poll(PREFIX)).isEqualTo(control);
+        assertThat(queue.poll(PREFIX)).isNull();
+        assertThat(queue.getStats().droppedFrames()).isEqualTo(2);
+    }
+
+    @Test
+    void clearDoesNotCountAsDropped() {
+        OutboundQueue queue = new OutboundQueue(10_000, OutboundQueue.DropPolicy.DROP_OLDEST, 0);
+        queue.offerAudio(audio(1, 10));
+        queue.offerControl(ByteString.encodeUtf8("start"));
+
+        queue.clear();
+
+        OutboundQueue.Stats stats = queue.getStats();
+        assertThat(stats.queuedFrames()).isZero();
+        assertThat(stats.queuedBytes()).isZero();
+        assertThat(stats.droppedFrames()).isZero();
+        assertThat(stats.peakBytes()).isPositive();
+    }
+
+    private static ByteString audio(int fill, int length) {
+        return frame(payload(fill, length));
+    }
+
+    private static byte[] payload(int fill, int length) {
+        byte[] data = new byte[length];
+        Arrays.fill(data, (byte) fill);
+        return data;
+    }
+
+    private static byte[] concat(byte[] a, byte[] b) {
+        byte[] data = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, data, a.length, b.length);
+        return data;
+    }
+
+    private static ByteString frame(byte[] payload) {
+        Buffer buffer = new Buffer();
+        buffer.write(PREFIX);
+        buffer.writeInt(payload.length);
+        buffer.write(payload);
+        return buffer.readByteString();
+    }
+}
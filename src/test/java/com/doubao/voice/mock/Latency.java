@@ -0,0 +1,103 @@
+package com.doubao.voice.mock;
+
+import java.util.Random;
+
+/**
+ * 模拟上游的延迟分布
+ *
+ * 文本形式（命令行参数使用）：
+ * - {@code fixed:100}：固定100ms
+ * - {@code uniform:50-200}：50~200ms均匀分布
+ * - {@code lognormal:120,600}：中位数120ms、p99为600ms的对数正态分布，贴近真实服务的长尾
+ *
+ * 随机数由调用方传入（见 {@link MockScenario#newRandom(long)}），相同种子下采样序列可复现
+ */
+public abstract class Latency {
+
+    /**
+     * p99对应的标准正态分位数
+     */
+    private static final double Z_99 = 2.3263;
+
+    /**
+     * 采样一次延迟（毫秒）
+     *
+     * @param random 随机数生成器
+     */
+    public abstract long sample(Random random);
+
+    public static Latency fixed(long millis) {
+        return new Latency() {
+            @Override
+            public long sample(Random random) {
+                return millis;
+            }
+
+            @Override
+            public String toString() {
+                return "fixed:" + millis;
+            }
+        };
+    }
+
+    public static Latency uniform(long minMillis, long maxMillis) {
+        return new Latency() {
+            @Override
+            public long sample(Random random) {
+                return random.nextLong(minMillis, maxMillis + 1);
+            }
+
+            @Override
+            public String toString() {
+                return "uniform:" + minMillis + "-" + maxMillis;
+            }
+        };
+    }
+
+    /**
+     * @param medianMillis 中位数（毫秒）
+     * @param p99Millis    p99（毫秒），不小于中位数
+     */
+    public static Latency logNormal(long medianMillis, long p99Millis) {
+        double mu = Math.log(Math.max(1, medianMillis));
+        double sigma = Math.log((double) Math.max(p99Millis, medianMillis) / Math.max(1, medianMillis)) / Z_99;
+        return new Latency() {
+            @Override
+            public long sample(Random random) {
+                return Math.round(Math.exp(mu + sigma * random.nextGaussian()));
+            }
+
+            @Override
+            public String toString() {
+                return "lognormal:" + medianMillis + "," + p99Millis;
+            }
+        };
+    }
+
+    /**
+     * 解析文本形式的延迟分布，纯数字视为固定延迟
+     *
+     * @throws IllegalArgumentException 格式错误
+     */
+    public static Latency parse(String text) {
+        String value = text.trim();
+        int colon = value.indexOf(':');
+        if (colon < 0) {
+            return fixed(Long.parseLong(value));
+        }
+        String type = value.substring(0, colon);
+        String args = value.substring(colon + 1);
+        return switch (type) {
+            case "fixed" -> fixed(Long.parseLong(args));
+            case "uniform" -> {
+                String[] range = args.split("-");
+                yield uniform(Long.parseLong(range[0]), Long.parseLong(range[1]));
+            }
+            case "lognormal" -> {
+                String[] params = args.split(",");
+                yield logNormal(Long.parseLong(params[0]), Long.parseLong(params[1]));
+            }
+            default -> throw new IllegalArgumentException("未知的延迟分布: " + text);
+        };
+    }
+}
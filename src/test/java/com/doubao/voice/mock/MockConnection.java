@@ -0,0 +1,407 @@
+package com.doubao.voice.mock;
+
+import com.doubao.voice.protocol.codec.GzipUtils;
+import com.doubao.voice.protocol.constants.EventType;
+import com.doubao.voice.protocol.constants.MessageType;
+import com.doubao.voice.protocol.constants.SerializationType;
+import com.doubao.voice.protocol.message.DoubaoMessage;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.Endpoint;
+import jakarta.websocket.EndpointConfig;
+import jakarta.websocket.Session;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 模拟上游的一条WebSocket连接
+ *
+ * 解析网关发来的客户端帧，按 {@link MockScenario} 回复事件；一条连接上可承载多个会话
+ */
+@Slf4j
+class MockConnection extends Endpoint {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /**
+     * TTS音频的正弦波频率（Hz）
+     */
+    private static final double TONE_HZ = 440;
+
+    private final MockDoubaoServer server;
+    private final MockScenario scenario;
+
+    /**
+     * 本连接的延迟采样和错误注入使用的随机数（由场景种子派生）
+     */
+    private final Random random;
+    private final String connectId = UUID.randomUUID().toString();
+    private final Map<String, MockDialog> dialogs = new ConcurrentHashMap<>();
+    private final Object sendLock = new Object();
+
+    /**
+     * 预生成的一帧TTS音频（Float32小端序）
+     */
+    private final byte[] ttsFrame;
+
+    private volatile Session ws;
+
+    MockConnection(MockDoubaoServer server, Random random) {
+        this.server = server;
+        this.scenario = server.getScenario();
+        this.random = random;
+        int samples = scenario.getTtsSampleRate() * scenario.getTtsFrameMs() / 1000;
+        ByteBuffer frame = ByteBuffer.allocate(samples * 4).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < samples; i++) {
+            frame.putFloat((float) (0.2 * Math.sin(2 * Math.PI * TONE_HZ * i / scenario.getTtsSampleRate())));
+        }
+        this.ttsFrame = frame.array();
+    }
+
+    @Override
+    public void onOpen(Session session, EndpointConfig config) {
+        this.ws = session;
+        server.connectionOpened();
+        session.addMessageHandler(ByteBuffer.class, this::onFrame);
+    }
+
+    @Override
+    public void onClose(Session session, CloseReason closeReason) {
+        dialogs.values().forEach(MockDialog::cancel);
+        dialogs.clear();
+        server.connectionClosed();
+    }
+
+    @Override
+    public void onError(Session session, Throwable error) {
+        log.debug("模拟上游连接出错: {}", error.getMessage());
+    }
+
+    /**
+     * 解析客户端帧：[Header][Sequence(可选)][Event ID][Session ID长度][Session ID][Payload长度][Payload]
+     *
+     * START_CONNECTION/FINISH_CONNECTION没有Session ID
+     */
+    private void onFrame(ByteBuffer frame) {
+        try {
+            int headerSize = frame.get(0) & 0x0F;
+            int flags = frame.get(1) & 0x0F;
+            int compression = frame.get(2) & 0x0F;
+            frame.position(headerSize * 4);
+            if ((flags & 0x03) != 0) {
+                frame.getInt();
+            }
+            if ((flags & MessageType.FLAG_MSG_WITH_EVENT) == 0) {
+                return;
+            }
+            int event = frame.getInt();
+            String sessionId = null;
+            if (event != EventType.START_CONNECTION && event != EventType.FINISH_CONNECTION) {
+                byte[] sid = new byte[frame.getInt()];
+                frame.get(sid);
+                sessionId = new String(sid, StandardCharsets.UTF_8);
+            }
+            int payloadLength = frame.remaining() >= 4 ? frame.getInt() : 0;
+
+            if (event == EventType.TASK_REQUEST) {
+                MockDialog dialog = dialogs.get(sessionId);
+                if (dialog != null) {
+                    server.audioReceived(payloadLength);
+                    dialog.onAudio(frame.slice(frame.position(), payloadLength).order(ByteOrder.LITTLE_ENDIAN));
+                }
+                return;
+            }
+
+            byte[] payload = new byte[payloadLength];
+            frame.get(payload);
+            if (compression == SerializationType.COMPRESSION_GZIP) {
+                payload = GzipUtils.decompress(payload);
+            }
+            handleEvent(event, sessionId, payload);
+        } catch (Exception e) {
+            log.warn("模拟上游解析帧失败: {}", e.getMessage());
+        }
+    }
+
+    private void handleEvent(int event, String sessionId, byte[] payload) throws IOException {
+        switch (event) {
+            case EventType.START_CONNECTION -> {
+                if (chance(scenario.getConnectFailureRate())) {
+                    server.connectFailureInjected();
+                    close(CloseReason.CloseCodes.UNEXPECTED_CONDITION, "mock injected connect failure");
+                    return;
+                }
+                // 连接级事件的Session ID位置携带连接ID
+                later(scenario.getConnectionStarted(), () -> sendJson(EventType.CONNECTION_STARTED, connectId, Map.of()));
+            }
+            case EventType.FINISH_CONNECTION -> close(CloseReason.CloseCodes.NORMAL_CLOSURE, "finish connection");
+            case EventType.START_SESSION -> startSession(sessionId, payload);
+            case EventType.FINISH_SESSION -> {
+                MockDialog dialog = dialogs.remove(sessionId);
+                if (dialog != null) {
+                    dialog.cancel();
+                }
+                sendJson(EventType.SESSION_FINISHED, sessionId, Map.of());
+            }
+            case EventType.CHAT_TEXT_QUERY -> {
+                MockDialog dialog = dialogs.get(sessionId);
+                if (dialog != null) {
+                    dialog.onTextQuery();
+                }
+            }
+            default -> log.debug("模拟上游忽略事件: {}", EventType.getName(event));
+        }
+    }
+
+    private void startSession(String sessionId, byte[] payload) throws IOException {
+        // 携带dialog_id时沿用（续接对话）
+        JsonNode dialogId = OBJECT_MAPPER.readTree(payload).path("dialog").path("dialog_id");
+        String id = dialogId.isTextual() ? dialogId.asText() : UUID.randomUUID().toString();
+        boolean fail = chance(scenario.getSessionFailureRate());
+        later(scenario.getSessionStarted(), () -> {
+            if (fail) {
+                server.sessionFailureInjected();
+                sendJson(EventType.SESSION_FAILED, sessionId, Map.of("error", "mock injected session failure"));
+                return;
+            }
+            dialogs.put(sessionId, new MockDialog(sessionId));
+            server.sessionStarted();
+            sendJson(EventType.SESSION_STARTED, sessionId, Map.of("dialog_id", id));
+        });
+    }
+
+    private ScheduledFuture<?> later(Latency latency, Runnable task) {
+        return server.getScheduler().schedule(task, latency.sample(random), TimeUnit.MILLISECONDS);
+    }
+
+    private boolean chance(double rate) {
+        return rate > 0 && random.nextDouble() < rate;
+    }
+
+    private void sendJson(int event, String sessionId, Map<String, ?> payload) {
+        DoubaoMessage message = DoubaoMessage.builder()
+                .messageType(MessageType.SERVER_FULL_RESPONSE)
+                .eventId(event)
+                .sessionId(sessionId)
+                .payload(payload)
+                .compression(scenario.isGzipResponses()
+                        ? SerializationType.COMPRESSION_GZIP : SerializationType.COMPRESSION_NONE)
+                .build();
+        try {
+            sendFrame(server.getEncoder().encode(message));
+        } catch (IOException e) {
+            log.debug("模拟上游编码失败: {}", e.getMessage());
+        }
+    }
+
+    private void sendAudio(String sessionId) {
+        DoubaoMessage message = DoubaoMessage.builder()
+                .messageType(MessageType.SERVER_ACK)
+                .eventId(EventType.TTS_RESPONSE)
+                .sessionId(sessionId)
+                .serialization(SerializationType.RAW)
+                .compression(SerializationType.COMPRESSION_NONE)
+                .binaryPayload(ttsFrame)
+                .build();
+        try {
+            sendFrame(server.getEncoder().encode(message));
+            server.audioSent(ttsFrame.length);
+        } catch (IOException e) {
+            log.debug("模拟上游编码失败: {}", e.getMessage());
+        }
+    }
+
+    private void sendFrame(byte[] data) {
+        Session session = ws;
+        if (session == null || !session.isOpen()) {
+            return;
+        }
+        synchronized (sendLock) {
+            try {
+                session.getBasicRemote().sendBinary(ByteBuffer.wrap(data));
+            } catch (IOException | IllegalStateException e) {
+                log.debug("模拟上游发送失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void close(CloseReason.CloseCode code, String reason) {
+        Session session = ws;
+        if (session == null) {
+            return;
+        }
+        try {
+            session.close(new CloseReason(code, reason));
+        } catch (IOException e) {
+            log.debug("模拟上游关闭连接失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 一个会话的对话状态
+     */
+    private class MockDialog {
+
+        private final String sessionId;
+
+        /**
+         * 当前回复的定时任务，打断或结束会话时取消
+         */
+        private final List<ScheduledFuture<?>> replyTasks = new ArrayList<>();
+
+        private String questionId;
+        private boolean inSpeech;
+        private int voicedFrames;
+        private long lastVoiceAt;
+        private ScheduledFuture<?> silenceCheck;
+
+        MockDialog(String sessionId) {
+            this.sessionId = sessionId;
+        }
+
+        synchronized void onAudio(ByteBuffer pcm) {
+            if (!isVoiced(pcm)) {
+                return;
+            }
+            lastVoiceAt = System.nanoTime();
+            if (!inSpeech) {
+                // 回复过程中再次说话即打断
+                cancelReply();
+                inSpeech = true;
+                voicedFrames = 0;
+                questionId = UUID.randomUUID().toString();
+                server.turnStarted();
+                sendJson(EventType.ASR_INFO, sessionId, Map.of("question_id", questionId));
+                silenceCheck = server.getScheduler().scheduleAtFixedRate(this::checkSilence,
+                        50, 50, TimeUnit.MILLISECONDS);
+            }
+            voicedFrames++;
+            if (voicedFrames % Math.max(1, scenario.getAsrInterimEveryFrames()) == 0) {
+                String transcript = scenario.getTranscript();
+                int length = Math.min(transcript.length(), voicedFrames / Math.max(1, scenario.getAsrInterimEveryFrames()) * 2);
+                sendAsr(transcript.substring(0, length), true);
+            }
+        }
+
+        synchronized void onTextQuery() {
+            cancelReply();
+            questionId = UUID.randomUUID().toString();
+            server.turnStarted();
+            reply();
+        }
+
+        synchronized void cancel() {
+            if (silenceCheck != null) {
+                silenceCheck.cancel(false);
+            }
+            cancelReply();
+        }
+
+        private boolean isVoiced(ByteBuffer pcm) {
+            int threshold = scenario.getVadThreshold();
+            int samples = pcm.remaining() / 2;
+            if (threshold <= 0 || samples == 0) {
+                return samples > 0;
+            }
+            double sum = 0;
+            for (int i = 0; i < samples; i++) {
+                double sample = pcm.getShort(i * 2);
+                sum += sample * sample;
+            }
+            return Math.sqrt(sum / samples) >= threshold;
+        }
+
+        private synchronized void checkSilence() {
+            if (!inSpeech || System.nanoTime() - lastVoiceAt
+                    < TimeUnit.MILLISECONDS.toNanos(scenario.getSpeechEndSilenceMs())) {
+                return;
+            }
+            inSpeech = false;
+            silenceCheck.cancel(false);
+            sendAsr(scenario.getTranscript(), false);
+            sendJson(EventType.ASR_ENDED, sessionId, Map.of());
+            reply();
+        }
+
+        private void sendAsr(String text, boolean interim) {
+            sendJson(EventType.ASR_RESPONSE, sessionId,
+                    Map.of("results", List.of(Map.of("text", text, "is_interim", interim))));
+        }
+
+        /**
+         * 回复一轮：CHAT_RESPONSE -> TTS_SENTENCE_START -> TTS音频（实时节奏） -> 结束事件
+         */
+        private void reply() {
+            String question = questionId;
+            String replyId = UUID.randomUUID().toString();
+            Map<String, String> ref = Map.of("question_id", question, "reply_id", replyId);
+            long chatDelay = scenario.getChatFirstToken().sample(random);
+
+            if (chance(scenario.getDialogErrorRate())) {
+                server.dialogErrorInjected();
+                schedule(chatDelay, () -> sendJson(EventType.DIALOG_COMMON_ERROR, sessionId,
+                        Map.of("status_code", "55000000", "message", "mock injected dialog error")));
+                return;
+            }
+
+            String text = scenario.getReplyText();
+            int pieces = Math.min(3, text.length());
+            for (int i = 0; i < pieces; i++) {
+                String content = text.substring(text.length() * i / pieces, text.length() * (i + 1) / pieces);
+                schedule(chatDelay + i * 30L, () -> sendJson(EventType.CHAT_RESPONSE, sessionId,
+                        Map.of("content", content, "question_id", question, "reply_id", replyId)));
+            }
+            schedule(chatDelay + pieces * 30L, () -> sendJson(EventType.CHAT_ENDED, sessionId, ref));
+
+            long ttsDelay = chatDelay + scenario.getTtsFirstAudio().sample(random);
+            int frameMs = scenario.getTtsFrameMs();
+            int totalFrames = Math.max(1, text.length() * scenario.getTtsMsPerChar() / frameMs);
+            int dropAt = chance(scenario.getDisconnectRate()) ? totalFrames / 2 : -1;
+            schedule(ttsDelay, () -> sendJson(EventType.TTS_SENTENCE_START, sessionId,
+                    Map.of("text", text, "tts_type", "default", "question_id", question, "reply_id", replyId)));
+
+            int[] sent = {0};
+            ScheduledFuture<?>[] audio = new ScheduledFuture<?>[1];
+            // 在对话锁内执行，保证首帧发送时audio[0]已赋值
+            audio[0] = server.getScheduler().scheduleAtFixedRate(() -> {
+                synchronized (MockDialog.this) {
+                    if (sent[0] == dropAt) {
+                        server.disconnectInjected();
+                        close(CloseReason.CloseCodes.UNEXPECTED_CONDITION, "mock injected disconnect");
+                        audio[0].cancel(false);
+                        return;
+                    }
+                    sendAudio(sessionId);
+                    if (++sent[0] >= totalFrames) {
+                        audio[0].cancel(false);
+                        sendJson(EventType.TTS_SENTENCE_END, sessionId, ref);
+                        sendJson(EventType.TTS_ENDED, sessionId, ref);
+                    }
+                }
+            }, ttsDelay, frameMs, TimeUnit.MILLISECONDS);
+            replyTasks.add(audio[0]);
+        }
+
+        private void schedule(long delayMillis, Runnable task) {
+            replyTasks.add(server.getScheduler().schedule(task, delayMillis, TimeUnit.MILLISECONDS));
+        }
+
+        private void cancelReply() {
+            replyTasks.forEach(task -> task.cancel(false));
+            replyTasks.clear();
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.doubao.voice.mock;
+
+import com.doubao.voice.protocol.codec.DoubaoProtocolEncoder;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.websocket.DeploymentException;
+import jakarta.websocket.server.ServerContainer;
+import jakarta.websocket.server.ServerEndpointConfig;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.tomcat.websocket.server.WsSci;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 本地模拟豆包上游
+ *
+ * 基于内嵌Tomcat的WebSocket服务，使用与网关相同的二进制协议（下行帧由 {@link DoubaoProtocolEncoder} 编码），
+ * 按 {@link MockScenario} 回复连接、会话事件，并以实时节奏推送识别结果、对话文本和TTS音频，
+ * 支持延迟分布、错误注入和异常断开，用于本地联调、压测和基准测试。
+ *
+ * 将 {@code doubao.api.url} 指向 {@link #getUrl()} 即可使用：
+ * <pre>
+ * try (MockDoubaoServer server = new MockDoubaoServer(new MockScenario(), 0).start()) {
+ *     properties.getApi().setUrl(server.getUrl());
+ * }
+ * </pre>
+ *
+ * 也可以独立运行，参数见 {@link #main(String[])}
+ */
+@Slf4j
+public class MockDoubaoServer implements AutoCloseable {
+
+    /**
+     * 与豆包API相同的路径
+     */
+    public static final String PATH = "/api/v3/realtime/dialogue";
+
+    @Getter
+    private final MockScenario scenario;
+
+    private final int requestedPort;
+
+    /**
+     * 定时发送回复和TTS音频
+     */
+    @Getter(AccessLevel.PACKAGE)
+    private final ScheduledExecutorService scheduler;
+
+    @Getter(AccessLevel.PACKAGE)
+    private final DoubaoProtocolEncoder encoder = new DoubaoProtocolEncoder();
+
+    private Tomcat tomcat;
+    private Path baseDir;
+
+    /**
+     * 已创建的连接端点数，作为派生随机数的连接序号
+     */
+    private final AtomicLong endpoints = new AtomicLong();
+
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final LongAdder totalConnections = new LongAdder();
+    private final LongAdder sessions = new LongAdder();
+    private final LongAdder turns = new LongAdder();
+    private final LongAdder audioFramesIn = new LongAdder();
+    private final LongAdder audioBytesIn = new LongAdder();
+    private final LongAdder audioFramesOut = new LongAdder();
+    private final LongAdder audioBytesOut = new LongAdder();
+    private final LongAdder injectedConnectFailures = new LongAdder();
+    private final LongAdder injectedSessionFailures = new LongAdder();
+    private final LongAdder injectedDialogErrors = new LongAdder();
+    private final LongAdder injectedDisconnects = new LongAdder();
+
+    /**
+     * @param scenario 行为脚本
+     * @param port     监听端口，0表示随机端口
+     */
+    public MockDoubaoServer(MockScenario scenario, int port) {
+        this.scenario = scenario;
+        this.requestedPort = port;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.scheduler = Executors.newScheduledThreadPool(Runtime.getRuntime().availableProcessors() * 2, r -> {
+            Thread thread = new Thread(r, "mock-doubao-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 启动服务
+     *
+     * @return this，便于链式调用
+     * @throws IOException 启动失败
+     */
+    public synchronized MockDoubaoServer start() throws IOException {
+        if (tomcat != null) {
+            return this;
+        }
+        baseDir = Files.createTempDirectory("mock-doubao");
+        tomcat = new Tomcat();
+        tomcat.setBaseDir(baseDir.toString());
+        tomcat.setPort(requestedPort);
+        tomcat.getConnector();
+
+        Context context = tomcat.addContext("", baseDir.toString());
+        context.addServletContainerInitializer(new WsSci(), null);
+        // WebSocket升级由WsFilter处理，这里只需一个占位Servlet让请求进入过滤器链
+        Tomcat.addServlet(context, "default", new HttpServlet() {
+        });
+        context.addServletMappingDecoded("/", "default");
+
+        try {
+            tomcat.start();
+            ServerContainer container = (ServerContainer) context.getServletContext()
+                    .getAttribute(ServerContainer.class.getName());
+            container.setDefaultMaxBinaryMessageBufferSize(1 << 20);
+            container.addEndpoint(ServerEndpointConfig.Builder.create(MockConnection.class, PATH)
+                    .configurator(new ServerEndpointConfig.Configurator() {
+                        @Override
+                        public <T> T getEndpointInstance(Class<T> endpointClass) {
+                            return endpointClass.cast(new MockConnection(MockDoubaoServer.this,
+                                    scenario.newRandom(endpoints.getAndIncrement())));
+                        }
+                    })
+                    .build());
+        } catch (LifecycleException | DeploymentException e) {
+            close();
+            throw new IOException("模拟上游启动失败: " + e.getMessage(), e);
+        }
+        log.info("模拟豆包上游已启动: {}", getUrl());
+        return this;
+    }
+
+    /**
+     * 实际监听的端口
+     */
+    public int getPort() {
+        return tomcat.getConnector().getLocalPort();
+    }
+
+    /**
+     * 供 {@code doubao.api.url} 使用的地址
+     */
+    public String getUrl() {
+        return "ws://127.0.0.1:" + getPort() + PATH;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (tomcat == null) {
+            return;
+        }
+        try {
+            tomcat.stop();
+            tomcat.destroy();
+        } catch (LifecycleException e) {
+            log.warn("模拟上游停止失败: {}", e.getMessage());
+        }
+        tomcat = null;
+        scheduler.shutdownNow();
+        FileSystemUtils.deleteRecursively(baseDir.toFile());
+    }
+
+    /**
+     * 获取统计信息
+     */
+    public Stats getStats() {
+        return new Stats(openConnections.get(), totalConnections.sum(), sessions.sum(), turns.sum(),
+                audioFramesIn.sum(), audioBytesIn.sum(), audioFramesOut.sum(), audioBytesOut.sum(),
+                injectedConnectFailures.sum(), injectedSessionFailures.sum(),
+                injectedDialogErrors.sum(), injectedDisconnects.sum());
+    }
+
+    void connectionOpened() {
+        openConnections.incrementAndGet();
+        totalConnections.increment();
+    }
+
+    void connectionClosed() {
+        openConnections.decrementAndGet();
+    }
+
+    void sessionStarted() {
+        sessions.increment();
+    }
+
+    void turnStarted() {
+        turns.increment();
+    }
+
+    void audioReceived(int bytes) {
+        audioFramesIn.increment();
+        audioBytesIn.add(bytes);
+    }
+
+    void audioSent(int bytes) {
+        audioFramesOut.increment();
+        audioBytesOut.add(bytes);
+    }
+
+    void connectFailureInjected() {
+        injectedConnectFailures.increment();
+    }
+
+    void sessionFailureInjected() {
+        injectedSessionFailures.increment();
+    }
+
+    void dialogErrorInjected() {
+        injectedDialogErrors.increment();
+    }
+
+    void disconnectInjected() {
+        injectedDisconnects.increment();
+    }
+
+    /**
+     * 独立运行
+     *
+     * <pre>
+     * --port=19999                       监听端口（默认19999）
+     * --connection-started=lognormal:40,200
+     * --session-started=lognormal:80,500
+     * --chat-first-token=lognormal:300,1200
+     * --tts-first-audio=lognormal:150,600  延迟分布，格式见 {@link Latency#parse(String)}
+     * --tts-ms-per-char=200              每个字对应的TTS音频时长
+     * --connect-failure-rate=0.01        各类错误注入概率
+     * --session-failure-rate=0.01
+     * --dialog-error-rate=0.01
+     * --disconnect-rate=0.01
+     * --vad-threshold=500                语音判定阈值，0表示所有音频都视为语音
+     * --speech-end-silence-ms=600
+     * --gzip                             下行JSON负载Gzip压缩
+     * --seed=1                           随机种子，相同种子下延迟采样和错误注入可复现
+     * </pre>
+     */
+    public static void main(String[] args) throws Exception {
+        MockScenario scenario = new MockScenario();
+        int port = 19999;
+        for (String arg : args) {
+            String[] pair = arg.replaceFirst("^--", "").split("=", 2);
+            String value = pair.length > 1 ? pair[1] : "true";
+            if ("port".equals(pair[0])) {
+                port = Integer.parseInt(value);
+            } else {
+                scenario.set(pair[0], value);
+            }
+        }
+
+        MockDoubaoServer server = new MockDoubaoServer(scenario, port).start();
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        while (true) {
+            TimeUnit.SECONDS.sleep(10);
+            log.info("模拟上游统计: {}", server.getStats());
+        }
+    }
+
+    /**
+     * 模拟上游统计信息
+     *
+     * @param openConnections         当前连接数
+     * @param totalConnections        累计连接数
+     * @param sessions                累计启动的会话数
+     * @param turns                   累计对话轮次
+     * @param audioFramesIn           累计收到的音频帧数
+     * @param audioBytesIn            累计收到的音频字节数
+     * @param audioFramesOut          累计发出的TTS音频帧数
+     * @param audioBytesOut           累计发出的TTS音频字节数
+     * @param injectedConnectFailures 注入的连接失败次数
+     * @param injectedSessionFailures 注入的会话失败次数
+     * @param injectedDialogErrors    注入的对话错误次数
+     * @param injectedDisconnects     注入的异常断开次数
+     */
+    public record Stats(int openConnections, long totalConnections, long sessions, long turns,
+                        long audioFramesIn, long audioBytesIn, long audioFramesOut, long audioBytesOut,
+                        long injectedConnectFailures, long injectedSessionFailures,
+                        long injectedDialogErrors, long injectedDisconnects) {
+    }
+}
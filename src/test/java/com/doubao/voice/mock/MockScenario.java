@@ -0,0 +1,136 @@
+package com.doubao.voice.mock;
+
+import lombok.Data;
+
+import java.util.Random;
+
+/**
+ * 模拟上游的行为脚本
+ *
+ * 每轮对话：收到语音（RMS超过阈值）发送ASR_INFO和中间识别结果，
+ * 静音超过speechEndSilenceMs后发送最终识别结果和ASR_ENDED，
+ * 然后按延迟分布依次回复CHAT_RESPONSE、TTS_SENTENCE_START、实时节奏的TTS音频和结束事件。
+ * 回复过程中用户再次说话时中止当前回复（打断）。
+ */
+@Data
+public class MockScenario {
+
+    /**
+     * START_CONNECTION到CONNECTION_STARTED的延迟
+     */
+    private Latency connectionStarted = Latency.logNormal(40, 200);
+
+    /**
+     * START_SESSION到SESSION_STARTED的延迟
+     */
+    private Latency sessionStarted = Latency.logNormal(80, 500);
+
+    /**
+     * ASR_ENDED到第一个CHAT_RESPONSE的延迟
+     */
+    private Latency chatFirstToken = Latency.logNormal(300, 1200);
+
+    /**
+     * 第一个CHAT_RESPONSE到第一帧TTS音频的延迟
+     */
+    private Latency ttsFirstAudio = Latency.logNormal(150, 600);
+
+    /**
+     * 识别结果和回复文本
+     */
+    private String transcript = "你好，今天天气怎么样";
+    private String replyText = "今天天气晴朗，气温二十度左右，适合出门走走。";
+
+    /**
+     * 每个字对应的TTS音频时长（毫秒）
+     */
+    private int ttsMsPerChar = 200;
+
+    /**
+     * TTS音频帧时长（毫秒）和采样率（Float32单声道）
+     */
+    private int ttsFrameMs = 20;
+    private int ttsSampleRate = 24000;
+
+    /**
+     * 上行音频RMS超过该值视为语音（PCM16），0表示所有音频都视为语音
+     */
+    private int vadThreshold = 500;
+
+    /**
+     * 语音结束判定的静音时长（毫秒），期间未收到语音帧即结束本轮识别
+     */
+    private int speechEndSilenceMs = 600;
+
+    /**
+     * 每收到多少个语音帧发送一次中间识别结果
+     */
+    private int asrInterimEveryFrames = 10;
+
+    /**
+     * START_CONNECTION时直接关闭连接的概率
+     */
+    private double connectFailureRate;
+
+    /**
+     * START_SESSION回复SESSION_FAILED的概率
+     */
+    private double sessionFailureRate;
+
+    /**
+     * 每轮回复以DIALOG_COMMON_ERROR代替的概率
+     */
+    private double dialogErrorRate;
+
+    /**
+     * 每轮回复过程中异常断开连接的概率
+     */
+    private double disconnectRate;
+
+    /**
+     * 下行JSON负载是否Gzip压缩
+     */
+    private boolean gzipResponses;
+
+    /**
+     * 随机种子，延迟采样和错误注入均由该种子派生
+     */
+    private long seed = 1;
+
+    /**
+     * 为第index条连接创建随机数生成器
+     *
+     * 每条连接使用由种子和连接序号派生的独立序列，连接之间的调度先后不影响各自的采样结果
+     *
+     * @param index 连接序号（从0开始）
+     */
+    public Random newRandom(long index) {
+        return new Random(seed * 1_000_003L + index);
+    }
+
+    /**
+     * 按名称设置参数（命令行和压测场景文件使用）
+     *
+     * @param key   参数名，如 {@code session-started}、{@code disconnect-rate}
+     * @param value 参数值，延迟分布格式见 {@link Latency#parse(String)}
+     * @throws IllegalArgumentException 未知参数
+     */
+    public void set(String key, String value) {
+        switch (key) {
+            case "connection-started" -> setConnectionStarted(Latency.parse(value));
+            case "session-started" -> setSessionStarted(Latency.parse(value));
+            case "chat-first-token" -> setChatFirstToken(Latency.parse(value));
+            case "tts-first-audio" -> setTtsFirstAudio(Latency.parse(value));
+            case "tts-ms-per-char" -> setTtsMsPerChar(Integer.parseInt(value));
+            case "connect-failure-rate" -> setConnectFailureRate(Double.parseDouble(value));
+            case "session-failure-rate" -> setSessionFailureRate(Double.parseDouble(value));
+            case "dialog-error-rate" -> setDialogErrorRate(Double.parseDouble(value));
+            case "disconnect-rate" -> setDisconnectRate(Double.parseDouble(value));
+            case "vad-threshold" -> setVadThreshold(Integer.parseInt(value));
+            case "speech-end-silence-ms" -> setSpeechEndSilenceMs(Integer.parseInt(value));
+            case "gzip" -> setGzipResponses(Boolean.parseBoolean(value));
+            case "seed" -> setSeed(Long.parseLong(value));
+            default -> throw new IllegalArgumentException("未知参数: " + key);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.doubao.voice.protocol.codec;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GzipCodecTest {
+
+    private final GzipCodec codec = new GzipCodec(2, Deflater.DEFAULT_COMPRESSION);
+
+    @Test
+    void roundTripsSmallAndLargePayloads() throws IOException {
+        byte[] json = "{\"event\":100,\"text\":\"你好\"}".getBytes(StandardCharsets.UTF_8);
+        byte[] random = new byte[200_000];
+        new Random(42).nextBytes(random);
+        byte[] repetitive = "abc".repeat(500_000).getBytes(StandardCharsets.US_ASCII);
+
+        for (byte[] data : new byte[][]{json, random, repetitive, {1}}) {
+            assertThat(codec.decompress(codec.compress(data))).isEqualTo(data);
+        }
+    }
+
+    @Test
+    void emptyAndNullPassThrough() throws IOException {
+        assertThat(codec.compress(new byte[0])).isEmpty();
+        assertThat(codec.compress(null)).isNull();
+        assertThat(codec.decompress(new byte[0])).isEmpty();
+        assertThat(codec.decompress(null)).isNull();
+    }
+
+    @Test
+    void compressesSlice() throws IOException {
+        byte[] data = "xxhello worldxx".getBytes(StandardCharsets.US_ASCII);
+
+        byte[] compressed = codec.compress(data, 2, 11);
+
+        assertThat(new String(codec.decompress(compressed), StandardCharsets.US_ASCII)).isEqualTo("hello world");
+    }
+
+    @Test
+    void writesTrailerReadableByJdkStream() throws IOException {
+        byte[] data = "trailer check ".repeat(100).getBytes(StandardCharsets.US_ASCII);
+
+        byte[] compressed = codec.compress(data);
+
+        // 手写的尾部：CRC32和ISIZE（小端）
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        assertThat(readIntLE(compressed, compressed.length - 8)).isEqualTo((int) crc.getValue());
+        assertThat(readIntLE(compressed, compressed.length - 4)).isEqualTo(data.length);
+        assertThat(decompressWithJdk(compressed)).isEqualTo(data);
+    }
+
+    @Test
+    void readsJdkOutputWithOptionalHeaderFields() throws IOException {
+        byte[] data = "from GZIPOutputStream".getBytes(StandardCharsets.US_ASCII);
+        byte[] jdk = compressWithJdk(data);
+        assertThat(codec.decompress(jdk)).isEqualTo(data);
+
+        // 插入FNAME字段：标志位8，头部后跟以0结尾的文件名
+        byte[] name = "a.json\0".getBytes(StandardCharsets.US_ASCII);
+        byte[] withName = new byte[jdk.length + name.length];
+        System.arraycopy(jdk, 0, withName, 0, 10);
+        withName[3] = 8;
+        System.arraycopy(name, 0, withName, 10, name.length);
+        System.arraycopy(jdk, 10, withName, 10 + name.length, jdk.length - 10);
+        assertThat(codec.decompress(withName)).isEqualTo(data);
+    }
+
+    @Test
+    void fallsBackForMultiMemberGzip() throws IOException {
+        byte[] first = codec.compress("first,".getBytes(StandardCharsets.US_ASCII));
+        byte[] second = codec.compress("second".getBytes(StandardCharsets.US_ASCII));
+        byte[] concatenated = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, concatenated, first.length, second.length);
+
+        assertThat(new String(codec.decompress(concatenated), StandardCharsets.US_ASCII)).isEqualTo("first,second");
+    }
+
+    @Test
+    void rejectsCorruptTrailer() {
+        byte[] compressed = codec.compress("checksum".getBytes(StandardCharsets.US_ASCII));
+        compressed[compressed.length - 8] ^= 0x01;
+
+        assertThatThrownBy(() -> codec.decompress(compressed))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("trailer");
+    }
+
+    @Test
+    void survivesWrongSizeHint() throws IOException {
+        byte[] data = "z".repeat(10_000).getBytes(StandardCharsets.US_ASCII);
+        byte[] compressed = codec.compress(data);
+        // ISIZE偏小：按提示分配后需要扩容，最终仍因长度不符被判为损坏
+        compressed[compressed.length - 4] = 1;
+        compressed[compressed.length - 3] = 0;
+
+        assertThatThrownBy(() -> codec.decompress(compressed)).isInstanceOf(IOException.class);
+        // 失败后池中的Inflater仍可复用
+        assertThat(codec.decompress(codec.compress(data))).isEqualTo(data);
+    }
+
+    @Test
+    void rejectsNonGzipInput() {
+        byte[] plain = "not gzip at all, just text".getBytes(StandardCharsets.US_ASCII);
+
+        assertThatThrownBy(() -> codec.decompress(plain))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Not in GZIP format");
+    }
+
+    @Test
+    void reusesPooledInstances() throws IOException {
+        byte[] data = "pooled".getBytes(StandardCharsets.US_ASCII);
+        for (int i = 0; i < 5; i++) {
+            codec.decompress(codec.compress(data));
+        }
+
+        GzipCodec.Stats stats = codec.getStats();
+        assertThat(stats.deflaterMisses()).isEqualTo(1);
+        assertThat(stats.deflaterHits()).isEqualTo(4);
+        assertThat(stats.inflaterMisses()).isEqualTo(1);
+        assertThat(stats.inflaterHits()).isEqualTo(4);
+        assertThat(stats.idleDeflaters()).isEqualTo(1);
+        codec.close();
+        assertThat(codec.getStats().idleDeflaters()).isZero();
+    }
+
+    private static byte[] compressWithJdk(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] decompressWithJdk(byte[] data) throws IOException {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return gzip.readAllBytes();
+        }
+    }
+
+    private static int readIntLE(byte[] data, int offset) {
+        return (data[offset] & 0xFF) | (data[offset + 1] & 0xFF) << 8
+                | (data[offset + 2] & 0xFF) << 16 | (data[offset + 3] & 0xFF) << 24;
+    }
+}
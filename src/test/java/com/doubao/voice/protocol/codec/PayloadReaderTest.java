@@ -0,0 +1,60 @@
+package com.doubao.voice.protocol.codec;
+
+import com.doubao.voice.protocol.constants.SerializationType;
+import com.doubao.voice.protocol.message.DoubaoMessage;
+import com.doubao.voice.protocol.message.EventPayloads;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PayloadReaderTest {
+
+    private final PayloadReader reader = new PayloadReader(new ObjectMapper());
+
+    @Test
+    void readsFirstAsrResult() {
+        EventPayloads.AsrResponse response = reader.readAsrResponse(
+                message("{\"extra\":{\"a\":[1]},\"results\":[{\"text\":\"你好\",\"is_interim\":true},{\"text\":\"x\"}]}"));
+
+        assertThat(response).isEqualTo(new EventPayloads.AsrResponse("你好", true));
+    }
+
+    @Test
+    void nonScalarAsrTextIsSkipped() {
+        // text为对象/数组时整体跳过，其后的is_interim仍能读到
+        EventPayloads.AsrResponse object = reader.readAsrResponse(
+                message("{\"results\":[{\"text\":{\"is_interim\":false},\"is_interim\":true}]}"));
+        EventPayloads.AsrResponse array = reader.readAsrResponse(
+                message("{\"results\":[{\"text\":[\"a\",{\"b\":1}],\"is_interim\":true}]}"));
+
+        assertThat(object).isEqualTo(new EventPayloads.AsrResponse(null, true));
+        assertThat(array).isEqualTo(new EventPayloads.AsrResponse(null, true));
+    }
+
+    @Test
+    void readsGzipPayloadLazilyThroughMessage() throws IOException {
+        byte[] json = "{\"dialog_id\":\"d-1\",\"nested\":{\"dialog_id\":\"inner\"}}".getBytes(StandardCharsets.UTF_8);
+        DoubaoMessage message = DoubaoMessage.builder()
+                .compression(SerializationType.COMPRESSION_GZIP)
+                .rawPayload(GzipUtils.compress(json))
+                .payloadParser(reader)
+                .build();
+
+        assertThat(reader.readSessionStarted(message).dialogId()).isEqualTo("d-1");
+        assertThat(message.getPayload()).asInstanceOf(InstanceOfAssertFactories.MAP)
+                .containsEntry("dialog_id", "d-1");
+    }
+
+    private DoubaoMessage message(String json) {
+        return DoubaoMessage.builder()
+                .compression(SerializationType.COMPRESSION_NONE)
+                .rawPayload(json.getBytes(StandardCharsets.UTF_8))
+                .payloadParser(reader)
+                .build();
+    }
+}
@@ -0,0 +1,148 @@
+package com.doubao.voice.session;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AudioFramerTest {
+
+    /**
+     * 1000Hz PCM16：每毫秒2字节
+     */
+    private static final int SAMPLE_RATE = 1000;
+
+    private final List<byte[]> frames = new ArrayList<>();
+
+    private final AudioFramer.FrameSink sink =
+            (data, offset, length) -> frames.add(Arrays.copyOfRange(data, offset, offset + length));
+
+    @Test
+    void accumulatesSmallChunksIntoFrames() throws IOException {
+        // 40ms一帧为80字节
+        AudioFramer framer = new AudioFramer(SAMPLE_RATE, 40, 20, 100, sink);
+
+        framer.write(sequence(0, 30), 0, 30);
+        framer.write(sequence(30, 30), 0, 30);
+        assertThat(frames).isEmpty();
+
+        framer.write(sequence(60, 30), 0, 30);
+        assertThat(frames).hasSize(1);
+        assertThat(frames.get(0)).isEqualTo(sequence(0, 80));
+        assertThat(framer.getStats().bufferedBytes()).isEqualTo(10);
+    }
+
+    @Test
+    void slicesLargeChunksWithoutBuffering() throws IOException {
+        AudioFramer framer = new AudioFramer(SAMPLE_RATE, 40, 20, 100, sink);
+
+        framer.write(sequence(0, 250), 0, 250);
+
+        assertThat(frames).hasSize(3);
+        assertThat(frames.get(2)).isEqualTo(sequence(160, 80));
+        AudioFramer.Stats stats = framer.getStats();
+        assertThat(stats.framesOut()).isEqualTo(3);
+        assertThat(stats.bufferedBytes()).isEqualTo(10);
+    }
+
+    @Test
+    void flushKeepsTrailingHalfSampleForNextFrame() throws IOException {
+        AudioFramer framer = new AudioFramer(SAMPLE_RATE, 40, 20, 100, sink);
+
+        framer.write(sequence(0, 31), 0, 31);
+        framer.flush();
+
+        // 只发送完整的采样，半个采样留到下次
+        assertThat(frames).hasSize(1);
+        assertThat(frames.get(0)).isEqualTo(sequence(0, 30));
+        assertThat(framer.getStats().bufferedBytes()).isEqualTo(1);
+
+        framer.write(sequence(31, 79), 0, 79);
+        assertThat(frames).hasSize(2);
+        assertThat(frames.get(1)).isEqualTo(sequence(30, 80));
+        assertThat(frames).allSatisfy(frame -> assertThat(frame.length % 2).isZero());
+    }
+
+    @Test
+    void flushWithNothingBufferedSendsNothing() throws IOException {
+        AudioFramer framer = new AudioFramer(SAMPLE_RATE, 40, 20, 100, sink);
+
+        framer.flush();
+
+        assertThat(frames).isEmpty();
+        assertThat(framer.getStats().flushes()).isZero();
+    }
+
+    @Test
+    void shorterFrameAfterRttSendsFullFramesAndKeepsRemainder() throws IOException {
+        AudioFramer framer = new AudioFramer(SAMPLE_RATE, 100, 20, 100, sink);
+        framer.write(sequence(0, 130), 0, 130);
+        assertThat(frames).isEmpty();
+
+        // RTT 40ms：帧时长调整为20ms（40字节），缓冲区中的130字节发出3帧，剩余10字节
+        framer.onRttMeasured(40);
+
+        assertThat(framer.getStats().frameMs()).isEqualTo(20);
+        assertThat(frames).hasSize(3);
+        assertThat(frames.get(2)).isEqualTo(sequence(80, 40));
+        assertThat(framer.getStats().bufferedBytes()).isEqualTo(10);
+
+        framer.write(sequence(130, 30), 0, 30);
+        assertThat(frames).hasSize(4);
+        assertThat(frames.get(3)).isEqualTo(sequence(120, 40));
+    }
+
+    @Test
+    void rttAdaptationIsClampedToConfiguredRange() throws IOException {
+        AudioFramer framer = new AudioFramer(SAMPLE_RATE, 40, 20, 100, sink);
+
+        framer.onRttMeasured(1000);
+        assertThat(framer.getStats().frameMs()).isEqualTo(100);
+
+        framer.onRttMeasured(1);
+        assertThat(framer.getStats().frameMs()).isEqualTo(20);
+        assertThat(framer.getStats().rttMillis()).isEqualTo(1);
+    }
+
+    @Test
+    void sendFailureWhileAdaptingPropagates() throws IOException {
+        List<Integer> attempts = new ArrayList<>();
+        AudioFramer framer = new AudioFramer(SAMPLE_RATE, 100, 20, 100, (data, offset, length) -> {
+            attempts.add(length);
+            throw new IOException("upstream closed");
+        });
+        framer.write(sequence(0, 100), 0, 100);
+
+        assertThatThrownBy(() -> framer.onRttMeasured(40)).isInstanceOf(IOException.class);
+        assertThat(attempts).containsExactly(40);
+        assertThat(framer.getStats().bufferedBytes()).isEqualTo(100);
+    }
+
+    @Test
+    void resetDiscardsBufferedAudio() throws IOException {
+        AudioFramer framer = new AudioFramer(SAMPLE_RATE, 40, 20, 100, sink);
+        framer.write(sequence(0, 50), 0, 50);
+
+        framer.reset();
+        framer.flush();
+
+        assertThat(frames).isEmpty();
+        assertThat(framer.getStats().bufferedBytes()).isZero();
+    }
+
+    /**
+     * 内容为递增序号的字节数组，便于核对切分位置
+     */
+    private static byte[] sequence(int start, int length) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) (start + i);
+        }
+        return data;
+    }
+}
@@ -0,0 +1,169 @@
+package com.doubao.voice.session;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ClientSenderTest {
+
+    /**
+     * 手动执行的线程池，测试控制发送任务的执行时机
+     */
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+    private final Executor executor = tasks::add;
+
+    private final List<WebSocketMessage<?>> sent = Collections.synchronizedList(new ArrayList<>());
+    private WebSocketSession session;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn("ws-1");
+        doAnswer(invocation -> sent.add(invocation.getArgument(0))).when(session).sendMessage(any());
+    }
+
+    @Test
+    void sendsInOrderWithSingleDrainTask() {
+        ClientSender sender = new ClientSender(session, executor, 5000, 1024);
+
+        sender.send(text("a"), ClientSender.Kind.EVENT);
+        sender.send(binary(10), ClientSender.Kind.AUDIO);
+        sender.send(text("b"), ClientSender.Kind.INTERIM);
+
+        assertThat(tasks).hasSize(1);
+        runTasks();
+
+        assertThat(sent).extracting(WebSocketMessage::getPayloadLength).containsExactly(1, 10, 1);
+        ClientSender.Stats stats = sender.getStats();
+        assertThat(stats.sentMessages()).isEqualTo(3);
+        assertThat(stats.queuedBytes()).isZero();
+    }
+
+    @Test
+    void shedsInterimBeforeAudio() {
+        ClientSender sender = new ClientSender(session, executor, 5000, 100);
+
+        sender.send(text("e".repeat(30)), ClientSender.Kind.EVENT);
+        sender.send(text("i".repeat(30)), ClientSender.Kind.INTERIM);
+        sender.send(binary(30), ClientSender.Kind.AUDIO);
+        // 超出上限：丢弃最早的中间结果
+        sender.send(text("j".repeat(30)), ClientSender.Kind.INTERIM);
+        assertThat(sender.getStats().droppedInterim()).isEqualTo(1);
+        assertThat(sender.getStats().droppedAudio()).isZero();
+
+        // 再次超出：剩下的中间结果先于音频丢弃
+        sender.send(binary(30), ClientSender.Kind.AUDIO);
+        assertThat(sender.getStats().droppedInterim()).isEqualTo(2);
+        assertThat(sender.getStats().droppedAudio()).isZero();
+
+        // 没有中间结果可丢时丢弃最早的音频，事件保留
+        sender.send(text("f".repeat(30)), ClientSender.Kind.EVENT);
+        ClientSender.Stats stats = sender.getStats();
+        assertThat(stats.droppedAudio()).isEqualTo(1);
+        assertThat(stats.queuedBytes()).isEqualTo(90);
+        assertThat(stats.closed()).isFalse();
+
+        runTasks();
+        assertThat(sent).hasSize(3);
+        assertThat(((TextMessage) sent.get(0)).getPayload()).startsWith("e");
+        assertThat(sent.get(1)).isInstanceOf(BinaryMessage.class);
+        assertThat(((TextMessage) sent.get(2)).getPayload()).startsWith("f");
+    }
+
+    @Test
+    void closesWhenEventsAloneExceedLimit() throws IOException {
+        ClientSender sender = new ClientSender(session, executor, 5000, 50);
+
+        assertThat(sender.send(text("e".repeat(30)), ClientSender.Kind.EVENT)).isTrue();
+        assertThat(sender.send(text("f".repeat(30)), ClientSender.Kind.EVENT)).isFalse();
+
+        ClientSender.Stats stats = sender.getStats();
+        assertThat(stats.closed()).isTrue();
+        assertThat(stats.closeReason()).contains("发送缓冲超出上限");
+        assertThat(stats.queuedMessages()).isZero();
+
+        runTasks();
+        verify(session).close(CloseStatus.SESSION_NOT_RELIABLE);
+        verify(session, never()).sendMessage(any());
+        assertThat(sender.send(text("g"), ClientSender.Kind.EVENT)).isFalse();
+    }
+
+    @Test
+    void closesWhenSendFails() throws IOException {
+        doThrow(new IOException("broken pipe")).when(session).sendMessage(any());
+        ClientSender sender = new ClientSender(session, executor, 5000, 1024);
+
+        sender.send(text("a"), ClientSender.Kind.EVENT);
+        sender.send(text("b"), ClientSender.Kind.EVENT);
+        runTasks();
+
+        assertThat(sender.getStats().closed()).isTrue();
+        assertThat(sender.getStats().closeReason()).contains("broken pipe");
+        verify(session).close(CloseStatus.SESSION_NOT_RELIABLE);
+    }
+
+    @Test
+    void closesWhenSingleSendExceedsTimeLimit() throws Exception {
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch unblock = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            sending.countDown();
+            unblock.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(session).sendMessage(any());
+        ClientSender sender = new ClientSender(session, executor, 20, 1024);
+
+        sender.send(text("a"), ClientSender.Kind.EVENT);
+        Thread drain = new Thread(tasks.poll());
+        drain.start();
+        assertThat(sending.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(50);
+
+        // 入队时发现当前消息已发送超过上限，关闭连接且不阻塞调用方
+        assertThat(sender.send(text("b"), ClientSender.Kind.EVENT)).isFalse();
+        assertThat(sender.getStats().closeReason()).contains("发送超时");
+
+        unblock.countDown();
+        drain.join(5000);
+        runTasks();
+        verify(session).close(CloseStatus.SESSION_NOT_RELIABLE);
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private static TextMessage text(String payload) {
+        return new TextMessage(payload);
+    }
+
+    private static BinaryMessage binary(int size) {
+        return new BinaryMessage(new byte[size]);
+    }
+}
@@ -0,0 +1,182 @@
+package com.doubao.voice.session;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PlaybackBufferTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * 1000Hz 16bit单声道：每毫秒2字节，100ms一帧为200字节
+     */
+    private static final int FRAME_BYTES = 200;
+
+    private PlaybackBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        buffer = new PlaybackBuffer("s1", 300);
+        buffer.configure(1000, 1, "pcm_s16le");
+    }
+
+    @Test
+    void releasesAtMostLeadAheadOfPlayback() {
+        buffer.onReply("q1", "r1", 0);
+        assertThat(offerFrames(10, 0)).isZero();
+
+        // 第一帧立即发出，之后客户端领先不超过300ms：0、100、200、300ms开始播放的4帧
+        PlaybackBuffer.Release first = buffer.release(0);
+        assertThat(audioCount(first.events())).isEqualTo(4);
+        assertThat(first.nextDelayNanos()).isEqualTo(100 * MS);
+
+        PlaybackBuffer.Release second = buffer.release(100 * MS);
+        assertThat(audioCount(second.events())).isEqualTo(1);
+        assertThat(second.nextDelayNanos()).isEqualTo(100 * MS);
+
+        // 提前执行的发布不发出任何音频，也不重复安排
+        PlaybackBuffer.Release early = buffer.release(150 * MS);
+        assertThat(early.events()).isEmpty();
+        assertThat(early.nextDelayNanos()).isEqualTo(-1);
+
+        assertThat(buffer.getStats(200 * MS).bufferedMillis()).isEqualTo(500);
+    }
+
+    @Test
+    void keepsTtsEventsInOrderWithAudio() {
+        buffer.onReply("q1", "r1", 0);
+        offerFrames(5, 0);
+        buffer.offerEvent(VoiceSessionEvent.ttsSentenceEnd("s1", "q1", "r1"), 0);
+
+        // 句子结束事件排在尚未发出的音频之后
+        assertThat(types(buffer.release(0).events())).doesNotContain(VoiceSessionEvent.EventType.TTS_SENTENCE_END);
+        assertThat(types(buffer.release(100 * MS).events())).containsExactly(
+                VoiceSessionEvent.EventType.AUDIO_DATA, VoiceSessionEvent.EventType.TTS_SENTENCE_END);
+    }
+
+    @Test
+    void interruptDropsUnsentAudioAndEmitsTruncation() {
+        buffer.onReply("q1", "r1", 0);
+        offerFrames(10, 0);
+        buffer.release(0);
+
+        assertThat(buffer.interrupt(50 * MS)).isZero();
+
+        List<VoiceSessionEvent> events = buffer.release(50 * MS).events();
+        assertThat(events).hasSize(1);
+        VoiceSessionEvent truncated = events.get(0);
+        assertThat(truncated.getType()).isEqualTo(VoiceSessionEvent.EventType.TTS_TRUNCATED);
+        assertThat(truncated.getQuestionId()).isEqualTo("q1");
+        assertThat(truncated.getReplyId()).isEqualTo("r1");
+        assertThat(truncated.getDroppedMillis()).isEqualTo(600);
+
+        PlaybackBuffer.Stats stats = buffer.getStats(50 * MS);
+        assertThat(stats.truncations()).isEqualTo(1);
+        assertThat(stats.droppedFrames()).isEqualTo(6);
+        assertThat(stats.bufferedMillis()).isZero();
+        assertThat(stats.aheadMillis()).isZero();
+    }
+
+    @Test
+    void interruptWhileClientStillPlayingEmitsTruncationWithoutDroppedAudio() {
+        buffer.onReply("q1", "r1", 0);
+        offerFrames(2, 0);
+        buffer.release(0);
+
+        assertThat(buffer.interrupt(50 * MS)).isZero();
+        VoiceSessionEvent truncated = buffer.release(50 * MS).events().get(0);
+        assertThat(truncated.getType()).isEqualTo(VoiceSessionEvent.EventType.TTS_TRUNCATED);
+        assertThat(truncated.getDroppedMillis()).isZero();
+    }
+
+    @Test
+    void interruptAfterPlaybackFinishedDoesNothing() {
+        buffer.onReply("q1", "r1", 0);
+        offerFrames(1, 0);
+        buffer.release(0);
+
+        assertThat(buffer.interrupt(500 * MS)).isEqualTo(-1);
+        assertThat(buffer.release(500 * MS).events()).isEmpty();
+    }
+
+    @Test
+    void discardsLateAudioOfSupersededReply() {
+        buffer.onReply("q1", "r1", 0);
+        offerFrames(3, 0);
+        buffer.interrupt(0);
+        buffer.release(0);
+
+        // 被打断的回复后续到达的音频直接丢弃
+        assertThat(buffer.offerAudio(frame(), 10 * MS)).isEqualTo(-1);
+        assertThat(buffer.release(10 * MS).events()).isEmpty();
+        assertThat(buffer.getStats(10 * MS).discardedFrames()).isEqualTo(1);
+
+        // 新问题的回复正常发出，不再产生截断事件
+        assertThat(buffer.onReply("q2", "r2", 20 * MS)).isEqualTo(-1);
+        assertThat(buffer.offerAudio(frame(), 20 * MS)).isZero();
+        assertThat(types(buffer.release(20 * MS).events())).containsExactly(VoiceSessionEvent.EventType.AUDIO_DATA);
+    }
+
+    @Test
+    void newQuestionTruncatesPreviousReplyButKeepsTtsEnded() {
+        buffer.onReply("q1", "r1", 0);
+        offerFrames(3, 0);
+        buffer.offerEvent(VoiceSessionEvent.ttsSentenceEnd("s1", "q1", "r1"), 0);
+        buffer.offerEvent(VoiceSessionEvent.ttsEnded("s1", "q1", "r1"), 0);
+
+        assertThat(buffer.onReply("q2", "r2", 0)).isZero();
+
+        List<VoiceSessionEvent> events = buffer.release(0).events();
+        assertThat(types(events)).containsExactly(
+                VoiceSessionEvent.EventType.TTS_TRUNCATED, VoiceSessionEvent.EventType.TTS_ENDED);
+        assertThat(events.get(0).getReplyId()).isEqualTo("r1");
+        assertThat(events.get(0).getDroppedMillis()).isEqualTo(300);
+
+        // 新回复的音频不受影响
+        assertThat(buffer.offerAudio(frame(), 0)).isZero();
+        assertThat(audioCount(buffer.release(0).events())).isEqualTo(1);
+    }
+
+    @Test
+    void passesThroughUnpacedFormats() {
+        buffer.configure(24000, 1, "ogg_opus");
+        buffer.onReply("q1", "r1", 0);
+        offerFrames(20, 0);
+
+        PlaybackBuffer.Release release = buffer.release(0);
+        assertThat(audioCount(release.events())).isEqualTo(20);
+        assertThat(release.nextDelayNanos()).isEqualTo(-1);
+    }
+
+    private long offerFrames(int count, long now) {
+        long delay = -1;
+        for (int i = 0; i < count; i++) {
+            long requested = buffer.offerAudio(frame(), now);
+            if (i == 0) {
+                delay = requested;
+            } else {
+                // 已安排发布后不重复安排
+                assertThat(requested).isEqualTo(-1);
+            }
+        }
+        return delay;
+    }
+
+    private static ByteBuffer frame() {
+        return ByteBuffer.wrap(new byte[FRAME_BYTES]).asReadOnlyBuffer();
+    }
+
+    private static long audioCount(List<VoiceSessionEvent> events) {
+        return events.stream().filter(e -> e.getType() == VoiceSessionEvent.EventType.AUDIO_DATA).count();
+    }
+
+    private static List<VoiceSessionEvent.EventType> types(List<VoiceSessionEvent> events) {
+        return events.stream().map(VoiceSessionEvent::getType).toList();
+    }
+}
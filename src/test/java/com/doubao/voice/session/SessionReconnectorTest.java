@@ -0,0 +1,115 @@
+package com.doubao.voice.session;
+
+import com.doubao.voice.config.DoubaoProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SessionReconnectorTest {
+
+    /**
+     * 1000Hz PCM16：每毫秒2字节
+     */
+    private static final int SAMPLE_RATE = 1000;
+
+    private DoubaoProperties.Reconnect config;
+
+    @BeforeEach
+    void setUp() {
+        config = new DoubaoProperties.Reconnect();
+        config.setMaxAttempts(4);
+        config.setInitialDelay(100);
+        config.setMaxDelay(500);
+        config.setBufferMs(50);
+    }
+
+    @Test
+    void backsOffExponentiallyWithJitterUpToMaxDelay() {
+        SessionReconnector reconnector = new SessionReconnector(config, SAMPLE_RATE);
+
+        // 各次退避上限：100、200、400、500（封顶），实际取值在上限的一半到上限之间
+        long[] ceilings = {100, 200, 400, 500};
+        for (int i = 0; i < ceilings.length; i++) {
+            long delay = reconnector.nextDelay();
+            assertThat(delay).isBetween(ceilings[i] / 2, ceilings[i]);
+            assertThat(reconnector.getAttempt()).isEqualTo(i + 1);
+        }
+    }
+
+    @Test
+    void givesUpAfterMaxAttemptsAndResets() {
+        SessionReconnector reconnector = new SessionReconnector(config, SAMPLE_RATE);
+        for (int i = 0; i < 4; i++) {
+            assertThat(reconnector.nextDelay()).isPositive();
+        }
+        reconnector.bufferAudio(new byte[10]);
+
+        assertThat(reconnector.nextDelay()).isEqualTo(-1);
+
+        SessionReconnector.Stats stats = reconnector.getStats();
+        assertThat(stats.giveUps()).isEqualTo(1);
+        assertThat(stats.reconnecting()).isFalse();
+        assertThat(stats.bufferedBytes()).isZero();
+        assertThat(reconnector.drainAudio()).isEmpty();
+    }
+
+    @Test
+    void successResetsBackoff() {
+        SessionReconnector reconnector = new SessionReconnector(config, SAMPLE_RATE);
+        reconnector.nextDelay();
+        reconnector.nextDelay();
+
+        reconnector.succeeded();
+
+        SessionReconnector.Stats stats = reconnector.getStats();
+        assertThat(stats.reconnects()).isEqualTo(1);
+        assertThat(stats.attempts()).isEqualTo(2);
+        assertThat(stats.lastGapMillis()).isNotNegative();
+        assertThat(reconnector.getAttempt()).isZero();
+        assertThat(reconnector.nextDelay()).isBetween(50L, 100L);
+    }
+
+    @Test
+    void succeededWithoutReconnectIsIgnored() {
+        SessionReconnector reconnector = new SessionReconnector(config, SAMPLE_RATE);
+
+        reconnector.succeeded();
+
+        assertThat(reconnector.getStats().reconnects()).isZero();
+        assertThat(reconnector.getStats().lastGapMillis()).isEqualTo(-1);
+    }
+
+    @Test
+    void buffersAudioInOrderAndDropsOldestOverBudget() {
+        // 50ms预算为100字节
+        SessionReconnector reconnector = new SessionReconnector(config, SAMPLE_RATE);
+
+        reconnector.bufferAudio(filled(1, 40));
+        reconnector.bufferAudio(filled(2, 40));
+        reconnector.bufferAudio(filled(3, 40));
+
+        assertThat(reconnector.getStats().droppedBytes()).isEqualTo(40);
+        assertThat(reconnector.drainAudio()).extracting(chunk -> chunk[0]).containsExactly((byte) 2, (byte) 3);
+        assertThat(reconnector.getStats().bufferedBytes()).isZero();
+    }
+
+    @Test
+    void chunkLargerThanBudgetClearsBuffer() {
+        SessionReconnector reconnector = new SessionReconnector(config, SAMPLE_RATE);
+        reconnector.bufferAudio(filled(1, 40));
+
+        reconnector.bufferAudio(filled(2, 150));
+
+        assertThat(reconnector.getStats().droppedBytes()).isEqualTo(190);
+        assertThat(reconnector.drainAudio()).isEmpty();
+    }
+
+    private static byte[] filled(int value, int length) {
+        byte[] data = new byte[length];
+        Arrays.fill(data, (byte) value);
+        return data;
+    }
+}
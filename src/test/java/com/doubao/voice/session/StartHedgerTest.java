@@ -0,0 +1,130 @@
+package com.doubao.voice.session;
+
+import com.doubao.voice.config.DoubaoProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StartHedgerTest {
+
+    private DoubaoProperties.Hedge config;
+
+    @BeforeEach
+    void setUp() {
+        config = new DoubaoProperties.Hedge();
+        config.setEnabled(true);
+        config.setPercentile(90);
+        config.setMinSamples(10);
+        config.setInitialDelay(1000);
+        config.setMinDelay(100);
+        config.setMaxDelay(3000);
+        config.setMaxHedgeRatio(0.1);
+    }
+
+    @Test
+    void usesInitialDelayUntilEnoughSamples() {
+        StartHedger hedger = new StartHedger(config);
+        for (int i = 0; i < 9; i++) {
+            hedger.onStarted(200, false, false);
+        }
+
+        assertThat(hedger.onStart()).isEqualTo(1000);
+        assertThat(hedger.getStats().samples()).isEqualTo(9);
+    }
+
+    @Test
+    void delayTracksConfiguredPercentile() {
+        StartHedger hedger = new StartHedger(config);
+        // 10..1000毫秒各一个样本，p90为900毫秒
+        for (int i = 1; i <= 100; i++) {
+            hedger.onStarted(i * 10L, false, false);
+        }
+
+        assertThat(hedger.onStart()).isEqualTo(900);
+
+        // 1..100毫秒时p90为90毫秒，低于下限取100毫秒
+        StartHedger fast = new StartHedger(config);
+        for (int i = 1; i <= 100; i++) {
+            fast.onStarted(i, false, false);
+        }
+        assertThat(fast.onStart()).isEqualTo(100);
+    }
+
+    @Test
+    void delayIsCappedAtMaxDelay() {
+        StartHedger hedger = new StartHedger(config);
+        for (int i = 0; i < 20; i++) {
+            hedger.onStarted(60_000, false, false);
+        }
+
+        assertThat(hedger.onStart()).isEqualTo(3000);
+    }
+
+    @Test
+    void onlyRecentSamplesCount() {
+        StartHedger hedger = new StartHedger(config);
+        for (int i = 0; i < 256; i++) {
+            hedger.onStarted(2000, false, false);
+        }
+        // 窗口为256个样本，新样本完全替换旧样本
+        for (int i = 0; i < 256; i++) {
+            hedger.onStarted(500, false, false);
+        }
+
+        assertThat(hedger.onStart()).isEqualTo(500);
+        assertThat(hedger.getStats().samples()).isEqualTo(256);
+    }
+
+    @Test
+    void hedgesStayWithinBudget() {
+        StartHedger hedger = new StartHedger(config);
+        for (int i = 0; i < 20; i++) {
+            hedger.onStart();
+        }
+
+        // 20次启动、10%预算：最多2次对冲
+        assertThat(hedger.tryHedge()).isTrue();
+        assertThat(hedger.tryHedge()).isTrue();
+        assertThat(hedger.tryHedge()).isFalse();
+
+        StartHedger.Stats stats = hedger.getStats();
+        assertThat(stats.hedges()).isEqualTo(2);
+        assertThat(stats.budgetRejected()).isEqualTo(1);
+        assertThat(stats.hedgeRate()).isEqualTo(0.1);
+    }
+
+    @Test
+    void delayDoesNotDriftDownWhenHedgesWin() {
+        StartHedger hedger = new StartHedger(config);
+        for (int i = 0; i < 20; i++) {
+            hedger.onStarted(800, false, false);
+        }
+        long previous = hedger.onStart();
+        assertThat(previous).isEqualTo(800);
+
+        // 原请求一直卡住，对冲发出后50毫秒胜出：样本从原请求发送时算起，为当前延迟+50毫秒。
+        // 若只记对冲自身的50毫秒，延迟会逐步降到下限
+        for (int i = 0; i < 256; i++) {
+            hedger.onStarted(previous + 50, true, true);
+            long delay = hedger.onStart();
+            assertThat(delay).isGreaterThanOrEqualTo(previous);
+            previous = delay;
+        }
+        assertThat(hedger.getStats().hedgeWins()).isEqualTo(256);
+    }
+
+    @Test
+    void countsWinnersOfHedgedStarts() {
+        StartHedger hedger = new StartHedger(config);
+
+        hedger.onStarted(800, true, true);
+        hedger.onStarted(900, true, false);
+        hedger.onStarted(100, false, false);
+
+        StartHedger.Stats stats = hedger.getStats();
+        assertThat(stats.hedgeWins()).isEqualTo(1);
+        assertThat(stats.primaryWins()).isEqualTo(1);
+        assertThat(stats.samples()).isEqualTo(3);
+    }
+}
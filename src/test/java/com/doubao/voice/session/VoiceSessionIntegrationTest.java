@@ -0,0 +1,284 @@
+package com.doubao.voice.session;
+
+import com.doubao.voice.client.DoubaoConnectionPool;
+import com.doubao.voice.client.DoubaoTransport;
+import com.doubao.voice.client.DoubaoWebSocketClient;
+import com.doubao.voice.config.DoubaoProperties;
+import com.doubao.voice.exception.DoubaoException;
+import com.doubao.voice.mock.Latency;
+import com.doubao.voice.mock.MockDoubaoServer;
+import com.doubao.voice.mock.MockScenario;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 会话对接本地模拟上游的端到端测试：连接、启动会话、语音和文本对话、多会话共享连接
+ */
+class VoiceSessionIntegrationTest {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private MockScenario scenario;
+    private MockDoubaoServer server;
+    private DoubaoProperties properties;
+    private DoubaoTransport transport;
+    private DoubaoConnectionPool pool;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        scenario = new MockScenario();
+        scenario.setConnectionStarted(Latency.fixed(5));
+        scenario.setSessionStarted(Latency.fixed(5));
+        scenario.setChatFirstToken(Latency.fixed(20));
+        scenario.setTtsFirstAudio(Latency.fixed(20));
+        scenario.setTtsMsPerChar(10);
+        scenario.setSpeechEndSilenceMs(200);
+        server = new MockDoubaoServer(scenario, 0).start();
+
+        properties = new DoubaoProperties();
+        properties.getApi().setUrl(server.getUrl());
+        properties.getApi().setAppId("test-app");
+        properties.getApi().setAccessKey("test-key");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+        if (transport != null) {
+            transport.shutdown();
+        }
+        server.close();
+    }
+
+    @Test
+    void voiceTurnDeliversTranscriptReplyAndAudio() throws Exception {
+        transport = new DoubaoTransport(properties);
+        VoiceSession session = new VoiceSession(transport);
+        List<VoiceSessionEvent> events = record(session);
+
+        session.connectAsync().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        session.startSessionAsync(SessionConfig.builder().build()).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertThat(session.getState()).isEqualTo(SessionState.SESSION_ACTIVE);
+
+        // 1秒语音，按客户端常见的不规则块大小发送
+        byte[] speech = tone(16000, 1000);
+        for (int offset = 0; offset < speech.length; offset += 1000) {
+            int length = Math.min(1000, speech.length - offset);
+            byte[] chunk = new byte[length];
+            System.arraycopy(speech, offset, chunk, 0, length);
+            session.sendAudio(chunk);
+        }
+
+        VoiceSessionEvent transcript = await(events, e -> e.getType() == VoiceSessionEvent.EventType.ASR_RESULT
+                && Boolean.FALSE.equals(e.getIsInterim()));
+        assertThat(transcript.getText()).isEqualTo(scenario.getTranscript());
+        await(events, e -> e.getType() == VoiceSessionEvent.EventType.TTS_ENDED);
+
+        assertThat(types(events)).contains(
+                VoiceSessionEvent.EventType.USER_SPEECH_STARTED,
+                VoiceSessionEvent.EventType.CHAT_RESPONSE,
+                VoiceSessionEvent.EventType.AUDIO_DATA);
+        String reply = events.stream()
+                .filter(e -> e.getType() == VoiceSessionEvent.EventType.CHAT_RESPONSE)
+                .map(VoiceSessionEvent::getText)
+                .reduce("", String::concat);
+        assertThat(reply).isEqualTo(scenario.getReplyText());
+        assertThat(server.getStats().audioBytesIn()).isEqualTo(speech.length);
+
+        session.endSessionAsync().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        session.disconnectAsync().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertThat(session.getState()).isEqualTo(SessionState.DISCONNECTED);
+    }
+
+    @Test
+    void sessionsSharingConnectionOnlyReceiveTheirOwnEvents() throws Exception {
+        properties.getTransport().setMaxSessionsPerConnection(2);
+        transport = new DoubaoTransport(properties);
+        VoiceSession first = new VoiceSession(transport);
+        VoiceSession second = new VoiceSession(transport);
+        List<VoiceSessionEvent> firstEvents = record(first);
+        List<VoiceSessionEvent> secondEvents = record(second);
+
+        for (VoiceSession session : List.of(first, second)) {
+            session.connectAsync().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            session.startSessionAsync(SessionConfig.builder().build()).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        }
+        assertThat(server.getStats().totalConnections()).isEqualTo(1);
+
+        first.sendTextQuery("你好", null);
+        await(firstEvents, e -> e.getType() == VoiceSessionEvent.EventType.TTS_ENDED);
+        assertThat(types(secondEvents)).doesNotContain(
+                VoiceSessionEvent.EventType.CHAT_RESPONSE, VoiceSessionEvent.EventType.AUDIO_DATA);
+
+        // 一个会话离开后，连接和另一个会话不受影响
+        first.disconnect();
+        second.sendTextQuery("你好", null);
+        await(secondEvents, e -> e.getType() == VoiceSessionEvent.EventType.TTS_ENDED);
+        assertThat(second.getState()).isEqualTo(SessionState.SESSION_ACTIVE);
+        assertThat(server.getStats().totalConnections()).isEqualTo(1);
+
+        second.disconnect();
+    }
+
+    @Test
+    void sessionFailureFailsStartFuture() throws Exception {
+        scenario.setSessionFailureRate(1);
+        transport = new DoubaoTransport(properties);
+        VoiceSession session = new VoiceSession(transport);
+
+        session.connectAsync().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        assertThatThrownBy(() -> session.startSessionAsync(SessionConfig.builder().build())
+                .get(TIMEOUT_SECONDS, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(DoubaoException.class);
+        assertThat(session.getState()).isEqualTo(SessionState.ERROR);
+        session.disconnect();
+    }
+
+    @Test
+    void midReplyDisconnectResumesSameDialogAndReplaysBufferedAudio() throws Exception {
+        scenario.setDisconnectRate(1);
+        // 重连前留出200~400毫秒的断线窗口
+        properties.getReconnect().setInitialDelay(400);
+        transport = new DoubaoTransport(properties);
+        VoiceSession session = new VoiceSession(transport);
+        List<VoiceSessionEvent> events = record(session);
+
+        session.connectAsync().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        session.startSessionAsync(SessionConfig.builder().build()).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        String dialogId = session.getDialogId();
+        assertThat(dialogId).isNotEmpty();
+
+        // 回复的TTS推送到一半时模拟上游断开
+        session.sendTextQuery("你好", null);
+        await(events, e -> e.getType() == VoiceSessionEvent.EventType.RECONNECTING);
+        scenario.setDisconnectRate(0);
+        assertThat(session.getState()).isEqualTo(SessionState.RECONNECTING);
+
+        // 断线期间的音频（静音，不触发新的对话轮次）暂存，恢复后补发
+        byte[] gapAudio = new byte[6400];
+        session.sendAudio(gapAudio);
+
+        VoiceSessionEvent reconnected = await(events, e -> e.getType() == VoiceSessionEvent.EventType.RECONNECTED);
+        assertThat(reconnected.getDialogId()).isEqualTo(dialogId);
+        assertThat(session.getDialogId()).isEqualTo(dialogId);
+        assertThat(session.getState()).isEqualTo(SessionState.SESSION_ACTIVE);
+        waitUntil(() -> server.getStats().audioBytesIn() == gapAudio.length, "补发断线期间的音频");
+        assertThat(server.getStats().injectedDisconnects()).isEqualTo(1);
+        assertThat(server.getStats().totalConnections()).isEqualTo(2);
+
+        session.disconnect();
+    }
+
+    @Test
+    void pooledClientIsReadyWithoutNewHandshake() throws Exception {
+        properties.getPool().setEnabled(true);
+        properties.getPool().setMinIdle(1);
+        properties.getPool().setHealthCheckInterval(50);
+        transport = new DoubaoTransport(properties);
+        pool = new DoubaoConnectionPool(transport);
+        waitUntil(() -> pool.getStats().idle() == 1, "预热连接就绪");
+
+        DoubaoWebSocketClient client = pool.acquire();
+        assertThat(client).isNotNull();
+        assertThat(client.isConnected()).isTrue();
+        assertThat(client.isConnectionStarted()).isTrue();
+
+        VoiceSession session = new VoiceSession(client);
+        assertThat(session.isWarm()).isTrue();
+        session.connectAsync().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        session.startSessionAsync(SessionConfig.builder().build()).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        // 上游的连接全部由连接池建立（取走的一条和补充的一条），会话本身没有新建连接
+        waitUntil(() -> pool.getStats().idle() == 1, "取走后补充预热连接");
+        DoubaoConnectionPool.Stats stats = pool.getStats();
+        assertThat(stats.hits()).isEqualTo(1);
+        assertThat(stats.created()).isEqualTo(2);
+        assertThat(server.getStats().totalConnections()).isEqualTo(stats.created());
+        assertThat(session.getState()).isEqualTo(SessionState.SESSION_ACTIVE);
+
+        session.disconnect();
+    }
+
+    @Test
+    void expiredPooledConnectionsAreReplaced() throws Exception {
+        properties.getPool().setEnabled(true);
+        properties.getPool().setMinIdle(1);
+        properties.getPool().setMaxAge(200);
+        properties.getPool().setHealthCheckInterval(50);
+        transport = new DoubaoTransport(properties);
+        pool = new DoubaoConnectionPool(transport);
+
+        waitUntil(() -> pool.getStats().evicted() >= 2, "过期连接被淘汰");
+        waitUntil(() -> pool.getStats().idle() == 1, "淘汰后补充预热连接");
+
+        // 淘汰的连接已断开，上游同时只保留补充后的连接
+        DoubaoConnectionPool.Stats stats = pool.getStats();
+        assertThat(stats.created()).isGreaterThan(stats.evicted());
+        waitUntil(() -> server.getStats().openConnections() <= 2, "淘汰的连接关闭");
+        assertThat(pool.acquire()).isNotNull();
+    }
+
+    private static List<VoiceSessionEvent> record(VoiceSession session) {
+        List<VoiceSessionEvent> events = new CopyOnWriteArrayList<>();
+        session.addEventListener(events::add);
+        return events;
+    }
+
+    private static VoiceSessionEvent await(List<VoiceSessionEvent> events, Predicate<VoiceSessionEvent> condition)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (System.nanoTime() < deadline) {
+            for (VoiceSessionEvent event : events) {
+                if (condition.test(event)) {
+                    return event;
+                }
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("等待事件超时，已收到: " + types(events));
+    }
+
+    private static void waitUntil(BooleanSupplier condition, String description) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("等待超时: " + description);
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    private static List<VoiceSessionEvent.EventType> types(List<VoiceSessionEvent> events) {
+        return events.stream().map(VoiceSessionEvent::getType).toList();
+    }
+
+    /**
+     * 440Hz PCM16单声道正弦波，音量足以超过模拟上游的语音阈值
+     */
+    private static byte[] tone(int sampleRate, int millis) {
+        int samples = sampleRate * millis / 1000;
+        ByteBuffer buffer = ByteBuffer.allocate(samples * 2).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < samples; i++) {
+            buffer.putShort((short) (8000 * Math.sin(2 * Math.PI * 440 * i / sampleRate)));
+        }
+        return buffer.array();
+    }
+}